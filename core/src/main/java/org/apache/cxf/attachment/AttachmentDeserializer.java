@@ -110,6 +110,12 @@ public class AttachmentDeserializer {
 
     private int maxHeaderLength = DEFAULT_MAX_HEADER_SIZE;
 
+    private boolean streamed;
+    private DelegatingInputStream current;
+    private int streamedCount;
+    private int maxCount;
+    private long maxSize;
+
     public AttachmentDeserializer(Message message) {
         this(message, Collections.singletonList("multipart/related"));
     }
@@ -126,21 +132,88 @@ public class AttachmentDeserializer {
     public void initializeAttachments() throws IOException {
         initializeRootMessage();
 
+        attachments = new LazyAttachmentCollection(this, getMaxCount());
+        message.setAttachments(attachments);
+    }
+
+    /**
+     * Prepares the deserializer for reading all the parts of the message, including the root one,
+     * one after another with {@link #readNextStreamed()}. Unlike with {@link #initializeAttachments()}
+     * the parts are neither cached in memory nor in temporary files: the stream of a part can only be
+     * read until the next part is requested, and the {@link #ATTACHMENT_MAX_SIZE} limit is enforced
+     * on each part while it is being read.
+     */
+    public void initializeStreamedAttachments() throws IOException {
+        streamed = true;
+        maxCount = getMaxCount();
+        maxSize = getMaxSize();
+        if (!initializeBoundary()) {
+            throw new IOException("Unsupported multipart Content-Type: " + contentType);
+        }
+    }
+
+    /**
+     * Returns the next part of the message initialized with {@link #initializeStreamedAttachments()},
+     * skipping whatever has not been read from the previous one
+     *
+     * @return the next part or null if all the parts have been read
+     */
+    public AttachmentImpl readNextStreamed() throws IOException {
+        if (!streamed) {
+            throw new IllegalStateException("The attachments have not been initialized for streaming");
+        }
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+        int v = stream.read();
+        if (v == -1) {
+            return null;
+        }
+        stream.unread(v);
+        if (++streamedCount > maxCount) {
+            throw new IOException("The message contains more attachments than are permitted");
+        }
+
+        Map<String, List<String>> headers = loadPartHeaders(stream);
+        InputStream partStream = new MimeBodyPartInputStream(stream, boundary, PUSHBACK_AMOUNT);
+        if (maxSize >= 0) {
+            partStream = new SizeLimitedInputStream(partStream, maxSize);
+        }
+        current = new DelegatingInputStream(partStream, this);
+        createCount++;
+        return (AttachmentImpl)AttachmentUtil.createAttachment(current, headers);
+    }
+
+    private int getMaxCount() {
         Object maxCountProperty = message.getContextualProperty(AttachmentDeserializer.ATTACHMENT_MAX_COUNT);
-        int maxCount = 50;
         if (maxCountProperty != null) {
             if (maxCountProperty instanceof Integer) {
-                maxCount = (Integer)maxCountProperty;
-            } else {
-                maxCount = Integer.parseInt((String)maxCountProperty);
+                return (Integer)maxCountProperty;
             }
+            return Integer.parseInt((String)maxCountProperty);
         }
+        return 50;
+    }
 
-        attachments = new LazyAttachmentCollection(this, maxCount);
-        message.setAttachments(attachments);
+    private long getMaxSize() throws IOException {
+        Object maxSizeProperty = message.getContextualProperty(ATTACHMENT_MAX_SIZE);
+        if (maxSizeProperty instanceof Number) {
+            return ((Number)maxSizeProperty).longValue();
+        } else if (maxSizeProperty instanceof String) {
+            try {
+                return Long.parseLong((String)maxSizeProperty);
+            } catch (NumberFormatException e) {
+                throw new IOException("Provided max size String is not a number", e);
+            }
+        } else if (maxSizeProperty != null) {
+            throw new IOException("The value set as " + ATTACHMENT_MAX_SIZE
+                    + " should be either an instance of Number or String");
+        }
+        return -1;
     }
 
-    protected void initializeRootMessage() throws IOException {
+    private boolean initializeBoundary() throws IOException {
         contentType = (String) message.get(Message.CONTENT_TYPE);
 
         if (contentType == null) {
@@ -151,22 +224,28 @@ public class AttachmentDeserializer {
             throw new IllegalStateException("An InputStream must be provided!");
         }
 
-        if (AttachmentUtil.isTypeSupported(contentType.toLowerCase(), supportedTypes)) {
-            String boundaryString = findBoundaryFromContentType(contentType);
-            if (null == boundaryString) {
-                boundaryString = findBoundaryFromInputStream();
-            }
-            // If a boundary still wasn't found, throw an exception
-            if (null == boundaryString) {
-                throw new IOException("Couldn't determine the boundary from the message!");
-            }
-            boundary = boundaryString.getBytes("utf-8");
+        if (!AttachmentUtil.isTypeSupported(contentType.toLowerCase(), supportedTypes)) {
+            return false;
+        }
+        String boundaryString = findBoundaryFromContentType(contentType);
+        if (null == boundaryString) {
+            boundaryString = findBoundaryFromInputStream();
+        }
+        // If a boundary still wasn't found, throw an exception
+        if (null == boundaryString) {
+            throw new IOException("Couldn't determine the boundary from the message!");
+        }
+        boundary = boundaryString.getBytes("utf-8");
 
-            stream = new PushbackInputStream(message.getContent(InputStream.class), PUSHBACK_AMOUNT);
-            if (!readTillFirstBoundary(stream, boundary)) {
-                throw new IOException("Couldn't find MIME boundary: " + boundaryString);
-            }
+        stream = new PushbackInputStream(message.getContent(InputStream.class), PUSHBACK_AMOUNT);
+        if (!readTillFirstBoundary(stream, boundary)) {
+            throw new IOException("Couldn't find MIME boundary: " + boundaryString);
+        }
+        return true;
+    }
 
+    protected void initializeRootMessage() throws IOException {
+        if (initializeBoundary()) {
             Map<String, List<String>> ih = loadPartHeaders(stream);
             message.put(ATTACHMENT_PART_HEADERS, ih);
             String val = AttachmentUtil.getHeader(ih, "Content-Type", "; ");
@@ -338,7 +417,7 @@ public class AttachmentDeserializer {
 
     public void markClosed(DelegatingInputStream delegatingInputStream) throws IOException {
         closedCount++;
-        if (closedCount == createCount && !attachments.hasNext(false)) {
+        if (closedCount == createCount && attachments != null && !attachments.hasNext(false)) {
             int x = stream.read();
             while (x != -1) {
                 x = stream.read();
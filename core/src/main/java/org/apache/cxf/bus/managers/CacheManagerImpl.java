@@ -0,0 +1,112 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.bus.managers;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.Resource;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.buslifecycle.BusLifeCycleListener;
+import org.apache.cxf.buslifecycle.BusLifeCycleManager;
+import org.apache.cxf.cache.Cache;
+import org.apache.cxf.cache.CacheConfiguration;
+import org.apache.cxf.cache.CacheManager;
+import org.apache.cxf.cache.LocalCache;
+import org.apache.cxf.common.injection.NoJSR250Annotations;
+
+/**
+ * The embedded {@link CacheManager}, which keeps the named caches in memory using {@link LocalCache}.
+ * Registering an instance with the Bus makes the replay caches, TokenStores etc. use it.
+ */
+@NoJSR250Annotations(unlessNull = "bus")
+public class CacheManagerImpl implements CacheManager {
+
+    private final Map<String, Cache<?, ?>> caches = new ConcurrentHashMap<>();
+    private CacheConfiguration defaultConfiguration = new CacheConfiguration();
+    private Bus bus;
+
+    public CacheManagerImpl() {
+    }
+
+    public CacheManagerImpl(Bus b) {
+        setBus(b);
+    }
+
+    public Bus getBus() {
+        return bus;
+    }
+
+    @Resource
+    public final void setBus(Bus bus) {
+        this.bus = bus;
+        if (null != bus) {
+            bus.setExtension(this, CacheManager.class);
+            BusLifeCycleManager lifeCycleManager = bus.getExtension(BusLifeCycleManager.class);
+            if (null != lifeCycleManager) {
+                lifeCycleManager.registerLifeCycleListener(new CacheLifeCycleListener());
+            }
+        }
+    }
+
+    public CacheConfiguration getDefaultConfiguration() {
+        return defaultConfiguration;
+    }
+
+    /**
+     * Set the configuration used for the caches which are requested without one.
+     */
+    public void setDefaultConfiguration(CacheConfiguration defaultConfiguration) {
+        this.defaultConfiguration = defaultConfiguration;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <K, V> Cache<K, V> getCache(String name, CacheConfiguration configuration) {
+        return (Cache<K, V>)caches.computeIfAbsent(name, n ->
+            new LocalCache<K, V>(n, configuration == null ? defaultConfiguration : configuration));
+    }
+
+    @Override
+    public void removeCache(String name) {
+        Cache<?, ?> cache = caches.remove(name);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    public void shutdown() {
+        for (Cache<?, ?> cache : caches.values()) {
+            cache.clear();
+        }
+        caches.clear();
+    }
+
+    class CacheLifeCycleListener implements BusLifeCycleListener {
+        public void initComplete() {
+        }
+        public void preShutdown() {
+        }
+        public void postShutdown() {
+            CacheManagerImpl.this.shutdown();
+        }
+    }
+}
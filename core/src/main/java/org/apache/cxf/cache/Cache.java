@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.cache;
+
+import java.util.function.BiConsumer;
+
+/**
+ * A key/value cache with per-entry expiry, obtained from a {@link CacheManager}. A cache
+ * configured with a maximum number of entries may evict live entries when it is full, so
+ * users which must not lose live entries (replay caches, OAuth clients and tokens) request
+ * an unbounded cache. Implementations must be thread-safe.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public interface Cache<K, V> {
+
+    /**
+     * Get the name of this cache.
+     */
+    String getName();
+
+    /**
+     * Get the value cached for the given key, or null if there is none or it has expired.
+     */
+    V get(K key);
+
+    /**
+     * Cache the given value using the default time to live of this cache.
+     */
+    void put(K key, V value);
+
+    /**
+     * Cache the given value for the given time to live (in milliseconds). A time to live
+     * of zero or less means the default time to live of this cache is used.
+     */
+    void put(K key, V value, long timeToLive);
+
+    /**
+     * Cache the given value for the given time to live (in milliseconds), unless a non-expired
+     * value is already cached for the key.
+     *
+     * @return the value that is already cached, or null if the given value was added
+     */
+    V putIfAbsent(K key, V value, long timeToLive);
+
+    /**
+     * Remove the value cached for the given key.
+     *
+     * @return the removed value, or null if there was none
+     */
+    V remove(K key);
+
+    /**
+     * Returns true if a non-expired value is cached for the given key.
+     */
+    boolean containsKey(K key);
+
+    /**
+     * Performs the given action for each non-expired entry of the cache.
+     */
+    void forEach(BiConsumer<? super K, ? super V> action);
+
+    /**
+     * Get the (approximate) number of cached entries.
+     */
+    long size();
+
+    /**
+     * Remove all the cached entries.
+     */
+    void clear();
+}
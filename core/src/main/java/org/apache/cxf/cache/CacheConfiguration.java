@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.cache;
+
+/**
+ * The configuration of a {@link Cache}: the default time to live of the entries
+ * and the maximum number of entries. A time to live of zero or less means the entries
+ * do not expire, and a maximum of zero or less means the cache is not bounded (it is
+ * then only ever shrunk by expiry and explicit removal).
+ */
+public class CacheConfiguration {
+
+    public static final long DEFAULT_TIME_TO_LIVE = 5L * 60L * 1000L;
+    public static final long DEFAULT_MAX_ENTRIES = 10000L;
+
+    private long timeToLive = DEFAULT_TIME_TO_LIVE;
+    private long maxEntries = DEFAULT_MAX_ENTRIES;
+
+    public CacheConfiguration() {
+    }
+
+    /**
+     * @param timeToLive the default time to live of the entries, in milliseconds
+     * @param maxEntries the maximum number of entries, zero or less for an unbounded cache
+     */
+    public CacheConfiguration(long timeToLive, long maxEntries) {
+        this.timeToLive = timeToLive;
+        this.maxEntries = maxEntries;
+    }
+
+    public long getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(long timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+
+    public long getMaxEntries() {
+        return maxEntries;
+    }
+
+    public boolean isBounded() {
+        return maxEntries > 0;
+    }
+
+    public void setMaxEntries(long maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.cache;
+
+/**
+ * A Bus extension that provides named caches. It is used (when registered on the Bus) by
+ * the WS-Security replay caches and TokenStores, the STS identity cache and the OAuth2
+ * CacheManagerOAuthDataProvider, so that all of them can share a single (possibly
+ * clustered) cache implementation.
+ */
+public interface CacheManager {
+
+    /**
+     * Get the named cache, creating it with the given configuration if it does not exist yet.
+     */
+    <K, V> Cache<K, V> getCache(String name, CacheConfiguration configuration);
+
+    /**
+     * Remove (and clear) the named cache.
+     */
+    void removeCache(String name);
+}
@@ -0,0 +1,238 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.cache;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * An embedded, in-memory {@link Cache}. The entries are spread over a number of independently
+ * locked segments, each of which is optionally bounded (least recently used entries are evicted
+ * first), and every entry carries its own expiry time. Expired entries are never returned; they
+ * are removed on access and by a periodic purge of a segment, which runs once the number of
+ * writes to the segment since its last purge reaches the size it had after that purge, so that the cost of purging
+ * stays constant per write on average.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public class LocalCache<K, V> implements Cache<K, V> {
+
+    private static final int DEFAULT_SEGMENTS = 16;
+    private static final int MIN_WRITES_BETWEEN_PURGES = 64;
+
+    private final String name;
+    private final long timeToLive;
+    private final Segment<K, V>[] segments;
+
+    public LocalCache(String name, CacheConfiguration configuration) {
+        this(name, configuration, DEFAULT_SEGMENTS);
+    }
+
+    @SuppressWarnings("unchecked")
+    public LocalCache(String name, CacheConfiguration configuration, int concurrency) {
+        this.name = name;
+        this.timeToLive = configuration.getTimeToLive();
+        int segmentCount;
+        int segmentSize;
+        if (configuration.isBounded()) {
+            long maxEntries = configuration.getMaxEntries();
+            segmentCount = (int)Math.max(1L, Math.min(concurrency, maxEntries));
+            segmentSize = (int)Math.min(Integer.MAX_VALUE, (maxEntries + segmentCount - 1) / segmentCount);
+        } else {
+            segmentCount = Math.max(1, concurrency);
+            segmentSize = Integer.MAX_VALUE;
+        }
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentSize);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        long now = System.currentTimeMillis();
+        synchronized (segment) {
+            Entry<V> entry = segment.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.isExpired(now)) {
+                segment.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    @Override
+    public void put(K key, V value) {
+        put(key, value, timeToLive);
+    }
+
+    @Override
+    public void put(K key, V value, long ttl) {
+        Segment<K, V> segment = segmentFor(key);
+        long now = System.currentTimeMillis();
+        synchronized (segment) {
+            segment.write(key, new Entry<>(value, expiry(now, ttl)), now);
+        }
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value, long ttl) {
+        Segment<K, V> segment = segmentFor(key);
+        long now = System.currentTimeMillis();
+        synchronized (segment) {
+            Entry<V> entry = segment.get(key);
+            if (entry != null && !entry.isExpired(now)) {
+                return entry.value;
+            }
+            segment.write(key, new Entry<>(value, expiry(now, ttl)), now);
+            return null;
+        }
+    }
+
+    @Override
+    public V remove(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            Entry<V> entry = segment.remove(key);
+            return entry == null || entry.isExpired(System.currentTimeMillis()) ? null : entry.value;
+        }
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (Segment<K, V> segment : segments) {
+            List<Map.Entry<K, V>> entries;
+            long now = System.currentTimeMillis();
+            synchronized (segment) {
+                segment.purgeExpired(now);
+                entries = new ArrayList<>(segment.size());
+                for (Map.Entry<K, Entry<V>> e : segment.entrySet()) {
+                    entries.add(new AbstractMap.SimpleImmutableEntry<>(e.getKey(), e.getValue().value));
+                }
+            }
+            // Call the action outside of the lock, so it may safely access the cache
+            for (Map.Entry<K, V> e : entries) {
+                action.accept(e.getKey(), e.getValue());
+            }
+        }
+    }
+
+    @Override
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    private long expiry(long now, long ttl) {
+        long effectiveTtl = ttl > 0 ? ttl : timeToLive;
+        if (effectiveTtl <= 0 || Long.MAX_VALUE - now < effectiveTtl) {
+            return Long.MAX_VALUE;
+        }
+        return now + effectiveTtl;
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;
+        return segments[(h & Integer.MAX_VALUE) % segments.length];
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expires;
+
+        Entry(V value, long expires) {
+            this.value = value;
+            this.expires = expires;
+        }
+
+        boolean isExpired(long now) {
+            return expires < now;
+        }
+    }
+
+    private static final class Segment<K, V> extends LinkedHashMap<K, Entry<V>> {
+        private static final long serialVersionUID = 1L;
+        private final int maxEntries;
+        private int writesSincePurge;
+        private int writesBetweenPurges = MIN_WRITES_BETWEEN_PURGES;
+
+        Segment(int maxEntries) {
+            super(16, 0.75f, true);
+            this.maxEntries = maxEntries;
+        }
+
+        void write(K key, Entry<V> entry, long now) {
+            if (++writesSincePurge >= writesBetweenPurges) {
+                purgeExpired(now);
+            }
+            put(key, entry);
+        }
+
+        void purgeExpired(long now) {
+            writesSincePurge = 0;
+            for (Iterator<Entry<V>> it = values().iterator(); it.hasNext();) {
+                if (it.next().isExpired(now)) {
+                    it.remove();
+                }
+            }
+            writesBetweenPurges = Math.max(MIN_WRITES_BETWEEN_PURGES, size());
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+            return size() > maxEntries;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.io;
+
+/**
+ * Implemented by InputStreams which can tell when their data can be read without blocking,
+ * typically the ones fed by a non-blocking transport. It allows the data to be consumed as it
+ * arrives instead of by a thread blocked in read().
+ *
+ */
+public interface ReadListenerInputStream {
+
+    /**
+     * Sets the listener called, possibly from an I/O thread, when data becomes available or
+     * the end of the stream is reached; it is called immediately if that is already the case.
+     * The listener should not block, once it has been called the bytes returned by available()
+     * can be read without blocking.
+     */
+    void setReadListener(Runnable listener);
+
+    /**
+     * @return true if the end of the stream has been reached and all the data has been read
+     */
+    boolean isFinished();
+
+}
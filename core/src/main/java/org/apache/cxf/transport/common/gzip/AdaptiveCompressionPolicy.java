@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.common.gzip;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decides, per content type, whether compressing is paying off. The results of the last
+ * {@link #getSampleSize() sample size} compressed messages of a content type are collected;
+ * once the window is full the content type is switched off if the compressed size exceeded
+ * {@link #getMaxRatio() the maximum ratio} of the original, or if the deflater spent more
+ * than {@link #getMaxNanosPerSavedByte()} nanoseconds for each byte it saved. While a content
+ * type is switched off, one in every sample size messages is still compressed so the
+ * decision is revisited when the payloads change.
+ */
+final class AdaptiveCompressionPolicy {
+
+    private static final int MAX_CONTENT_TYPES = 256;
+    private static final String OTHER = "*";
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private volatile int sampleSize = 16;
+    private volatile double maxRatio = 0.9d;
+    private volatile long maxNanosPerSavedByte;
+
+    boolean shouldCompress(String contentType) {
+        Window w = windows.get(key(contentType));
+        if (w == null || !w.skip) {
+            return true;
+        }
+        return w.skipped.incrementAndGet() % sampleSize == 0;
+    }
+
+    void record(String contentType, long bytesIn, long bytesOut, long nanos) {
+        Window w = windows.computeIfAbsent(key(contentType), k -> new Window());
+        synchronized (w) {
+            w.bytesIn += bytesIn;
+            w.bytesOut += bytesOut;
+            w.nanos += nanos;
+            if (++w.samples >= sampleSize) {
+                w.skip = !worthwhile(w.bytesIn, w.bytesOut, w.nanos);
+                w.bytesIn = 0;
+                w.bytesOut = 0;
+                w.nanos = 0;
+                w.samples = 0;
+            }
+        }
+    }
+
+    boolean worthwhile(long bytesIn, long bytesOut, long nanos) {
+        if (bytesIn <= 0) {
+            return true;
+        }
+        if ((double)bytesOut / bytesIn > maxRatio) {
+            return false;
+        }
+        long saved = bytesIn - bytesOut;
+        return maxNanosPerSavedByte <= 0 || saved > 0 && nanos / saved <= maxNanosPerSavedByte;
+    }
+
+    private String key(String contentType) {
+        if (contentType == null) {
+            return "";
+        }
+        int idx = contentType.indexOf(';');
+        String key = (idx == -1 ? contentType : contentType.substring(0, idx)).trim();
+        return windows.containsKey(key) || windows.size() < MAX_CONTENT_TYPES ? key : OTHER;
+    }
+
+    int getSampleSize() {
+        return sampleSize;
+    }
+
+    void setSampleSize(int sampleSize) {
+        this.sampleSize = Math.max(1, sampleSize);
+    }
+
+    double getMaxRatio() {
+        return maxRatio;
+    }
+
+    void setMaxRatio(double maxRatio) {
+        this.maxRatio = maxRatio;
+    }
+
+    long getMaxNanosPerSavedByte() {
+        return maxNanosPerSavedByte;
+    }
+
+    void setMaxNanosPerSavedByte(long maxNanosPerSavedByte) {
+        this.maxNanosPerSavedByte = maxNanosPerSavedByte;
+    }
+
+    private static final class Window {
+        final AtomicInteger skipped = new AtomicInteger();
+        volatile boolean skip;
+        long bytesIn;
+        long bytesOut;
+        long nanos;
+        int samples;
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.common.gzip;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.apache.cxf.common.util.SystemPropertyAction;
+
+/**
+ * A bounded pool of raw (nowrap) {@link Deflater} and {@link Inflater} instances. Both hold
+ * native zlib state that is comparatively expensive to allocate and is otherwise only freed
+ * once the garbage collector gets around to it, so the gzip streams borrow them from here for
+ * the lifetime of a single message and hand them back when the message has been processed.
+ */
+final class CompressorPool {
+
+    /**
+     * System property controlling the number of idle instances of each kind kept in the
+     * shared pool.
+     */
+    static final String MAX_IDLE_PROPERTY = "org.apache.cxf.transport.common.gzip.maxPooled";
+
+    private static final CompressorPool DEFAULT =
+        new CompressorPool(SystemPropertyAction.getInteger(MAX_IDLE_PROPERTY, 64));
+
+    private final int maxIdle;
+    private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+    private final Queue<Inflater> inflaters = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleDeflaters = new AtomicInteger();
+    private final AtomicInteger idleInflaters = new AtomicInteger();
+
+    CompressorPool(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    static CompressorPool getDefault() {
+        return DEFAULT;
+    }
+
+    Deflater acquireDeflater(int level) {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            return new Deflater(level, true);
+        }
+        idleDeflaters.decrementAndGet();
+        deflater.setLevel(level);
+        return deflater;
+    }
+
+    void releaseDeflater(Deflater deflater) {
+        if (idleDeflaters.incrementAndGet() > maxIdle) {
+            idleDeflaters.decrementAndGet();
+            deflater.end();
+            return;
+        }
+        deflater.reset();
+        deflaters.offer(deflater);
+    }
+
+    Inflater acquireInflater() {
+        Inflater inflater = inflaters.poll();
+        if (inflater == null) {
+            return new Inflater(true);
+        }
+        idleInflaters.decrementAndGet();
+        return inflater;
+    }
+
+    void releaseInflater(Inflater inflater) {
+        if (idleInflaters.incrementAndGet() > maxIdle) {
+            idleInflaters.decrementAndGet();
+            inflater.end();
+            return;
+        }
+        inflater.reset();
+        inflaters.offer(inflater);
+    }
+
+    int getIdleDeflaters() {
+        return idleDeflaters.get();
+    }
+
+    int getIdleInflaters() {
+        return idleInflaters.get();
+    }
+}
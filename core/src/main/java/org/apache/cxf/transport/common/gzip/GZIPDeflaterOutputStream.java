@@ -0,0 +1,127 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.common.gzip;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes the gzip (RFC 1952) format using a {@link Deflater} borrowed from a
+ * {@link CompressorPool}. Unlike {@link java.util.zip.GZIPOutputStream} this allows the
+ * compression level to be chosen and the native deflater to be reused; the deflater is
+ * handed back to the pool as soon as the stream is finished.
+ */
+final class GZIPDeflaterOutputStream extends DeflaterOutputStream {
+
+    /**
+     * Notified once the stream has been finished.
+     */
+    interface CompressionListener {
+        void compressed(long bytesIn, long bytesOut, long nanos);
+    }
+
+    private static final int HEADER_LENGTH = 10;
+    private static final int TRAILER_LENGTH = 8;
+    private static final byte[] HEADER = {
+        (byte)0x1f, (byte)0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte)0xff
+    };
+
+    private final CRC32 crc = new CRC32();
+    private final CompressorPool pool;
+    private final CompressionListener listener;
+    private long nanos;
+
+    GZIPDeflaterOutputStream(OutputStream out, CompressorPool pool, int level, int size,
+                             CompressionListener listener) throws IOException {
+        super(out, pool.acquireDeflater(level), size);
+        this.pool = pool;
+        this.listener = listener;
+        try {
+            out.write(HEADER);
+        } catch (IOException ex) {
+            release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (def == null) {
+            throw new IOException("write beyond end of stream");
+        }
+        super.write(b, off, len);
+        crc.update(b, off, len);
+    }
+
+    @Override
+    protected void deflate() throws IOException {
+        long start = System.nanoTime();
+        int len = def.deflate(buf, 0, buf.length);
+        nanos += System.nanoTime() - start;
+        if (len > 0) {
+            out.write(buf, 0, len);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (def == null) {
+            return;
+        }
+        try {
+            def.finish();
+            while (!def.finished()) {
+                deflate();
+            }
+            writeTrailer();
+            if (listener != null) {
+                listener.compressed(def.getBytesRead(),
+                                    def.getBytesWritten() + HEADER_LENGTH + TRAILER_LENGTH,
+                                    nanos);
+            }
+        } finally {
+            release();
+        }
+    }
+
+    private void writeTrailer() throws IOException {
+        byte[] trailer = new byte[TRAILER_LENGTH];
+        writeInt((int)crc.getValue(), trailer, 0);
+        writeInt((int)def.getBytesRead(), trailer, 4);
+        out.write(trailer);
+    }
+
+    private static void writeInt(int i, byte[] b, int offset) {
+        b[offset] = (byte)i;
+        b[offset + 1] = (byte)(i >> 8);
+        b[offset + 2] = (byte)(i >> 16);
+        b[offset + 3] = (byte)(i >> 24);
+    }
+
+    private void release() {
+        if (def != null) {
+            pool.releaseDeflater(def);
+            def = null;
+        }
+    }
+}
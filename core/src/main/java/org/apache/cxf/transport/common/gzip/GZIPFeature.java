@@ -19,6 +19,8 @@
 package org.apache.cxf.transport.common.gzip;
 
 import java.util.List;
+import java.util.Set;
+import java.util.zip.Deflater;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.annotations.Provider;
@@ -77,6 +79,30 @@ public class GZIPFeature extends DelegatingFeature<GZIPFeature.Portable> {
         return delegate.getForce();
     }
 
+    public void setCompressionLevel(int level) {
+        delegate.setCompressionLevel(level);
+    }
+
+    public int getCompressionLevel() {
+        return delegate.getCompressionLevel();
+    }
+
+    public void setExcludedContentTypes(Set<String> types) {
+        delegate.setExcludedContentTypes(types);
+    }
+
+    public Set<String> getExcludedContentTypes() {
+        return delegate.getExcludedContentTypes();
+    }
+
+    public void setAdaptive(boolean b) {
+        delegate.setAdaptive(b);
+    }
+
+    public boolean isAdaptive() {
+        return delegate.isAdaptive();
+    }
+
     public static class Portable implements AbstractPortableFeature {
         private static final GZIPInInterceptor IN = new GZIPInInterceptor();
         private static final GZIPOutInterceptor OUT = new GZIPOutInterceptor();
@@ -91,17 +117,37 @@ public class GZIPFeature extends DelegatingFeature<GZIPFeature.Portable> {
          */
         boolean force;
 
+        /**
+         * The deflate compression level to pass to the outgoing interceptor.
+         */
+        int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+        /**
+         * Content types which are never compressed.
+         */
+        Set<String> excludedContentTypes;
+
+        /**
+         * Skip compression for content types which do not compress well
+         */
+        boolean adaptive;
 
         @Override
         public void doInitializeProvider(InterceptorProvider provider, Bus bus) {
             provider.getInInterceptors().add(IN);
-            if (threshold == -1 && !force) {
+            if (threshold == -1 && !force && compressionLevel == Deflater.DEFAULT_COMPRESSION
+                && excludedContentTypes == null && !adaptive) {
                 provider.getOutInterceptors().add(OUT);
                 provider.getOutFaultInterceptors().add(OUT);
             } else {
                 GZIPOutInterceptor out = new GZIPOutInterceptor();
-                out.setThreshold(threshold);
+                if (threshold != -1) {
+                    out.setThreshold(threshold);
+                }
                 out.setForce(force);
+                out.setCompressionLevel(compressionLevel);
+                out.setExcludedContentTypes(excludedContentTypes);
+                out.setAdaptive(adaptive);
                 remove(provider.getOutInterceptors());
                 remove(provider.getOutFaultInterceptors());
                 provider.getOutInterceptors().add(out);
@@ -142,5 +188,33 @@ public class GZIPFeature extends DelegatingFeature<GZIPFeature.Portable> {
         public boolean getForce() {
             return force;
         }
+
+        public void setCompressionLevel(int level) {
+            compressionLevel = level;
+        }
+
+        public int getCompressionLevel() {
+            return compressionLevel;
+        }
+
+        public void setExcludedContentTypes(Set<String> types) {
+            excludedContentTypes = types;
+        }
+
+        public Set<String> getExcludedContentTypes() {
+            return excludedContentTypes;
+        }
+
+        /**
+         * Set if compression is skipped for content types for which it does not pay off
+         * @param b
+         */
+        public void setAdaptive(boolean b) {
+            adaptive = b;
+        }
+
+        public boolean isAdaptive() {
+            return adaptive;
+        }
     }
 }
@@ -24,7 +24,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.logging.Logger;
-import java.util.zip.GZIPInputStream;
 
 import org.apache.cxf.common.i18n.BundleUtils;
 import org.apache.cxf.common.logging.LogUtils;
@@ -47,12 +46,19 @@ import org.apache.cxf.phase.Phase;
  * to let the server know you can handle compressed responses. To compress
  * outgoing messages, see {@link GZIPOutInterceptor}. This class was originally
  * based on one of the CXF samples (configuration_interceptor).
+ * <p>
+ * The inflaters are pooled and the work done is recorded in the interceptor's
+ * {@link GZIPStatistics}.
  */
 public class GZIPInInterceptor extends AbstractPhaseInterceptor<Message> {
 
 
     private static final ResourceBundle BUNDLE = BundleUtils.getBundle(GZIPInInterceptor.class);
     private static final Logger LOG = LogUtils.getL7dLogger(GZIPInInterceptor.class);
+    private static final int BUFFER_SIZE = 8192;
+
+    private GZIPStatistics statistics = new GZIPStatistics();
+    private CompressorPool pool = CompressorPool.getDefault();
 
     public GZIPInInterceptor() {
         super(Phase.RECEIVE);
@@ -83,7 +89,9 @@ public class GZIPInInterceptor extends AbstractPhaseInterceptor<Message> {
                     }
 
                     // wrap an unzipping stream around the original one
-                    GZIPInputStream zipInput = new GZIPInputStream(is);
+                    final GZIPStatistics stats = statistics;
+                    InputStream zipInput = new GZIPInflaterInputStream(is, pool, BUFFER_SIZE,
+                        stats::messageDecompressed);
                     message.setContent(InputStream.class, zipInput);
 
                     // remove content encoding header as we've now dealt with it
@@ -107,4 +115,15 @@ public class GZIPInInterceptor extends AbstractPhaseInterceptor<Message> {
         }
     }
 
+    public GZIPStatistics getStatistics() {
+        return statistics;
+    }
+
+    public void setStatistics(GZIPStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    void setCompressorPool(CompressorPool compressorPool) {
+        this.pool = compressorPool;
+    }
 }
@@ -0,0 +1,238 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.transport.common.gzip;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Reads the gzip (RFC 1952) format, including concatenated members, using an
+ * {@link java.util.zip.Inflater} borrowed from a {@link CompressorPool}. The inflater is
+ * handed back to the pool once the end of the compressed data has been reached or the
+ * stream is closed, whichever happens first.
+ */
+final class GZIPInflaterInputStream extends InflaterInputStream {
+
+    /**
+     * Notified once the inflater has been released.
+     */
+    interface DecompressionListener {
+        void decompressed(long bytesIn, long bytesOut, long nanos);
+    }
+
+    // member header fields, RFC 1952 section 2.3.1
+    private static final int ID1 = 0x1f;
+    private static final int ID2 = 0x8b;
+    private static final int CM_DEFLATE = 8;
+    private static final int FLG_FHCRC = 0x02;
+    private static final int FLG_FEXTRA = 0x04;
+    private static final int FLG_FNAME = 0x08;
+    private static final int FLG_FCOMMENT = 0x10;
+    private static final int FLG_RESERVED = 0xe0;
+    // MTIME (4 bytes), XFL and OS
+    private static final int FIXED_FIELDS_LENGTH = 6;
+
+    private final CRC32 dataCrc = new CRC32();
+    private final CRC32 headerCrc = new CRC32();
+    private final CompressorPool pool;
+    private final DecompressionListener listener;
+    // compressed bytes left at the end of buf which the inflater did not consume
+    private int unconsumed;
+    private boolean eos;
+    private long bytesIn;
+    private long bytesOut;
+    private long nanos;
+
+    GZIPInflaterInputStream(InputStream in, CompressorPool pool, int size,
+                            DecompressionListener listener) throws IOException {
+        super(in, pool.acquireInflater(), size);
+        this.pool = pool;
+        this.listener = listener;
+        try {
+            readMemberHeader(requireByte());
+        } catch (IOException ex) {
+            release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        while (!eos) {
+            long start = System.nanoTime();
+            int n = super.read(b, off, len);
+            nanos += System.nanoTime() - start;
+            if (n != -1) {
+                dataCrc.update(b, off, n);
+                bytesOut += n;
+                return n;
+            }
+            if (!startNextMember()) {
+                eos = true;
+                release();
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    protected void fill() throws IOException {
+        // the time spent waiting for compressed input is not decompression time
+        long start = System.nanoTime();
+        super.fill();
+        nanos -= System.nanoTime() - start;
+        bytesIn += len;
+    }
+
+    @Override
+    public int available() throws IOException {
+        return eos ? 0 : super.available();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            eos = true;
+            release();
+        }
+    }
+
+    private void release() {
+        if (inf != null) {
+            pool.releaseInflater(inf);
+            inf = null;
+            if (listener != null) {
+                listener.decompressed(bytesIn, bytesOut, Math.max(nanos, 0));
+            }
+        }
+    }
+
+    /**
+     * Verifies the trailer of the member the inflater has just finished and, if another
+     * member follows, prepares the inflater for it. Anything after the last member which
+     * does not start with the gzip magic number is ignored.
+     */
+    private boolean startNextMember() throws IOException {
+        unconsumed = inf.getRemaining();
+        long crc32 = readUInt32();
+        long isize = readUInt32();
+        if (crc32 != dataCrc.getValue()) {
+            throw new ZipException("gzip member CRC32 mismatch");
+        }
+        if (isize != (inf.getBytesWritten() & 0xffffffffL)) {
+            throw new ZipException("gzip member ISIZE mismatch");
+        }
+
+        int next = nextByte();
+        if (next != ID1) {
+            return false;
+        }
+        readMemberHeader(next);
+        dataCrc.reset();
+        inf.reset();
+        if (unconsumed > 0) {
+            inf.setInput(buf, len - unconsumed, unconsumed);
+            unconsumed = 0;
+        }
+        return true;
+    }
+
+    private void readMemberHeader(int id1) throws IOException {
+        headerCrc.reset();
+        headerCrc.update(id1);
+        if (id1 != ID1 || readHeaderByte() != ID2) {
+            throw new ZipException("Not in GZIP format");
+        }
+        if (readHeaderByte() != CM_DEFLATE) {
+            throw new ZipException("Unsupported gzip compression method");
+        }
+        int flags = readHeaderByte();
+        if ((flags & FLG_RESERVED) != 0) {
+            throw new ZipException("Reserved gzip header flags are set");
+        }
+        for (int i = 0; i < FIXED_FIELDS_LENGTH; i++) {
+            readHeaderByte();
+        }
+        if ((flags & FLG_FEXTRA) != 0) {
+            int xlen = readHeaderByte() | readHeaderByte() << 8;
+            for (int i = 0; i < xlen; i++) {
+                readHeaderByte();
+            }
+        }
+        if ((flags & FLG_FNAME) != 0) {
+            while (readHeaderByte() != 0) {
+                // original file name
+            }
+        }
+        if ((flags & FLG_FCOMMENT) != 0) {
+            while (readHeaderByte() != 0) {
+                // file comment
+            }
+        }
+        if ((flags & FLG_FHCRC) != 0) {
+            int crc16 = (int)headerCrc.getValue() & 0xffff;
+            if ((requireByte() | requireByte() << 8) != crc16) {
+                throw new ZipException("gzip header CRC16 mismatch");
+            }
+        }
+    }
+
+    private int readHeaderByte() throws IOException {
+        int b = requireByte();
+        headerCrc.update(b);
+        return b;
+    }
+
+    private long readUInt32() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 32; shift += 8) {
+            value |= (long)requireByte() << shift;
+        }
+        return value;
+    }
+
+    private int requireByte() throws IOException {
+        int b = nextByte();
+        if (b == -1) {
+            throw new EOFException("Unexpected end of gzip stream");
+        }
+        return b;
+    }
+
+    /**
+     * Takes the next compressed byte, first from what the inflater left over in buf and
+     * then from the underlying stream, returning -1 at the end of the input.
+     */
+    private int nextByte() throws IOException {
+        if (unconsumed > 0) {
+            return buf[len - unconsumed--] & 0xff;
+        }
+        int b = in.read();
+        if (b != -1) {
+            bytesIn++;
+        }
+        return b;
+    }
+}
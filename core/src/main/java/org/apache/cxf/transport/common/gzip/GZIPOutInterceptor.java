@@ -30,7 +30,9 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.zip.GZIPOutputStream;
+import java.util.zip.Deflater;
+
+import javax.xml.namespace.QName;
 
 import org.apache.cxf.common.i18n.BundleUtils;
 import org.apache.cxf.common.logging.LogUtils;
@@ -44,6 +46,7 @@ import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageUtils;
 import org.apache.cxf.phase.AbstractPhaseInterceptor;
 import org.apache.cxf.phase.Phase;
+import org.apache.cxf.service.model.BindingOperationInfo;
 
 /**
  * CXF interceptor that compresses outgoing messages using gzip and sets the
@@ -58,6 +61,14 @@ import org.apache.cxf.phase.Phase;
  * not be compressed. To force compression of all messages, set the threshold to
  * 0. This class was originally based on one of the CXF samples
  * (configuration_interceptor).
+ * <p>
+ * The deflate {@link #setCompressionLevel(int) compression level} can be set for all
+ * messages, per operation or via the {@link #COMPRESSION_LEVEL_KEY} contextual property,
+ * and content types which are not worth compressing (images, archives, ...) can be
+ * {@link #setExcludedContentTypes(Set) excluded}. In {@link #setAdaptive(boolean) adaptive}
+ * mode the interceptor also watches the compression ratio and time achieved per content type
+ * and stops compressing those for which it does not pay off. The work done is recorded in
+ * the interceptor's {@link GZIPStatistics}.
  */
 public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
 
@@ -101,10 +112,17 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
      */
     public static final String GZIP_ENCODING_KEY = GZIPOutInterceptor.class.getName() + ".gzipEncoding";
 
+    /**
+     * Contextual property giving the deflate compression level (0-9) to use for a message,
+     * overriding the level configured on the interceptor.
+     */
+    public static final String COMPRESSION_LEVEL_KEY = GZIPOutInterceptor.class.getName() + ".compressionLevel";
+
     public static final String SOAP_JMS_CONTENTENCODING = "SOAPJMS_contentEncoding";
 
     private static final ResourceBundle BUNDLE = BundleUtils.getBundle(GZIPOutInterceptor.class);
     private static final Logger LOG = LogUtils.getL7dLogger(GZIPOutInterceptor.class);
+    private static final int BUFFER_SIZE = 8192;
 
 
     /**
@@ -114,7 +132,14 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
     private int threshold = 1024;
     private boolean force;
     private Set<String> supportedPayloadContentTypes;
-    
+    private Set<String> excludedContentTypes;
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private Map<String, Integer> operationCompressionLevels;
+    private boolean adaptive;
+    private final AdaptiveCompressionPolicy adaptivePolicy = new AdaptiveCompressionPolicy();
+    private GZIPStatistics statistics = new GZIPStatistics();
+    private CompressorPool pool = CompressorPool.getDefault();
+
     public GZIPOutInterceptor() {
         super(Phase.PREPARE_SEND);
         addAfter(MessageSenderInterceptor.class.getName());
@@ -150,7 +175,8 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
                 = new GZipThresholdOutputStream(threshold,
                                                 os,
                                                 use == UseGzip.FORCE,
-                                                message);
+                                                message,
+                                                this);
             message.setContent(OutputStream.class, cs);
         }
     }
@@ -171,8 +197,12 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
      */
     public UseGzip gzipPermitted(Message message) {
         UseGzip permitted = UseGzip.NO;
-        if (supportedPayloadContentTypes != null && message.containsKey(Message.CONTENT_TYPE)
-            && !supportedPayloadContentTypes.contains(message.get(Message.CONTENT_TYPE))) {
+        String contentType = (String)message.get(Message.CONTENT_TYPE);
+        if (contentType != null && !isContentTypeCompressible(contentType)) {
+            return permitted;
+        }
+        if (getCompressionLevel(message) == Deflater.NO_COMPRESSION) {
+            LOG.fine("Compression disabled for this operation");
             return permitted;
         }
         if (MessageUtils.isRequestor(message)) {
@@ -272,21 +302,73 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
         return permitted;
     }
 
+    /**
+     * Checks whether a payload of the given content type should be compressed: it must
+     * match the supported payload content types (if set) and must not match any of the
+     * excluded ones. Besides exact matches, the media type without its parameters and
+     * wildcards such as <code>image/*</code> are recognized.
+     */
+    protected boolean isContentTypeCompressible(String contentType) {
+        if (supportedPayloadContentTypes != null
+            && !matchesContentType(supportedPayloadContentTypes, contentType)) {
+            return false;
+        }
+        return excludedContentTypes == null || !matchesContentType(excludedContentTypes, contentType);
+    }
+
+    private static boolean matchesContentType(Set<String> contentTypes, String contentType) {
+        if (contentTypes.contains(contentType)) {
+            return true;
+        }
+        int idx = contentType.indexOf(';');
+        String mediaType = (idx == -1 ? contentType : contentType.substring(0, idx)).trim();
+        if (contentTypes.contains(mediaType)) {
+            return true;
+        }
+        idx = mediaType.indexOf('/');
+        return idx != -1 && contentTypes.contains(mediaType.substring(0, idx + 1) + "*");
+    }
+
+    /**
+     * Returns the compression level for the message: the level configured for its operation,
+     * the {@link #COMPRESSION_LEVEL_KEY} contextual property or the interceptor default.
+     */
+    protected int getCompressionLevel(Message message) {
+        if (operationCompressionLevels != null && message.getExchange() != null) {
+            BindingOperationInfo boi = message.getExchange().getBindingOperationInfo();
+            if (boi != null) {
+                QName name = boi.getName();
+                Integer level = operationCompressionLevels.get(name.getLocalPart());
+                if (level == null) {
+                    level = operationCompressionLevels.get(name.toString());
+                }
+                if (level != null) {
+                    return level;
+                }
+            }
+        }
+        Object o = message.getContextualProperty(COMPRESSION_LEVEL_KEY);
+        if (o instanceof Number) {
+            return ((Number)o).intValue();
+        } else if (o instanceof String) {
+            return Integer.parseInt((String)o);
+        }
+        return compressionLevel;
+    }
+
     static class GZipThresholdOutputStream extends AbstractThresholdOutputStream {
         Message message;
+        final GZIPOutInterceptor interceptor;
+        final boolean force;
 
         GZipThresholdOutputStream(int t, OutputStream orig,
-                                         boolean force, Message msg) {
+                                         boolean force, Message msg,
+                                         GZIPOutInterceptor interceptor) {
             super(t);
             super.wrappedStream = orig;
             message = msg;
-            if (force) {
-                setupGZip();
-            }
-        }
-
-        private void setupGZip() {
-
+            this.force = force;
+            this.interceptor = interceptor;
         }
 
         @Override
@@ -297,6 +379,19 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
 
         @Override
         public void thresholdReached() throws IOException {
+            // the content type may only have been set once the payload started to be written
+            final String contentType = (String)message.get(Message.CONTENT_TYPE);
+            if (!force && contentType != null && !interceptor.isContentTypeCompressible(contentType)) {
+                LOG.fine("Content type is excluded from compression, not compressing.");
+                return;
+            }
+            final AdaptiveCompressionPolicy policy = interceptor.adaptive ? interceptor.adaptivePolicy : null;
+            final GZIPStatistics stats = interceptor.statistics;
+            if (!force && policy != null && !policy.shouldCompress(contentType)) {
+                LOG.fine("Compression does not pay off for this content type, not compressing.");
+                stats.messageSkipped();
+                return;
+            }
             LOG.fine("Compressing message.");
             // Set the Content-Encoding HTTP header
             String enc = (String)message.get(GZIP_ENCODING_KEY);
@@ -306,9 +401,17 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
                 addHeader(message, "Vary", "Accept-Encoding");
             }
 
-            // gzip the result
-            GZIPOutputStream zipOutput = new GZIPOutputStream(wrappedStream);
-            wrappedStream = zipOutput;
+            // gzip the result; the buffered data is handed to the deflater directly from
+            // the threshold buffer
+            GZIPDeflaterOutputStream.CompressionListener listener = (bytesIn, bytesOut, nanos) -> {
+                stats.messageCompressed(bytesIn, bytesOut, nanos);
+                if (policy != null) {
+                    policy.record(contentType, bytesIn, bytesOut, nanos);
+                }
+            };
+            wrappedStream = new GZIPDeflaterOutputStream(wrappedStream, interceptor.pool,
+                                                         interceptor.getCompressionLevel(message),
+                                                         BUFFER_SIZE, listener);
         }
     }
 
@@ -349,5 +452,81 @@ public class GZIPOutInterceptor extends AbstractPhaseInterceptor<Message> {
     public void setSupportedPayloadContentTypes(Set<String> supportedPayloadContentTypes) {
         this.supportedPayloadContentTypes = supportedPayloadContentTypes;
     }
+    public Set<String> getExcludedContentTypes() {
+        return excludedContentTypes;
+    }
+    /**
+     * Sets the content types which are never compressed, e.g. <code>image/*</code> or
+     * <code>application/zip</code>.
+     */
+    public void setExcludedContentTypes(Set<String> excludedContentTypes) {
+        this.excludedContentTypes = excludedContentTypes;
+    }
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+    /**
+     * Sets the deflate compression level, from 1 (fastest) to 9 (best compression).
+     * Defaults to {@link Deflater#DEFAULT_COMPRESSION}.
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        this.compressionLevel = compressionLevel;
+    }
+    public Map<String, Integer> getOperationCompressionLevels() {
+        return operationCompressionLevels;
+    }
+    /**
+     * Sets compression levels per operation, keyed by the operation's local name or its
+     * qualified name in <code>{namespace}localPart</code> form. A level of 0 disables
+     * compression for the operation.
+     */
+    public void setOperationCompressionLevels(Map<String, Integer> operationCompressionLevels) {
+        this.operationCompressionLevels = operationCompressionLevels;
+    }
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+    /**
+     * Enables skipping compression for content types whose recent messages did not compress
+     * below {@link #setAdaptiveMaxRatio(double) the maximum ratio} or cost too much time for
+     * the bytes they saved. Never applies when the client requires gzip.
+     */
+    public void setAdaptive(boolean adaptive) {
+        this.adaptive = adaptive;
+    }
+    public double getAdaptiveMaxRatio() {
+        return adaptivePolicy.getMaxRatio();
+    }
+    public void setAdaptiveMaxRatio(double maxRatio) {
+        adaptivePolicy.setMaxRatio(maxRatio);
+    }
+    public long getAdaptiveMaxNanosPerSavedByte() {
+        return adaptivePolicy.getMaxNanosPerSavedByte();
+    }
+    /**
+     * Sets the maximum deflate time, in nanoseconds, worth spending per byte saved.
+     * 0 (the default) disables the time check.
+     */
+    public void setAdaptiveMaxNanosPerSavedByte(long maxNanos) {
+        adaptivePolicy.setMaxNanosPerSavedByte(maxNanos);
+    }
+    public int getAdaptiveSampleSize() {
+        return adaptivePolicy.getSampleSize();
+    }
+    /**
+     * Sets the number of messages per content type the adaptive decision is based on.
+     */
+    public void setAdaptiveSampleSize(int sampleSize) {
+        adaptivePolicy.setSampleSize(sampleSize);
+    }
+    public GZIPStatistics getStatistics() {
+        return statistics;
+    }
+    public void setStatistics(GZIPStatistics statistics) {
+        this.statistics = statistics;
+    }
+    void setCompressorPool(CompressorPool compressorPool) {
+        this.pool = compressorPool;
+    }
 
 }
@@ -0,0 +1,125 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.common.gzip;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters describing the work done by the {@link GZIPOutInterceptor} and
+ * {@link GZIPInInterceptor}. The times are the nanoseconds spent inside the deflater and
+ * inflater, excluding the time taken to read or write the underlying streams. An instance
+ * may be shared between several interceptors.
+ */
+public class GZIPStatistics {
+
+    private final AtomicLong compressedMessages = new AtomicLong();
+    private final AtomicLong skippedMessages = new AtomicLong();
+    private final AtomicLong bytesBeforeCompression = new AtomicLong();
+    private final AtomicLong bytesAfterCompression = new AtomicLong();
+    private final AtomicLong compressionTime = new AtomicLong();
+    private final AtomicLong decompressedMessages = new AtomicLong();
+    private final AtomicLong bytesBeforeDecompression = new AtomicLong();
+    private final AtomicLong bytesAfterDecompression = new AtomicLong();
+    private final AtomicLong decompressionTime = new AtomicLong();
+
+    void messageCompressed(long bytesIn, long bytesOut, long nanos) {
+        compressedMessages.incrementAndGet();
+        bytesBeforeCompression.addAndGet(bytesIn);
+        bytesAfterCompression.addAndGet(bytesOut);
+        compressionTime.addAndGet(nanos);
+    }
+
+    void messageSkipped() {
+        skippedMessages.incrementAndGet();
+    }
+
+    void messageDecompressed(long bytesIn, long bytesOut, long nanos) {
+        decompressedMessages.incrementAndGet();
+        bytesBeforeDecompression.addAndGet(bytesIn);
+        bytesAfterDecompression.addAndGet(bytesOut);
+        decompressionTime.addAndGet(nanos);
+    }
+
+    public long getCompressedMessages() {
+        return compressedMessages.get();
+    }
+
+    /**
+     * The number of messages above the threshold which were sent uncompressed because the
+     * adaptive policy considered compressing their content type not worthwhile.
+     */
+    public long getSkippedMessages() {
+        return skippedMessages.get();
+    }
+
+    public long getBytesBeforeCompression() {
+        return bytesBeforeCompression.get();
+    }
+
+    public long getBytesAfterCompression() {
+        return bytesAfterCompression.get();
+    }
+
+    public long getBytesSaved() {
+        return getBytesBeforeCompression() - getBytesAfterCompression();
+    }
+
+    public long getCompressionTime() {
+        return compressionTime.get();
+    }
+
+    public long getDecompressedMessages() {
+        return decompressedMessages.get();
+    }
+
+    public long getBytesBeforeDecompression() {
+        return bytesBeforeDecompression.get();
+    }
+
+    public long getBytesAfterDecompression() {
+        return bytesAfterDecompression.get();
+    }
+
+    public long getDecompressionTime() {
+        return decompressionTime.get();
+    }
+
+    public void reset() {
+        compressedMessages.set(0);
+        skippedMessages.set(0);
+        bytesBeforeCompression.set(0);
+        bytesAfterCompression.set(0);
+        compressionTime.set(0);
+        decompressedMessages.set(0);
+        bytesBeforeDecompression.set(0);
+        bytesAfterDecompression.set(0);
+        decompressionTime.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "GZIPStatistics[compressed=" + getCompressedMessages()
+            + ", skipped=" + getSkippedMessages()
+            + ", bytesSaved=" + getBytesSaved()
+            + ", compressionTime=" + getCompressionTime()
+            + ", decompressed=" + getDecompressedMessages()
+            + ", decompressionTime=" + getDecompressionTime() + "]";
+    }
+}
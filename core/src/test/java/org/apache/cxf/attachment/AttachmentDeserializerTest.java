@@ -39,6 +39,7 @@ import javax.xml.parsers.SAXParserFactory;
 import org.xml.sax.helpers.DefaultHandler;
 
 import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.io.CacheSizeExceededException;
 import org.apache.cxf.message.Attachment;
 import org.apache.cxf.message.Exchange;
 import org.apache.cxf.message.ExchangeImpl;
@@ -783,4 +784,69 @@ public class AttachmentDeserializerTest {
         assertEquals("passwd", dataSource.getName());
     }
 
+    @Test
+    public void testStreamedAttachments() throws Exception {
+        msg = new MessageImpl();
+        msg.setContent(InputStream.class, new ByteArrayInputStream(createFormData().getBytes(StandardCharsets.UTF_8)));
+        msg.put(Message.CONTENT_TYPE, "multipart/form-data; boundary=AaB03x");
+        AttachmentDeserializer ad = new AttachmentDeserializer(msg,
+            Collections.singletonList("multipart/form-data"));
+        ad.initializeStreamedAttachments();
+
+        AttachmentImpl first = ad.readNextStreamed();
+        assertEquals("form-data; name=\"field1\"", first.getHeader("Content-Disposition"));
+        assertEquals("Joe Blow",
+                     IOUtils.toString(first.getDataHandler().getInputStream()).trim());
+
+        // the second part is skipped without being read
+        AttachmentImpl second = ad.readNextStreamed();
+        assertEquals("form-data; name=\"pics\"; filename=\"file1.txt\"", second.getHeader("Content-Disposition"));
+
+        AttachmentImpl third = ad.readNextStreamed();
+        assertEquals("form-data; name=\"field2\"", third.getHeader("Content-Disposition"));
+        assertEquals("value2", IOUtils.toString(third.getDataHandler().getInputStream()).trim());
+        assertEquals(null, ad.readNextStreamed());
+    }
+
+    @Test
+    public void testStreamedAttachmentMaxSize() throws Exception {
+        msg = new MessageImpl();
+        msg.setContent(InputStream.class, new ByteArrayInputStream(createFormData().getBytes(StandardCharsets.UTF_8)));
+        msg.put(Message.CONTENT_TYPE, "multipart/form-data; boundary=AaB03x");
+        msg.put(AttachmentDeserializer.ATTACHMENT_MAX_SIZE, 20);
+        AttachmentDeserializer ad = new AttachmentDeserializer(msg,
+            Collections.singletonList("multipart/form-data"));
+        ad.initializeStreamedAttachments();
+
+        assertEquals("Joe Blow", IOUtils.toString(ad.readNextStreamed().getDataHandler().getInputStream()).trim());
+        AttachmentImpl second = ad.readNextStreamed();
+        try {
+            IOUtils.toString(second.getDataHandler().getInputStream());
+            fail("The part is larger than permitted");
+        } catch (CacheSizeExceededException ex) {
+            // expected
+        }
+    }
+
+    private static String createFormData() {
+        StringBuilder sb = new StringBuilder(4096);
+        sb.append("--AaB03x\r\n")
+            .append("Content-Disposition: form-data; name=\"field1\"\r\n")
+            .append("\r\n")
+            .append("Joe Blow\r\n")
+            .append("--AaB03x\r\n")
+            .append("Content-Disposition: form-data; name=\"pics\"; filename=\"file1.txt\"\r\n")
+            .append("Content-Type: text/plain\r\n")
+            .append("\r\n");
+        for (int i = 0; i < 100; i++) {
+            sb.append("... contents of file1.txt ...\r\n");
+        }
+        sb.append("--AaB03x\r\n")
+            .append("Content-Disposition: form-data; name=\"field2\"\r\n")
+            .append("\r\n")
+            .append("value2\r\n")
+            .append("--AaB03x--\r\n");
+        return sb.toString();
+    }
+
 }
@@ -0,0 +1,126 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.cache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.cxf.bus.managers.CacheManagerImpl;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LocalCacheTest {
+
+    @Test
+    public void testPutGetRemove() {
+        Cache<String, String> cache = new LocalCache<>("test", new CacheConfiguration());
+        cache.put("a", "1");
+        cache.put("b", "2");
+        assertEquals("1", cache.get("a"));
+        assertTrue(cache.containsKey("b"));
+        assertEquals(2, cache.size());
+        assertEquals("1", cache.remove("a"));
+        assertNull(cache.get("a"));
+
+        Map<String, String> entries = new HashMap<>();
+        cache.forEach(entries::put);
+        assertEquals(1, entries.size());
+        assertEquals("2", entries.get("b"));
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testTimeToLive() throws Exception {
+        Cache<String, String> cache = new LocalCache<>("test", new CacheConfiguration(60000L, 100));
+        cache.put("a", "1", 1L);
+        cache.put("b", "2");
+        Thread.sleep(20L);
+        assertNull(cache.get("a"));
+        assertFalse(cache.containsKey("a"));
+        assertEquals("2", cache.get("b"));
+    }
+
+    @Test
+    public void testPutIfAbsent() throws Exception {
+        Cache<String, String> cache = new LocalCache<>("test", new CacheConfiguration());
+        assertNull(cache.putIfAbsent("a", "1", 1L));
+        assertEquals("1", cache.putIfAbsent("a", "2", 60000L));
+        Thread.sleep(20L);
+        // The expired entry is replaced
+        assertNull(cache.putIfAbsent("a", "3", 60000L));
+        assertEquals("3", cache.get("a"));
+    }
+
+    @Test
+    public void testMaxEntries() {
+        Cache<Integer, Integer> cache = new LocalCache<>("test", new CacheConfiguration(60000L, 10), 1);
+        for (int i = 0; i < 20; i++) {
+            cache.put(i, i);
+            // keep the first entry recently used
+            cache.get(0);
+        }
+        assertEquals(10, cache.size());
+        assertEquals(Integer.valueOf(0), cache.get(0));
+        assertNull(cache.get(1));
+        assertEquals(Integer.valueOf(19), cache.get(19));
+    }
+
+    @Test
+    public void testUnbounded() {
+        Cache<Integer, Integer> cache = new LocalCache<>("test", new CacheConfiguration(60000L, 0L), 2);
+        for (int i = 0; i < 20000; i++) {
+            cache.put(i, i);
+        }
+        assertEquals(20000, cache.size());
+        assertEquals(Integer.valueOf(0), cache.get(0));
+    }
+
+    @Test
+    public void testExpiredEntriesPurgedOnWrite() throws Exception {
+        Cache<Integer, Integer> cache = new LocalCache<>("test", new CacheConfiguration(60000L, 0L), 1);
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i, 1L);
+        }
+        Thread.sleep(20L);
+        for (int i = 100; i < 300; i++) {
+            cache.put(i, i);
+        }
+        // the expired entries are purged once enough writes have been made, without being accessed
+        assertEquals(200, cache.size());
+    }
+
+    @Test
+    public void testCacheManager() {
+        CacheManager cacheManager = new CacheManagerImpl();
+        Cache<String, String> cache = cacheManager.getCache("test", null);
+        cache.put("a", "1");
+        assertSame(cache, cacheManager.getCache("test", new CacheConfiguration()));
+        cacheManager.removeCache("test");
+        assertNull(cacheManager.<String, String>getCache("test", null).get("a"));
+    }
+}
@@ -0,0 +1,288 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.common.gzip;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import org.apache.cxf.helpers.CastUtils;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class GZIPCompressionTest {
+
+    private static final byte[] XML = createXml();
+
+    @Test
+    public void testRoundTripWithPooledCompressors() throws Exception {
+        CompressorPool pool = new CompressorPool(4);
+        GZIPOutInterceptor out = new GZIPOutInterceptor();
+        out.setCompressorPool(pool);
+        GZIPInInterceptor in = new GZIPInInterceptor();
+        in.setCompressorPool(pool);
+
+        for (int i = 0; i < 3; i++) {
+            Message outMessage = createRequest("text/xml");
+            byte[] compressed = send(out, outMessage, XML);
+            assertEquals("gzip", getHeader(outMessage, "Content-Encoding"));
+            assertTrue(compressed.length < XML.length / 4);
+            // the output is plain gzip
+            assertArrayEquals(XML, IOUtils.readBytesFromStream(
+                new GZIPInputStream(new ByteArrayInputStream(compressed))));
+            assertEquals(1, pool.getIdleDeflaters());
+
+            Message inMessage = createResponse(compressed);
+            in.handleMessage(inMessage);
+            assertArrayEquals(XML, IOUtils.readBytesFromStream(inMessage.getContent(InputStream.class)));
+            assertNull(getHeader(inMessage, "Content-Encoding"));
+            assertEquals(1, pool.getIdleInflaters());
+        }
+
+        GZIPStatistics stats = out.getStatistics();
+        assertEquals(3, stats.getCompressedMessages());
+        assertEquals(3L * XML.length, stats.getBytesBeforeCompression());
+        assertTrue(stats.getBytesSaved() > 0);
+        assertEquals(3, in.getStatistics().getDecompressedMessages());
+        assertEquals(3L * XML.length, in.getStatistics().getBytesAfterDecompression());
+    }
+
+    @Test
+    public void testConcatenatedMembers() throws Exception {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        for (int i = 0; i < 2; i++) {
+            try (GZIPOutputStream gz = new GZIPOutputStream(bos)) {
+                gz.write(XML);
+                gz.finish();
+            }
+        }
+        try (InputStream is = new GZIPInflaterInputStream(new ByteArrayInputStream(bos.toByteArray()),
+                                                          new CompressorPool(1), 512, null)) {
+            byte[] result = IOUtils.readBytesFromStream(is);
+            assertEquals(2 * XML.length, result.length);
+        }
+    }
+
+    @Test
+    public void testOptionalHeaderFields() throws Exception {
+        int flags = 0x02 | 0x04 | 0x08 | 0x10;
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        bos.write(createMember(flags, XML, false));
+        bos.write(createMember(0, XML, false));
+        // trailing bytes which are not another member are ignored
+        bos.write(new byte[] {0, 0, 0, 0});
+        CompressorPool pool = new CompressorPool(1);
+        try (InputStream is = new GZIPInflaterInputStream(new ByteArrayInputStream(bos.toByteArray()),
+                                                          pool, 512, null)) {
+            byte[] result = IOUtils.readBytesFromStream(is);
+            assertEquals(2 * XML.length, result.length);
+            assertArrayEquals(XML, Arrays.copyOfRange(result, XML.length, result.length));
+        }
+        assertEquals(1, pool.getIdleInflaters());
+    }
+
+    @Test
+    public void testCorruptMember() throws Exception {
+        byte[] member = createMember(0x02, XML, false);
+        member[4] ^= 1;
+        assertCorrupt(member, "gzip header CRC16 mismatch");
+        assertCorrupt(createMember(0, XML, true), "gzip member CRC32 mismatch");
+    }
+
+    @Test
+    public void testExcludedContentType() throws Exception {
+        GZIPOutInterceptor out = new GZIPOutInterceptor();
+        out.setExcludedContentTypes(Collections.singleton("image/*"));
+
+        Message message = createRequest("image/png; name=logo.png");
+        assertArrayEquals(XML, send(out, message, XML));
+        assertNull(getHeader(message, "Content-Encoding"));
+
+        message = createRequest("text/xml; charset=UTF-8");
+        send(out, message, XML);
+        assertEquals("gzip", getHeader(message, "Content-Encoding"));
+    }
+
+    @Test
+    public void testCompressionLevelProperty() throws Exception {
+        GZIPOutInterceptor out = new GZIPOutInterceptor();
+        Message message = createRequest("text/xml");
+        message.put(GZIPOutInterceptor.COMPRESSION_LEVEL_KEY, "0");
+        assertEquals(GZIPOutInterceptor.UseGzip.NO, out.gzipPermitted(message));
+
+        message = createRequest("text/xml");
+        message.put(GZIPOutInterceptor.COMPRESSION_LEVEL_KEY, 1);
+        byte[] fast = send(out, message, XML);
+        message = createRequest("text/xml");
+        message.put(GZIPOutInterceptor.COMPRESSION_LEVEL_KEY, 9);
+        byte[] best = send(out, message, XML);
+        assertTrue(best.length <= fast.length);
+    }
+
+    @Test
+    public void testAdaptiveSkipsIncompressibleContent() throws Exception {
+        GZIPOutInterceptor out = new GZIPOutInterceptor();
+        out.setAdaptive(true);
+        out.setAdaptiveSampleSize(2);
+        byte[] random = new byte[4096];
+        new Random(42).nextBytes(random);
+
+        for (int i = 0; i < 2; i++) {
+            Message message = createRequest("application/octet-stream");
+            send(out, message, random);
+            assertEquals("gzip", getHeader(message, "Content-Encoding"));
+        }
+        Message message = createRequest("application/octet-stream");
+        assertArrayEquals(random, send(out, message, random));
+        assertNull(getHeader(message, "Content-Encoding"));
+        assertEquals(1, out.getStatistics().getSkippedMessages());
+
+        // other content types are not affected
+        message = createRequest("text/xml");
+        send(out, message, XML);
+        assertEquals("gzip", getHeader(message, "Content-Encoding"));
+        assertEquals(3, out.getStatistics().getCompressedMessages());
+    }
+
+    private static void assertCorrupt(byte[] member, String message) throws IOException {
+        CompressorPool pool = new CompressorPool(1);
+        try (InputStream is = new GZIPInflaterInputStream(new ByteArrayInputStream(member), pool, 512, null)) {
+            IOUtils.readBytesFromStream(is);
+            fail("ZipException expected");
+        } catch (ZipException ex) {
+            assertEquals(message, ex.getMessage());
+        }
+        assertEquals(1, pool.getIdleInflaters());
+    }
+
+    private static byte[] createMember(int flags, byte[] payload, boolean corruptCrc) throws IOException {
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        header.write(new byte[] {0x1f, (byte)0x8b, 8, (byte)flags, 0, 0, 0, 0, 0, (byte)255});
+        if ((flags & 0x04) != 0) {
+            header.write(new byte[] {3, 0, 'a', 'b', 'c'});
+        }
+        if ((flags & 0x08) != 0) {
+            header.write("name.xml\0".getBytes(StandardCharsets.US_ASCII));
+        }
+        if ((flags & 0x10) != 0) {
+            header.write("comment\0".getBytes(StandardCharsets.US_ASCII));
+        }
+        CRC32 crc = new CRC32();
+        if ((flags & 0x02) != 0) {
+            crc.update(header.toByteArray());
+            header.write((int)crc.getValue());
+            header.write((int)crc.getValue() >> 8);
+        }
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        bos.write(header.toByteArray());
+        try (DeflaterOutputStream dos = new DeflaterOutputStream(bos, new Deflater(Deflater.DEFAULT_COMPRESSION,
+                                                                                    true))) {
+            dos.write(payload);
+        }
+        crc.reset();
+        crc.update(payload);
+        writeUInt32(bos, corruptCrc ? ~crc.getValue() : crc.getValue());
+        writeUInt32(bos, payload.length);
+        return bos.toByteArray();
+    }
+
+    private static void writeUInt32(OutputStream os, long value) throws IOException {
+        for (int shift = 0; shift < 32; shift += 8) {
+            os.write((int)(value >> shift));
+        }
+    }
+
+    private static byte[] send(GZIPOutInterceptor out, Message message, byte[] payload) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        message.setContent(OutputStream.class, bos);
+        out.handleMessage(message);
+        try (OutputStream os = message.getContent(OutputStream.class)) {
+            os.write(payload);
+        }
+        return bos.toByteArray();
+    }
+
+    private static Message createRequest(String contentType) {
+        Message message = new MessageImpl();
+        Exchange exchange = new ExchangeImpl();
+        exchange.setOutMessage(message);
+        message.setExchange(exchange);
+        message.put(Message.REQUESTOR_ROLE, Boolean.TRUE);
+        message.put(GZIPOutInterceptor.USE_GZIP_KEY, GZIPOutInterceptor.UseGzip.YES);
+        message.put(Message.CONTENT_TYPE, contentType);
+        return message;
+    }
+
+    private static Message createResponse(byte[] body) {
+        Message message = new MessageImpl();
+        Exchange exchange = new ExchangeImpl();
+        exchange.setInMessage(message);
+        message.setExchange(exchange);
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.put("Content-Encoding", Collections.singletonList("gzip"));
+        message.put(Message.PROTOCOL_HEADERS, headers);
+        message.setContent(InputStream.class, new ByteArrayInputStream(body));
+        return message;
+    }
+
+    private static String getHeader(Message message, String name) {
+        Map<String, List<String>> headers = CastUtils.cast((Map<?, ?>)message.get(Message.PROTOCOL_HEADERS));
+        if (headers == null || headers.get(name) == null) {
+            return null;
+        }
+        return headers.get(name).get(0);
+    }
+
+    private static byte[] createXml() {
+        StringBuilder sb = new StringBuilder(65536);
+        sb.append("<orders>");
+        for (int i = 0; i < 1000; i++) {
+            sb.append("<order id=\"").append(i).append("\"><item>widget</item><qty>").append(i % 7)
+                .append("</qty></order>");
+        }
+        return sb.append("</orders>").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
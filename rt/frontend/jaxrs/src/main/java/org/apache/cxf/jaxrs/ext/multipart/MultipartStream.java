@@ -0,0 +1,111 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.ext.multipart;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.Providers;
+
+import org.apache.cxf.attachment.AttachmentDeserializer;
+import org.apache.cxf.attachment.HeaderSizeExceededException;
+import org.apache.cxf.io.CacheSizeExceededException;
+import org.apache.cxf.jaxrs.utils.ExceptionUtils;
+
+/**
+ * Gives access to the parts of a multipart request body one after another, as they
+ * are read from the request, for example:
+ * <pre>
+ * &#64;POST
+ * &#64;Consumes("multipart/form-data")
+ * public void upload(MultipartStream parts) {
+ *     while (parts.hasNext()) {
+ *         Attachment part = parts.next();
+ *         store(part.getContentDisposition().getFilename(), part.getDataHandler().getInputStream());
+ *     }
+ * }
+ * </pre>
+ * Unlike with {@link MultipartBody} the parts are not cached in memory or in temporary files,
+ * so the stream of a part can only be read until {@link #hasNext()} or {@link #next()} is called
+ * again: any unread content of the current part is skipped. The
+ * {@link AttachmentDeserializer#ATTACHMENT_MAX_SIZE} limit is enforced on each part as it is read.
+ */
+public class MultipartStream implements Iterator<Attachment>, Closeable {
+
+    private final AttachmentDeserializer deserializer;
+    private final Providers providers;
+    private final MediaType mt;
+    private Attachment next;
+    private boolean done;
+
+    public MultipartStream(AttachmentDeserializer deserializer, Providers providers, MediaType mt) {
+        this.deserializer = deserializer;
+        this.providers = providers;
+        this.mt = mt;
+    }
+
+    public MediaType getType() {
+        return mt;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !done) {
+            try {
+                org.apache.cxf.message.Attachment a = deserializer.readNextStreamed();
+                if (a == null) {
+                    done = true;
+                } else {
+                    next = new Attachment(a, providers);
+                }
+            } catch (CacheSizeExceededException | HeaderSizeExceededException ex) {
+                done = true;
+                throw new WebApplicationException(ex, 413);
+            } catch (IOException ex) {
+                done = true;
+                throw ExceptionUtils.toBadRequestException(ex, null);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Attachment next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Attachment a = next;
+        next = null;
+        return a;
+    }
+
+    /**
+     * Stops reading the parts, the remaining content is left to the transport to discard
+     */
+    @Override
+    public void close() {
+        done = true;
+        next = null;
+    }
+}
@@ -49,6 +49,8 @@ import org.apache.cxf.jaxrs.utils.JAXRSUtils;
 public class UriBuilderImpl extends UriBuilder implements Cloneable {
     private static final String EXPAND_QUERY_VALUE_AS_COLLECTION = "expand.query.value.as.collection";
     private static final String USE_ARRAY_SYNTAX_FOR_QUERY_VALUES = "use.array.syntax.for.query.values";
+    // characters which can be used in the URI strings without any further quoting
+    private static final boolean[] URI_CHARACTERS = createUriCharacters();
 
     private String scheme;
     private String userInfo;
@@ -121,6 +123,88 @@ public class UriBuilderImpl extends UriBuilder implements Cloneable {
         }
     }
 
+    /**
+     * Builds the URI string the way {@link #build(Object...)} does but without creating
+     * and parsing an intermediate {@link URI}, which is what the transports eventually need anyway.
+     * The URI is only created if the built string contains characters which may need to be quoted.
+     *
+     * @param values template variable values
+     * @return the URI string
+     */
+    public String buildString(Object... values) throws IllegalArgumentException, UriBuilderException {
+        if (values == null) {
+            throw new IllegalArgumentException("Template parameter values are set to null");
+        }
+        if (!isSchemeOpaque()) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == null) {
+                    throw new IllegalArgumentException("Template parameter value at position " + i
+                                                       + " is set to null");
+                }
+            }
+            UriParts parts = doBuildUriParts(false, true, false, values);
+            String thePath = parts.path;
+            if ((scheme != null || host != null || userInfo != null)
+                && thePath.length() != 0 && !(thePath.startsWith("/") || thePath.startsWith(";"))) {
+                thePath = "/" + thePath;
+            }
+            String uri = buildUriString(thePath, parts.query, parts.fragment);
+            if (isValidUriString(uri)) {
+                return uri;
+            }
+        }
+        return doBuild(false, true, values).toString();
+    }
+
+    /**
+     * Builds the URI string the way {@link #buildFromEncoded(Object...)} does, which parses
+     * this very string, but without creating the {@link URI}.
+     *
+     * @param values encoded template variable values
+     * @return the URI string
+     */
+    public String buildStringFromEncoded(Object... values) throws IllegalArgumentException, UriBuilderException {
+        if (values == null) {
+            throw new IllegalArgumentException("Template parameter values are set to null");
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                throw new IllegalArgumentException("Template parameter value at position " + i + " is set to null");
+            }
+        }
+        UriParts parts = doBuildUriParts(true, false, false, values);
+        return buildUriString(parts.path, parts.query, parts.fragment);
+    }
+
+    private static boolean isValidUriString(String uri) {
+        for (int i = 0; i < uri.length(); i++) {
+            char c = uri.charAt(i);
+            if (c >= URI_CHARACTERS.length || !URI_CHARACTERS[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean[] createUriCharacters() {
+        boolean[] chars = new boolean[128];
+        for (char c = 'a'; c <= 'z'; c++) {
+            chars[c] = true;
+            chars[Character.toUpperCase(c)] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            chars[c] = true;
+        }
+        for (char c : "-._~:/?#@!$&'()*+,;=%".toCharArray()) {
+            chars[c] = true;
+        }
+        return chars;
+    }
+
+    private static boolean hasTemplateVariables(String value) {
+        return value.indexOf('{') != -1;
+    }
+
     private UriParts doBuildUriParts(boolean fromEncoded, boolean encodePathSlash,
                                      boolean allowUnresolved, Object... values) {
 
@@ -132,15 +216,18 @@ public class UriBuilderImpl extends UriBuilder implements Cloneable {
             + alreadyResolvedTsPathEnc.size();
 
         String thePath = buildPath();
-        URITemplate pathTempl = URITemplate.createExactTemplate(thePath);
-        thePath = substituteVarargs(pathTempl, alreadyResolvedTs, alreadyResolvedTsPathEnc,
-                                    alreadyResolvedEncTs, values, 0, false, fromEncoded,
-                                    allowUnresolved, encodePathSlash);
-        int pathTemplateVarsSize = pathTempl.getVariables().size();
+        int pathTemplateVarsSize = 0;
+        if (hasTemplateVariables(thePath)) {
+            URITemplate pathTempl = URITemplate.createExactTemplate(thePath);
+            thePath = substituteVarargs(pathTempl, alreadyResolvedTs, alreadyResolvedTsPathEnc,
+                                        alreadyResolvedEncTs, values, 0, false, fromEncoded,
+                                        allowUnresolved, encodePathSlash);
+            pathTemplateVarsSize = pathTempl.getVariables().size();
+        }
 
         String theQuery = buildQuery();
         int queryTemplateVarsSize = 0;
-        if (theQuery != null) {
+        if (theQuery != null && hasTemplateVariables(theQuery)) {
             URITemplate queryTempl = URITemplate.createExactTemplate(theQuery);
             queryTemplateVarsSize = queryTempl.getVariables().size();
             if (queryTemplateVarsSize > 0) {
@@ -154,7 +241,7 @@ public class UriBuilderImpl extends UriBuilder implements Cloneable {
         }
 
         String theFragment = fragment;
-        if (theFragment != null) {
+        if (theFragment != null && hasTemplateVariables(theFragment)) {
             URITemplate fragmentTempl = URITemplate.createExactTemplate(theFragment);
             if (fragmentTempl.getVariables().size() > 0) {
                 int lengthDiff = values.length  + resolvedTsSize
@@ -353,6 +440,9 @@ public class UriBuilderImpl extends UriBuilder implements Cloneable {
                                     boolean fromEncoded,
                                     boolean encodePathSlash) {
     //CHECKSTYLE:ON
+        if (!hasTemplateVariables(path)) {
+            return path;
+        }
         URITemplate templ = URITemplate.createExactTemplate(path);
 
         Set<String> uniqueVars = new HashSet<>(templ.getVariables());
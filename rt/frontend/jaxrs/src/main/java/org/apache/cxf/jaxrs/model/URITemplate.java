@@ -53,7 +53,8 @@ public final class URITemplate {
     private final String template;
     private final List<String> variables = new ArrayList<>();
     private final List<String> customVariables = new ArrayList<>();
-    private final Pattern templateRegexPattern;
+    private final String patternValue;
+    private volatile Pattern templateRegexPattern;
     private final String literals;
     private final List<UriChunk> uriChunks;
 
@@ -103,7 +104,9 @@ public final class URITemplate {
         }
         patternBuilder.append(LIMITED_REGEX_SUFFIX);
 
-        templateRegexPattern = Pattern.compile(patternBuilder.toString());
+        // The pattern is only compiled when the template is first matched, templates which are
+        // only used for building URIs (UriBuilder) never need it
+        patternValue = patternBuilder.toString();
     }
 
     public String getLiteralChars() {
@@ -115,7 +118,16 @@ public final class URITemplate {
     }
 
     public String getPatternValue() {
-        return templateRegexPattern.toString();
+        return patternValue;
+    }
+
+    private Pattern getTemplateRegexPattern() {
+        Pattern pattern = templateRegexPattern;
+        if (pattern == null) {
+            pattern = Pattern.compile(patternValue);
+            templateRegexPattern = pattern;
+        }
+        return pattern;
     }
 
     /**
@@ -178,14 +190,11 @@ public final class URITemplate {
     public boolean match(String uri, MultivaluedMap<String, String> templateVariableToValue) {
 
         if (uri == null) {
-            return (templateRegexPattern == null) ? true : false;
-        }
-
-        if (templateRegexPattern == null) {
             return false;
         }
 
-        Matcher m = templateRegexPattern.matcher(uri);
+        Pattern pattern = getTemplateRegexPattern();
+        Matcher m = pattern.matcher(uri);
         if (!m.matches() || template.equals(SLASH) && uri.startsWith(SLASH_QUOTE)) {
             if (uri.contains(";")) {
                 // we might be trying to match one or few path segments
@@ -210,7 +219,7 @@ public final class URITemplate {
                 if (uri.length() == 0) {
                     uri = SLASH;
                 }
-                m = templateRegexPattern.matcher(uri);
+                m = pattern.matcher(uri);
                 if (!m.matches()) {
                     return false;
                 }
@@ -266,8 +275,11 @@ public final class URITemplate {
         if (values == null) {
             throw new IllegalArgumentException("values is null");
         }
+        if (variables.isEmpty()) {
+            return template;
+        }
         Iterator<String> iter = values.iterator();
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = new StringBuilder(template.length() + 16);
         for (UriChunk chunk : uriChunks) {
             if (chunk instanceof Variable) {
                 Variable var = (Variable)chunk;
@@ -311,7 +323,10 @@ public final class URITemplate {
         if (valuesMap == null) {
             throw new IllegalArgumentException("valuesMap is null");
         }
-        StringBuilder sb = new StringBuilder();
+        if (variables.isEmpty()) {
+            return template;
+        }
+        StringBuilder sb = new StringBuilder(template.length() + 16);
         for (UriChunk chunk : uriChunks) {
             if (chunk instanceof Variable) {
                 Variable var = (Variable)chunk;
@@ -324,7 +339,7 @@ public final class URITemplate {
                                                            + var.getPattern());
                     }
                     if (encodePathSlashVars.contains(var.getName())) {
-                        sval = sval.replaceAll("/", "%2F");
+                        sval = encodePathSlash(sval);
                     }
                     sb.append(sval);
                 } else if (allowUnresolved) {
@@ -340,6 +355,10 @@ public final class URITemplate {
         return sb.toString();
     }
 
+    private static String encodePathSlash(String value) {
+        return value.indexOf('/') == -1 ? value : value.replace("/", "%2F");
+    }
+
     /**
      * Encoded literal characters surrounding template variables,
      * ex. "a {id} b" will be encoded to "a%20{id}%20b"
@@ -64,6 +64,7 @@ import org.apache.cxf.jaxrs.ext.multipart.InputStreamDataSource;
 import org.apache.cxf.jaxrs.ext.multipart.Multipart;
 import org.apache.cxf.jaxrs.ext.multipart.MultipartBody;
 import org.apache.cxf.jaxrs.ext.multipart.MultipartOutputFilter;
+import org.apache.cxf.jaxrs.ext.multipart.MultipartStream;
 import org.apache.cxf.jaxrs.impl.MetadataMap;
 import org.apache.cxf.jaxrs.utils.AnnotationUtils;
 import org.apache.cxf.jaxrs.utils.ExceptionUtils;
@@ -118,7 +119,8 @@ public class MultipartProvider extends AbstractConfigurableProvider
 
     public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations,
                               MediaType mt) {
-        return isSupported(type, annotations, mt);
+        return isSupported(type, annotations, mt)
+            || MultipartStream.class == type && mediaTypeSupported(mt);
 
     }
 
@@ -143,6 +145,9 @@ public class MultipartProvider extends AbstractConfigurableProvider
                            MultivaluedMap<String, String> headers, InputStream is)
         throws IOException, WebApplicationException {
         checkContentLength();
+        if (MultipartStream.class == (Class<?>)c) {
+            return AttachmentUtils.getMultipartStream(mc, is, mt, attachmentMaxSize);
+        }
         List<Attachment> infos = AttachmentUtils.getAttachments(
                 mc, attachmentDir, attachmentThreshold, attachmentMaxSize);
 
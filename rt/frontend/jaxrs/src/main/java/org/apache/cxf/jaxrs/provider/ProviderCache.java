@@ -19,16 +19,22 @@
 
 package org.apache.cxf.jaxrs.provider;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.ext.MessageBodyReader;
 import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.ParamConverter;
+import javax.ws.rs.ext.ParamConverterProvider;
 
 import org.apache.cxf.common.util.SystemPropertyAction;
 import org.apache.cxf.jaxrs.model.ProviderInfo;
@@ -47,6 +53,9 @@ public class ProviderCache {
     private final Map<String, List<ProviderInfo<MessageBodyWriter<?>>>>
         writerProviderCache = new ConcurrentHashMap<>();
 
+    private final Map<ParamConverterKey, ParamConverterEntry>
+        paramConverterCache = new ConcurrentHashMap<>();
+
     private boolean checkAllCandidates;
     public ProviderCache(boolean checkAllCandidates) {
         this.checkAllCandidates = checkAllCandidates;
@@ -92,9 +101,29 @@ public class ProviderCache {
         writerProviderCache.put(key, candidates);
     }
 
+    ParamConverterEntry getParamConverter(Class<?> type, Type genericType, Annotation[] anns) {
+        if (paramConverterCache.isEmpty()) {
+            return null;
+        }
+        return paramConverterCache.get(new ParamConverterKey(type, genericType, anns));
+    }
+
+    void putParamConverter(Class<?> type, Type genericType, Annotation[] anns,
+                           ProviderInfo<ParamConverterProvider> provider, ParamConverter<?> converter) {
+        checkCacheSize(paramConverterCache);
+
+        paramConverterCache.put(new ParamConverterKey(type, genericType, anns),
+                                new ParamConverterEntry(provider, converter));
+    }
+
+    void clearParamConverters() {
+        this.paramConverterCache.clear();
+    }
+
     public void destroy() {
         this.readerProviderCache.clear();
         this.writerProviderCache.clear();
+        this.paramConverterCache.clear();
     }
 
     private String getKey(Class<?> type, MediaType mt) {
@@ -111,4 +140,49 @@ public class ProviderCache {
     public boolean isCheckAllCandidates() {
         return checkAllCandidates;
     }
+
+    static final class ParamConverterEntry {
+        // both are null if none of the registered providers supports the parameter type
+        final ProviderInfo<ParamConverterProvider> provider;
+        final ParamConverter<?> converter;
+
+        ParamConverterEntry(ProviderInfo<ParamConverterProvider> provider, ParamConverter<?> converter) {
+            this.provider = provider;
+            this.converter = converter;
+        }
+    }
+
+    private static final class ParamConverterKey {
+        private final Class<?> type;
+        private final Type genericType;
+        private final List<Annotation> anns;
+        private final int hashCode;
+
+        ParamConverterKey(Class<?> type, Type genericType, Annotation[] anns) {
+            this.type = type;
+            this.genericType = genericType;
+            this.anns = Arrays.asList(anns);
+            this.hashCode = Objects.hash(type, genericType, this.anns);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ParamConverterKey)) {
+                return false;
+            }
+            ParamConverterKey other = (ParamConverterKey)obj;
+            return hashCode == other.hashCode
+                && type == other.type
+                && Objects.equals(genericType, other.genericType)
+                && anns.equals(other.anns);
+        }
+    }
 }
@@ -338,14 +338,32 @@ public abstract class ProviderFactory {
                                                         Message m) {
 
         anns = anns != null ? anns : new Annotation[]{};
+        if (providerCache != null) {
+            ProviderCache.ParamConverterEntry entry = providerCache.getParamConverter(paramType, genericType, anns);
+            if (entry != null) {
+                if (entry.provider == null) {
+                    return null;
+                }
+                injectContextValues(entry.provider, m);
+                @SuppressWarnings("unchecked")
+                ParamConverter<T> converter = (ParamConverter<T>)entry.converter;
+                return converter;
+            }
+        }
         for (ProviderInfo<ParamConverterProvider> pi : paramConverters) {
             injectContextValues(pi, m);
             ParamConverter<T> converter = pi.getProvider().getConverter(paramType, genericType, anns);
             if (converter != null) {
+                if (providerCache != null) {
+                    providerCache.putParamConverter(paramType, genericType, anns, pi, converter);
+                }
                 return converter;
             }
             pi.clearThreadLocalProxies();
         }
+        if (providerCache != null) {
+            providerCache.putParamConverter(paramType, genericType, anns, null, null);
+        }
         return null;
     }
 
@@ -659,6 +677,9 @@ public abstract class ProviderFactory {
                 paramConverters.add((ProviderInfo<ParamConverterProvider>)provider);
             }
         }
+        if (providerCache != null) {
+            providerCache.clearParamConverters();
+        }
         sortReaders();
         sortWriters();
         sortContextResolvers();
@@ -965,6 +986,9 @@ public abstract class ProviderFactory {
         readerInterceptors.clear();
         writerInterceptors.clear();
         paramConverters.clear();
+        if (providerCache != null) {
+            providerCache.clearParamConverters();
+        }
     }
 
     public void setBus(Bus bus) {
@@ -94,6 +94,10 @@ public final class HttpUtils {
     // there are more of such characters, ex, '*' but '*' is not affected by UrlEncode
     private static final String PATH_RESERVED_CHARACTERS = "=@/:!$&\'(),;~";
     private static final String QUERY_RESERVED_CHARACTERS = "?/,";
+    // characters which are left as is by the path and query encoding, values consisting only of
+    // these are returned without going through URLEncoder
+    private static final boolean[] PATH_SAFE_CHARACTERS = createSafeCharacters(PATH_RESERVED_CHARACTERS + "+");
+    private static final boolean[] QUERY_SAFE_CHARACTERS = createSafeCharacters(QUERY_RESERVED_CHARACTERS);
     
     private static final Set<String> KNOWN_HTTP_VERBS_WITH_NO_REQUEST_CONTENT =
         new HashSet<>(Arrays.asList(new String[]{"GET", "HEAD", "OPTIONS", "TRACE"}));
@@ -115,6 +119,31 @@ public final class HttpUtils {
         return UrlUtils.pathDecode(value);
     }
 
+    private static boolean[] createSafeCharacters(String reservedChars) {
+        boolean[] safe = new boolean[128];
+        for (char c = 'a'; c <= 'z'; c++) {
+            safe[c] = true;
+            safe[Character.toUpperCase(c)] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            safe[c] = true;
+        }
+        for (char c : ("-_.*" + reservedChars).toCharArray()) {
+            safe[c] = true;
+        }
+        return safe;
+    }
+
+    private static boolean isEncodingRequired(boolean[] safeChars, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= safeChars.length || !safeChars[c]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private static String componentEncode(String reservedChars, String value) {
 
         StringBuilder buffer = null;
@@ -146,6 +175,9 @@ public final class HttpUtils {
     }
 
     public static String queryEncode(String value) {
+        if (!isEncodingRequired(QUERY_SAFE_CHARACTERS, value)) {
+            return value;
+        }
 
         return componentEncode(QUERY_RESERVED_CHARACTERS, value);
     }
@@ -161,6 +193,9 @@ public final class HttpUtils {
     }
 
     public static String pathEncode(String value) {
+        if (!isEncodingRequired(PATH_SAFE_CHARACTERS, value)) {
+            return value;
+        }
 
         String result = componentEncode(PATH_RESERVED_CHARACTERS, value);
         // URLEncoder will encode '+' to %2B but will turn ' ' into '+'
@@ -190,6 +225,9 @@ public final class HttpUtils {
         if (encoded.length() == 0) {
             return encoded;
         }
+        if (encoded.indexOf('%') == -1) {
+            return query ? HttpUtils.queryEncode(encoded) : HttpUtils.pathEncode(encoded);
+        }
         Matcher m = ENCODE_PATTERN.matcher(encoded);
 
         if (!m.find()) {
@@ -44,12 +44,14 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.ResourceBundle;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -156,6 +158,24 @@ public final class InjectionUtils {
     private static ProxyClassLoaderCache proxyClassLoaderCache =
         new ProxyClassLoaderCache();
 
+    // String constructors and static factory methods used to convert parameter values,
+    // resolved once per class rather than looked up (and mostly not found) on every request
+    private static final ClassValue<ValueFactory> VALUE_FACTORIES = new ClassValue<ValueFactory>() {
+        @Override
+        protected ValueFactory computeValue(Class<?> cls) {
+            return new ValueFactory(cls);
+        }
+    };
+
+    // Bean parameter properties, keyed by the lower-cased property name
+    private static final ClassValue<Map<String, BeanProperty>> BEAN_PROPERTIES =
+        new ClassValue<Map<String, BeanProperty>>() {
+            @Override
+            protected Map<String, BeanProperty> computeValue(Class<?> cls) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
     private InjectionUtils() {
 
     }
@@ -490,28 +510,25 @@ public final class InjectionUtils {
         if (pClass == String.class && !adapterHasToBeUsed) {
             return pClass.cast(value);
         }
+        ValueFactory factory = VALUE_FACTORIES.get(cls);
         // check constructors accepting a single String value
-        try {
-            Constructor<?> c = cls.getConstructor(new Class<?>[]{String.class});
-            result = c.newInstance(new Object[]{value});
-        } catch (NoSuchMethodException ex) {
-            // try valueOf
-        } catch (WebApplicationException ex) {
-            throw ex;
-        } catch (Exception ex) {
-            Throwable t = getOrThrowActualException(ex);
-            LOG.warning(new org.apache.cxf.common.i18n.Message("CLASS_CONSTRUCTOR_FAILURE",
-                                                               BUNDLE,
-                                                               pClass.getName()).toString());
-            Response r = JAXRSUtils.toResponse(HttpUtils.getParameterFailureStatus(pType));
-            throw ExceptionUtils.toHttpException(t, r);
+        if (factory.constructor != null) {
+            try {
+                result = factory.constructor.newInstance(new Object[]{value});
+            } catch (WebApplicationException ex) {
+                throw ex;
+            } catch (Exception ex) {
+                Throwable t = getOrThrowActualException(ex);
+                LOG.warning(new org.apache.cxf.common.i18n.Message("CLASS_CONSTRUCTOR_FAILURE",
+                                                                   BUNDLE,
+                                                                   pClass.getName()).toString());
+                Response r = JAXRSUtils.toResponse(HttpUtils.getParameterFailureStatus(pType));
+                throw ExceptionUtils.toHttpException(t, r);
+            }
         }
         if (result == null) {
             // check for valueOf(String) static methods
-            String[] methodNames = cls.isEnum()
-                ? new String[] {"fromString", "fromValue", "valueOf"}
-                : new String[] {"valueOf", "fromString"};
-            result = evaluateFactoryMethods(value, pType, result, cls, methodNames);
+            result = evaluateFactoryMethods(value, pType, result, cls, factory.factoryMethods);
         }
 
         if (adapterHasToBeUsed) {
@@ -591,11 +608,12 @@ public final class InjectionUtils {
     }
 
     private static Object evaluateFactoryMethods(String value, ParameterType pType, Object result,
-                                                 Class<?> cls, String[] methodNames) {
+                                                 Class<?> cls, Method[] methods) {
         Exception factoryMethodEx = null;
-        for (String mName : methodNames) {
+        for (Method m : methods) {
+            String mName = m.getName();
             try {
-                result = evaluateFactoryMethod(value, cls, mName);
+                result = evaluateFactoryMethod(value, cls, m);
                 if (result != null) {
                     factoryMethodEx = null;
                     break;
@@ -621,15 +639,10 @@ public final class InjectionUtils {
 
     private static <T> T evaluateFactoryMethod(String value,
                                                Class<T> pClass,
-                                               String methodName)
+                                               Method m)
         throws InvocationTargetException {
         try {
-            Method m = pClass.getMethod(methodName, new Class<?>[]{String.class});
-            if (Modifier.isStatic(m.getModifiers())) {
-                return pClass.cast(m.invoke(null, new Object[]{value}));
-            }
-        } catch (NoSuchMethodException ex) {
-            // no luck: try another factory methods
+            return pClass.cast(m.invoke(null, new Object[]{value}));
         } catch (IllegalAccessException ex) {
             // factory method is not accessible: try another
         }
@@ -693,32 +706,10 @@ public final class InjectionUtils {
                     memberKey = memberKey.substring(1);
                 }
 
-                Object setter = null;
-                Object getter = null;
-                for (Method m : paramType.getMethods()) {
-                    if (m.getName().equalsIgnoreCase("set" + memberKey)
-                        && m.getParameterTypes().length == 1) {
-                        setter = m;
-                    } else if (m.getName().equalsIgnoreCase("get" + memberKey)
-                        || isBooleanType(m.getReturnType())
-                           && m.getName().equalsIgnoreCase("is" + memberKey)) {
-                        getter = m;
-                    }
-                    if (setter != null && getter != null) {
-                        break;
-                    }
-                }
-                if (setter == null) {
-                    for (Field f : paramType.getFields()) {
-                        if (f.getName().equalsIgnoreCase(memberKey)) {
-                            setter = f;
-                            getter = f;
-                            break;
-                        }
-                    }
-                }
-
-                if (setter != null && getter != null) {
+                BeanProperty property = getBeanProperty(paramType, memberKey);
+                if (property != null) {
+                    final Object setter = property.setter;
+                    final Object getter = property.getter;
                     final Class<?> type;
                     final Type genericType;
                     Object paramValue = null;
@@ -772,6 +763,47 @@ public final class InjectionUtils {
         return bean;
     }
 
+    private static BeanProperty getBeanProperty(Class<?> beanClass, String memberKey) {
+        Map<String, BeanProperty> properties = BEAN_PROPERTIES.get(beanClass);
+        String key = memberKey.toLowerCase(Locale.ENGLISH);
+        BeanProperty property = properties.get(key);
+        if (property != null) {
+            return property;
+        }
+
+        Object setter = null;
+        Object getter = null;
+        for (Method m : beanClass.getMethods()) {
+            if (m.getName().equalsIgnoreCase("set" + memberKey)
+                && m.getParameterTypes().length == 1) {
+                setter = m;
+            } else if (m.getName().equalsIgnoreCase("get" + memberKey)
+                || isBooleanType(m.getReturnType())
+                   && m.getName().equalsIgnoreCase("is" + memberKey)) {
+                getter = m;
+            }
+            if (setter != null && getter != null) {
+                break;
+            }
+        }
+        if (setter == null) {
+            for (Field f : beanClass.getFields()) {
+                if (f.getName().equalsIgnoreCase(memberKey)) {
+                    setter = f;
+                    getter = f;
+                    break;
+                }
+            }
+        }
+        if (setter == null || getter == null) {
+            // unknown members are not cached as the keys come from the request
+            return null;
+        }
+        property = new BeanProperty(setter, getter);
+        BeanProperty existing = properties.putIfAbsent(key, property);
+        return existing != null ? existing : property;
+    }
+
     @SuppressWarnings("unchecked")
     private static Object mergeMap(Object first, Object second) {
         if (first == null) {
@@ -1491,11 +1523,13 @@ public final class InjectionUtils {
             }
             return obj;
         } else {
-            try {
-                Constructor<?> c = cls.getConstructor(new Class<?>[]{String.class});
-                return c.newInstance(new Object[]{value});
-            } catch (Throwable ex) {
-                // try valueOf
+            Constructor<?> c = VALUE_FACTORIES.get(cls).constructor;
+            if (c != null) {
+                try {
+                    return c.newInstance(new Object[]{value});
+                } catch (Throwable ex) {
+                    // try valueOf
+                }
             }
             return invokeValueOf(value, cls);
         }
@@ -1582,4 +1616,45 @@ public final class InjectionUtils {
     public static Object getEntity(Object o) {
         return o instanceof GenericEntity ? ((GenericEntity<?>)o).getEntity() : o;
     }
+
+    private static final class ValueFactory {
+        final Constructor<?> constructor;
+        final Method[] factoryMethods;
+
+        ValueFactory(Class<?> cls) {
+            Constructor<?> c = null;
+            try {
+                c = cls.getConstructor(new Class<?>[]{String.class});
+            } catch (NoSuchMethodException | SecurityException ex) {
+                // try valueOf
+            }
+            this.constructor = c;
+
+            String[] methodNames = cls.isEnum()
+                ? new String[] {"fromString", "fromValue", "valueOf"}
+                : new String[] {"valueOf", "fromString"};
+            List<Method> methods = new ArrayList<>(methodNames.length);
+            for (String methodName : methodNames) {
+                try {
+                    Method m = cls.getMethod(methodName, new Class<?>[]{String.class});
+                    if (Modifier.isStatic(m.getModifiers())) {
+                        methods.add(m);
+                    }
+                } catch (NoSuchMethodException | SecurityException ex) {
+                    // no luck: try another factory methods
+                }
+            }
+            this.factoryMethods = methods.toArray(new Method[0]);
+        }
+    }
+
+    private static final class BeanProperty {
+        final Object setter;
+        final Object getter;
+
+        BeanProperty(Object setter, Object getter) {
+            this.setter = setter;
+            this.getter = getter;
+        }
+    }
 }
@@ -20,7 +20,9 @@
 package org.apache.cxf.jaxrs.utils.multipart;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -42,11 +44,13 @@ import org.apache.cxf.jaxrs.ext.multipart.Multipart;
 import org.apache.cxf.jaxrs.ext.multipart.MultipartBody;
 import org.apache.cxf.jaxrs.ext.multipart.MultipartInputFilter;
 import org.apache.cxf.jaxrs.ext.multipart.MultipartOutputFilter;
+import org.apache.cxf.jaxrs.ext.multipart.MultipartStream;
 import org.apache.cxf.jaxrs.impl.MetadataMap;
 import org.apache.cxf.jaxrs.utils.ExceptionUtils;
 import org.apache.cxf.jaxrs.utils.FormUtils;
 import org.apache.cxf.jaxrs.utils.JAXRSUtils;
 import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
 import org.apache.cxf.phase.PhaseInterceptorChain;
 
 public final class AttachmentUtils {
@@ -54,6 +58,13 @@ public final class AttachmentUtils {
     public static final String IN_FILTERS = "multipart.input.filters";
     private static final Logger LOG = LogUtils.getL7dLogger(JAXRSUtils.class);
     private static final ResourceBundle BUNDLE = BundleUtils.getBundle(JAXRSUtils.class);
+    private static final List<String> MULTIPART_TYPES =
+        Arrays.asList("multipart/related", "multipart/mixed", "multipart/alternative", "multipart/form-data");
+    private static final String[] STREAMED_ATTACHMENT_PROPERTIES = {
+        AttachmentDeserializer.ATTACHMENT_MAX_SIZE,
+        AttachmentDeserializer.ATTACHMENT_MAX_COUNT,
+        AttachmentDeserializer.ATTACHMENT_MAX_HEADER_SIZE
+    };
 
     private AttachmentUtils() {
     }
@@ -150,6 +161,30 @@ public final class AttachmentUtils {
         return body;
     }
 
+    public static MultipartStream getMultipartStream(MessageContext mc, InputStream is, MediaType mt,
+                                                     String attachmentMaxSize) {
+        Message message = new MessageImpl();
+        message.put(Message.CONTENT_TYPE, mt.toString());
+        message.setContent(InputStream.class, is);
+        for (String key : STREAMED_ATTACHMENT_PROPERTIES) {
+            Object value = mc.getContextualProperty(key);
+            if (value != null) {
+                message.put(key, value);
+            }
+        }
+        if (attachmentMaxSize != null) {
+            message.put(AttachmentDeserializer.ATTACHMENT_MAX_SIZE, attachmentMaxSize);
+        }
+
+        AttachmentDeserializer deserializer = new AttachmentDeserializer(message, MULTIPART_TYPES);
+        try {
+            deserializer.initializeStreamedAttachments();
+        } catch (IOException ex) {
+            throw ExceptionUtils.toBadRequestException(ex, null);
+        }
+        return new MultipartStream(deserializer, mc.getProviders(), mt);
+    }
+
     public static List<Attachment> getAttachments(MessageContext mc,
         String attachmentDir, String attachmentThreshold, String attachmentMaxSize) {
         return getMultipartBody(mc,
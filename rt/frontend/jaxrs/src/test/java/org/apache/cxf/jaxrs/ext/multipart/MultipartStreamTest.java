@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.ext.multipart;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+
+import org.apache.cxf.attachment.AttachmentDeserializer;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.jaxrs.ext.MessageContextImpl;
+import org.apache.cxf.jaxrs.utils.JAXRSUtils;
+import org.apache.cxf.jaxrs.utils.multipart.AttachmentUtils;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class MultipartStreamTest {
+
+    private static final String BODY =
+        "--AaB03x\r\n"
+        + "Content-Disposition: form-data; name=\"name\"\r\n"
+        + "\r\n"
+        + "Larry\r\n"
+        + "--AaB03x\r\n"
+        + "Content-Disposition: form-data; name=\"file\"; filename=\"file1.txt\"\r\n"
+        + "Content-Type: text/plain\r\n"
+        + "\r\n"
+        + "The content of file1.txt\r\n"
+        + "--AaB03x\r\n"
+        + "Content-Disposition: form-data; name=\"comment\"\r\n"
+        + "\r\n"
+        + "Nothing to add\r\n"
+        + "--AaB03x--\r\n";
+
+    @Test
+    public void testReadParts() throws Exception {
+        MultipartStream parts = createMultipartStream(createMessage());
+
+        assertTrue(parts.hasNext());
+        Attachment name = parts.next();
+        assertEquals("name", name.getContentDisposition().getParameter("name"));
+        assertEquals("Larry", IOUtils.toString(name.getDataHandler().getInputStream()));
+
+        Attachment file = parts.next();
+        assertEquals("file1.txt", file.getContentDisposition().getFilename());
+        assertEquals(MediaType.TEXT_PLAIN_TYPE, file.getContentType());
+        assertEquals("The content of file1.txt",
+                     IOUtils.toString(file.getDataHandler().getInputStream()));
+
+        Attachment comment = parts.next();
+        assertEquals("comment", comment.getContentDisposition().getParameter("name"));
+        assertFalse(parts.hasNext());
+        try {
+            parts.next();
+            fail("No parts are left");
+        } catch (NoSuchElementException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testUnreadPartsAreSkipped() throws Exception {
+        MultipartStream parts = createMultipartStream(createMessage());
+        parts.next();
+        parts.next();
+        assertEquals("Nothing to add", read(parts.next()));
+        assertFalse(parts.hasNext());
+    }
+
+    @Test
+    public void testPartMaxSize() throws Exception {
+        Message m = createMessage();
+        m.put(AttachmentDeserializer.ATTACHMENT_MAX_SIZE, "10");
+        MultipartStream parts = createMultipartStream(m);
+        assertEquals("Larry", read(parts.next()));
+        parts.next();
+        try {
+            parts.hasNext();
+            fail("The file part is larger than permitted");
+        } catch (WebApplicationException ex) {
+            assertEquals(413, ex.getResponse().getStatus());
+        }
+    }
+
+    private static String read(Attachment a) throws Exception {
+        return IOUtils.toString(a.getDataHandler().getInputStream());
+    }
+
+    private static Message createMessage() {
+        Message m = new MessageImpl();
+        m.setExchange(new ExchangeImpl());
+        m.getExchange().setInMessage(m);
+        return m;
+    }
+
+    private static MultipartStream createMultipartStream(Message m) {
+        return AttachmentUtils.getMultipartStream(new MessageContextImpl(m),
+            new ByteArrayInputStream(BODY.getBytes(StandardCharsets.UTF_8)),
+            JAXRSUtils.toMediaType("multipart/form-data; boundary=AaB03x"), null);
+    }
+}
@@ -1721,6 +1721,42 @@ public class UriBuilderImplTest {
         assertEquals("foo[]=v1&foo[]=v2&foo[]=v3", uri.getQuery());
     }
 
+    @Test
+    public void testBuildString() throws Exception {
+        UriBuilderImpl builder = new UriBuilderImpl(URI.create("http://localhost:8080/bookstore"));
+        builder.path("books").path("{id}").queryParam("q", "a b").fragment("f");
+        assertEquals("http://localhost:8080/bookstore/books/1%2F2?q=a+b#f", builder.buildString("1/2"));
+        assertEquals(builder.build("1/2").toString(), builder.buildString("1/2"));
+
+        builder = new UriBuilderImpl(URI.create("http://localhost:8080/bookstore/books"));
+        assertEquals("http://localhost:8080/bookstore/books", builder.buildString());
+        assertEquals(builder.build().toString(), builder.buildString());
+    }
+
+    @Test
+    public void testBuildStringFallsBackToUri() throws Exception {
+        UriBuilderImpl builder = new UriBuilderImpl(URI.create("http://[::1]:8080/bookstore"));
+        assertEquals("http://[::1]:8080/bookstore", builder.buildString());
+        builder = new UriBuilderImpl(URI.create("mailto:bob@apache.org"));
+        assertEquals("mailto:bob@apache.org", builder.buildString());
+    }
+
+    @Test
+    public void testBuildStringFromEncoded() throws Exception {
+        UriBuilderImpl builder = new UriBuilderImpl(URI.create("http://localhost:8080/bookstore"));
+        builder.path("books").path("{id}").queryParam("q", "a%20b").fragment("f");
+        assertEquals("http://localhost:8080/bookstore/books/1%2F2?q=a%20b#f", builder.buildStringFromEncoded("1%2F2"));
+        assertEquals(builder.buildFromEncoded("1%2F2").toString(), builder.buildStringFromEncoded("1%2F2"));
+
+        builder = new UriBuilderImpl(URI.create("mailto:bob@apache.org"));
+        assertEquals(builder.buildFromEncoded().toString(), builder.buildStringFromEncoded());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildStringUnresolved() throws Exception {
+        new UriBuilderImpl(URI.create("http://localhost:8080/bookstore/{id}")).buildString();
+    }
+
     @Path(value = "/TestPath")
     public static class TestPath {
 
@@ -33,6 +33,7 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.activation.DataHandler;
 import javax.activation.DataSource;
@@ -670,6 +671,30 @@ public class ProviderFactoryTest {
         assertSame(h2, h);
     }
 
+    @Test
+    public void testParameterHandlerIsCached() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final ParamConverter<Customer> h = new CustomerParameterHandler();
+        ProviderFactory pf = ServerProviderFactory.getInstance();
+        pf.registerUserProvider(new ParamConverterProvider() {
+            @SuppressWarnings("unchecked")
+            @Override
+            public <T> ParamConverter<T> getConverter(Class<T> cls, Type t, Annotation[] anns) {
+                count.incrementAndGet();
+                return cls == Customer.class ? (ParamConverter<T>)h : null;
+            }
+        });
+        for (int i = 0; i < 3; i++) {
+            assertSame(h, pf.createParameterHandler(Customer.class, Customer.class, null, new MessageImpl()));
+            assertNull(pf.createParameterHandler(Book.class, Book.class, null, new MessageImpl()));
+        }
+        assertEquals(2, count.get());
+
+        pf.registerUserProvider(new CustomerParameterHandler());
+        pf.createParameterHandler(Book.class, Book.class, null, new MessageImpl());
+        assertEquals(3, count.get());
+    }
+
     @Test
     public void testGetStringProvider() throws Exception {
         verifyProvider(String.class, StringTextProvider.class, "text/plain");
@@ -39,6 +39,7 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class HttpUtilsTest {
@@ -139,6 +140,18 @@ public class HttpUtilsTest {
         assertEquals("+%20", HttpUtils.pathEncode("+ "));
     }
 
+    @Test
+    public void testEncodeWithoutEncodableCharacters() {
+        String path = "/bookstore/books/123;a=b";
+        assertSame(path, HttpUtils.pathEncode(path));
+        assertSame(path, HttpUtils.encodePartiallyEncoded(path, false));
+        String query = "a,b/c?d";
+        assertSame(query, HttpUtils.queryEncode(query));
+        assertEquals("a%2Bb", HttpUtils.queryEncode("a+b"));
+        assertEquals("a%3D%C3%A9", HttpUtils.queryEncode("a=\u00e9"));
+        assertEquals("%C3%A9", HttpUtils.pathEncode("\u00e9"));
+    }
+
     @Test
     public void testURLEncode() {
         assertEquals("%2B+", HttpUtils.urlEncode("+ "));
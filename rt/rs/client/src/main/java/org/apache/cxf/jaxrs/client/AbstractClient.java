@@ -27,6 +27,7 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -38,6 +39,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -57,6 +59,7 @@ import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriBuilder;
+import javax.ws.rs.core.UriBuilderException;
 import javax.ws.rs.ext.ParamConverter;
 import javax.ws.rs.ext.WriterInterceptor;
 import javax.xml.stream.XMLStreamWriter;
@@ -125,10 +128,13 @@ public abstract class AbstractClient implements Client {
     private static final Logger LOG = LogUtils.getL7dLogger(AbstractClient.class);
     private static final Set<String> KNOWN_METHODS = new HashSet<>(
         Arrays.asList("GET", "POST", "HEAD", "OPTIONS", "PUT", "DELETE", "TRACE"));
+    private static final int MAX_ADDRESS_CACHE_SIZE = 64;
 
     protected ClientConfiguration cfg = new ClientConfiguration();
     private ClientState state;
     private final AtomicBoolean closed = new AtomicBoolean();
+    // the URIs of the addresses recently invoked, keyed by their strings
+    private final Map<String, URI> addresses = new ConcurrentHashMap<>();
     protected AbstractClient(ClientState initialState) {
         this.state = initialState;
     }
@@ -315,7 +321,7 @@ public abstract class AbstractClient implements Client {
      */
     @Override
     public URI getCurrentURI() {
-        return getCurrentBuilder().clone().buildFromEncoded();
+        return buildFromEncoded(getCurrentBuilder());
     }
 
     /**
@@ -395,6 +401,30 @@ public abstract class AbstractClient implements Client {
         return state.getCurrentBuilder();
     }
 
+    /**
+     * Builds the URI the way {@link UriBuilder#buildFromEncoded(Object...)} does. Only the
+     * address string is built if the same address has been invoked recently, its URI is reused.
+     */
+    protected URI buildFromEncoded(UriBuilder builder, Object... values) {
+        if (!(builder instanceof UriBuilderImpl)) {
+            return builder.clone().buildFromEncoded(values);
+        }
+        String address = ((UriBuilderImpl)builder).buildStringFromEncoded(values);
+        URI uri = addresses.get(address);
+        if (uri == null) {
+            try {
+                uri = new URI(address);
+            } catch (URISyntaxException ex) {
+                throw new UriBuilderException("URI can not be built", ex);
+            }
+            if (addresses.size() >= MAX_ADDRESS_CACHE_SIZE) {
+                addresses.clear();
+            }
+            addresses.put(address, uri);
+        }
+        return uri;
+    }
+
     protected void resetResponse() {
         state.setResponse(null);
     }
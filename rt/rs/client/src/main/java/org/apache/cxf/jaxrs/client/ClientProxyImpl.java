@@ -43,6 +43,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
@@ -113,6 +114,8 @@ public class ClientProxyImpl extends AbstractClient implements
     protected Map<String, Object> valuesMap = Collections.emptyMap();
     protected BodyWriter bodyWriter = new BodyWriter();
     protected Client proxy;
+    private final Map<Method, InvocationPlan> invocationPlans = new ConcurrentHashMap<>();
+
     public ClientProxyImpl(URI baseURI,
                            ClassLoader loader,
                            ClassResourceInfo cri,
@@ -271,18 +274,19 @@ public class ClientProxyImpl extends AbstractClient implements
             return m.invoke(this, params);
         }
         resetResponse();
-        OperationResourceInfo ori = cri.getMethodDispatcher().getOperationResourceInfo(m);
-        if (ori == null) {
+        InvocationPlan plan = getInvocationPlan(m, params);
+        if (plan == null) {
             if (m.isDefault()) {
                 return invokeDefaultMethod(declaringClass, o, m, params);
             }
             reportInvalidResourceMethod(m, "INVALID_RESOURCE_METHOD");
         }
 
-        MultivaluedMap<ParameterType, Parameter> types = getParametersInfo(m, params, ori);
-        List<Parameter> beanParamsList = getParameters(types, ParameterType.BEAN);
+        OperationResourceInfo ori = plan.ori;
+        MultivaluedMap<ParameterType, Parameter> types = plan.types;
+        List<Parameter> beanParamsList = plan.beanParams;
 
-        int bodyIndex = getBodyIndex(types, ori);
+        int bodyIndex = plan.bodyIndex;
 
         List<Object> pathParams = getPathParamValues(m, params, types, beanParamsList, ori, bodyIndex);
 
@@ -295,7 +299,7 @@ public class ClientProxyImpl extends AbstractClient implements
         handleMatrixes(m, params, types, beanParamsList, builder);
         handleQueries(m, params, types, beanParamsList, builder);
 
-        URI uri = builder.buildFromEncoded(pathParams.toArray()).normalize();
+        URI uri = buildFromEncoded(builder, pathParams.toArray()).normalize();
 
         MultivaluedMap<String, String> headers = getHeaders();
         MultivaluedMap<String, String> paramHeaders = new MetadataMap<>();
@@ -349,6 +353,42 @@ public class ClientProxyImpl extends AbstractClient implements
 
     }
 
+    /**
+     * Returns the invocation plan of the proxy method, the parts of the invocation which
+     * only depend on the method (the parameters classification, the body index, the default
+     * headers, etc) are computed on the first call and reused afterwards.
+     */
+    private InvocationPlan getInvocationPlan(Method m, Object[] params) {
+        InvocationPlan plan = invocationPlans.get(m);
+        if (plan == null) {
+            OperationResourceInfo ori = cri.getMethodDispatcher().getOperationResourceInfo(m);
+            if (ori == null) {
+                return null;
+            }
+            MultivaluedMap<ParameterType, Parameter> types = getParametersInfo(m, params, ori);
+            plan = new InvocationPlan(m, ori, types, getBodyIndex(types, ori));
+            InvocationPlan existing = invocationPlans.putIfAbsent(m, plan);
+            if (existing != null) {
+                plan = existing;
+            }
+        }
+        return plan;
+    }
+
+    private InvocationPlan getInvocationPlan(OperationResourceInfo ori) {
+        InvocationPlan plan = invocationPlans.get(ori.getMethodToInvoke());
+        return plan != null && plan.ori == ori ? plan : null;
+    }
+
+    private Annotation[] getParamAnnotations(Method m, Parameter p, Annotation[][] anns) {
+        return anns != null ? anns[p.getIndex()] : getParamAnnotations(m, p);
+    }
+
+    private Annotation[][] getCachedParamAnnotations(Method m) {
+        InvocationPlan plan = invocationPlans.get(m);
+        return plan != null ? plan.paramAnnotations : null;
+    }
+
     protected void addNonEmptyPath(UriBuilder builder, String pathValue) {
         if (!SLASH.equals(pathValue)) {
             builder.path(pathValue);
@@ -463,42 +503,50 @@ public class ClientProxyImpl extends AbstractClient implements
             if (formParams || bodyClass != null && MultivaluedMap.class.isAssignableFrom(bodyClass)) {
                 headers.putSingle(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_FORM_URLENCODED);
             } else {
-                String ctType = null;
-                List<MediaType> consumeTypes = ori.getConsumeTypes();
-                if (!consumeTypes.isEmpty() && !consumeTypes.get(0).equals(MediaType.WILDCARD_TYPE)) {
-                    ctType = JAXRSUtils.mediaTypeToString(ori.getConsumeTypes().get(0));
-                }
+                InvocationPlan plan = getInvocationPlan(ori);
+                String ctType = plan != null ? plan.contentType : getDefaultContentType(ori);
                 if (ctType != null) {
                     headers.putSingle(HttpHeaders.CONTENT_TYPE, ctType);
                 }
             }
         }
 
-        List<MediaType> accepts = getAccept(headers);
-        if (accepts == null) {
-            if (responseClass == Void.class || responseClass == Void.TYPE) {
-                accepts = Collections.singletonList(MediaType.WILDCARD_TYPE);
-            } else {
-                List<MediaType> produceTypes = ori.getProduceTypes();
-                boolean produceWildcard = produceTypes.isEmpty()
-                    || produceTypes.get(0).equals(MediaType.WILDCARD_TYPE);
-                if (produceWildcard) {
-                    accepts = InjectionUtils.isPrimitive(responseClass)
-                        ? Collections.singletonList(MediaType.TEXT_PLAIN_TYPE)
-                        : Collections.singletonList(MediaType.APPLICATION_XML_TYPE);
-                } else {
-                    accepts = produceTypes;
-                }
-            }
-
-            for (MediaType mt : accepts) {
-                headers.add(HttpHeaders.ACCEPT, JAXRSUtils.mediaTypeToString(mt));
-            }
+        if (getAccept(headers) == null) {
+            InvocationPlan plan = getInvocationPlan(ori);
+            headers.addAll(HttpHeaders.ACCEPT, plan != null && plan.responseClass == responseClass
+                ? plan.accepts : getDefaultAccept(ori, responseClass));
         }
 
         return headers;
     }
 
+    private static String getDefaultContentType(OperationResourceInfo ori) {
+        List<MediaType> consumeTypes = ori.getConsumeTypes();
+        if (!consumeTypes.isEmpty() && !consumeTypes.get(0).equals(MediaType.WILDCARD_TYPE)) {
+            return JAXRSUtils.mediaTypeToString(consumeTypes.get(0));
+        }
+        return null;
+    }
+
+    private static List<String> getDefaultAccept(OperationResourceInfo ori, Class<?> responseClass) {
+        List<MediaType> accepts;
+        if (responseClass == Void.class || responseClass == Void.TYPE) {
+            accepts = Collections.singletonList(MediaType.WILDCARD_TYPE);
+        } else {
+            List<MediaType> produceTypes = ori.getProduceTypes();
+            boolean produceWildcard = produceTypes.isEmpty()
+                || produceTypes.get(0).equals(MediaType.WILDCARD_TYPE);
+            if (produceWildcard) {
+                accepts = InjectionUtils.isPrimitive(responseClass)
+                    ? Collections.singletonList(MediaType.TEXT_PLAIN_TYPE)
+                    : Collections.singletonList(MediaType.APPLICATION_XML_TYPE);
+            } else {
+                accepts = produceTypes;
+            }
+        }
+        return accepts.stream().map(JAXRSUtils::mediaTypeToString).collect(Collectors.toList());
+    }
+
     protected List<MediaType> getAccept(MultivaluedMap<String, String> allHeaders) {
         List<String> headers = allHeaders.get(HttpHeaders.ACCEPT);
         if (headers == null || headers.isEmpty()) {
@@ -515,6 +563,7 @@ public class ClientProxyImpl extends AbstractClient implements
                                             OperationResourceInfo ori,
                                             int bodyIndex) {
         List<Object> list = new ArrayList<>();
+        InvocationPlan plan = invocationPlans.get(m);
 
         List<String> methodVars = ori.getURITemplate().getVariables();
         List<Parameter> paramsList = getParameters(map, ParameterType.PATH);
@@ -558,8 +607,8 @@ public class ClientProxyImpl extends AbstractClient implements
             Parameter p = paramsMap.remove(varName);
             if (p != null) {
                 list.add(convertParamValue(params[p.getIndex()],
-                        m.getParameterTypes()[p.getIndex()],
-                        getParamAnnotations(m, p)));
+                        plan != null ? plan.paramTypes[p.getIndex()] : m.getParameterTypes()[p.getIndex()],
+                        plan != null ? plan.paramAnnotations[p.getIndex()] : getParamAnnotations(m, p)));
             } else if (beanParamValues.containsKey(varName)) {
                 BeanPair pair = beanParamValues.get(varName);
                 list.add(convertParamValue(pair.getValue(), pair.getAnns()));
@@ -604,12 +653,13 @@ public class ClientProxyImpl extends AbstractClient implements
                                MultivaluedMap<ParameterType, Parameter> map,
                                List<Parameter> beanParams,
                                UriBuilder ub) {
+        Annotation[][] anns = getCachedParamAnnotations(m);
         List<Parameter> qs = getParameters(map, ParameterType.QUERY);
         qs.stream().
                 filter(p -> params[p.getIndex()] != null).
                 forEachOrdered(p -> {
                     addMatrixQueryParamsToBuilder(ub, p.getName(), ParameterType.QUERY,
-                            getParamAnnotations(m, p), params[p.getIndex()]);
+                            getParamAnnotations(m, p, anns), params[p.getIndex()]);
                 });
         beanParams.stream().
                 map(p -> getValuesFromBeanParam(params[p.getIndex()], QueryParam.class)).
@@ -706,12 +756,13 @@ public class ClientProxyImpl extends AbstractClient implements
                                 MultivaluedMap<ParameterType, Parameter> map,
                                 List<Parameter> beanParams,
                                 UriBuilder ub) {
+        Annotation[][] anns = getCachedParamAnnotations(m);
         List<Parameter> mx = getParameters(map, ParameterType.MATRIX);
         mx.stream().
                 filter(p -> params[p.getIndex()] != null).
                 forEachOrdered(p -> {
                     addMatrixQueryParamsToBuilder(ub, p.getName(), ParameterType.MATRIX,
-                            getParamAnnotations(m, p), params[p.getIndex()]);
+                            getParamAnnotations(m, p, anns), params[p.getIndex()]);
                 });
         beanParams.stream().
                 map(p -> getValuesFromBeanParam(params[p.getIndex()], MatrixParam.class)).
@@ -729,12 +780,13 @@ public class ClientProxyImpl extends AbstractClient implements
                                                       Object[] params,
                                                       MultivaluedMap<ParameterType, Parameter> map,
                                                       List<Parameter> beanParams) {
+        Annotation[][] anns = getCachedParamAnnotations(m);
 
         MultivaluedMap<String, String> form = new MetadataMap<>();
 
         List<Parameter> fm = getParameters(map, ParameterType.FORM);
         fm.forEach(p -> {
-            addFormValue(form, p.getName(), params[p.getIndex()], getParamAnnotations(m, p));
+            addFormValue(form, p.getName(), params[p.getIndex()], getParamAnnotations(m, p, anns));
         });
         beanParams.stream().
                 map(p -> getValuesFromBeanParam(params[p.getIndex()], FormParam.class)).
@@ -786,11 +838,13 @@ public class ClientProxyImpl extends AbstractClient implements
                                MultivaluedMap<String, String> headers,
                                List<Parameter> beanParams,
                                MultivaluedMap<ParameterType, Parameter> map) {
+        Annotation[][] anns = getCachedParamAnnotations(m);
         List<Parameter> hs = getParameters(map, ParameterType.HEADER);
         hs.stream().
                 filter(p -> params[p.getIndex()] != null).
                 forEachOrdered(p -> {
-                    headers.add(p.getName(), convertParamValue(params[p.getIndex()], getParamAnnotations(m, p)));
+                    headers.add(p.getName(),
+                        convertParamValue(params[p.getIndex()], getParamAnnotations(m, p, anns)));
                 });
         beanParams.stream().
                 map(p -> getValuesFromBeanParam(params[p.getIndex()], HeaderParam.class)).
@@ -814,13 +868,14 @@ public class ClientProxyImpl extends AbstractClient implements
                                MultivaluedMap<String, String> headers,
                                List<Parameter> beanParams,
                                MultivaluedMap<ParameterType, Parameter> map) {
+        Annotation[][] anns = getCachedParamAnnotations(m);
         List<Parameter> cs = getParameters(map, ParameterType.COOKIE);
         cs.stream().
                 filter(p -> params[p.getIndex()] != null).
                 forEachOrdered(p -> {
                     headers.add(HttpHeaders.COOKIE,
                             p.getName() + '='
-                            + convertParamValue(params[p.getIndex()].toString(), getParamAnnotations(m, p)));
+                            + convertParamValue(params[p.getIndex()].toString(), getParamAnnotations(m, p, anns)));
                 });
         beanParams.stream().
                 map(p -> getValuesFromBeanParam(params[p.getIndex()], CookieParam.class)).
@@ -864,8 +919,10 @@ public class ClientProxyImpl extends AbstractClient implements
                 origLoader = ClassLoaderUtils.setThreadContextClassloader(loader);
             }
             Message outMessage = createMessage(body, ori, headers, uri, exchange, invocationContext, true);
+            InvocationPlan plan = getInvocationPlan(ori);
             if (bodyIndex != -1) {
-                outMessage.put(Type.class, ori.getMethodToInvoke().getGenericParameterTypes()[bodyIndex]);
+                outMessage.put(Type.class, plan != null ? plan.invokedGenericParamTypes[bodyIndex]
+                    : ori.getMethodToInvoke().getGenericParameterTypes()[bodyIndex]);
             }
             outMessage.getExchange().setOneWay(ori.isOneway());
             setSupportOnewayResponseProperty(outMessage);
@@ -873,8 +930,8 @@ public class ClientProxyImpl extends AbstractClient implements
             setPlainOperationNameProperty(outMessage, ori.getMethodToInvoke().getName());
             outMessage.getExchange().put(Method.class, ori.getMethodToInvoke());
 
-            outMessage.put(Annotation.class.getName(),
-                           getMethodAnnotations(ori.getAnnotatedMethod(), bodyIndex));
+            outMessage.put(Annotation.class.getName(), plan != null ? plan.getBodyAnnotations(bodyIndex)
+                : getMethodAnnotations(ori.getAnnotatedMethod(), bodyIndex));
 
             outMessage.getExchange().put(Message.SERVICE_OBJECT, proxy);
             if (methodParams != null) {
@@ -1081,17 +1138,21 @@ public class ClientProxyImpl extends AbstractClient implements
 
             Method method = ori.getMethodToInvoke();
             int bodyIndex = (Integer)outMessage.get(PROXY_METHOD_PARAM_BODY_INDEX);
+            InvocationPlan plan = getInvocationPlan(ori);
 
             Annotation[] anns = customAnns != null ? customAnns
+                : plan != null ? plan.getBodyAnnotations(bodyIndex)
                 : getMethodAnnotations(ori.getAnnotatedMethod(), bodyIndex);
             try {
                 if (bodyIndex != -1) {
-                    Class<?> paramClass = method.getParameterTypes()[bodyIndex];
+                    Class<?> paramClass = plan != null ? plan.invokedParamTypes[bodyIndex]
+                        : method.getParameterTypes()[bodyIndex];
                     Class<?> bodyClass =
                         paramClass.isAssignableFrom(body.getClass()) ? paramClass : body.getClass();
                     Type genericType = bodyType;
                     if (genericType == null) {
-                        Type[] genericParameterTypes = method.getGenericParameterTypes();
+                        Type[] genericParameterTypes = plan != null ? plan.invokedGenericParamTypes
+                            : method.getGenericParameterTypes();
                         if (bodyIndex < genericParameterTypes.length) {
                             genericType = genericParameterTypes[bodyIndex];
                         }
@@ -1116,6 +1177,48 @@ public class ClientProxyImpl extends AbstractClient implements
 
     }
 
+    /**
+     * The parts of the proxy method invocation which only depend on the method.
+     */
+    private static final class InvocationPlan {
+        private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+
+        private final OperationResourceInfo ori;
+        private final MultivaluedMap<ParameterType, Parameter> types;
+        private final List<Parameter> beanParams;
+        private final int bodyIndex;
+        private final Class<?>[] paramTypes;
+        private final Annotation[][] paramAnnotations;
+        private final Class<?>[] invokedParamTypes;
+        private final Type[] invokedGenericParamTypes;
+        private final Annotation[][] bodyAnnotations;
+        private final String contentType;
+        private final Class<?> responseClass;
+        private final List<String> accepts;
+
+        InvocationPlan(Method m, OperationResourceInfo ori, MultivaluedMap<ParameterType, Parameter> types,
+                       int bodyIndex) {
+            this.ori = ori;
+            this.types = types;
+            this.beanParams = getParameters(types, ParameterType.BEAN);
+            this.bodyIndex = bodyIndex;
+            this.paramTypes = m.getParameterTypes();
+            this.paramAnnotations = m.getParameterAnnotations();
+            Method invoked = ori.getMethodToInvoke();
+            this.invokedParamTypes = invoked.equals(m) ? paramTypes : invoked.getParameterTypes();
+            this.invokedGenericParamTypes = invoked.getGenericParameterTypes();
+            Method annotated = ori.getAnnotatedMethod();
+            this.bodyAnnotations = annotated == null ? null : annotated.getParameterAnnotations();
+            this.contentType = getDefaultContentType(ori);
+            this.responseClass = m.getReturnType();
+            this.accepts = Collections.unmodifiableList(getDefaultAccept(ori, responseClass));
+        }
+
+        Annotation[] getBodyAnnotations(int index) {
+            return bodyAnnotations == null || index == -1 ? NO_ANNOTATIONS : bodyAnnotations[index];
+        }
+    }
+
     protected static class BeanPair {
         protected Object value;
         protected Annotation[] anns;
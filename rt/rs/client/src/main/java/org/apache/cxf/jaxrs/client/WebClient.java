@@ -1138,7 +1138,9 @@ public class WebClient extends AbstractClient {
         if (prop == null || PropertyUtils.isTrue(prop)) {
             UriBuilder absPathUri = super.getCurrentBuilder().clone();
             absPathUri.replaceQuery(null);
-            setPlainOperationNameProperty(m, httpMethod + ":" + absPathUri.build().toString());
+            String absPath = absPathUri instanceof UriBuilderImpl
+                ? ((UriBuilderImpl)absPathUri).buildString() : absPathUri.build().toString();
+            setPlainOperationNameProperty(m, httpMethod + ":" + absPath);
         }
 
     }
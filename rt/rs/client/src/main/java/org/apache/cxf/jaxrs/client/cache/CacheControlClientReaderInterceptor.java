@@ -24,8 +24,10 @@ import java.io.InputStream;
 import java.io.Serializable;
 import java.net.URI;
 import java.text.ParseException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
 
 import javax.annotation.Priority;
 import javax.cache.Cache;
@@ -44,14 +46,20 @@ import org.apache.cxf.transport.http.Headers;
 
 @Priority(Priorities.USER - 1)
 public class CacheControlClientReaderInterceptor implements ReaderInterceptor {
-    private Cache<Key, Entry> cache;
+    private static final String STALE_WHILE_REVALIDATE = "stale-while-revalidate";
+    private static final String STALE_IF_ERROR = "stale-if-error";
+    private CacheControlState state;
 
     @Context
     private UriInfo uriInfo;
     private boolean cacheResponseInputStream;
 
     public CacheControlClientReaderInterceptor(final Cache<Key, Entry> cache) {
-        this.cache = cache;
+        this.state = new CacheControlState(cache);
+    }
+
+    CacheControlClientReaderInterceptor(final CacheControlState state) {
+        this.state = state;
     }
 
     public CacheControlClientReaderInterceptor() {
@@ -59,12 +67,27 @@ public class CacheControlClientReaderInterceptor implements ReaderInterceptor {
     }
 
     public CacheControlClientReaderInterceptor setCache(final Cache<Key, Entry> c) {
-        this.cache = c;
+        this.state = new CacheControlState(c);
         return this;
     }
 
     @Override
     public Object aroundReadFrom(final ReaderInterceptorContext context) throws IOException, WebApplicationException {
+        final CacheControlState.InFlightRequest inFlight = (CacheControlState.InFlightRequest)
+            context.getProperty(CacheControlClientRequestFilter.IN_FLIGHT_PROPERTY);
+        if (inFlight != null) {
+            inFlight.startReading();
+        }
+        try {
+            return readAndCache(context);
+        } finally {
+            if (inFlight != null) {
+                inFlight.complete();
+            }
+        }
+    }
+
+    private Object readAndCache(final ReaderInterceptorContext context) throws IOException {
         Object cachedEntity = context.getProperty(CacheControlClientRequestFilter.CACHED_ENTITY_PROPERTY);
         if (cachedEntity != null) {
             if (cachedEntity instanceof BytesEntity) {
@@ -101,6 +124,7 @@ public class CacheControlClientReaderInterceptor implements ReaderInterceptor {
         Object responseEntity = context.proceed();
 
         if (!validCacheControl) {
+            state.setCacheable(getKey(context), false);
             return responseEntity;
         }
 
@@ -119,17 +143,94 @@ public class CacheControlClientReaderInterceptor implements ReaderInterceptor {
             responseEntity = new ByteArrayInputStream(bytes);
         }
 
-        if (ser != null) {
+        final Map<String, String> varyHeaders = computeVaryHeaders(context, responseHeaders);
+        if (ser != null && varyHeaders != null) {
             final Entry entry =
                 new Entry(ser, responseHeaders,
                           computeCacheHeaders(responseHeaders), computeExpiry(cacheControl, responseHeaders));
-            final URI uri = uriInfo.getRequestUri();
-            final String accepts = (String)context.getProperty(CacheControlClientRequestFilter.CLIENT_ACCEPTS);
-            cache.put(new Key(uri, accepts), entry);
+            entry.setVaryHeaders(varyHeaders);
+            if (!cacheControl.isMustRevalidate()) {
+                entry.setStaleWhileRevalidate(getExtension(cacheControl, STALE_WHILE_REVALIDATE));
+                entry.setStaleIfError(getExtension(cacheControl, STALE_IF_ERROR));
+            }
+            entry.setSize(computeSize(ser, responseHeaders));
+            state.put(getKey(context), entry);
+        } else {
+            state.setCacheable(getKey(context), false);
         }
         return responseEntity;
     }
 
+    private Key getKey(final ReaderInterceptorContext context) {
+        final Key key = (Key)context.getProperty(CacheControlClientRequestFilter.CACHE_KEY_PROPERTY);
+        if (key != null) {
+            return key;
+        }
+        final URI uri = uriInfo.getRequestUri();
+        final String accepts = (String)context.getProperty(CacheControlClientRequestFilter.CLIENT_ACCEPTS);
+        return new Key(uri, accepts);
+    }
+
+    /**
+     * @return the values the request headers listed by Vary had or null if the response
+     *         varies on something which is not a request header (Vary: *)
+     */
+    private static Map<String, String> computeVaryHeaders(final ReaderInterceptorContext context,
+                                                          final MultivaluedMap<String, String> responseHeaders) {
+        final String vary = responseHeaders.getFirst(HttpHeaders.VARY);
+        if (vary == null) {
+            return Collections.emptyMap();
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> requestHeaders = (Map<String, String>)
+            context.getProperty(CacheControlClientRequestFilter.CLIENT_REQUEST_HEADERS);
+        if (requestHeaders == null) {
+            requestHeaders = Collections.emptyMap();
+        }
+        final Map<String, String> varyHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String name : vary.split(",")) {
+            name = name.trim();
+            if ("*".equals(name)) {
+                return null;
+            }
+            if (!name.isEmpty()) {
+                varyHeaders.put(name, requestHeaders.get(name));
+            }
+        }
+        return varyHeaders;
+    }
+
+    private static long getExtension(final CacheControl cacheControl, final String name) {
+        final String value = cacheControl.getCacheExtension().get(name);
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (final NumberFormatException e) {
+                // ignore the invalid directive
+            }
+        }
+        return 0;
+    }
+
+    private static long computeSize(final Serializable ser, final MultivaluedMap<String, String> responseHeaders) {
+        if (ser instanceof BytesEntity) {
+            return ((BytesEntity)ser).getEntity().length;
+        } else if (ser instanceof String) {
+            return ((String)ser).length();
+        } else if (ser instanceof byte[]) {
+            return ((byte[])ser).length;
+        }
+        final String length = responseHeaders.getFirst(HttpHeaders.CONTENT_LENGTH);
+        if (length != null) {
+            try {
+                return Long.parseLong(length);
+            } catch (final NumberFormatException e) {
+                // fall through
+            }
+        }
+        return -1;
+    }
+
     private Map<String, String> computeCacheHeaders(final MultivaluedMap<String, String> responseHeaders) {
         final Map<String, String> cacheHeaders = new HashMap<>(2);
 
@@ -151,6 +252,9 @@ public class CacheControlClientReaderInterceptor implements ReaderInterceptor {
         if (expiry == -1) {
             //TODO: Review if Expires can be supported as an alternative to Cache-Control
             String expiresHeader = responseHeaders.getFirst(HttpHeaders.EXPIRES);
+            if (expiresHeader == null) {
+                return 0;
+            }
             if (expiresHeader.length() > 1 && expiresHeader.startsWith("'") && expiresHeader.endsWith("'")) {
                 expiresHeader = expiresHeader.substring(1, expiresHeader.length() - 1);
             }
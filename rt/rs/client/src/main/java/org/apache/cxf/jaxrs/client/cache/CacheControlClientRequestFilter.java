@@ -20,8 +20,10 @@ package org.apache.cxf.jaxrs.client.cache;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import javax.annotation.Priority;
 import javax.cache.Cache;
@@ -40,16 +42,25 @@ public class CacheControlClientRequestFilter implements ClientRequestFilter {
     static final String CACHED_ENTITY_PROPERTY = "client_cached_entity";
     static final String CLIENT_ACCEPTS = "client_accepts";
     static final String CLIENT_CACHE_CONTROL = "client_cache_control";
-    private Cache<Key, Entry> cache;
+    static final String CLIENT_REQUEST_HEADERS = "client_request_headers";
+    static final String CACHE_KEY_PROPERTY = "client_cache_key";
+    static final String CACHED_ENTRY_PROPERTY = "client_cached_entry";
+    static final String IN_FLIGHT_PROPERTY = "client_cache_in_flight";
+    static final String REVALIDATION_PROPERTY = "client_cache_revalidation";
+    private CacheControlState state;
 
     public CacheControlClientRequestFilter(final Cache<Key, Entry> cache) {
-        this.cache = cache;
+        this.state = new CacheControlState(cache);
     }
 
     public CacheControlClientRequestFilter() {
         // no-op: use setCache then
     }
 
+    CacheControlClientRequestFilter(final CacheControlState state) {
+        this.state = state;
+    }
+
     @Override
     public void filter(final ClientRequestContext request) throws IOException {
         if (!HttpMethod.GET.equals(request.getMethod())) {
@@ -61,42 +72,104 @@ public class CacheControlClientRequestFilter implements ClientRequestFilter {
         final URI uri = request.getUri();
         final String accepts = request.getHeaderString(HttpHeaders.ACCEPT);
         final Key key = new Key(uri, accepts);
-        Entry entry = cache.get(key);
-        if (entry != null) {
-            //TODO: do the extra validation against the conditional headers
-            //      which may be contained in the current request
-            if (entry.isOutDated()) {
-                String ifNoneMatchHeader = entry.getCacheHeaders().get(HttpHeaders.IF_NONE_MATCH);
-                String ifModifiedSinceHeader = entry.getCacheHeaders().get(HttpHeaders.IF_MODIFIED_SINCE);
+        final Map<String, String> requestHeaders = getRequestHeaders(request);
+        // Should the map of all request headers shared ?
+        request.setProperty(CLIENT_ACCEPTS, accepts);
+        request.setProperty(CLIENT_CACHE_CONTROL, request.getHeaderString(HttpHeaders.CACHE_CONTROL));
+        request.setProperty(CLIENT_REQUEST_HEADERS, requestHeaders);
+        request.setProperty(CACHE_KEY_PROPERTY, key);
 
-                if (StringUtils.isEmpty(ifNoneMatchHeader) && StringUtils.isEmpty(ifModifiedSinceHeader)) {
-                    cache.remove(key, entry);
-                } else {
-                    request.getHeaders().add(HttpHeaders.IF_NONE_MATCH, ifNoneMatchHeader);
-                    request.getHeaders().add(HttpHeaders.IF_MODIFIED_SINCE, ifModifiedSinceHeader);
-                    request.setProperty(CACHED_ENTITY_PROPERTY, entry.getData());
-                }
-            } else {
-                Object cachedEntity = entry.getData();
-                Response.ResponseBuilder ok = Response.ok(cachedEntity);
-                if (entry.getHeaders() != null) {
-                    for (Map.Entry<String, List<String>> h : entry.getHeaders().entrySet()) {
-                        for (final Object instance : h.getValue()) {
-                            ok = ok.header(h.getKey(), instance);
-                        }
-                    }
+        final CacheStatistics statistics = state.getStatistics();
+        final boolean revalidation = request.getProperty(REVALIDATION_PROPERTY) != null;
+        Entry entry = getEntry(key, requestHeaders);
+        if (entry == null && !revalidation) {
+            // only one of the concurrent requests for the same resource goes to the server,
+            // the others wait for its response to be cached
+            final CacheControlState.InFlightRequest inFlight = state.startRequest(key);
+            if (inFlight != null) {
+                request.setProperty(IN_FLIGHT_PROPERTY, inFlight);
+                state.completeOnFault(request, inFlight);
+            } else if (state.awaitRequest(request, key)) {
+                entry = getEntry(key, requestHeaders);
+                if (entry != null && !entry.isOutDated()) {
+                    statistics.coalesced();
                 }
-                request.setProperty(CACHED_ENTITY_PROPERTY, cachedEntity);
-                request.abortWith(ok.build());
             }
         }
-        // Should the map of all request headers shared ?
-        request.setProperty(CLIENT_ACCEPTS, accepts);
-        request.setProperty(CLIENT_CACHE_CONTROL, request.getHeaderString(HttpHeaders.CACHE_CONTROL));
+        if (entry == null) {
+            statistics.miss();
+            return;
+        }
+        //TODO: do the extra validation against the conditional headers
+        //      which may be contained in the current request
+        if (revalidation) {
+            revalidate(request, entry);
+        } else if (!entry.isOutDated()) {
+            statistics.hit();
+            returnCachedEntity(request, entry);
+        } else if (entry.isStaleWhileRevalidate() && request.getClient() != null) {
+            statistics.staleHit();
+            state.revalidate(request.getClient(), key, entry, requestHeaders);
+            returnCachedEntity(request, entry);
+        } else if (hasValidators(entry) || entry.isStaleIfError()) {
+            revalidate(request, entry);
+        } else {
+            statistics.miss();
+            state.remove(key, entry);
+        }
     }
 
     public CacheControlClientRequestFilter setCache(final Cache<Key, Entry> c) {
-        this.cache = c;
+        this.state = new CacheControlState(c);
         return this;
     }
+
+    private Entry getEntry(final Key key, final Map<String, String> requestHeaders) {
+        final Entry entry = state.get(key);
+        return entry == null || !entry.isVaryMatching(requestHeaders) ? null : entry;
+    }
+
+    private void revalidate(final ClientRequestContext request, final Entry entry) {
+        final String ifNoneMatchHeader = entry.getCacheHeaders().get(HttpHeaders.IF_NONE_MATCH);
+        if (!StringUtils.isEmpty(ifNoneMatchHeader)) {
+            request.getHeaders().putSingle(HttpHeaders.IF_NONE_MATCH, ifNoneMatchHeader);
+        }
+        final String ifModifiedSinceHeader = entry.getCacheHeaders().get(HttpHeaders.IF_MODIFIED_SINCE);
+        if (!StringUtils.isEmpty(ifModifiedSinceHeader)) {
+            request.getHeaders().putSingle(HttpHeaders.IF_MODIFIED_SINCE, ifModifiedSinceHeader);
+        }
+        // the response filter returns the cached entity if the server replies with 304
+        request.setProperty(CACHED_ENTRY_PROPERTY, entry);
+        state.getStatistics().revalidation();
+    }
+
+    private static boolean hasValidators(final Entry entry) {
+        return !StringUtils.isEmpty(entry.getCacheHeaders().get(HttpHeaders.IF_NONE_MATCH))
+            || !StringUtils.isEmpty(entry.getCacheHeaders().get(HttpHeaders.IF_MODIFIED_SINCE));
+    }
+
+    private static void returnCachedEntity(final ClientRequestContext request, final Entry entry) {
+        Object cachedEntity = entry.getData();
+        Response.ResponseBuilder ok = Response.ok(cachedEntity);
+        if (entry.getHeaders() != null) {
+            for (Map.Entry<String, List<String>> h : entry.getHeaders().entrySet()) {
+                for (final Object instance : h.getValue()) {
+                    ok = ok.header(h.getKey(), instance);
+                }
+            }
+        }
+        request.setProperty(CACHED_ENTITY_PROPERTY, cachedEntity);
+        request.abortWith(ok.build());
+    }
+
+    private static Map<String, String> getRequestHeaders(final ClientRequestContext request) {
+        if (request.getHeaders().isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (String name : request.getHeaders().keySet()) {
+            headers.put(name, request.getHeaderString(name));
+        }
+        return headers;
+    }
 }
@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.client.cache;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Priority;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+
+/**
+ * Completes the revalidation of the cached entries: the cached entity is returned if the server
+ * replies with 304 Not Modified or, if the entry allows it (stale-if-error), with a server error.
+ */
+@Priority(Priorities.USER - 1)
+public class CacheControlClientResponseFilter implements ClientResponseFilter {
+    private final CacheControlState state;
+
+    CacheControlClientResponseFilter(final CacheControlState state) {
+        this.state = state;
+    }
+
+    @Override
+    public void filter(final ClientRequestContext request, final ClientResponseContext response) throws IOException {
+        final Entry entry = (Entry)request.getProperty(CacheControlClientRequestFilter.CACHED_ENTRY_PROPERTY);
+        final Key key = (Key)request.getProperty(CacheControlClientRequestFilter.CACHE_KEY_PROPERTY);
+        final int status = response.getStatus();
+        if (entry != null && key != null) {
+            if (status == Response.Status.NOT_MODIFIED.getStatusCode()) {
+                state.getStatistics().notModified();
+                refresh(entry, response.getHeaders());
+                state.put(key, entry);
+                returnCachedEntity(request, response, entry);
+            } else if (status >= 500 && entry.isStaleIfError()) {
+                state.getStatistics().staleHit();
+                returnCachedEntity(request, response, entry);
+            }
+        }
+        final CacheControlState.InFlightRequest inFlight = (CacheControlState.InFlightRequest)
+            request.getProperty(CacheControlClientRequestFilter.IN_FLIGHT_PROPERTY);
+        if (inFlight != null) {
+            if (status != Response.Status.OK.getStatusCode() || response.getEntityStream() == null) {
+                // nothing will be read and cached, let the waiting requests go
+                inFlight.complete();
+            } else {
+                // the response may be closed without its entity being read
+                response.setEntityStream(inFlight.completeOnClose(response.getEntityStream()));
+            }
+        }
+    }
+
+    private static void refresh(final Entry entry, final MultivaluedMap<String, String> headers) {
+        entry.setInitialTimestamp(System.currentTimeMillis());
+        final String cacheControlHeader = headers.getFirst(HttpHeaders.CACHE_CONTROL);
+        if (cacheControlHeader != null) {
+            final CacheControl cacheControl = CacheControl.valueOf(cacheControlHeader);
+            if (cacheControl.getMaxAge() != -1) {
+                entry.setExpiresValue(cacheControl.getMaxAge());
+            }
+        }
+    }
+
+    private static void returnCachedEntity(final ClientRequestContext request,
+                                           final ClientResponseContext response,
+                                           final Entry entry) {
+        response.setStatus(Response.Status.OK.getStatusCode());
+        if (entry.getHeaders() != null) {
+            final MultivaluedMap<String, String> headers = response.getHeaders();
+            for (Map.Entry<String, List<String>> h : entry.getHeaders().entrySet()) {
+                if (!headers.containsKey(h.getKey())) {
+                    headers.addAll(h.getKey(), h.getValue());
+                }
+            }
+        }
+        request.setProperty(CacheControlClientRequestFilter.CACHED_ENTITY_PROPERTY, entry.getData());
+    }
+}
@@ -39,25 +39,56 @@ import javax.ws.rs.core.Feature;
 import javax.ws.rs.core.FeatureContext;
 import javax.ws.rs.ext.Provider;
 
-
+/**
+ * Client side HTTP cache. The same feature instance may be registered with several clients
+ * which then share the cache.
+ * <p>
+ * Besides the JCache settings, the following properties, prefixed with the name of this class
+ * followed by a dot, are supported:
+ * <ul>
+ * <li>maxSize: the maximum number of bytes the cached entities may use, the least recently
+ * used entries are removed once it is exceeded</li>
+ * <li>maxEntrySize: the maximum size of a single cached entity in bytes</li>
+ * <li>coalescingTimeout: the number of milliseconds concurrent synchronous requests for a resource
+ * whose cached entry has gone wait for the response of the first one, 0 (the default) disables
+ * the coalescing</li>
+ * </ul>
+ * Entries may be kept outside of the heap by configuring the JCache provider accordingly
+ * (config-uri property).
+ */
 @Provider
 public class CacheControlFeature implements Feature, Closeable {
     private CachingProvider provider;
     private CacheManager manager;
     private Cache<Key, Entry> cache;
+    private CacheControlState state;
     private boolean cacheResponseInputStream;
+    private long maxSize = -1;
+    private long maxEntrySize = -1;
+    private long coalescingTimeout = CacheControlState.DEFAULT_COALESCING_TIMEOUT;
 
     @Override
-    public boolean configure(final FeatureContext context) {
+    public synchronized boolean configure(final FeatureContext context) {
         // TODO: read context properties to exclude some patterns?
-        final Cache<Key, Entry> entryCache = createCache(context.getConfiguration().getProperties());
-        context.register(new CacheControlClientRequestFilter(entryCache));
-        CacheControlClientReaderInterceptor reader = new CacheControlClientReaderInterceptor(entryCache);
+        if (state == null) {
+            state = createState(context.getConfiguration().getProperties());
+        }
+        context.register(new CacheControlClientRequestFilter(state));
+        context.register(new CacheControlClientResponseFilter(state));
+        CacheControlClientReaderInterceptor reader = new CacheControlClientReaderInterceptor(state);
         reader.setCacheResponseInputStream(cacheResponseInputStream);
         context.register(reader);
         return true;
     }
 
+    /**
+     * @return the statistics of the cache, empty if the feature has not been configured yet
+     */
+    public CacheStatistics getStatistics() {
+        final CacheControlState s = state;
+        return s == null ? new CacheStatistics() : s.getStatistics();
+    }
+
     @PreDestroy // TODO: check it is called
     public void close() {
         for (final Closeable c : Arrays.asList(cache, manager, provider)) {
@@ -71,11 +102,24 @@ public class CacheControlFeature implements Feature, Closeable {
         }
     }
 
-    private Cache<Key, Entry> createCache(final Map<String, Object> properties) {
+    private CacheControlState createState(final Map<String, Object> properties) {
         final Properties props = new Properties();
         props.putAll(properties);
 
         final String prefix = this.getClass().getName() + ".";
+        final CacheControlState s = new CacheControlState(createCache(props, prefix));
+        s.setMaxSize(getLong(props, prefix + "maxSize", maxSize));
+        s.setMaxEntrySize(getLong(props, prefix + "maxEntrySize", maxEntrySize));
+        s.setCoalescingTimeout(getLong(props, prefix + "coalescingTimeout", coalescingTimeout));
+        return s;
+    }
+
+    private static long getLong(final Properties props, final String name, final long defaultValue) {
+        final Object value = props.get(name);
+        return value == null ? defaultValue : Long.parseLong(value.toString().trim());
+    }
+
+    private Cache<Key, Entry> createCache(final Properties props, final String prefix) {
         final String uri = props.getProperty(prefix + "config-uri");
         final String name = props.getProperty(prefix + "name", this.getClass().getName());
 
@@ -135,4 +179,16 @@ public class CacheControlFeature implements Feature, Closeable {
     public void setCacheResponseInputStream(boolean cacheStream) {
         this.cacheResponseInputStream = cacheStream;
     }
+
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public void setMaxEntrySize(long maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    public void setCoalescingTimeout(long coalescingTimeout) {
+        this.coalescingTimeout = coalescingTimeout;
+    }
 }
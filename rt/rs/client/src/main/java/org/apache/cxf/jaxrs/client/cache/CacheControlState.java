@@ -0,0 +1,391 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.client.cache;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.cache.Cache;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.InvocationCallback;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.jaxrs.impl.AbstractPropertiesImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * The state shared by the filters and the interceptor registered by {@link CacheControlFeature}:
+ * the cache itself, its statistics, the optional byte bound and the requests currently
+ * fetching or revalidating a given resource. A request in flight is completed once its response
+ * has been read or closed, or if it fails; one which is still not complete after the coalescing
+ * timeout is replaced by the next request for the same resource. Only the requests for a resource
+ * whose last response was cached are coalesced, and only if the coalescing is enabled.
+ */
+final class CacheControlState {
+    static final long DEFAULT_COALESCING_TIMEOUT = 0L;
+    private static final int MAX_CACHEABLE_KEYS = 10000;
+    private static final Logger LOG = LogUtils.getL7dLogger(CacheControlState.class);
+
+    private final Cache<Key, Entry> cache;
+    private final CacheStatistics statistics = new CacheStatistics();
+    private final ConcurrentMap<Key, InFlightRequest> inFlight = new ConcurrentHashMap<>();
+    private final Set<Key> revalidating = ConcurrentHashMap.newKeySet();
+    // the resources whose last response was cached, in the least recently cached order
+    private final Map<Key, Boolean> cacheableKeys = new LinkedHashMap<Key, Boolean>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Key, Boolean> eldest) {
+            return size() > MAX_CACHEABLE_KEYS;
+        }
+    };
+    // entry sizes in the least recently used order, only maintained if maxSize is set; the entries
+    // the cache expires on its own are dropped once they are looked up or reach the eldest end
+    private final Map<Key, Long> sizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSize;
+    private long maxSize = -1;
+    private long maxEntrySize = -1;
+    private long coalescingTimeout = DEFAULT_COALESCING_TIMEOUT;
+
+    CacheControlState(final Cache<Key, Entry> cache) {
+        this.cache = cache;
+    }
+
+    Cache<Key, Entry> getCache() {
+        return cache;
+    }
+
+    CacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    void setMaxEntrySize(long maxEntrySize) {
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    void setCoalescingTimeout(long coalescingTimeout) {
+        this.coalescingTimeout = coalescingTimeout;
+    }
+
+    Entry get(final Key key) {
+        final Entry entry = cache.get(key);
+        if (entry == null) {
+            removeExpiredSize(key);
+        } else if (maxSize > 0) {
+            synchronized (sizes) {
+                // records the access
+                sizes.get(key);
+            }
+        }
+        return entry;
+    }
+
+    void put(final Key key, final Entry entry) {
+        final long size = Math.max(entry.getSize(), 0L);
+        if (maxEntrySize >= 0 && size > maxEntrySize) {
+            // the previous representation, if any, is out of date now
+            remove(key);
+            return;
+        }
+        cache.put(key, entry);
+        setCacheable(key, true);
+        if (maxSize <= 0) {
+            return;
+        }
+        final List<Key> evicted = new ArrayList<>(1);
+        synchronized (sizes) {
+            final Long previous = sizes.put(key, size);
+            totalSize += size - (previous == null ? 0L : previous);
+            for (Iterator<Map.Entry<Key, Long>> it = sizes.entrySet().iterator();
+                totalSize > maxSize && it.hasNext();) {
+                final Map.Entry<Key, Long> eldest = it.next();
+                it.remove();
+                totalSize -= eldest.getValue();
+                evicted.add(eldest.getKey());
+            }
+        }
+        for (Key k : evicted) {
+            if (cache.remove(k)) {
+                statistics.evicted();
+            }
+        }
+    }
+
+    private void removeExpiredSize(final Key key) {
+        if (maxSize > 0) {
+            synchronized (sizes) {
+                // the cache has expired the entry unless it has just been put again
+                if (sizes.containsKey(key) && !cache.containsKey(key)) {
+                    totalSize -= sizes.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Records whether the last response for the given resource was cached.
+     */
+    void setCacheable(final Key key, final boolean cacheable) {
+        synchronized (cacheableKeys) {
+            if (cacheable) {
+                cacheableKeys.put(key, Boolean.TRUE);
+            } else {
+                cacheableKeys.remove(key);
+            }
+        }
+    }
+
+    private boolean isCacheable(final Key key) {
+        synchronized (cacheableKeys) {
+            return cacheableKeys.containsKey(key);
+        }
+    }
+
+    void remove(final Key key, final Entry entry) {
+        if (cache.remove(key, entry)) {
+            removeSize(key);
+        }
+    }
+
+    void remove(final Key key) {
+        cache.remove(key);
+        removeSize(key);
+    }
+
+    private void removeSize(final Key key) {
+        if (maxSize > 0) {
+            synchronized (sizes) {
+                final Long size = sizes.remove(key);
+                if (size != null) {
+                    totalSize -= size;
+                }
+            }
+        }
+    }
+
+    /**
+     * Registers the caller as the one fetching the given resource.
+     *
+     * @return the request the caller must complete once the response has been processed
+     *         or null if the requests for this resource are not coalesced or another one
+     *         is already in flight
+     */
+    InFlightRequest startRequest(final Key key) {
+        if (coalescingTimeout <= 0 || !isCacheable(key)) {
+            return null;
+        }
+        final InFlightRequest request = new InFlightRequest(key);
+        final InFlightRequest existing = inFlight.putIfAbsent(key, request);
+        if (existing == null) {
+            return request;
+        }
+        if (existing.isStale() && inFlight.replace(key, existing, request)) {
+            // the response was never read nor closed, the next request takes over
+            existing.latch.countDown();
+            return request;
+        }
+        return null;
+    }
+
+    /**
+     * Completes the request if the outbound message fails, e.g. if the server is not available,
+     * in which case neither the response filter nor the reader interceptor is invoked.
+     */
+    void completeOnFault(final ClientRequestContext context, final InFlightRequest request) {
+        if (context instanceof AbstractPropertiesImpl) {
+            final Message message = ((AbstractPropertiesImpl)context).getMessage();
+            if (message != null && message.getInterceptorChain() != null) {
+                message.getInterceptorChain().add(new InFlightFaultInterceptor(request));
+            }
+        }
+    }
+
+    /**
+     * Waits for the request currently fetching the given resource to complete, unless the caller
+     * is an asynchronous invocation which must not block.
+     *
+     * @return true if such a request was in flight and has been waited for
+     */
+    boolean awaitRequest(final ClientRequestContext context, final Key key) {
+        final InFlightRequest request = coalescingTimeout <= 0 ? null : inFlight.get(key);
+        if (request == null || isAsynchronous(context)) {
+            return false;
+        }
+        try {
+            request.latch.await(coalescingTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+
+    private static boolean isAsynchronous(final ClientRequestContext context) {
+        if (context instanceof AbstractPropertiesImpl) {
+            final Message message = ((AbstractPropertiesImpl)context).getMessage();
+            return message != null && message.getExchange() != null && !message.getExchange().isSynchronous();
+        }
+        return false;
+    }
+
+    /**
+     * Revalidates the entry in the background, the response is read and hence cached again
+     * by the interceptor unless the server replies with 304 in which case the entry is refreshed
+     * by the response filter.
+     */
+    void revalidate(final Client client, final Key key, final Entry entry,
+                    final Map<String, String> requestHeaders) {
+        if (!revalidating.add(key)) {
+            return;
+        }
+        try {
+            final Invocation.Builder builder = client.target(key.getUri()).request();
+            if (key.getAccept() != null) {
+                builder.header(HttpHeaders.ACCEPT, key.getAccept());
+            }
+            for (String name : entry.getVaryHeaders().keySet()) {
+                final String value = requestHeaders.get(name);
+                if (value != null) {
+                    builder.header(name, value);
+                }
+            }
+            builder.property(CacheControlClientRequestFilter.REVALIDATION_PROPERTY, Boolean.TRUE);
+            final Class<?> entityType = getEntityType(entry);
+            builder.async().get(new InvocationCallback<Response>() {
+                @Override
+                public void completed(Response response) {
+                    try (Response r = response) {
+                        if (r.getStatus() == Response.Status.OK.getStatusCode()) {
+                            r.readEntity(entityType);
+                        }
+                    } catch (RuntimeException ex) {
+                        LOG.log(Level.FINE, "Failed to read the revalidated entity of " + key.getUri(), ex);
+                    } finally {
+                        revalidating.remove(key);
+                    }
+                }
+
+                @Override
+                public void failed(Throwable throwable) {
+                    LOG.log(Level.FINE, "Failed to revalidate " + key.getUri(), throwable);
+                    revalidating.remove(key);
+                }
+            });
+        } catch (RuntimeException ex) {
+            LOG.log(Level.FINE, "Failed to revalidate " + key.getUri(), ex);
+            revalidating.remove(key);
+        }
+    }
+
+    private static Class<?> getEntityType(final Entry entry) {
+        final Object data = entry.getData();
+        if (data instanceof BytesEntity) {
+            return ((BytesEntity)data).isFromStream() ? InputStream.class : byte[].class;
+        }
+        return data.getClass();
+    }
+
+    final class InFlightRequest {
+        private final Key key;
+        private final long started = System.currentTimeMillis();
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile boolean reading;
+
+        InFlightRequest(final Key key) {
+            this.key = key;
+        }
+
+        boolean isStale() {
+            return System.currentTimeMillis() - started > coalescingTimeout;
+        }
+
+        /**
+         * The reader interceptor completes the request once the entity has been cached,
+         * rather than when the entity stream is closed.
+         */
+        void startReading() {
+            reading = true;
+        }
+
+        void complete() {
+            inFlight.remove(key, this);
+            latch.countDown();
+        }
+
+        /**
+         * @return the entity stream which completes the request if it is closed without being read
+         */
+        InputStream completeOnClose(final InputStream is) {
+            return new FilterInputStream(is) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        if (!reading) {
+                            complete();
+                        }
+                    }
+                }
+            };
+        }
+    }
+
+    private static final class InFlightFaultInterceptor extends AbstractPhaseInterceptor<Message> {
+        private final InFlightRequest request;
+
+        InFlightFaultInterceptor(final InFlightRequest request) {
+            super(Phase.POST_LOGICAL);
+            this.request = request;
+        }
+
+        @Override
+        public void handleMessage(final Message message) {
+            // only the fault matters
+        }
+
+        @Override
+        public void handleFault(final Message message) {
+            request.complete();
+        }
+    }
+}
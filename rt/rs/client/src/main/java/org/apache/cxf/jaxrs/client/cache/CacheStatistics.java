@@ -0,0 +1,133 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.client.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters describing how the client cache of a {@link CacheControlFeature} has been used.
+ */
+public class CacheStatistics {
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @return the number of requests served from a fresh cache entry without contacting the server
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of requests for which no usable cache entry existed
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of requests served from an out of date cache entry,
+     *         either while it was revalidated (stale-while-revalidate) or because
+     *         its revalidation failed (stale-if-error)
+     */
+    public long getStaleHits() {
+        return staleHits.get();
+    }
+
+    /**
+     * @return the number of conditional requests sent to revalidate an out of date cache entry
+     */
+    public long getRevalidations() {
+        return revalidations.get();
+    }
+
+    /**
+     * @return the number of revalidations the server answered with 304 Not Modified
+     */
+    public long getNotModified() {
+        return notModified.get();
+    }
+
+    /**
+     * @return the number of requests which waited for a concurrent request of the same
+     *         resource and were then served from the cache
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return the number of entries removed to keep the cache within its configured size
+     */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public void reset() {
+        hits.set(0);
+        misses.set(0);
+        staleHits.set(0);
+        revalidations.set(0);
+        notModified.set(0);
+        coalesced.set(0);
+        evictions.set(0);
+    }
+
+    void hit() {
+        hits.incrementAndGet();
+    }
+
+    void miss() {
+        misses.incrementAndGet();
+    }
+
+    void staleHit() {
+        staleHits.incrementAndGet();
+    }
+
+    void revalidation() {
+        revalidations.incrementAndGet();
+    }
+
+    void notModified() {
+        notModified.incrementAndGet();
+    }
+
+    void coalesced() {
+        coalesced.incrementAndGet();
+    }
+
+    void evicted() {
+        evictions.incrementAndGet();
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics[hits=" + getHits() + ", misses=" + getMisses()
+            + ", staleHits=" + getStaleHits() + ", revalidations=" + getRevalidations()
+            + ", notModified=" + getNotModified() + ", coalesced=" + getCoalesced()
+            + ", evictions=" + getEvictions() + "]";
+    }
+}
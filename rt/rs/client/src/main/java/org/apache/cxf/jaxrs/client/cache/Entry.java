@@ -34,6 +34,10 @@ public class Entry implements Serializable {
     private Map<String, List<String>> headers;
     private long expiresValue;
     private long initialTimestamp = now();
+    private long staleWhileRevalidate;
+    private long staleIfError;
+    private Map<String, String> varyHeaders = Collections.emptyMap();
+    private long size = -1;
 
     public Entry(final Serializable data, final MultivaluedMap<String, String> headers,
                  final Map<String, String> cacheHeaders, final long expiresHeaderValue) {
@@ -51,6 +55,34 @@ public class Entry implements Serializable {
         return now() - initialTimestamp > expiresValue * 1000L;
     }
 
+    /**
+     * @return true if the entry is out of date but may still be returned while it is being revalidated
+     */
+    public boolean isStaleWhileRevalidate() {
+        return now() - initialTimestamp <= (expiresValue + staleWhileRevalidate) * 1000L;
+    }
+
+    /**
+     * @return true if the entry is out of date but may still be returned if its revalidation fails
+     */
+    public boolean isStaleIfError() {
+        return now() - initialTimestamp <= (expiresValue + staleIfError) * 1000L;
+    }
+
+    /**
+     * @return true if the request headers listed by the Vary header of the cached response
+     *         have the same values as they did when the response was cached
+     */
+    public boolean isVaryMatching(final Map<String, String> requestHeaders) {
+        for (Map.Entry<String, String> e : varyHeaders.entrySet()) {
+            String value = requestHeaders.get(e.getKey());
+            if (value == null ? e.getValue() != null : !value.equals(e.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public Map<String, String> getCacheHeaders() {
         return cacheHeaders;
     }
@@ -98,6 +130,41 @@ public class Entry implements Serializable {
         this.initialTimestamp = initialTimestamp;
     }
 
+    public long getStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    public void setStaleWhileRevalidate(final long staleWhileRevalidate) {
+        this.staleWhileRevalidate = staleWhileRevalidate;
+    }
+
+    public long getStaleIfError() {
+        return staleIfError;
+    }
+
+    public void setStaleIfError(final long staleIfError) {
+        this.staleIfError = staleIfError;
+    }
+
+    public Map<String, String> getVaryHeaders() {
+        return varyHeaders;
+    }
+
+    public void setVaryHeaders(final Map<String, String> varyHeaders) {
+        this.varyHeaders = varyHeaders;
+    }
+
+    /**
+     * @return the approximate size of the cached data in bytes, -1 if it is not known
+     */
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(final long size) {
+        this.size = size;
+    }
+
     private static long now() {
         return System.currentTimeMillis();
     }
@@ -89,14 +89,15 @@ public class ClientResponseFilterInterceptor extends AbstractInDatabindingInterc
         rb.entity(inMessage.get(InputStream.class));
 
         @SuppressWarnings("unchecked")
-        Map<String, List<String>> protocolHeaders =
-            (Map<String, List<String>>)inMessage.get(Message.PROTOCOL_HEADERS);
-        for (Map.Entry<String, List<String>> entry : protocolHeaders.entrySet()) {
+        Map<String, List<Object>> protocolHeaders =
+            (Map<String, List<Object>>)inMessage.get(Message.PROTOCOL_HEADERS);
+        for (Map.Entry<String, List<Object>> entry : protocolHeaders.entrySet()) {
             if (null == entry.getKey()) {
                 continue;
             }
             if (entry.getValue().size() > 0) {
-                for (String val : entry.getValue()) {
+                // the values are not necessarily strings, e.g. with the local transport
+                for (Object val : entry.getValue()) {
                     rb.header(entry.getKey(), val);
                 }
             }
@@ -223,6 +223,31 @@ public class JAXRSClientFactoryBeanTest {
         assertTrue(headers.get(HttpHeaders.ACCEPT).contains(MediaType.WILDCARD));
     }
 
+    @Test
+    public void testRepeatedInvocationsHaveSameDefaultHeaders() throws Exception {
+        String address = "local://store";
+        JAXRSServerFactoryBean sf = new JAXRSServerFactoryBean();
+        sf.setServiceBean(new BookStore());
+        sf.setAddress(address);
+        Server s = sf.create();
+
+        BookStore store = JAXRSClientFactory.create(address, BookStore.class);
+        try {
+            for (int i = 0; i < 3; i++) {
+                store.addBook(new Book());
+
+                ResponseImpl response = (ResponseImpl) WebClient.client(store).getResponse();
+                Map<String, List<String>> headers =
+                    CastUtils.cast((Map<?, ?>) response.getOutMessage().get(Message.PROTOCOL_HEADERS));
+                assertEquals(Collections.singletonList(MediaType.WILDCARD), headers.get(HttpHeaders.ACCEPT));
+                assertEquals(Collections.singletonList(MediaType.APPLICATION_XML),
+                             headers.get(HttpHeaders.CONTENT_TYPE));
+            }
+        } finally {
+            s.stop();
+        }
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testInvokePathNull() throws Exception {
         JAXRSClientFactoryBean bean = new JAXRSClientFactoryBean();
@@ -35,6 +35,7 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -67,6 +68,17 @@ public class WebClientTest {
         assertEquals("http://foo/bar+%20%2B;a=value+%20?b=bv%2B+%2B", u.toString());
     }
 
+    @Test
+    public void testCurrentURIIsReused() {
+        WebClient wc = WebClient.create("http://foo").path("bar").query("a", "b");
+        URI u = wc.getCurrentURI();
+        assertEquals("http://foo/bar?a=b", u.toString());
+        // the same address is not parsed again
+        assertSame(u, wc.getCurrentURI());
+        assertEquals("http://foo/bar/baz?a=b", wc.path("baz").getCurrentURI().toString());
+        assertSame(u, wc.back(false).getCurrentURI());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testNullPath() {
         WebClient.create("http://foo").path(null);
@@ -21,15 +21,32 @@ package org.apache.cxf.jaxrs.client.cache;
 
 import java.io.InputStream;
 import java.io.Serializable;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.cache.configuration.Factory;
+import javax.cache.expiry.CreatedExpiryPolicy;
+import javax.cache.expiry.Duration;
+import javax.cache.expiry.ExpiryPolicy;
 import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.Path;
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.Produces;
 import javax.ws.rs.client.ClientBuilder;
 import javax.ws.rs.client.Invocation;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.xml.bind.annotation.XmlRootElement;
 
@@ -45,11 +62,18 @@ import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
+import static org.awaitility.Awaitility.await;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class ClientCacheTest {
     public static final String ADDRESS = "local://transport";
+    private static final String PREFIX = "org.apache.cxf.jaxrs.client.cache.CacheControlFeature.";
     private static Server server;
 
     @BeforeClass
@@ -79,6 +103,267 @@ public class ClientCacheTest {
             final String r1 = r.readEntity(String.class);
             waitABit();
             assertEquals(r1, cached.get().readEntity(String.class));
+            assertEquals(1, feature.getStatistics().getMisses());
+            assertEquals(1, feature.getStatistics().getHits());
+        } finally {
+            feature.close();
+        }
+    }
+
+    @Test
+    public void testRevalidation() {
+        CacheControlFeature feature = new CacheControlFeature();
+        try {
+            final WebTarget base = ClientBuilder.newBuilder().register(feature).build().target(ADDRESS);
+            final Invocation.Builder cached = base.request("text/html");
+            final Response r = cached.get();
+            assertEquals(Response.Status.OK.getStatusCode(), r.getStatus());
+            final String r1 = r.readEntity(String.class);
+            waitABit();
+            // the entry is out of date, the server replies with 304 to the conditional request
+            final Response r2 = cached.get();
+            assertEquals(Response.Status.OK.getStatusCode(), r2.getStatus());
+            assertEquals(r1, r2.readEntity(String.class));
+            assertEquals(1, feature.getStatistics().getMisses());
+            assertEquals(1, feature.getStatistics().getRevalidations());
+            assertEquals(1, feature.getStatistics().getNotModified());
+        } finally {
+            feature.close();
+        }
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() {
+        CacheControlFeature feature = new CacheControlFeature();
+        try {
+            final WebTarget base = ClientBuilder.newBuilder().register(feature).build().target(ADDRESS);
+            final Invocation.Builder cached = base.request("text/x-swr");
+            final String r1 = cached.get().readEntity(String.class);
+            waitABit();
+            // the stale entity is returned while it is refreshed in the background
+            assertEquals(r1, cached.get().readEntity(String.class));
+            await().atMost(10, TimeUnit.SECONDS).until(() -> !r1.equals(cached.get().readEntity(String.class)));
+            assertEquals(1, feature.getStatistics().getMisses());
+            assertTrue(feature.getStatistics().getStaleHits() >= 2);
+        } finally {
+            feature.close();
+        }
+    }
+
+    @Test
+    public void testStaleIfError() {
+        CacheControlFeature feature = new CacheControlFeature();
+        try {
+            final WebTarget base = ClientBuilder.newBuilder().register(feature).build().target(ADDRESS);
+            final Invocation.Builder cached = base.request("text/x-sie");
+            final String r1 = cached.get().readEntity(String.class);
+            waitABit();
+            TheServer.failing = true;
+            final Response r2 = cached.get();
+            assertEquals(Response.Status.OK.getStatusCode(), r2.getStatus());
+            assertEquals(r1, r2.readEntity(String.class));
+            assertEquals(1, feature.getStatistics().getRevalidations());
+            assertEquals(1, feature.getStatistics().getStaleHits());
+            TheServer.failing = false;
+            waitABit();
+            assertNotEquals(r1, cached.get().readEntity(String.class));
+        } finally {
+            TheServer.failing = false;
+            feature.close();
+        }
+    }
+
+    @Test
+    public void testVaryVariants() {
+        CacheControlFeature feature = new CacheControlFeature();
+        try {
+            final WebTarget base = ClientBuilder.newBuilder().register(feature).build().target(ADDRESS);
+            final String en = base.request("text/x-variants")
+                .acceptLanguage("en").get().readEntity(String.class);
+            assertTrue(en.startsWith("en-"));
+            assertEquals(en, base.request("text/x-variants")
+                .acceptLanguage("en").get().readEntity(String.class));
+            // the cached variant does not match the request
+            final String fr = base.request("text/x-variants")
+                .acceptLanguage("fr").get().readEntity(String.class);
+            assertTrue(fr.startsWith("fr-"));
+            assertEquals(fr, base.request("text/x-variants")
+                .acceptLanguage("fr").get().readEntity(String.class));
+            assertEquals(2, feature.getStatistics().getMisses());
+            assertEquals(2, feature.getStatistics().getHits());
+        } finally {
+            feature.close();
+        }
+    }
+
+    @Test
+    public void testMaxSize() {
+        CacheControlFeature feature = new CacheControlFeature();
+        try {
+            // room for two of the 10 characters long entities
+            final WebTarget base = ClientBuilder.newBuilder().property(PREFIX + "maxSize", "25")
+                .register(feature).build().target(ADDRESS);
+            for (int i = 1; i <= 3; i++) {
+                final Invocation.Builder sized = base.request("text/x-sized; id=" + i);
+                assertEquals(10, sized.get().readEntity(String.class).length());
+            }
+            assertEquals(1, feature.getStatistics().getEvictions());
+            base.request("text/x-sized; id=3").get().readEntity(String.class);
+            base.request("text/x-sized; id=2").get().readEntity(String.class);
+            assertEquals(2, feature.getStatistics().getHits());
+            // the least recently used entry has been evicted
+            base.request("text/x-sized; id=1").get().readEntity(String.class);
+            assertEquals(4, feature.getStatistics().getMisses());
+            assertEquals(2, feature.getStatistics().getEvictions());
+        } finally {
+            feature.close();
+        }
+    }
+
+    @Test
+    public void testMaxSizeWithExpiredEntries() throws Exception {
+        CacheControlFeature feature = new CacheControlFeature();
+        try {
+            final WebTarget base = ClientBuilder.newBuilder().property(PREFIX + "maxSize", "25")
+                .property(PREFIX + "expiryFactory", ShortExpiryFactory.class.getName())
+                .register(feature).build().target(ADDRESS);
+            base.request("text/x-sized; id=1").get().readEntity(String.class);
+            base.request("text/x-sized; id=2").get().readEntity(String.class);
+            // the cache expires both entries on its own
+            Thread.sleep(300L);
+            base.request("text/x-sized; id=1").get().readEntity(String.class);
+            base.request("text/x-sized; id=3").get().readEntity(String.class);
+            // the expired entries no longer count, nothing which is still cached is evicted
+            assertEquals(0, feature.getStatistics().getEvictions());
+            assertEquals(4, feature.getStatistics().getMisses());
+        } finally {
+            feature.close();
+        }
+    }
+
+    @Test
+    public void testMissCoalescing() throws Exception {
+        CacheControlFeature feature = new CacheControlFeature();
+        feature.setCoalescingTimeout(10000L);
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            final WebTarget base = ClientBuilder.newBuilder()
+                .property(PREFIX + "expiryFactory", ShortExpiryFactory.class.getName())
+                .register(feature).build().target(ADDRESS);
+            final int calls = TheServer.SLOW_CALLS.get();
+            final String r1 = base.request("text/x-slow").get().readEntity(String.class);
+            // the response was cacheable, the requests following its expiry are coalesced
+            Thread.sleep(300L);
+            final List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                // the builders are created upfront as the target is not thread-safe
+                final Invocation.Builder slow = base.request("text/x-slow");
+                final Callable<String> get = () -> slow.get().readEntity(String.class);
+                results.add(executor.submit(get));
+            }
+            final String r2 = results.get(0).get(10, TimeUnit.SECONDS);
+            assertNotEquals(r1, r2);
+            for (Future<String> result : results) {
+                assertEquals(r2, result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(calls + 2, TheServer.SLOW_CALLS.get());
+            assertEquals(2, feature.getStatistics().getMisses());
+            // the coalesced requests are served from the cache
+            assertEquals(2, feature.getStatistics().getHits());
+            assertTrue(feature.getStatistics().getCoalesced() >= 1);
+        } finally {
+            executor.shutdownNow();
+            feature.close();
+        }
+    }
+
+    @Test
+    public void testFailedRequestIsNotAwaited() {
+        CacheControlFeature feature = new CacheControlFeature();
+        feature.setCoalescingTimeout(10000L);
+        try {
+            final WebTarget base = ClientBuilder.newBuilder().register(feature).build()
+                .target("local://unavailable");
+            final Invocation.Builder cached = base.request("text/plain");
+            for (int i = 0; i < 2; i++) {
+                final long start = System.currentTimeMillis();
+                try {
+                    cached.get();
+                    fail("The transport should have failed");
+                } catch (ProcessingException ex) {
+                    // the next request must not wait for the failed one
+                    assertTrue(System.currentTimeMillis() - start < 5000L);
+                }
+            }
+            assertEquals(2, feature.getStatistics().getMisses());
+            assertEquals(0, feature.getStatistics().getCoalesced());
+        } finally {
+            feature.close();
+        }
+    }
+
+    @Test
+    public void testClosedResponseIsNotAwaited() {
+        CacheControlFeature feature = new CacheControlFeature();
+        feature.setCoalescingTimeout(10000L);
+        try {
+            final WebTarget base = ClientBuilder.newBuilder().register(feature).build().target(ADDRESS);
+            final Invocation.Builder cached = base.request("text/plain").header(HttpHeaders.CACHE_CONTROL, "public");
+            final Response r = cached.get();
+            assertEquals(Response.Status.OK.getStatusCode(), r.getStatus());
+            r.close();
+            final long start = System.currentTimeMillis();
+            assertNotNull(cached.get().readEntity(String.class));
+            assertTrue(System.currentTimeMillis() - start < 5000L);
+            assertEquals(2, feature.getStatistics().getMisses());
+        } finally {
+            feature.close();
+        }
+    }
+
+    @Test
+    public void testStaleInFlightRequestIsReplaced() throws Exception {
+        final CacheControlState state = new CacheControlState(null);
+        state.setCoalescingTimeout(100L);
+        final Key key = new Key(URI.create(ADDRESS), "text/plain");
+        state.setCacheable(key, true);
+        assertNotNull(state.startRequest(key));
+        assertNull(state.startRequest(key));
+        Thread.sleep(200L);
+        // the first request was never completed
+        final CacheControlState.InFlightRequest request = state.startRequest(key);
+        assertNotNull(request);
+        request.complete();
+        assertFalse(state.awaitRequest(null, key));
+    }
+
+    @Test
+    public void testOnlyCacheableResourcesAreCoalesced() {
+        final CacheControlState state = new CacheControlState(null);
+        final Key key = new Key(URI.create(ADDRESS), "text/plain");
+        state.setCacheable(key, true);
+        // disabled by default
+        assertNull(state.startRequest(key));
+        state.setCoalescingTimeout(1000L);
+        state.setCacheable(key, false);
+        assertNull(state.startRequest(key));
+        state.setCacheable(key, true);
+        assertNotNull(state.startRequest(key));
+    }
+
+    @Test
+    public void testMaxEntrySize() {
+        CacheControlFeature feature = new CacheControlFeature();
+        try {
+            final WebTarget base = ClientBuilder.newBuilder()
+                .property("org.apache.cxf.jaxrs.client.cache.CacheControlFeature.maxEntrySize", "1")
+                .register(feature).build().target(ADDRESS);
+            final Invocation.Builder cached = base.request("text/plain").header(HttpHeaders.CACHE_CONTROL, "public");
+            final String r1 = cached.get().readEntity(String.class);
+            waitABit();
+            assertNotEquals(r1, cached.get().readEntity(String.class));
+            assertEquals(2, feature.getStatistics().getMisses());
+            assertEquals(0, feature.getStatistics().getHits());
         } finally {
             feature.close();
         }
@@ -197,8 +482,20 @@ public class ClientCacheTest {
         }
     }
 
+    public static class ShortExpiryFactory implements Factory<ExpiryPolicy> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public ExpiryPolicy create() {
+            return new CreatedExpiryPolicy(new Duration(TimeUnit.MILLISECONDS, 100L));
+        }
+    }
+
     @Path("/")
     public static class TheServer {
+        static volatile boolean failing;
+        static final AtomicInteger SLOW_CALLS = new AtomicInteger();
+
         @GET
         @Produces("text/plain")
         public Response getString() {
@@ -206,6 +503,17 @@ public class ClientCacheTest {
                 .tag("123").cacheControl(CacheControl.valueOf("max-age=50000")).build();
         }
         @GET
+        @Produces("text/html")
+        public Response getETagged(@HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+            final EntityTag tag = new EntityTag("v1");
+            final CacheControl cacheControl = CacheControl.valueOf("max-age=0");
+            if (tag.toString().equals(ifNoneMatch)) {
+                return Response.notModified(tag).cacheControl(cacheControl).build();
+            }
+            return Response.ok(Long.toString(System.currentTimeMillis()))
+                .tag(tag).cacheControl(cacheControl).build();
+        }
+        @GET
         @Produces("application/xml")
         public Response getJaxbBook() {
             Book b = new Book();
@@ -213,6 +521,41 @@ public class ClientCacheTest {
             b.setName("JCache");
             return Response.ok(b).tag("123").cacheControl(CacheControl.valueOf("max-age=50000")).build();
         }
+        @GET
+        @Produces("text/x-swr")
+        public Response getStaleWhileRevalidate() {
+            return Response.ok(Long.toString(System.nanoTime()))
+                .cacheControl(CacheControl.valueOf("max-age=0, stale-while-revalidate=60")).build();
+        }
+        @GET
+        @Produces("text/x-sie")
+        public Response getStaleIfError() {
+            if (failing) {
+                return Response.serverError().build();
+            }
+            return Response.ok(Long.toString(System.nanoTime()))
+                .cacheControl(CacheControl.valueOf("max-age=0, stale-if-error=60")).build();
+        }
+        @GET
+        @Produces("text/x-variants")
+        public Response getVariant(@HeaderParam(HttpHeaders.ACCEPT_LANGUAGE) String language) {
+            return Response.ok(language + "-" + System.nanoTime()).header(HttpHeaders.VARY, HttpHeaders.ACCEPT_LANGUAGE)
+                .cacheControl(CacheControl.valueOf("max-age=50000")).build();
+        }
+        @GET
+        @Produces("text/x-sized")
+        public Response getSized(@HeaderParam(HttpHeaders.ACCEPT) MediaType accept) {
+            return Response.ok(String.format("%010d", Integer.parseInt(accept.getParameters().get("id"))))
+                .cacheControl(CacheControl.valueOf("max-age=50000")).build();
+        }
+        @GET
+        @Produces("text/x-slow")
+        public Response getSlowly() throws InterruptedException {
+            SLOW_CALLS.incrementAndGet();
+            Thread.sleep(500L);
+            return Response.ok(Long.toString(System.nanoTime()))
+                .cacheControl(CacheControl.valueOf("max-age=50000")).build();
+        }
     }
     @XmlRootElement
     public static class Book implements Serializable {
@@ -0,0 +1,196 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.provider.jackson;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.apache.cxf.io.CachedOutputStream;
+import org.apache.cxf.jaxrs.utils.ExceptionUtils;
+
+/**
+ * JSON provider which reads and writes the entities with the Jackson streaming parser and
+ * generator, without going through the intermediate XML or map representations.
+ * <p>
+ * The readers and writers are resolved once per type and cached. {@link Collection},
+ * {@link Stream} and {@link Iterator} entities are written element by element, so the
+ * memory used does not depend on the number of the elements; when the flush interval is set,
+ * the elements written so far are flushed to the client every 'flushInterval' elements (unless
+ * the response is buffered in a {@link CachedOutputStream} anyway).
+ */
+@Produces({"application/json", "text/json", "application/*+json" })
+@Consumes({"application/json", "text/json", "application/*+json" })
+@Provider
+public class StreamingJsonProvider implements MessageBodyReader<Object>, MessageBodyWriter<Object> {
+    private final ObjectMapper mapper;
+    private final ObjectWriter elementWriter;
+    private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+    private int flushInterval;
+
+    public StreamingJsonProvider() {
+        this(new ObjectMapper());
+    }
+
+    public StreamingJsonProvider(ObjectMapper mapper) {
+        this.mapper = mapper;
+        this.elementWriter = mapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return mapper;
+    }
+
+    public int getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Sets the number of the collection or stream elements after which the output is flushed,
+     * the default is 0 (the output is only flushed when it is complete or the buffer is full).
+     */
+    public void setFlushInterval(int flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    @Override
+    public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return isSupportedMediaType(mediaType);
+    }
+
+    @Override
+    public Object readFrom(Class<Object> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, String> httpHeaders, InputStream entityStream)
+                throws IOException, WebApplicationException {
+        final Type theType = genericType == null ? type : genericType;
+        final ObjectReader reader = readers.computeIfAbsent(theType,
+            t -> mapper.readerFor(mapper.getTypeFactory().constructType(t)));
+        try (JsonParser parser = mapper.getFactory().createParser(entityStream)) {
+            return reader.readValue(parser);
+        } catch (JsonProcessingException ex) {
+            throw ExceptionUtils.toBadRequestException(ex, null);
+        }
+    }
+
+    @Override
+    public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+        return isSupportedMediaType(mediaType);
+    }
+
+    @Override
+    public long getSize(Object t, Class<?> type, Type genericType, Annotation[] annotations,
+                        MediaType mediaType) {
+        return -1;
+    }
+
+    @Override
+    public void writeTo(Object t, Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType,
+            MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+                throws IOException, WebApplicationException {
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(entityStream,
+                getEncoding(mediaType))) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (t instanceof Collection) {
+                writeElements(generator, ((Collection<?>)t).iterator(), entityStream);
+            } else if (t instanceof Stream) {
+                try (Stream<?> stream = (Stream<?>)t) {
+                    writeElements(generator, stream.iterator(), entityStream);
+                }
+            } else if (t instanceof Iterator) {
+                writeElements(generator, (Iterator<?>)t, entityStream);
+            } else if (t == null) {
+                generator.writeNull();
+            } else {
+                getWriter(t.getClass(), genericType).writeValue(generator, t);
+            }
+        }
+    }
+
+    private void writeElements(JsonGenerator generator, Iterator<?> elements, OutputStream entityStream)
+        throws IOException {
+        final boolean flush = flushInterval > 0 && !(entityStream instanceof CachedOutputStream);
+        int count = 0;
+        generator.writeStartArray();
+        while (elements.hasNext()) {
+            // The serializers are looked up by the runtime type of the element and cached by the mapper
+            elementWriter.writeValue(generator, elements.next());
+            if (flush && ++count % flushInterval == 0) {
+                generator.flush();
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    private ObjectWriter getWriter(Class<?> cls, Type genericType) {
+        // The parameterized types keep the information about the elements which is otherwise
+        // lost, for all the other types the runtime class is used
+        final Type theType = genericType instanceof ParameterizedType
+            && ((ParameterizedType)genericType).getRawType() == cls ? genericType : cls;
+        return writers.computeIfAbsent(theType, t -> mapper.writerFor(mapper.getTypeFactory().constructType(t)));
+    }
+
+    private static JsonEncoding getEncoding(MediaType mediaType) {
+        final String charset = mediaType == null ? null : mediaType.getParameters().get(MediaType.CHARSET_PARAMETER);
+        if (charset != null) {
+            for (JsonEncoding encoding : JsonEncoding.values()) {
+                if (encoding.getJavaName().equalsIgnoreCase(charset)) {
+                    return encoding;
+                }
+            }
+        }
+        return JsonEncoding.UTF8;
+    }
+
+    protected boolean isSupportedMediaType(MediaType mediaType) {
+        if (mediaType != null) {
+            final String subtype = mediaType.getSubtype();
+            return "json".equalsIgnoreCase(subtype) || subtype.endsWith("+json");
+        }
+        // Return 'false' if no media type has been specified
+        return false;
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.provider.jackson;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.apache.cxf.jaxrs.resources.Book;
+import org.apache.cxf.jaxrs.resources.CollectionsResource;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertThrows;
+
+public class StreamingJsonProviderTest {
+    private static final String BOOKS =
+        "[{\"name\":\"CXF 1\",\"id\":1,\"state\":\"\"},{\"name\":\"CXF 2\",\"id\":2,\"state\":\"\"}]";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private StreamingJsonProvider provider;
+
+    @Before
+    public void setUp() {
+        provider = new StreamingJsonProvider();
+    }
+
+    @Test
+    public void testReadMalformedJson() throws Exception {
+        final byte[] bytes = "junk".getBytes();
+        final WebApplicationException ex = assertThrows(WebApplicationException.class, () -> read(Book.class, bytes));
+        assertThat(ex.getResponse().getStatus(), equalTo(Response.Status.BAD_REQUEST.getStatusCode()));
+    }
+
+    @Test
+    public void testReadBook() throws Exception {
+        final Book book = read(Book.class, "{\"id\":1,\"name\":\"CXF 1\"}".getBytes());
+        assertThat(book.getId(), equalTo(1L));
+        assertThat(book.getName(), equalTo("CXF 1"));
+    }
+
+    @Test
+    public void testReadListOfBooks() throws Exception {
+        final Method m = CollectionsResource.class.getMethod("getBooks", new Class[]{});
+        final List<Book> books = read(m.getReturnType(), m.getGenericReturnType(), BOOKS.getBytes());
+
+        assertThat(books.size(), equalTo(2));
+        assertThat(books.get(0).getName(), equalTo("CXF 1"));
+        assertThat(books.get(1).getName(), equalTo("CXF 2"));
+    }
+
+    @Test
+    public void testWriteBook() throws Exception {
+        final String payload = write(new Book("CXF 1", 1), Book.class, null);
+        assertThat(mapper.readTree(payload), equalTo(mapper.readTree("{\"id\":1,\"name\":\"CXF 1\",\"state\":\"\"}")));
+    }
+
+    @Test
+    public void testWriteListOfBooks() throws Exception {
+        final Method m = CollectionsResource.class.getMethod("getBooks", new Class[]{});
+        final String payload = write(createBooks(), m.getReturnType(), m.getGenericReturnType());
+        assertThat(mapper.readTree(payload), equalTo(mapper.readTree(BOOKS)));
+    }
+
+    @Test
+    public void testWriteStreamOfBooks() throws Exception {
+        final String payload = write(createBooks().stream(), Stream.class, null);
+        assertThat(mapper.readTree(payload), equalTo(mapper.readTree(BOOKS)));
+    }
+
+    @Test
+    public void testWriteStreamIsFlushedPeriodically() throws Exception {
+        final List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            books.add(new Book("CXF " + i, i));
+        }
+        final int[] flushes = new int[1];
+        final ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes[0]++;
+            }
+        };
+        provider.setFlushInterval(3);
+        provider.writeTo(books.stream(), Stream.class, null, null, MediaType.APPLICATION_JSON_TYPE, null, out);
+
+        // every 3 elements and at the end
+        assertThat(flushes[0], equalTo(4));
+        assertThat(mapper.readTree(out.toByteArray()).size(), equalTo(10));
+    }
+
+    private static List<Book> createBooks() {
+        final List<Book> books = new ArrayList<>();
+        books.add(new Book("CXF 1", 1));
+        books.add(new Book("CXF 2", 2));
+        return books;
+    }
+
+    private <T> T read(Class<?> clazz, byte[] bytes) throws IOException {
+        return read(clazz, null, bytes);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T read(Class<?> clazz, Type genericType, byte[] bytes) throws IOException {
+        try (ByteArrayInputStream in = new ByteArrayInputStream(bytes)) {
+            return (T)provider.readFrom((Class<Object>)clazz, genericType, null, null, null, in);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private String write(Object value, Class<?> clazz, Type genericType) throws IOException {
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            provider.writeTo(value, (Class<Object>)clazz, genericType, null, null, null, out);
+            return out.toString(StandardCharsets.UTF_8.name());
+        }
+    }
+}
@@ -31,6 +31,9 @@ import org.reactivestreams.Publisher;
 
 public abstract class AbstractReactiveInvoker extends JAXRSInvoker {
     private boolean useStreamingSubscriberIfPossible = true;
+    private long streamingPrefetch = StreamingAsyncSubscriber.DEFAULT_PREFETCH;
+    private int streamingFlushInterval;
+    private boolean streamingFlushWhenIdle;
     
     
     protected Object handleThrowable(AsyncResponseImpl asyncResponse, Throwable t) {
@@ -54,7 +57,13 @@ public abstract class AbstractReactiveInvoker extends JAXRSInvoker {
                                                 AsyncResponse asyncResponse, 
                                                 Message inMessage) {
         if (isUseStreamingSubscriberIfPossible() && isJsonResponse(inMessage)) {
-            publisher.subscribe(new JsonStreamingAsyncSubscriber<>(asyncResponse));
+            JsonStreamingAsyncSubscriber<Object> subscriber = new JsonStreamingAsyncSubscriber<>(asyncResponse);
+            subscriber.setPrefetch(streamingPrefetch);
+            subscriber.setFlushInterval(streamingFlushInterval);
+            subscriber.setFlushWhenIdle(streamingFlushWhenIdle);
+            @SuppressWarnings("unchecked")
+            Publisher<Object> thePublisher = (Publisher<Object>)publisher;
+            thePublisher.subscribe(subscriber);
             return true;
         } else {
             return false;
@@ -64,4 +73,39 @@ public abstract class AbstractReactiveInvoker extends JAXRSInvoker {
     public void setUseStreamingSubscriberIfPossible(boolean useStreamingSubscriberIfPossible) {
         this.useStreamingSubscriberIfPossible = useStreamingSubscriberIfPossible;
     }
+
+    public long getStreamingPrefetch() {
+        return streamingPrefetch;
+    }
+
+    /**
+     * Sets the maximum number of items requested ahead of the response writer
+     * when the responses are streamed
+     */
+    public void setStreamingPrefetch(long streamingPrefetch) {
+        this.streamingPrefetch = streamingPrefetch;
+    }
+
+    public int getStreamingFlushInterval() {
+        return streamingFlushInterval;
+    }
+
+    /**
+     * Sets the number of streamed items after which the response is flushed
+     */
+    public void setStreamingFlushInterval(int streamingFlushInterval) {
+        this.streamingFlushInterval = streamingFlushInterval;
+    }
+
+    public boolean isStreamingFlushWhenIdle() {
+        return streamingFlushWhenIdle;
+    }
+
+    /**
+     * Sets whether the streamed items should be flushed whenever the publisher
+     * has no more items ready
+     */
+    public void setStreamingFlushWhenIdle(boolean streamingFlushWhenIdle) {
+        this.streamingFlushWhenIdle = streamingFlushWhenIdle;
+    }
 }
@@ -59,7 +59,7 @@ public abstract class AbstractSubscriber<T> implements Subscriber<T> {
     @Override
     public void onSubscribe(Subscription inSubscription) {
         this.subscription = inSubscription;
-        requestAll();
+        requestInitial();
     }
 
     @Override
@@ -83,6 +83,14 @@ public abstract class AbstractSubscriber<T> implements Subscriber<T> {
         request(1);
     }
 
+    /**
+     * Requests the items the subscriber is ready to accept once subscribed,
+     * all of them by default
+     */
+    protected void requestInitial() {
+        requestAll();
+    }
+
     protected void requestAll() {
         request(Long.MAX_VALUE);
     }
@@ -31,7 +31,17 @@ import org.apache.cxf.common.util.StringUtils;
 import org.apache.cxf.jaxrs.ext.StreamingResponse;
 import org.reactivestreams.Subscription;
 
+/**
+ * Streams the published items to the response entity as they arrive. At most
+ * {@link #getPrefetch() prefetch} items are requested ahead of the response writer:
+ * more items are only requested once the writer has written (and hence the
+ * underlying transport accepted) most of the previous ones, so a slow client
+ * slows down the publisher instead of the items being buffered in memory.
+ * The subscription is requested from both the subscribing and the writing thread,
+ * so the calls are serialized as required by the Reactive Streams specification.
+ */
 public class StreamingAsyncSubscriber<T> extends AbstractSubscriber<T> {
+    public static final long DEFAULT_PREFETCH = 128;
 
     private BlockingQueue<T> queue = new LinkedBlockingQueue<>();
     private String openTag;
@@ -39,8 +49,12 @@ public class StreamingAsyncSubscriber<T> extends AbstractSubscriber<T> {
     private String separator;
     private long pollTimeout;
     private long asyncTimeout;
+    private long prefetch = DEFAULT_PREFETCH;
+    private int flushInterval;
+    private boolean flushWhenIdle;
     private volatile boolean completed;
     private volatile Throwable throwable;
+    private final Object subscriptionLock = new Object();
     
     private AtomicBoolean tagsWriteDone = new AtomicBoolean();
     private AtomicBoolean firstWriteDone = new AtomicBoolean();
@@ -71,6 +85,22 @@ public class StreamingAsyncSubscriber<T> extends AbstractSubscriber<T> {
         }
         super.onSubscribe(subscription);
     }
+    @Override
+    protected void requestInitial() {
+        synchronized (subscriptionLock) {
+            request(prefetch);
+        }
+    }
+    private void requestMore(long elements) {
+        synchronized (subscriptionLock) {
+            request(elements);
+        }
+    }
+    private void cancel() {
+        synchronized (subscriptionLock) {
+            getSubscription().cancel();
+        }
+    }
     private void resumeAsyncResponse() {
         super.resume(new StreamingResponseImpl());
     }
@@ -95,25 +125,92 @@ public class StreamingAsyncSubscriber<T> extends AbstractSubscriber<T> {
             resumeAsyncResponse();
         }
         queue.add(bean);
-        super.requestNext();
     }
+
+    /**
+     * Returns the maximum number of items requested ahead of the response writer
+     */
+    public long getPrefetch() {
+        return prefetch;
+    }
+
+    /**
+     * Sets the maximum number of items requested ahead of the response writer,
+     * {@link Long#MAX_VALUE} lets the publisher emit all the items at once
+     */
+    public void setPrefetch(long prefetch) {
+        if (prefetch <= 0) {
+            throw new IllegalArgumentException("Prefetch must be positive: " + prefetch);
+        }
+        this.prefetch = prefetch;
+    }
+
+    public int getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Sets the number of items after which the response entity stream is flushed,
+     * by default it is only flushed by the transport once its buffer is full
+     */
+    public void setFlushInterval(int flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public boolean isFlushWhenIdle() {
+        return flushWhenIdle;
+    }
+
+    /**
+     * Sets whether the items written so far should be flushed to the client
+     * when the writer has to wait for the publisher to emit more items
+     */
+    public void setFlushWhenIdle(boolean flushWhenIdle) {
+        this.flushWhenIdle = flushWhenIdle;
+    }
+
+    private long getReplenishThreshold() {
+        // request more items once 3/4 of the outstanding ones have been written
+        return prefetch == Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(1, prefetch - (prefetch >> 2));
+    }
+
     private class StreamingResponseImpl implements StreamingResponse<T> {
 
         @Override
         public void writeTo(Writer<T> writer) throws IOException {
-
+            final long replenishThreshold = getReplenishThreshold();
+            long written = 0;
+            int unflushed = 0;
             while (!completed || !queue.isEmpty()) {
                 if (tagsWriteDone.compareAndSet(false, true) && openTag != null) {
                     writer.getEntityStream().write(StringUtils.toBytesUTF8(openTag));
                 }
                 
                 try {
-                    T bean = queue.poll(pollTimeout, TimeUnit.MILLISECONDS);
+                    T bean = queue.poll();
+                    if (bean == null) {
+                        if (flushWhenIdle && unflushed > 0) {
+                            writer.getEntityStream().flush();
+                            unflushed = 0;
+                        }
+                        bean = queue.poll(pollTimeout, TimeUnit.MILLISECONDS);
+                    }
                     if (bean != null) {
                         if (firstWriteDone.getAndSet(true)) {
                             writer.getEntityStream().write(StringUtils.toBytesUTF8(separator));
                         }
-                        writer.write(bean);
+                        write(writer, bean);
+                        if (flushInterval > 0 || flushWhenIdle) {
+                            unflushed++;
+                        }
+                        if (flushInterval > 0 && unflushed >= flushInterval) {
+                            writer.getEntityStream().flush();
+                            unflushed = 0;
+                        }
+                        if (++written >= replenishThreshold && !completed) {
+                            requestMore(written);
+                            written = 0;
+                        }
                     }
                 } catch (InterruptedException ex) {
                     // ignore
@@ -149,6 +246,15 @@ public class StreamingAsyncSubscriber<T> extends AbstractSubscriber<T> {
         }
 
     }
+    private void write(StreamingResponse.Writer<T> writer, T bean) throws IOException {
+        try {
+            writer.write(bean);
+        } catch (IOException | RuntimeException ex) {
+            // the client is gone, no point in publishing the remaining items
+            cancel();
+            throw ex;
+        }
+    }
     public class TimeoutHandlerImpl implements TimeoutHandler {
 
         @Override
@@ -0,0 +1,172 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.reactivestreams.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.ws.rs.container.AsyncResponse;
+
+import org.apache.cxf.jaxrs.ext.StreamingResponse;
+import org.reactivestreams.Subscription;
+
+import org.easymock.Capture;
+import org.easymock.EasyMock;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class StreamingAsyncSubscriberTest {
+
+    @Test
+    public void testDefaultPrefetch() {
+        StreamingAsyncSubscriber<Integer> subscriber = createSubscriber(EasyMock.newCapture());
+        TestSubscription subscription = new TestSubscription(subscriber, 0);
+        subscriber.onSubscribe(subscription);
+        assertEquals(Arrays.asList(StreamingAsyncSubscriber.DEFAULT_PREFETCH), subscription.requests);
+    }
+
+    @Test
+    public void testDemandIsReplenished() throws Exception {
+        Capture<Object> response = EasyMock.newCapture();
+        StreamingAsyncSubscriber<Integer> subscriber = createSubscriber(response);
+        subscriber.setPrefetch(4);
+        TestSubscription subscription = new TestSubscription(subscriber, 10);
+        subscriber.onSubscribe(subscription);
+
+        TestWriter writer = new TestWriter();
+        writeTo(response, writer);
+
+        // more items are requested once 3 of the 4 outstanding ones have been written
+        assertEquals(Arrays.asList(4L, 3L, 3L), subscription.requests);
+        assertEquals("[0,1,2,3,4,5,6,7,8,9]", writer.toString());
+    }
+
+    @Test
+    public void testFlushInterval() throws Exception {
+        Capture<Object> response = EasyMock.newCapture();
+        StreamingAsyncSubscriber<Integer> subscriber = createSubscriber(response);
+        subscriber.setFlushInterval(3);
+        subscriber.setFlushWhenIdle(true);
+        subscriber.onSubscribe(new TestSubscription(subscriber, 7));
+
+        TestWriter writer = new TestWriter();
+        writeTo(response, writer);
+
+        // all the items are available, so the stream is only flushed after every 3 items
+        assertEquals(2, writer.flushes);
+        assertEquals("[0,1,2,3,4,5,6]", writer.toString());
+    }
+
+    @Test
+    public void testFlushWhenIdle() throws Exception {
+        Capture<Object> response = EasyMock.newCapture();
+        StreamingAsyncSubscriber<Integer> subscriber = createSubscriber(response);
+        subscriber.setFlushWhenIdle(true);
+        TestSubscription subscription = new TestSubscription(subscriber, 3);
+        subscription.complete = false;
+        subscriber.onSubscribe(subscription);
+
+        // the publisher completes once the written items have been flushed
+        TestWriter writer = new TestWriter();
+        writer.onFlush = subscriber::onComplete;
+        writeTo(response, writer);
+
+        assertEquals(1, writer.flushes);
+        assertEquals("[0,1,2]", writer.toString());
+    }
+
+    private static StreamingAsyncSubscriber<Integer> createSubscriber(Capture<Object> response) {
+        AsyncResponse ar = EasyMock.createNiceMock(AsyncResponse.class);
+        EasyMock.expect(ar.resume(EasyMock.capture(response))).andReturn(true);
+        EasyMock.replay(ar);
+        return new StreamingAsyncSubscriber<>(ar, "[", "]", ",", 10);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void writeTo(Capture<Object> response, TestWriter writer) throws IOException {
+        ((StreamingResponse<Integer>)response.getValue()).writeTo(writer);
+    }
+
+    /**
+     * Emits the requested items synchronously, up to the given number of items
+     */
+    private static final class TestSubscription implements Subscription {
+        private final StreamingAsyncSubscriber<Integer> subscriber;
+        private final int count;
+        private final List<Long> requests = new ArrayList<>();
+        private boolean complete = true;
+        private int emitted;
+
+        TestSubscription(StreamingAsyncSubscriber<Integer> subscriber, int count) {
+            this.subscriber = subscriber;
+            this.count = count;
+        }
+
+        @Override
+        public void request(long n) {
+            requests.add(n);
+            for (long i = 0; i < n && emitted < count; i++) {
+                subscriber.onNext(emitted++);
+            }
+            if (emitted == count && complete) {
+                subscriber.onComplete();
+            }
+        }
+
+        @Override
+        public void cancel() {
+        }
+    }
+
+    private static final class TestWriter implements StreamingResponse.Writer<Integer> {
+        private int flushes;
+        private Runnable onFlush;
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes++;
+                if (onFlush != null) {
+                    onFlush.run();
+                }
+            }
+        };
+
+        @Override
+        public void write(Integer data) throws IOException {
+            out.write(data.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public OutputStream getEntityStream() {
+            return out;
+        }
+
+        @Override
+        public String toString() {
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
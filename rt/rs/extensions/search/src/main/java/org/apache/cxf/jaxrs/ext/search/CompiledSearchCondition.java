@@ -0,0 +1,251 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.ext.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Search condition which evaluates the conditions created by {@link SearchConditionParser}
+ * (such as {@link org.apache.cxf.jaxrs.ext.search.fiql.FiqlParser}) with a predicate tree
+ * compiled once, rather than with the reflective lookups done by {@link PrimitiveSearchCondition}
+ * on every evaluation:
+ * <ul>
+ * <li>the getters are resolved upfront and invoked with method handles;</li>
+ * <li>the comparison is chosen upfront for the condition type and the value type;</li>
+ * <li>the 'and' and 'or' conditions evaluate the children ordered by their estimated selectivity,
+ *     so the evaluation short-circuits as early as possible.</li>
+ * </ul>
+ * The conditions which can not be compiled (custom conditions, {@link SearchBean} based ones, etc)
+ * are evaluated as is. Unless such conditions are present, the compiled condition is thread-safe,
+ * it can be reused between the requests and {@link #findAll(Collection)} filters the large
+ * collections in parallel.
+ * <p>
+ * Note that because of the reordering, the order in which the conditions are evaluated may differ
+ * from the order of the original expression.
+ *
+ * @param <T> type of search condition.
+ */
+public final class CompiledSearchCondition<T> implements SearchCondition<T> {
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 10000;
+
+    private static final double DEFAULT_SELECTIVITY = 0.5;
+
+    private final SearchCondition<T> condition;
+    private final Predicate<T> predicate;
+    private final boolean threadSafe;
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    private CompiledSearchCondition(SearchCondition<T> condition, Node<T> node) {
+        this.condition = condition;
+        this.predicate = node.predicate;
+        this.threadSafe = node.threadSafe;
+    }
+
+    /**
+     * Compiles the search condition, the conditions which are compiled already are returned as is.
+     *
+     * @param condition the search condition
+     * @return compiled search condition
+     */
+    public static <T> CompiledSearchCondition<T> compile(SearchCondition<T> condition) {
+        if (condition instanceof CompiledSearchCondition) {
+            return (CompiledSearchCondition<T>)condition;
+        }
+        return new CompiledSearchCondition<>(condition, compileNode(condition));
+    }
+
+    /**
+     * @return the original search condition
+     */
+    public SearchCondition<T> getSearchCondition() {
+        return condition;
+    }
+
+    /**
+     * @return true if all the conditions have been compiled, so this condition can be
+     * shared between threads
+     */
+    public boolean isThreadSafe() {
+        return threadSafe;
+    }
+
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Sets the minimum size of the collection which is filtered in parallel by
+     * {@link #findAll(Collection)}, the default is {@value #DEFAULT_PARALLEL_THRESHOLD}.
+     * Use {@link Integer#MAX_VALUE} to disable the parallel filtering.
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    @Override
+    public boolean isMet(T pojo) {
+        return predicate.test(pojo);
+    }
+
+    @Override
+    public List<T> findAll(Collection<T> pojos) {
+        if (threadSafe && pojos.size() >= parallelThreshold) {
+            return pojos.parallelStream().filter(predicate).collect(Collectors.toList());
+        }
+        List<T> result = new ArrayList<>();
+        for (T pojo : pojos) {
+            if (predicate.test(pojo)) {
+                result.add(pojo);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public T getCondition() {
+        return condition.getCondition();
+    }
+
+    @Override
+    public ConditionType getConditionType() {
+        return condition.getConditionType();
+    }
+
+    @Override
+    public List<SearchCondition<T>> getSearchConditions() {
+        return condition.getSearchConditions();
+    }
+
+    @Override
+    public PrimitiveStatement getStatement() {
+        return condition.getStatement();
+    }
+
+    public String toSQL(String table, String... columns) {
+        return SearchUtils.toSQL(condition, table, columns);
+    }
+
+    @Override
+    public void accept(SearchConditionVisitor<T, ?> visitor) {
+        condition.accept(visitor);
+    }
+
+    private static <T> Node<T> compileNode(SearchCondition<T> sc) {
+        final Class<?> scClass = sc.getClass();
+        if (scClass == AndSearchCondition.class) {
+            return compileAnd(sc.getSearchConditions());
+        } else if (scClass == OrSearchCondition.class) {
+            return compileOr(sc.getSearchConditions());
+        } else if (scClass == SimpleSearchCondition.class) {
+            final List<SearchCondition<T>> conditions = ((SimpleSearchCondition<T>)sc).getConditions();
+            return conditions.size() == 1 ? compileNode(conditions.get(0)) : compileAnd(conditions);
+        } else if (scClass == PrimitiveSearchCondition.class) {
+            final Predicate<T> compiled = ((PrimitiveSearchCondition<T>)sc).compile();
+            if (compiled != null) {
+                return new Node<>(compiled, estimateSelectivity(sc.getStatement()), true);
+            }
+        } else if (sc instanceof CompiledSearchCondition) {
+            final CompiledSearchCondition<T> compiled = (CompiledSearchCondition<T>)sc;
+            return new Node<>(compiled.predicate, DEFAULT_SELECTIVITY, compiled.threadSafe);
+        }
+        return new Node<>(sc::isMet, DEFAULT_SELECTIVITY, false);
+    }
+
+    private static <T> Node<T> compileAnd(List<SearchCondition<T>> conditions) {
+        final List<Node<T>> nodes = compileNodes(conditions);
+        // The conditions which are most likely not met go first
+        nodes.sort(Comparator.comparingDouble(n -> n.selectivity));
+
+        double selectivity = 1.0;
+        boolean threadSafe = true;
+        Predicate<T> predicate = null;
+        for (Node<T> node : nodes) {
+            selectivity *= node.selectivity;
+            threadSafe &= node.threadSafe;
+            predicate = predicate == null ? node.predicate : predicate.and(node.predicate);
+        }
+        return new Node<>(predicate == null ? pojo -> true : predicate, selectivity, threadSafe);
+    }
+
+    private static <T> Node<T> compileOr(List<SearchCondition<T>> conditions) {
+        final List<Node<T>> nodes = compileNodes(conditions);
+        // The conditions which are most likely met go first
+        nodes.sort(Comparator.comparingDouble(n -> -n.selectivity));
+
+        double nonSelectivity = 1.0;
+        boolean threadSafe = true;
+        Predicate<T> predicate = null;
+        for (Node<T> node : nodes) {
+            nonSelectivity *= 1.0 - node.selectivity;
+            threadSafe &= node.threadSafe;
+            predicate = predicate == null ? node.predicate : predicate.or(node.predicate);
+        }
+        return new Node<>(predicate == null ? pojo -> false : predicate, 1.0 - nonSelectivity, threadSafe);
+    }
+
+    private static <T> List<Node<T>> compileNodes(List<SearchCondition<T>> conditions) {
+        final List<Node<T>> nodes = new ArrayList<>(conditions.size());
+        for (SearchCondition<T> sc : conditions) {
+            nodes.add(compileNode(sc));
+        }
+        return nodes;
+    }
+
+    /**
+     * Rough estimate of the fraction of the objects meeting the statement.
+     */
+    private static double estimateSelectivity(PrimitiveStatement statement) {
+        if (statement == null || statement.getCondition() == null) {
+            return DEFAULT_SELECTIVITY;
+        }
+        final boolean wildcard = statement.getValue() instanceof String
+            && ((String)statement.getValue()).indexOf('*') != -1;
+        switch (statement.getCondition()) {
+        case EQUALS:
+            return wildcard ? 0.3 : 0.1;
+        case NOT_EQUALS:
+            return wildcard ? 0.7 : 0.9;
+        case GREATER_THAN:
+        case GREATER_OR_EQUALS:
+        case LESS_THAN:
+        case LESS_OR_EQUALS:
+            return 0.4;
+        default:
+            return DEFAULT_SELECTIVITY;
+        }
+    }
+
+    private static final class Node<T> {
+        private final Predicate<T> predicate;
+        private final double selectivity;
+        private final boolean threadSafe;
+
+        Node(Predicate<T> predicate, double selectivity, boolean threadSafe) {
+            this.predicate = predicate;
+            this.selectivity = selectivity;
+            this.threadSafe = threadSafe;
+        }
+    }
+}
@@ -21,10 +21,13 @@ package org.apache.cxf.jaxrs.ext.search;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.function.Predicate;
 
 import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.jaxrs.ext.search.PropertyAccessors.Accessor;
 import org.apache.cxf.jaxrs.utils.InjectionUtils;
 
 public class PrimitiveSearchCondition<T> implements SearchCondition<T> {
@@ -106,6 +109,102 @@ public class PrimitiveSearchCondition<T> implements SearchCondition<T> {
         return lValue != null && compare(lValue, cType, rValue);
     }
 
+    /**
+     * Compiles this condition into a stateless predicate with the same semantics as
+     * {@link #isMet(Object)}: the getters are resolved once, and the comparison is chosen
+     * upfront for the condition type and the value. Returns null if this condition can not
+     * be compiled, for example when it is based on {@link SearchBean}.
+     */
+    Predicate<T> compile() {
+        if (propertyName == null || beanspector == null) {
+            return null;
+        }
+        final Object rValue;
+        try {
+            rValue = getPrimitiveValue(propertyName, propertyValue);
+        } catch (RuntimeException ex) {
+            return null;
+        }
+        final Predicate<Object> comparison = compileComparison(rValue);
+        if (comparison == null) {
+            return null;
+        }
+
+        final String[] names = propertyName.split("\\.");
+        final Method getter = beanspector.getGetter(names[0].toLowerCase());
+        if (getter == null) {
+            return pojo -> false;
+        }
+        final Class<?> beanClass = getter.getDeclaringClass();
+        final Accessor accessor = PropertyAccessors.getAccessor(getter);
+        final String[] path = Arrays.copyOfRange(names, 1, names.length);
+        return pojo -> {
+            if (!beanClass.isInstance(pojo)) {
+                return isPrimitive(pojo) && compare(pojo, cType, propertyValue);
+            }
+            Object lValue;
+            try {
+                lValue = PropertyAccessors.getNestedValue(accessor.get(pojo), path);
+            } catch (Throwable e) {
+                lValue = null;
+            }
+            return lValue != null && comparison.test(lValue);
+        };
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private Predicate<Object> compileComparison(Object rval) {
+        if (cType == ConditionType.EQUALS || cType == ConditionType.NOT_EQUALS) {
+            if (rval == null) {
+                return lval -> true;
+            }
+            final boolean negate = cType == ConditionType.NOT_EQUALS;
+            if (!(rval instanceof String)) {
+                return lval -> lval instanceof String ? compare(lval, cType, rval) : lval.equals(rval) != negate;
+            }
+            final Predicate<String> text = compileTextComparison((String)rval);
+            if (text == null) {
+                return null;
+            }
+            return lval -> (lval instanceof String ? text.test((String)lval) : lval.equals(rval)) != negate;
+        }
+        if (!(rval instanceof Comparable)) {
+            return lval -> true;
+        }
+        final Comparable rcomp = (Comparable)rval;
+        switch (cType) {
+        case GREATER_THAN:
+            return lval -> !(lval instanceof Comparable) || ((Comparable)lval).compareTo(rcomp) > 0;
+        case GREATER_OR_EQUALS:
+            return lval -> !(lval instanceof Comparable) || ((Comparable)lval).compareTo(rcomp) >= 0;
+        case LESS_THAN:
+            return lval -> !(lval instanceof Comparable) || ((Comparable)lval).compareTo(rcomp) < 0;
+        case LESS_OR_EQUALS:
+            return lval -> !(lval instanceof Comparable) || ((Comparable)lval).compareTo(rcomp) <= 0;
+        default:
+            return null;
+        }
+    }
+
+    private static Predicate<String> compileTextComparison(String rval) {
+        final boolean starts = !rval.isEmpty() && rval.charAt(0) == '*';
+        final String value = starts ? rval.substring(1) : rval;
+        if (value.isEmpty()) {
+            // the single wildcard is reported on evaluation, see textCompare()
+            return null;
+        }
+        final boolean ends = value.charAt(value.length() - 1) == '*';
+        final String text = ends ? value.substring(0, value.length() - 1) : value;
+        if (starts && ends) {
+            return lval -> lval.contains(text);
+        } else if (starts) {
+            return lval -> lval.endsWith(text);
+        } else if (ends) {
+            return lval -> lval.startsWith(text);
+        }
+        return lval -> lval.equals(text);
+    }
+
     private Object getValue(String getter, T pojo) {
         String thePropertyName;
         int index = getter.indexOf('.');
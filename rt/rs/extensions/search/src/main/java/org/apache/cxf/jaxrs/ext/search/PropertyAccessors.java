@@ -0,0 +1,90 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.ext.search;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.jaxrs.utils.InjectionUtils;
+
+/**
+ * Resolves and caches the getters used by the compiled search conditions, so the property
+ * values are read with method handles rather than with the reflective lookups done by
+ * {@link PrimitiveSearchCondition} on every evaluation.
+ */
+final class PropertyAccessors {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final Accessor MISSING = bean -> {
+        throw new NoSuchMethodException();
+    };
+    private static final ClassValue<Map<String, Accessor>> NESTED_GETTERS =
+        new ClassValue<Map<String, Accessor>>() {
+            @Override
+            protected Map<String, Accessor> computeValue(Class<?> type) {
+                return new ConcurrentHashMap<>();
+            }
+        };
+
+    interface Accessor {
+        Object get(Object bean) throws Throwable;
+    }
+
+    private PropertyAccessors() {
+    }
+
+    static Accessor getAccessor(Method getter) {
+        try {
+            final MethodHandle handle = MethodHandles.publicLookup().unreflect(getter).asType(GETTER_TYPE);
+            return bean -> (Object)handle.invokeExact(bean);
+        } catch (IllegalAccessException ex) {
+            // public getter of non-public class
+            return bean -> getter.invoke(bean);
+        }
+    }
+
+    /**
+     * Walks the nested properties (such as "street" in "address.street") the same way
+     * PrimitiveSearchCondition does: built-in values and nulls are returned as is.
+     */
+    static Object getNestedValue(Object value, String[] path) throws Throwable {
+        for (String name : path) {
+            if (value == null || InjectionUtils.isPrimitive(value.getClass())) {
+                return value;
+            }
+            value = getNestedAccessor(value.getClass(), name).get(value);
+        }
+        return value;
+    }
+
+    private static Accessor getNestedAccessor(Class<?> cls, String name) {
+        return NESTED_GETTERS.get(cls).computeIfAbsent(name, n -> {
+            try {
+                return getAccessor(cls.getMethod("get" + StringUtils.capitalize(n)));
+            } catch (NoSuchMethodException ex) {
+                return MISSING;
+            }
+        });
+    }
+}
@@ -21,6 +21,7 @@ package org.apache.cxf.jaxrs.ext.search;
 
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -28,9 +29,13 @@ import java.util.logging.Logger;
 
 import javax.ws.rs.core.MultivaluedMap;
 
+import org.apache.cxf.cache.Cache;
+import org.apache.cxf.cache.CacheConfiguration;
+import org.apache.cxf.cache.LocalCache;
 import org.apache.cxf.common.classloader.ClassLoaderUtils;
 import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.common.util.PropertyUtils;
+import org.apache.cxf.endpoint.Endpoint;
 import org.apache.cxf.helpers.CastUtils;
 import org.apache.cxf.jaxrs.ext.search.client.CompleteCondition;
 import org.apache.cxf.jaxrs.ext.search.client.SearchConditionBuilder;
@@ -51,6 +56,8 @@ public class SearchContextImpl implements SearchContext {
     private static final String USE_ALL_QUERY_COMPONENT = "search.use.all.query.component";
     private static final String BLOCK_SEARCH_EXCEPTION = "search.block.search.exception";
     private static final String KEEP_QUERY_ENCODED = "search.keep.query.encoded";
+    private static final String COMPILED_CONDITIONS_CACHE = CompiledSearchCondition.class.getName() + ".cache";
+    private static final int DEFAULT_COMPILED_CONDITIONS_CACHE_SIZE = 1000;
     private static final Logger LOG = LogUtils.getL7dLogger(SearchContextImpl.class);
     private Message message;
 
@@ -98,6 +105,9 @@ public class SearchContextImpl implements SearchContext {
             ? getSearchExpression() : expression;
         if (theExpression != null) {
             try {
+                if (MessageUtils.getContextualBoolean(message, SearchUtils.COMPILE_CONDITIONS)) {
+                    return getCompiledCondition(parser, theExpression, cls, beanProperties, parserProperties);
+                }
                 return parser.parse(theExpression);
             } catch (SearchParseException ex) {
                 if (PropertyUtils.isTrue(message.getContextualProperty(BLOCK_SEARCH_EXCEPTION))) {
@@ -110,6 +120,58 @@ public class SearchContextImpl implements SearchContext {
 
     }
 
+    /**
+     * Returns the compiled search condition, the thread-safe ones are cached per endpoint by
+     * the search expression (and the parser settings).
+     */
+    private <T> SearchCondition<T> getCompiledCondition(SearchConditionParser<T> parser,
+                                                        String expression,
+                                                        Class<T> cls,
+                                                        Map<String, String> beanProperties,
+                                                        Map<String, String> parserProperties) {
+        final Cache<Object, CompiledSearchCondition<?>> cache = getCompiledConditionsCache();
+        if (cache == null) {
+            return CompiledSearchCondition.compile(parser.parse(expression));
+        }
+
+        final Object key = Arrays.asList(expression, cls, parser.getClass(), beanProperties, parserProperties);
+        @SuppressWarnings("unchecked")
+        CompiledSearchCondition<T> condition = (CompiledSearchCondition<T>)cache.get(key);
+        if (condition == null) {
+            condition = CompiledSearchCondition.compile(parser.parse(expression));
+            if (condition.isThreadSafe()) {
+                cache.put(key, condition);
+            }
+        }
+        return condition;
+    }
+
+    private Cache<Object, CompiledSearchCondition<?>> getCompiledConditionsCache() {
+        final Endpoint endpoint = message.getExchange() != null ? message.getExchange().getEndpoint() : null;
+        if (endpoint == null) {
+            return null;
+        }
+        final Integer size = PropertyUtils.getInteger(message, SearchUtils.COMPILED_CONDITIONS_CACHE_SIZE);
+        if (size != null && size <= 0) {
+            return null;
+        }
+
+        Object cache = endpoint.get(COMPILED_CONDITIONS_CACHE);
+        if (cache == null) {
+            synchronized (endpoint) {
+                cache = endpoint.get(COMPILED_CONDITIONS_CACHE);
+                if (cache == null) {
+                    cache = new LocalCache<Object, CompiledSearchCondition<?>>(COMPILED_CONDITIONS_CACHE,
+                        new CacheConfiguration(0, size != null ? size : DEFAULT_COMPILED_CONDITIONS_CACHE_SIZE));
+                    endpoint.put(COMPILED_CONDITIONS_CACHE, cache);
+                }
+            }
+        }
+        @SuppressWarnings("unchecked")
+        Cache<Object, CompiledSearchCondition<?>> typedCache = (Cache<Object, CompiledSearchCondition<?>>)cache;
+        return typedCache;
+    }
+
     public String getSearchExpression() {
 
         String queryStr = (String)message.get(Message.QUERY_STRING);
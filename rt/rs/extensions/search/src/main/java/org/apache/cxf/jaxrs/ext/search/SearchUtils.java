@@ -44,6 +44,8 @@ public final class SearchUtils {
     public static final String SEARCH_VISITOR_PROPERTY = "search.visitor";
     public static final String DECODE_QUERY_VALUES = "search.decode.values";
     public static final String ESCAPE_UNDERSCORE_CHAR = "search.escape.underscore.char";
+    public static final String COMPILE_CONDITIONS = "search.compile.conditions";
+    public static final String COMPILED_CONDITIONS_CACHE_SIZE = "search.compiled.conditions.cache.size";
 
     private static final Logger LOG = LogUtils.getL7dLogger(SearchUtils.class);
 
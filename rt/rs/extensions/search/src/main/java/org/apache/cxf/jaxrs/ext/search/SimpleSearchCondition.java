@@ -142,6 +142,10 @@ public class SimpleSearchCondition<T> implements SearchCondition<T> {
         return null;
     }
 
+    List<SearchCondition<T>> getConditions() {
+        return scts;
+    }
+
     private List<SearchCondition<T>> createConditions(Map<String, ConditionType> getters2operators,
                                                       Map<String, String> realGetters,
                                                       Map<String, TypeInfo> propertyTypeInfo,
@@ -0,0 +1,121 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.ext.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.jaxrs.ext.search.fiql.FiqlParser;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+
+import org.easymock.EasyMock;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class CompiledSearchConditionTest {
+    private static final List<Book> BOOKS = new ArrayList<>();
+    static {
+        for (int i = 0; i < 100; i++) {
+            BOOKS.add(new Book((i % 2 == 0 ? "CXF " : "Java ") + i, i));
+        }
+    }
+
+    private FiqlParser<Book> parser = new FiqlParser<>(Book.class);
+
+    @Test
+    public void testSameResultsAsOriginalCondition() {
+        for (String query : new String[] {"name==CXF*;id=gt=10", "name==*5,id=lt=3", "name!=Java 1",
+            "(id=ge=5;id=le=7),(name==*ava*;id=gt=95)", "name==Java 1*", "id==42", "name!=*0;id=lt=20"}) {
+            SearchCondition<Book> condition = parser.parse(query);
+            CompiledSearchCondition<Book> compiled = CompiledSearchCondition.compile(condition);
+            assertTrue(compiled.isThreadSafe());
+            assertEquals(query, condition.findAll(BOOKS), compiled.findAll(BOOKS));
+            for (Book book : BOOKS) {
+                assertEquals(query, condition.isMet(book), compiled.isMet(book));
+            }
+        }
+    }
+
+    @Test
+    public void testParallelFindAll() {
+        SearchCondition<Book> condition = parser.parse("name==CXF*;id=gt=10");
+        CompiledSearchCondition<Book> compiled = CompiledSearchCondition.compile(condition);
+        compiled.setParallelThreshold(1);
+        assertEquals(condition.findAll(BOOKS), compiled.findAll(BOOKS));
+    }
+
+    @Test
+    public void testCustomConditionIsNotThreadSafe() {
+        SearchCondition<Book> custom = new PrimitiveSearchCondition<Book>("id", 3L, ConditionType.EQUALS,
+                                                                          new Book("", 3L)) {
+            @Override
+            public boolean isMet(Book pojo) {
+                return pojo.getId() == 3L;
+            }
+        };
+        List<SearchCondition<Book>> conditions = new ArrayList<>();
+        conditions.add(parser.parse("id=lt=50"));
+        conditions.add(custom);
+        CompiledSearchCondition<Book> compiled = CompiledSearchCondition.compile(
+            new AndSearchCondition<>(conditions));
+        assertFalse(compiled.isThreadSafe());
+        assertEquals(1, compiled.findAll(BOOKS).size());
+    }
+
+    @Test
+    public void testCompiledConditionsAreCached() {
+        Message m = createMessage("_s=name==CXF*");
+        SearchCondition<Book> condition = new SearchContextImpl(m).getCondition(Book.class);
+        assertTrue(condition instanceof CompiledSearchCondition);
+        assertSame(condition, new SearchContextImpl(m).getCondition(Book.class));
+        assertNotSame(condition, new SearchContextImpl(m).getCondition("name==Java*", Book.class));
+        assertEquals(50, condition.findAll(BOOKS).size());
+    }
+
+    private static Message createMessage(String query) {
+        Map<Object, Object> properties = new HashMap<>();
+        Endpoint endpoint = EasyMock.createNiceMock(Endpoint.class);
+        EasyMock.expect(endpoint.get(EasyMock.anyObject()))
+            .andAnswer(() -> properties.get(EasyMock.getCurrentArguments()[0])).anyTimes();
+        EasyMock.expect(endpoint.put(EasyMock.anyString(), EasyMock.anyObject()))
+            .andAnswer(() -> properties.put(EasyMock.getCurrentArguments()[0],
+                                            EasyMock.getCurrentArguments()[1])).anyTimes();
+        EasyMock.replay(endpoint);
+
+        Exchange exchange = new ExchangeImpl();
+        exchange.put(Endpoint.class, endpoint);
+        Message m = new MessageImpl();
+        m.setExchange(exchange);
+        m.put(SearchUtils.COMPILE_CONDITIONS, true);
+        m.put(Message.QUERY_STRING, query);
+        return m;
+    }
+}
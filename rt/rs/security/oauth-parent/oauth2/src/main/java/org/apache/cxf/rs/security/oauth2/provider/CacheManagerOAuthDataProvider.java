@@ -0,0 +1,217 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.rs.security.oauth2.provider;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.bus.managers.CacheManagerImpl;
+import org.apache.cxf.cache.Cache;
+import org.apache.cxf.cache.CacheConfiguration;
+import org.apache.cxf.cache.CacheManager;
+import org.apache.cxf.rs.security.oauth2.common.Client;
+import org.apache.cxf.rs.security.oauth2.common.ServerAccessToken;
+import org.apache.cxf.rs.security.oauth2.common.UserSubject;
+import org.apache.cxf.rs.security.oauth2.tokens.refresh.RefreshToken;
+import org.apache.cxf.rs.security.oauth2.utils.OAuthUtils;
+
+/**
+ * An OAuthDataProvider which keeps the clients and tokens in the caches of the Bus {@link CacheManager}.
+ * The caches are not bounded, so no live client or token is ever evicted, and the tokens are cached
+ * for their lifetime. If the Bus has no CacheManager, a private embedded one is used.
+ */
+public class CacheManagerOAuthDataProvider extends AbstractOAuthDataProvider {
+    public static final String CLIENT_CACHE_KEY = "cxf.oauth2.client.cache";
+    public static final String ACCESS_TOKEN_CACHE_KEY = "cxf.oauth2.accesstoken.cache";
+    public static final String REFRESH_TOKEN_CACHE_KEY = "cxf.oauth2.refreshtoken.cache";
+
+    protected final CacheManager cacheManager;
+    private final String clientCacheKey;
+    private final String accessTokenCacheKey;
+    private final String refreshTokenCacheKey;
+    private final Cache<String, Client> clientCache;
+    private final Cache<String, ServerAccessToken> accessTokenCache;
+    private final Cache<String, RefreshToken> refreshTokenCache;
+
+    public CacheManagerOAuthDataProvider() {
+        this(BusFactory.getThreadDefaultBus(true));
+    }
+
+    public CacheManagerOAuthDataProvider(Bus bus) {
+        this(bus, CLIENT_CACHE_KEY, ACCESS_TOKEN_CACHE_KEY, REFRESH_TOKEN_CACHE_KEY);
+    }
+
+    public CacheManagerOAuthDataProvider(Bus bus,
+                                         String clientCacheKey,
+                                         String accessTokenCacheKey,
+                                         String refreshTokenCacheKey) {
+        this(getCacheManager(bus), new CacheConfiguration(0L, 0L),
+             clientCacheKey, accessTokenCacheKey, refreshTokenCacheKey);
+    }
+
+    public CacheManagerOAuthDataProvider(CacheManager cacheManager,
+                                         CacheConfiguration configuration,
+                                         String clientCacheKey,
+                                         String accessTokenCacheKey,
+                                         String refreshTokenCacheKey) {
+        this.cacheManager = cacheManager;
+        this.clientCacheKey = clientCacheKey;
+        this.accessTokenCacheKey = accessTokenCacheKey;
+        this.refreshTokenCacheKey = refreshTokenCacheKey;
+        clientCache = cacheManager.getCache(clientCacheKey, configuration);
+        accessTokenCache = cacheManager.getCache(accessTokenCacheKey, configuration);
+        refreshTokenCache = cacheManager.getCache(refreshTokenCacheKey, configuration);
+    }
+
+    @Override
+    public Client doGetClient(String clientId) throws OAuthServiceException {
+        return clientCache.get(clientId);
+    }
+
+    public void setClient(Client client) {
+        clientCache.put(client.getClientId(), client);
+    }
+
+    @Override
+    protected void doRemoveClient(Client c) {
+        clientCache.remove(c.getClientId());
+    }
+
+    @Override
+    public List<Client> getClients(UserSubject resourceOwner) {
+        List<Client> clients = new ArrayList<>();
+        clientCache.forEach((clientId, client) -> {
+            if (isClientMatched(client, resourceOwner)) {
+                clients.add(client);
+            }
+        });
+        return clients;
+    }
+
+    @Override
+    public List<ServerAccessToken> getAccessTokens(Client c, UserSubject sub) {
+        return getTokens(accessTokenCache, c, sub);
+    }
+
+    @Override
+    public List<RefreshToken> getRefreshTokens(Client c, UserSubject sub) {
+        return getTokens(refreshTokenCache, c, sub);
+    }
+
+    @Override
+    public ServerAccessToken getAccessToken(String accessTokenKey) throws OAuthServiceException {
+        return getToken(accessTokenCache, accessTokenKey);
+    }
+
+    @Override
+    protected void doRevokeAccessToken(ServerAccessToken at) {
+        accessTokenCache.remove(at.getTokenKey());
+    }
+
+    @Override
+    protected RefreshToken getRefreshToken(String refreshTokenKey) {
+        return getToken(refreshTokenCache, refreshTokenKey);
+    }
+
+    @Override
+    protected void doRevokeRefreshToken(RefreshToken rt) {
+        refreshTokenCache.remove(rt.getTokenKey());
+    }
+
+    @Override
+    protected void saveAccessToken(ServerAccessToken serverToken) {
+        accessTokenCache.put(serverToken.getTokenKey(), serverToken, getTimeToLive(serverToken));
+    }
+
+    @Override
+    protected void saveRefreshToken(RefreshToken refreshToken) {
+        refreshTokenCache.put(refreshToken.getTokenKey(), refreshToken, getTimeToLive(refreshToken));
+    }
+
+    @Override
+    protected void linkRefreshTokenToAccessToken(RefreshToken rt, ServerAccessToken at) {
+        super.linkRefreshTokenToAccessToken(rt, at);
+        if (accessTokenCache.containsKey(at.getTokenKey())) {
+            accessTokenCache.put(at.getTokenKey(), at, getTimeToLive(at));
+        }
+    }
+
+    @Override
+    public void close() {
+        cacheManager.removeCache(clientCacheKey);
+        cacheManager.removeCache(accessTokenCacheKey);
+        cacheManager.removeCache(refreshTokenCacheKey);
+    }
+
+    protected static <V extends ServerAccessToken> V getToken(Cache<String, V> cache, String key) {
+        V token = cache.get(key);
+        if (token != null && isExpired(token)) {
+            cache.remove(key);
+            token = null;
+        }
+        return token;
+    }
+
+    protected static <V extends ServerAccessToken> List<V> getTokens(Cache<String, V> cache,
+                                                                     Client client, UserSubject sub) {
+        final Set<String> toRemove = new HashSet<>();
+        final List<V> tokens = new ArrayList<>();
+        cache.forEach((key, token) -> {
+            if (isExpired(token)) {
+                toRemove.add(key);
+            } else if (isTokenMatched(token, client, sub)) {
+                tokens.add(token);
+            }
+        });
+        for (String key : toRemove) {
+            cache.remove(key);
+        }
+        return tokens;
+    }
+
+    protected static boolean isExpired(ServerAccessToken token) {
+        return OAuthUtils.isExpired(token.getIssuedAt(), token.getExpiresIn());
+    }
+
+    /**
+     * The time to live (in milliseconds) of the cache entry for the given token, zero
+     * (the cache default) for the tokens with an unlimited lifetime.
+     */
+    protected static long getTimeToLive(ServerAccessToken token) {
+        if (token.getExpiresIn() <= 0L) {
+            return 0L;
+        }
+        long remaining = token.getIssuedAt() + token.getExpiresIn() - System.currentTimeMillis() / 1000L;
+        return Math.max(1L, remaining) * 1000L;
+    }
+
+    protected static CacheManager getCacheManager(Bus bus) {
+        if (bus == null) {
+            bus = BusFactory.getThreadDefaultBus(true);
+        }
+        CacheManager cacheManager = bus.getExtension(CacheManager.class);
+        // Do not register a CacheManager with the Bus, it would change the caches used by WS-Security etc.
+        return cacheManager != null ? cacheManager : new CacheManagerImpl();
+    }
+}
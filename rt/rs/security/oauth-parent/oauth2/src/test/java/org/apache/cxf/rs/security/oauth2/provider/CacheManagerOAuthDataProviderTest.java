@@ -0,0 +1,50 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.rs.security.oauth2.provider;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.bus.extension.ExtensionManagerBus;
+import org.apache.cxf.cache.CacheManager;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertNull;
+
+public class CacheManagerOAuthDataProviderTest extends AbstractOAuthDataProviderTest {
+
+    @Before
+    public void setUp() throws Exception {
+        CacheManagerOAuthDataProvider provider = new CacheManagerOAuthDataProvider();
+        initializeProvider(provider);
+        setProvider(provider);
+    }
+
+    @Test
+    public void testNoCacheManagerRegisteredWithBus() {
+        Bus bus = new ExtensionManagerBus();
+        try {
+            new CacheManagerOAuthDataProvider(bus).close();
+            assertNull(bus.getExtension(CacheManager.class));
+        } finally {
+            bus.shutdown(true);
+        }
+    }
+
+}
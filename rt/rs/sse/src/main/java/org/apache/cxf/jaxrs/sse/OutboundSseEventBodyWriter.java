@@ -61,6 +61,9 @@ public class OutboundSseEventBodyWriter implements MessageBodyWriter<OutboundSse
         this.message.setExchange(exchange);
     }
 
+    ServerProviderFactory getProviderFactory() {
+        return factory;
+    }
 
     @Override
     public boolean isWriteable(Class<?> cls, Type type, Annotation[] anns, MediaType mt) {
@@ -18,12 +18,17 @@
  */
 package org.apache.cxf.jaxrs.sse;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.lang.annotation.Annotation;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
@@ -32,12 +37,17 @@ import java.util.function.Consumer;
 import javax.servlet.AsyncContext;
 import javax.servlet.AsyncEvent;
 import javax.servlet.AsyncListener;
+import javax.ws.rs.ext.MessageBodyWriter;
 import javax.ws.rs.sse.OutboundSseEvent;
 import javax.ws.rs.sse.SseBroadcaster;
 import javax.ws.rs.sse.SseEventSink;
 
 public final class SseBroadcasterImpl implements SseBroadcaster {
-    private final Set<SseEventSink> subscribers = new CopyOnWriteArraySet<>();
+    private static final Annotation[] EMPTY_ANNOTATIONS = new Annotation [] {};
+
+    // Subscribers join and leave all the time, unlike the callbacks below, so the set
+    // should not be copied on every registration.
+    private final Set<SseEventSink> subscribers = ConcurrentHashMap.newKeySet();
     private final Set<Consumer<SseEventSink>> closers = new CopyOnWriteArraySet<>();
     private final Set<BiConsumer<SseEventSink, Throwable>> exceptioners = new CopyOnWriteArraySet<>();
     private final AtomicBoolean closed = new AtomicBoolean(false);
@@ -82,10 +92,20 @@ public final class SseBroadcasterImpl implements SseBroadcaster {
     public CompletionStage<?> broadcast(OutboundSseEvent event) {
         assertNotClosed();
 
-        final Collection<CompletableFuture<?>> futures = new ArrayList<>();
+        final Collection<CompletableFuture<?>> futures = new ArrayList<>(subscribers.size());
+        // The event is encoded to the wire representation only once (per provider factory) and
+        // the same immutable buffer is handed over to every SseEventSinkImpl subscriber.
+        final Map<Object, byte[]> encoded = new HashMap<>(2);
         for (SseEventSink sink: subscribers) {
             try {
-                futures.add(sink.send(event).toCompletableFuture());
+                final CompletionStage<?> stage;
+                if (sink.getClass() == SseEventSinkImpl.class) {
+                    final SseEventSinkImpl sinkImpl = (SseEventSinkImpl)sink;
+                    stage = sinkImpl.send(event, encode(event, sinkImpl.getWriter(), encoded));
+                } else {
+                    stage = sink.send(event);
+                }
+                futures.add(stage.toCompletableFuture());
             } catch (final Exception ex) {
                 exceptioners.forEach(exceptioner -> exceptioner.accept(sink, ex));
             }
@@ -94,6 +114,43 @@ public final class SseBroadcasterImpl implements SseBroadcaster {
         return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
     }
 
+    /**
+     * Encodes the SSE event using the writer, reusing the bytes already produced by the writer
+     * backed by the same provider factory. Returns null if the event could not be encoded, in
+     * this case the sink is going to write the event itself (and report the failure).
+     */
+    private static byte[] encode(OutboundSseEvent event, MessageBodyWriter<OutboundSseEvent> writer,
+            Map<Object, byte[]> encoded) {
+        if (writer == null) {
+            return null;
+        }
+        
+        Object key = writer;
+        if (writer instanceof OutboundSseEventBodyWriter) {
+            final Object factory = ((OutboundSseEventBodyWriter)writer).getProviderFactory();
+            if (factory != null) {
+                key = factory;
+            }
+        }
+        
+        if (encoded.containsKey(key)) {
+            return encoded.get(key);
+        }
+        
+        byte[] bytes = null;
+        try {
+            final ByteArrayOutputStream os = new ByteArrayOutputStream();
+            writer.writeTo(event, event.getClass(), event.getGenericType(), EMPTY_ANNOTATIONS,
+                event.getMediaType(), null, os);
+            bytes = os.toByteArray();
+        } catch (final Exception ex) {
+            // fall back to the per sink serialization
+        }
+        
+        encoded.put(key, bytes);
+        return bytes;
+    }
+
     @Override
     public void onClose(Consumer<SseEventSink> subscriber) {
         assertNotClosed();
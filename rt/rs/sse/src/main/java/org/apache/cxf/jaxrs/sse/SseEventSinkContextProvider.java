@@ -20,6 +20,8 @@
 
 package org.apache.cxf.jaxrs.sse;
 
+import java.util.Locale;
+
 import javax.servlet.http.HttpServletRequest;
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.ext.MessageBodyWriter;
@@ -30,6 +32,7 @@ import org.apache.cxf.common.util.PropertyUtils;
 import org.apache.cxf.jaxrs.ext.ContextProvider;
 import org.apache.cxf.jaxrs.impl.AsyncResponseImpl;
 import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
+import org.apache.cxf.jaxrs.sse.SseEventSinkImpl.SlowConsumerPolicy;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.transport.http.AbstractHTTPDestination;
 
@@ -48,6 +51,12 @@ public class SseEventSinkContextProvider implements ContextProvider<SseEventSink
         final Integer bufferSize = PropertyUtils.getInteger(message, SseEventSinkImpl.BUFFER_SIZE_PROPERTY);
         
         final SseEventSink sink = createSseEventSink(request, writer, async, bufferSize);
+        final Object policy = message.getContextualProperty(SseEventSinkImpl.SLOW_CONSUMER_POLICY_PROPERTY);
+        if (policy != null && sink instanceof SseEventSinkImpl) {
+            ((SseEventSinkImpl)sink).setSlowConsumerPolicy(policy instanceof SlowConsumerPolicy
+                ? (SlowConsumerPolicy)policy
+                : SlowConsumerPolicy.valueOf(policy.toString().trim().toUpperCase(Locale.ENGLISH)));
+        }
         message.put(SseEventSink.class, sink);
         
         return sink;
@@ -43,7 +43,8 @@ import org.apache.cxf.common.logging.LogUtils;
 
 public class SseEventSinkImpl implements SseEventSink {
     public static final String BUFFER_SIZE_PROPERTY = "org.apache.cxf.sse.sink.buffer.size";
-    
+    public static final String SLOW_CONSUMER_POLICY_PROPERTY = "org.apache.cxf.sse.sink.slow.consumer.policy";
+
     private static final Annotation[] EMPTY_ANNOTATIONS = new Annotation [] {};
     private static final Logger LOG = LogUtils.getL7dLogger(SseEventSinkImpl.class);
     private static final int DEFAULT_BUFFER_SIZE = 10000; // buffering 10000 messages
@@ -56,6 +57,27 @@ public class SseEventSinkImpl implements SseEventSink {
     private final AtomicReference<Throwable> throwable = new AtomicReference<>();
     private final AtomicBoolean completed = new AtomicBoolean(false);
     private final int bufferSize;
+    private volatile SlowConsumerPolicy slowConsumerPolicy = SlowConsumerPolicy.DROP;
+
+    /**
+     * Determines what happens to the SSE events sent to a sink whose buffer is full, which
+     * usually means the consumer is not able to keep up with the rate of the events.
+     */
+    public enum SlowConsumerPolicy {
+        /**
+         * The new event is rejected, the returned completion stage fails (the default).
+         */
+        DROP,
+        /**
+         * The oldest buffered events are discarded to make room for the new one, so the
+         * consumer catches up with the most recent events.
+         */
+        COALESCE,
+        /**
+         * The sink is closed and the consumer is disconnected.
+         */
+        DISCONNECT
+    }
 
     /**
      * Create new SseEventSink implementation with the default buffer size of 10000
@@ -124,6 +146,18 @@ public class SseEventSinkImpl implements SseEventSink {
     public AsyncContext getAsyncContext() {
         return ctx;
     }
+
+    public SlowConsumerPolicy getSlowConsumerPolicy() {
+        return slowConsumerPolicy;
+    }
+
+    public void setSlowConsumerPolicy(SlowConsumerPolicy slowConsumerPolicy) {
+        this.slowConsumerPolicy = slowConsumerPolicy == null ? SlowConsumerPolicy.DROP : slowConsumerPolicy;
+    }
+
+    MessageBodyWriter<OutboundSseEvent> getWriter() {
+        return writer;
+    }
     
     @Override
     public void close() {
@@ -137,31 +171,48 @@ public class SseEventSinkImpl implements SseEventSink {
                 LOG.warning("There are still SSE events the queue which may not be delivered (closing now)");
             }
             
-            if (completed.compareAndSet(false, true)) {
-                try {
-                    // In case of Tomcat, the context may be already closed (f.e. due to error),
-                    // in this case request is set to null.
-                    if (ctx.getRequest() != null) {
-                        LOG.fine("Completing the AsyncContext");
-                        ctx.complete();
-                    }
-                } catch (final IllegalStateException ex) {
-                    LOG.fine("Failed to close the AsyncContext cleanly: " + ex.getMessage());
+            complete();
+        }
+    }
+
+    /**
+     * Disconnects the slow consumer right away, without waiting for the buffered events
+     * to be dispatched.
+     */
+    private void disconnect() {
+        if (closed.compareAndSet(false, true)) {
+            LOG.fine("Disconnecting the slow consumer, the SSE events buffer is full");
+            throwable.compareAndSet(null, new IllegalStateException("The buffer is full (" 
+                + bufferSize + "), the slow consumer has been disconnected"));
+            complete();
+        }
+    }
+
+    private void complete() {
+        if (completed.compareAndSet(false, true)) {
+            try {
+                // In case of Tomcat, the context may be already closed (f.e. due to error),
+                // in this case request is set to null.
+                if (ctx.getRequest() != null) {
+                    LOG.fine("Completing the AsyncContext");
+                    ctx.complete();
                 }
+            } catch (final IllegalStateException ex) {
+                LOG.fine("Failed to close the AsyncContext cleanly: " + ex.getMessage());
             }
-            
-            // Complete all the accepted but not dispatched send request with the
-            // error (if any) or signal that sink has been closed already.
-            Throwable ex = throwable.get();
-            if (ex == null) {
-                ex = new IllegalStateException("The sink has been already closed");
-            }
-            
-            QueuedEvent queuedEvent = buffer.poll();
-            while (queuedEvent != null) {
-                queuedEvent.completion.completeExceptionally(ex);
-                queuedEvent = buffer.poll();
-            }
+        }
+        
+        // Complete all the accepted but not dispatched send request with the
+        // error (if any) or signal that sink has been closed already.
+        Throwable ex = throwable.get();
+        if (ex == null) {
+            ex = new IllegalStateException("The sink has been already closed");
+        }
+        
+        QueuedEvent queuedEvent = buffer.poll();
+        while (queuedEvent != null) {
+            queuedEvent.completion.completeExceptionally(ex);
+            queuedEvent = buffer.poll();
         }
     }
 
@@ -183,16 +234,28 @@ public class SseEventSinkImpl implements SseEventSink {
 
     @Override
     public CompletionStage<?> send(OutboundSseEvent event) {
+        return send(event, null);
+    }
+
+    /**
+     * Queues the SSE event for send, along with its wire representation when it has been
+     * encoded already (see please SseBroadcasterImpl). The encoded bytes are shared between
+     * the sinks and must not be modified.
+     */
+    CompletionStage<?> send(OutboundSseEvent event, byte[] encoded) {
         final CompletableFuture<?> future = new CompletableFuture<>();
 
         if (!closed.get() && writer != null) {
             final Throwable ex = throwable.get(); 
             if (ex != null) {
                 future.completeExceptionally(ex);
-            } else if (buffer.offer(new QueuedEvent(event, future))) {
+            } else if (enqueue(new QueuedEvent(event, encoded, future))) {
                 if (dispatching.compareAndSet(false, true)) {
                     ctx.start(this::dequeue);
                 }
+            } else if (slowConsumerPolicy == SlowConsumerPolicy.DISCONNECT) {
+                disconnect();
+                future.completeExceptionally(throwable.get());
             } else {
                 future.completeExceptionally(new IllegalStateException("The buffer is full (" 
                     + bufferSize + "), unable to queue SSE event for send. Please use '" 
@@ -206,6 +269,25 @@ public class SseEventSinkImpl implements SseEventSink {
         return future;
     }
 
+    private boolean enqueue(QueuedEvent queuedEvent) {
+        if (buffer.offer(queuedEvent)) {
+            return true;
+        }
+        
+        if (slowConsumerPolicy == SlowConsumerPolicy.COALESCE) {
+            do {
+                final QueuedEvent discarded = buffer.poll();
+                if (discarded != null) {
+                    discarded.completion.completeExceptionally(new IllegalStateException(
+                        "The SSE event has been discarded in favor of the more recent one (slow consumer)"));
+                }
+            } while (!buffer.offer(queuedEvent));
+            return true;
+        }
+        
+        return false;
+    }
+
     /**
      * Processes the buffered events and sends the off to the output channel. There  is
      * a special handling for the IOException, which forces the sink to switch to closed 
@@ -235,8 +317,12 @@ public class SseEventSinkImpl implements SseEventSink {
                     if (error == null) {
                         LOG.fine("Dispatching SSE event over the wire");
                         
-                        writer.writeTo(event, event.getClass(), event.getGenericType(), EMPTY_ANNOTATIONS,
-                            event.getMediaType(), null, ctx.getResponse().getOutputStream());
+                        if (queuedEvent.encoded != null) {
+                            ctx.getResponse().getOutputStream().write(queuedEvent.encoded);
+                        } else {
+                            writer.writeTo(event, event.getClass(), event.getGenericType(), EMPTY_ANNOTATIONS,
+                                event.getMediaType(), null, ctx.getResponse().getOutputStream());
+                        }
                         ctx.getResponse().flushBuffer();
                         
                         LOG.fine("Completing the future successfully");
@@ -284,10 +370,12 @@ public class SseEventSinkImpl implements SseEventSink {
 
     private static class QueuedEvent {
         private final OutboundSseEvent event;
+        private final byte[] encoded;
         private final CompletableFuture<?> completion;
 
-        QueuedEvent(OutboundSseEvent event, CompletableFuture<?> completion) {
+        QueuedEvent(OutboundSseEvent event, byte[] encoded, CompletableFuture<?> completion) {
             this.event = event;
+            this.encoded = encoded;
             this.completion = completion;
         }
     }
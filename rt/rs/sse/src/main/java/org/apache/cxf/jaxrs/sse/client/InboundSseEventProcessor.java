@@ -18,172 +18,218 @@
  */
 package org.apache.cxf.jaxrs.sse.client;
 
-import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
-import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Logger;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
-import javax.ws.rs.sse.InboundSseEvent;
 
 import org.apache.cxf.common.logging.LogUtils;
-import org.apache.cxf.common.util.StringUtils;
 import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.io.ReadListenerInputStream;
 import org.apache.cxf.jaxrs.client.ClientProviderFactory;
 import org.apache.cxf.jaxrs.impl.ResponseImpl;
-import org.apache.cxf.jaxrs.sse.client.InboundSseEventImpl.Builder;
 import org.apache.cxf.message.Message;
 
+/**
+ * Reads the event stream of a response. If the stream can signal when its data is available
+ * (as the one of the asynchronous HTTP conduit does), it is only read when data has arrived and
+ * no thread is held while the connection is idle; otherwise a thread reads it until it ends.
+ * In both cases the threads are taken from an executor shared by the event sources, unless one
+ * has been set with the {@link SseEventSourceImpl#EXECUTOR} property.
+ */
 public class InboundSseEventProcessor {
     public static final String SERVER_SENT_EVENTS = "text/event-stream";
     public static final MediaType SERVER_SENT_EVENTS_TYPE = MediaType.valueOf(SERVER_SENT_EVENTS);
 
     private static final Logger LOG = LogUtils.getL7dLogger(InboundSseEventProcessor.class);
-    private static final String COMMENT = ":";
-    private static final String EVENT = "event:";
-    private static final String ID = "id:";
-    private static final String RETRY = "retry:";
-    private static final String DATA = "data:";
+    private static final int BUFFER_SIZE = 4096;
 
     private final Endpoint endpoint;
     private final InboundSseEventListener listener;
-    private final ExecutorService executor;
-    
+    private final Executor executor;
+
     private volatile boolean closed;
-    
+    private volatile StreamReader reader;
+
     protected InboundSseEventProcessor(Endpoint endpoint, InboundSseEventListener listener) {
+        this(endpoint, listener, null);
+    }
+
+    InboundSseEventProcessor(Endpoint endpoint, InboundSseEventListener listener, Executor executor) {
         this.endpoint = endpoint;
         this.listener = listener;
-        this.executor = Executors.newSingleThreadScheduledExecutor();
+        this.executor = executor != null ? executor : SharedExecutorHolder.EXECUTOR;
     }
-    
+
     void run(final Response response) {
         if (closed) {
             throw new IllegalStateException("The SSE Event Processor is already closed");
         }
-        
+
         final InputStream is = response.readEntity(InputStream.class);
         final ClientProviderFactory factory = ClientProviderFactory.getInstance(endpoint);
-        
+
         Message message = null;
         if (response instanceof ResponseImpl) {
             message = ((ResponseImpl)response).getOutMessage();
         }
-        
-        executor.submit(process(response, is, factory, message));
-    }
-    
-    private Callable<?> process(Response response, InputStream is, ClientProviderFactory factory, Message message) {
-        return () -> {
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-                String line = reader.readLine();
-                InboundSseEventImpl.Builder builder = null;
-
-                while (line != null && !Thread.interrupted() && !closed) {
-                    if (StringUtils.isEmpty(line) && builder != null) { /* empty new line */
-                        final InboundSseEvent event = builder.build(factory, message);
-                        builder = null; /* reset the builder for next event */
-                        listener.onNext(event);
-                    } else {
-                        // Parsing and interpreting event stream: 
-                        // https://www.w3.org/TR/eventsource/#parsing-an-event-stream
-                        if (line.startsWith(EVENT)) {
-                            int beginIndex = findFirstNonSpacePosition(line, EVENT);
-                            builder = getOrCreate(builder).name(line.substring(beginIndex));
-                        } else if (line.startsWith(ID)) {
-                            int beginIndex = findFirstNonSpacePosition(line, ID);
-                            builder = getOrCreate(builder).id(line.substring(beginIndex));
-                        } else if (line.startsWith(COMMENT)) {
-                            int beginIndex = findFirstNonSpacePosition(line, COMMENT);
-                            builder = getOrCreate(builder).comment(line.substring(beginIndex));
-                        } else if (line.startsWith(RETRY)) {
-                            int beginIndex = findFirstNonSpacePosition(line, RETRY);
-                            builder = getOrCreate(builder).reconnectDelay(line.substring(beginIndex));
-                        } else if (line.startsWith(DATA)) {
-                            int beginIndex = findFirstNonSpacePosition(line, DATA);
-                            builder = getOrCreate(builder).appendData(line.substring(beginIndex));
-                        }
-                    }
-                    line = reader.readLine();
-                }
-                
-                if (builder != null) {
-                    listener.onNext(builder.build(factory, message));
-                }
 
-                // complete the stream
-                listener.onComplete();
-            } catch (final Exception ex) {
-                listener.onError(ex);
-            }
-
-            if (response != null) {
-                LOG.fine("Closing the response");
-                response.close();
-            }
-
-            return null;
-        };
+        final StreamReader r = new StreamReader(response, is, new SseEventParser(factory, message, listener));
+        reader = r;
+        if (r.nonBlocking) {
+            ((ReadListenerInputStream)is).setReadListener(r::schedule);
+        } else {
+            executor.execute(r::readFully);
+        }
     }
-    
+
     boolean isClosed() {
         return closed;
     }
-    
+
     boolean close(long timeout, TimeUnit unit) {
+        closed = true;
+
+        final StreamReader r = reader;
+        if (r == null) {
+            return true;
+        }
+        if (r.nonBlocking) {
+            // let the reader notice the processor has been closed
+            r.schedule();
+        }
         try {
-            closed = true;
-            
-            if (executor.isShutdown()) {
-                return true;
-            }
-            
-            AccessController.doPrivileged((PrivilegedAction<Void>)
-                () -> { 
-                    executor.shutdown();
-                    return null;
-                });
-            return executor.awaitTermination(timeout, unit);
+            return r.done.await(timeout, unit);
         } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
             return false;
         }
     }
-    
-    /**
-     * Create builder on-demand, without explicit event demarcation
-     */
-    private static Builder getOrCreate(final Builder builder) {
-        return (builder == null) ? new InboundSseEventImpl.Builder() : builder;
+
+    private final class StreamReader {
+        private final Response response;
+        private final InputStream is;
+        private final boolean nonBlocking;
+        private final SseEventParser parser;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        StreamReader(Response response, InputStream is, SseEventParser parser) {
+            this.response = response;
+            this.is = is;
+            this.nonBlocking = is instanceof ReadListenerInputStream;
+            this.parser = parser;
+        }
+
+        /**
+         * Blocking mode, the stream is read by the current thread until it ends
+         */
+        void readFully() {
+            try {
+                int read = 0;
+                while (!closed && !Thread.currentThread().isInterrupted()
+                    && (read = is.read(buffer)) != -1) {
+                    parser.parse(buffer, 0, read);
+                }
+                finish(null);
+            } catch (final Exception ex) {
+                finish(ex);
+            }
+        }
+
+        /**
+         * Non-blocking mode, schedules the reading of the data available, the reads
+         * of a given stream never run concurrently
+         */
+        void schedule() {
+            if (wip.getAndIncrement() == 0) {
+                try {
+                    executor.execute(this::drain);
+                } catch (final RuntimeException ex) {
+                    finish(ex);
+                }
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                try {
+                    if (!readAvailable()) {
+                        return;
+                    }
+                } catch (final Exception ex) {
+                    finish(ex);
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        /**
+         * @return false if the stream is finished
+         */
+        private boolean readAvailable() throws IOException {
+            while (!closed) {
+                final int available = is.available();
+                if (available > 0) {
+                    final int read = is.read(buffer, 0, Math.min(available, buffer.length));
+                    if (read == -1) {
+                        break;
+                    }
+                    parser.parse(buffer, 0, read);
+                } else if (((ReadListenerInputStream)is).isFinished()) {
+                    break;
+                } else {
+                    return true;
+                }
+            }
+            finish(null);
+            return false;
+        }
+
+        private void finish(Exception ex) {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            // the stream and then the response are closed once the listener has been notified
+            try (Response r = response; InputStream in = is) {
+                if (ex == null) {
+                    parser.end();
+                    // complete the stream
+                    listener.onComplete();
+                } else {
+                    listener.onError(ex);
+                }
+            } catch (final IOException e) {
+                LOG.fine("Failed to close the event stream: " + e.getMessage());
+            } finally {
+                LOG.fine("The response has been closed");
+                done.countDown();
+            }
+        }
     }
-    
+
     /**
-     * Remove only leading spaces from the line as per specification, space after 
-     * the colon is optional.
-     * 
-     * The following stream fires two identical events:
-     * 
-     *   data:test
-     *   data: test
-     *   
-     *   This is because the space after the colon is ignored if present.
+     * The executor used when none has been configured for the event sources, its threads are only kept
+     * while the event streams are being read.
      */
-    private static int findFirstNonSpacePosition(final String str, final String prefix) {
-        int beginIndex = prefix.length();
-        
-        for (; beginIndex < str.length(); ++beginIndex) {
-            if (str.charAt(beginIndex) != ' ') {
-                break;
-            }
-        }
-        
-        return beginIndex;
+    private static final class SharedExecutorHolder {
+        static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(r -> {
+            final Thread thread = new Thread(r, "sse-event-processor");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 }
@@ -0,0 +1,168 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.sse.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javax.ws.rs.sse.InboundSseEvent;
+
+import org.apache.cxf.jaxrs.client.ClientProviderFactory;
+import org.apache.cxf.jaxrs.sse.client.InboundSseEventImpl.Builder;
+import org.apache.cxf.message.Message;
+
+/**
+ * Incremental event stream parser: the stream may be fed in chunks of any size, lines and
+ * UTF-8 sequences split across chunks are reassembled before being interpreted.
+ * https://www.w3.org/TR/eventsource/#parsing-an-event-stream
+ */
+final class SseEventParser {
+    private static final String COMMENT = ":";
+    private static final String EVENT = "event:";
+    private static final String ID = "id:";
+    private static final String RETRY = "retry:";
+    private static final String DATA = "data:";
+    private static final char BOM = '\uFEFF';
+
+    private final ClientProviderFactory factory;
+    private final Message message;
+    private final InboundSseEventListener listener;
+
+    private byte[] line = new byte[256];
+    private int length;
+    private boolean skipLineFeed;
+    private boolean firstLine = true;
+    private Builder builder;
+
+    SseEventParser(ClientProviderFactory factory, Message message, InboundSseEventListener listener) {
+        this.factory = factory;
+        this.message = message;
+        this.listener = listener;
+    }
+
+    /**
+     * Parses the next chunk of the stream, the events it completes are passed to the listener
+     */
+    void parse(byte[] bytes, int offset, int count) {
+        final int end = offset + count;
+        for (int i = offset; i < end; i++) {
+            final byte b = bytes[i];
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (b == '\n') {
+                    continue;
+                }
+            }
+            if (b == '\r') {
+                skipLineFeed = true;
+                endOfLine();
+            } else if (b == '\n') {
+                endOfLine();
+            } else {
+                if (length == line.length) {
+                    line = Arrays.copyOf(line, length * 2);
+                }
+                line[length++] = b;
+            }
+        }
+    }
+
+    /**
+     * Handles the end of the stream, the last event is dispatched even if it is not terminated
+     * by an empty line
+     */
+    void end() {
+        if (length > 0) {
+            endOfLine();
+        }
+        if (builder != null) {
+            final InboundSseEvent event = builder.build(factory, message);
+            builder = null;
+            listener.onNext(event);
+        }
+    }
+
+    private void endOfLine() {
+        String str = new String(line, 0, length, StandardCharsets.UTF_8);
+        length = 0;
+        if (firstLine) {
+            firstLine = false;
+            if (!str.isEmpty() && str.charAt(0) == BOM) {
+                str = str.substring(1);
+            }
+        }
+        processLine(str);
+    }
+
+    private void processLine(String str) {
+        if (str.isEmpty()) {
+            if (builder != null) { /* empty new line */
+                final InboundSseEvent event = builder.build(factory, message);
+                builder = null; /* reset the builder for next event */
+                listener.onNext(event);
+            }
+        } else if (str.startsWith(EVENT)) {
+            int beginIndex = findFirstNonSpacePosition(str, EVENT);
+            builder = getOrCreate(builder).name(str.substring(beginIndex));
+        } else if (str.startsWith(ID)) {
+            int beginIndex = findFirstNonSpacePosition(str, ID);
+            builder = getOrCreate(builder).id(str.substring(beginIndex));
+        } else if (str.startsWith(COMMENT)) {
+            int beginIndex = findFirstNonSpacePosition(str, COMMENT);
+            builder = getOrCreate(builder).comment(str.substring(beginIndex));
+        } else if (str.startsWith(RETRY)) {
+            int beginIndex = findFirstNonSpacePosition(str, RETRY);
+            builder = getOrCreate(builder).reconnectDelay(str.substring(beginIndex));
+        } else if (str.startsWith(DATA)) {
+            int beginIndex = findFirstNonSpacePosition(str, DATA);
+            builder = getOrCreate(builder).appendData(str.substring(beginIndex));
+        }
+    }
+
+    /**
+     * Create builder on-demand, without explicit event demarcation
+     */
+    private static Builder getOrCreate(final Builder builder) {
+        return (builder == null) ? new InboundSseEventImpl.Builder() : builder;
+    }
+
+    /**
+     * Remove only leading spaces from the line as per specification, space after
+     * the colon is optional.
+     *
+     * The following stream fires two identical events:
+     *
+     *   data:test
+     *   data: test
+     *
+     *   This is because the space after the colon is ignored if present.
+     */
+    private static int findFirstNonSpacePosition(final String str, final String prefix) {
+        int beginIndex = prefix.length();
+
+        for (; beginIndex < str.length(); ++beginIndex) {
+            if (str.charAt(beginIndex) != ' ') {
+                break;
+            }
+        }
+
+        return beginIndex;
+    }
+}
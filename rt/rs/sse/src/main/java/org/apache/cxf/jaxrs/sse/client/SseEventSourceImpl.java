@@ -18,13 +18,14 @@
  */
 package org.apache.cxf.jaxrs.sse.client;
 
-import java.security.AccessController;
-import java.security.PrivilegedAction;
 import java.util.Collection;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.logging.Logger;
@@ -44,18 +45,33 @@ import org.apache.cxf.jaxrs.client.WebClient;
 import org.apache.cxf.jaxrs.utils.ExceptionUtils;
 
 /**
- * SSE Event Source implementation 
+ * SSE Event Source implementation. Unless executors are configured on the client, the event
+ * sources share the threads reading the event streams and a single timer scheduling the
+ * reconnections, which back off exponentially (with jitter) when they keep failing.
  */
 public class SseEventSourceImpl implements SseEventSource {
+    /**
+     * The maximum delay, in milliseconds, between the reconnection attempts to an event
+     * stream which keeps failing
+     */
+    public static final String MAX_RECONNECT_DELAY = "org.apache.cxf.jaxrs.sse.client.maxReconnectDelay";
+    /**
+     * The Executor reading the event streams, they are read on a pool shared by the event
+     * sources if it is not set (the client's executorService is not used since reading a
+     * stream may block one of its threads for as long as the stream is open)
+     */
+    public static final String EXECUTOR = "org.apache.cxf.jaxrs.sse.client.executor";
+    static final long DEFAULT_MAX_RECONNECT_DELAY = 30000L;
+    private static final long MIN_BACKOFF_DELAY = 100L;
     private static final Logger LOG = LogUtils.getL7dLogger(SseEventSourceImpl.class);
     
     private final WebTarget target;
     private final Collection<InboundSseEventListener> listeners = new CopyOnWriteArrayList<>();
     private final AtomicReference<SseSourceState> state = new AtomicReference<>(SseSourceState.CLOSED);
+    private final AtomicInteger failedAttempts = new AtomicInteger();
     
     // It may happen that open() and close() could be called on separate threads
     private volatile ScheduledExecutorService executor;
-    private volatile boolean managedExecutor = true;
     private volatile InboundSseEventProcessor processor; 
     private volatile TimeUnit unit;
     private volatile long delay;
@@ -83,7 +99,7 @@ public class SseEventSourceImpl implements SseEventSource {
         public void onError(Throwable ex) {
             listeners.forEach(listener -> listener.onError(ex));
             if (delay >= 0 && unit != null) {
-                scheduleReconnect(delay, unit, lastEventId);
+                scheduleReconnect(delay, unit, lastEventId, failedAttempts.getAndIncrement());
             }
         }
 
@@ -91,7 +107,7 @@ public class SseEventSourceImpl implements SseEventSource {
         public void onComplete() {
             listeners.forEach(InboundSseEventListener::onComplete);
             if (delay >= 0 && unit != null) {
-                scheduleReconnect(delay, unit, lastEventId);
+                scheduleReconnect(delay, unit, lastEventId, 0);
             }
         }
     }
@@ -167,15 +183,14 @@ public class SseEventSourceImpl implements SseEventSource {
             throw new IllegalStateException("The SseEventSource is already in " + state.get() + " state");
         }
 
-        // Create the executor for scheduling the reconnect tasks 
+        // Get the executor for scheduling the reconnect tasks 
         final Configuration configuration = target.getConfiguration();
         if (executor == null) {
             executor = (ScheduledExecutorService)configuration
                 .getProperty("scheduledExecutorService");
             
             if (executor == null) {
-                executor = Executors.newSingleThreadScheduledExecutor();
-                managedExecutor = false; /* we manage lifecycle */
+                executor = SharedTimerHolder.TIMER;
             }
         }
         
@@ -222,7 +237,8 @@ public class SseEventSourceImpl implements SseEventSource {
             // Create new processor if this is the first time or the old one has been closed 
             if (processor == null || processor.isClosed()) {
                 LOG.fine("Creating new instance of SSE event processor ...");
-                processor = new InboundSseEventProcessor(endpoint, delegate);
+                processor = new InboundSseEventProcessor(endpoint, delegate,
+                    (Executor)target.getConfiguration().getProperty(EXECUTOR));
             }
             
             // Start consuming events
@@ -232,6 +248,7 @@ public class SseEventSourceImpl implements SseEventSource {
             if (!state.compareAndSet(SseSourceState.CONNECTING, SseSourceState.OPEN)) {
                 throw new IllegalStateException("The SseEventSource is already in " + state.get() + " state");
             }
+            failedAttempts.set(0);
             
             LOG.fine("Successfuly opened SSE connection to " + target.getUri());
         } catch (final Exception ex) {
@@ -267,16 +284,6 @@ public class SseEventSourceImpl implements SseEventSource {
             throw new IllegalStateException("The SseEventSource is not opened, but in " + state.get() + " state");
         }
         
-        if (executor != null && !managedExecutor) {
-            AccessController.doPrivileged((PrivilegedAction<Void>) () -> {
-                executor.shutdown();
-                return null;
-            });
-            
-            executor = null;
-            managedExecutor = true;
-        }
-
         // Should never happen
         if (processor == null) {
             return true;
@@ -285,7 +292,7 @@ public class SseEventSourceImpl implements SseEventSource {
         return processor.close(timeout, tunit); 
     }
     
-    private void scheduleReconnect(long tdelay, TimeUnit tunit, String lastEventId) {
+    private void scheduleReconnect(long tdelay, TimeUnit tunit, String lastEventId, int attempt) {
         // If delay == RECONNECT_NOT_SET, no reconnection attempt should be performed
         if (tdelay < 0 || executor == null) {
             return;
@@ -305,15 +312,40 @@ public class SseEventSourceImpl implements SseEventSource {
             }
         }
                 
+        final long millis = getReconnectDelay(tunit.toMillis(tdelay), attempt);
         executor.schedule(() -> {
             // If we are still in connecting state (not closed/open), let's try to reconnect
             if (state.get() == SseSourceState.CONNECTING) {
                 LOG.fine("Reestablishing SSE connection to " + target.getUri());
                 connect(lastEventId);
             }
-        }, tdelay, tunit);
+        }, millis, TimeUnit.MILLISECONDS);
         
-        LOG.fine("The reconnection attempt to " + target.getUri() + " is scheduled in "
-            + tunit.toMillis(tdelay) + "ms");
+        LOG.fine("The reconnection attempt to " + target.getUri() + " is scheduled in " + millis + "ms");
+    }
+
+    /**
+     * The first reconnection attempt uses the configured (or server provided) delay, the
+     * following consecutive ones double it up to the maximum delay and pick a random delay
+     * in its upper half, so that many sources failing together do not reconnect together.
+     */
+    long getReconnectDelay(long millis, int attempt) {
+        if (attempt <= 0) {
+            return millis;
+        }
+        final Object max = target.getConfiguration().getProperty(MAX_RECONNECT_DELAY);
+        final long maxDelay = Math.max(millis,
+            max == null ? DEFAULT_MAX_RECONNECT_DELAY : Long.parseLong(max.toString()));
+        final long base = Math.max(millis, MIN_BACKOFF_DELAY);
+        final long backoff = Math.min(maxDelay, base << Math.min(attempt, Long.numberOfLeadingZeros(base) - 1));
+        return backoff - ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+    }
+
+    private static final class SharedTimerHolder {
+        static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "sse-event-source-reconnect");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 }
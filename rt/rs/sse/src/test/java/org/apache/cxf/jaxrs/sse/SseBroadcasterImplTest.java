@@ -20,6 +20,8 @@
 package org.apache.cxf.jaxrs.sse;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.atomic.LongAdder;
@@ -39,7 +41,11 @@ import org.junit.Test;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class SseBroadcasterImplTest {
@@ -119,4 +125,24 @@ public class SseBroadcasterImplTest {
 
         assertThat(adder.intValue(), equalTo(1));
     }
+
+    @Test
+    public void testEventIsEncodedOnceForAllSubscribers() throws WebApplicationException, IOException {
+        doAnswer(invocation -> {
+            invocation.getArgument(6, OutputStream.class).write("data: test\n\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(writer).writeTo(any(), any(), any(), any(), any(), isNull(), any());
+
+        final MockHttpServletResponse anotherResponse = new MockHttpServletResponse();
+        final MockAsyncContext anotherCtx = new MockAsyncContext(new MockHttpServletRequest(), anotherResponse);
+        broadcaster.register(new SseEventSinkImpl(writer, null, ctx));
+        broadcaster.register(new SseEventSinkImpl(writer, null, anotherCtx));
+
+        broadcaster.broadcast(new OutboundSseEventImpl.BuilderImpl().data("test").build())
+            .toCompletableFuture().join();
+
+        verify(writer, times(1)).writeTo(any(), any(), any(), any(), any(), isNull(), any());
+        assertThat(response.getContentAsString(), equalTo("data: test\n\n"));
+        assertThat(anotherResponse.getContentAsString(), equalTo("data: test\n\n"));
+    }
 }
@@ -124,4 +124,45 @@ public class SseEventSinkContextProviderTest {
 
         overflow.join();
     }
+
+    @Test
+    public void testCreateSseEventSinkWithCoalescePolicy() {
+        message.put(SseEventSinkImpl.BUFFER_SIZE_PROPERTY, 10);
+        message.put(SseEventSinkImpl.SLOW_CONSUMER_POLICY_PROPERTY, "coalesce");
+        final SseEventSink sink = provider.createContext(message);
+        
+        final CompletableFuture<?> oldest = sink.send(EVENT).toCompletableFuture();
+        IntStream
+            .range(0, 9)
+            .mapToObj(i -> sink.send(EVENT))
+            .map(CompletionStage::toCompletableFuture)
+            .forEach(f -> assertThat(f.isDone(), equalTo(false)));
+        
+        // The buffer is full, the oldest event should give its place to the new one
+        final CompletableFuture<?> latest = sink.send(EVENT).toCompletableFuture();
+        assertThat(latest.isDone(), equalTo(false));
+        assertThat(oldest.isCompletedExceptionally(), equalTo(true));
+        assertThat(sink.isClosed(), equalTo(false));
+    }
+
+    @Test
+    public void testCreateSseEventSinkWithDisconnectPolicy() {
+        message.put(SseEventSinkImpl.BUFFER_SIZE_PROPERTY, 10);
+        message.put(SseEventSinkImpl.SLOW_CONSUMER_POLICY_PROPERTY, "DISCONNECT");
+        final SseEventSink sink = provider.createContext(message);
+        
+        final CompletableFuture<?> queued = sink.send(EVENT).toCompletableFuture();
+        IntStream.range(0, 9).forEach(i -> sink.send(EVENT));
+        
+        // The buffer is full, the slow consumer should be disconnected
+        final CompletableFuture<?> overflow = sink.send(EVENT).toCompletableFuture();
+        assertThat(overflow.isCompletedExceptionally(), equalTo(true));
+        assertThat(queued.isCompletedExceptionally(), equalTo(true));
+        assertThat(sink.isClosed(), equalTo(true));
+        
+        exception.expect(CompletionException.class);
+        exception.expectMessage("the slow consumer has been disconnected");
+
+        overflow.join();
+    }
 }
@@ -0,0 +1,186 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.sse.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.core.Response;
+import javax.ws.rs.sse.InboundSseEvent;
+
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.io.ReadListenerInputStream;
+import org.apache.cxf.transport.http.asyncclient.SharedInputBuffer;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.util.HeapByteBufferAllocator;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class InboundSseEventProcessorTest {
+    private final List<InboundSseEvent> events = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger executions = new AtomicInteger();
+    private final Executor executor = r -> {
+        executions.incrementAndGet();
+        r.run();
+    };
+    private final SharedInputBuffer buffer = new SharedInputBuffer(64, HeapByteBufferAllocator.INSTANCE);
+    private final IOControl control = mock(IOControl.class);
+    private final Response response = mock(Response.class);
+    private final InboundSseEventProcessor processor = new InboundSseEventProcessor(mock(Endpoint.class),
+        new InboundSseEventListener() {
+            @Override
+            public void onNext(InboundSseEvent event) {
+                events.add(event);
+                threads.add(Thread.currentThread());
+            }
+
+            @Override
+            public void onError(Throwable ex) {
+            }
+
+            @Override
+            public void onComplete() {
+                completed.incrementAndGet();
+            }
+        }, executor);
+
+    @Test
+    public void testEventsReadWhenDataArrives() throws Exception {
+        when(response.readEntity(InputStream.class)).thenReturn(new SharedInputStream());
+        processor.run(response);
+        // no thread is taken until some data has arrived
+        assertThat(executions.get(), equalTo(0));
+
+        buffer.consumeContent(new Decoder("data: fi", false), control);
+        assertThat(executions.get(), equalTo(1));
+        assertThat(events.size(), equalTo(0));
+
+        buffer.consumeContent(new Decoder("rst\n\ndata: second\n\n", false), control);
+        assertThat(executions.get(), equalTo(2));
+        assertThat(events.size(), equalTo(2));
+        assertThat(events.get(0).readData(), equalTo("first"));
+        assertThat(events.get(1).readData(), equalTo("second"));
+        // the events are read by the thread the data has been delivered on
+        assertThat(threads.get(0), equalTo(Thread.currentThread()));
+        assertThat(completed.get(), equalTo(0));
+
+        buffer.consumeContent(new Decoder("data: last", true), control);
+        assertThat(events.size(), equalTo(3));
+        assertThat(events.get(2).readData(), equalTo("last"));
+        assertThat(completed.get(), equalTo(1));
+        assertThat(processor.close(1, TimeUnit.SECONDS), equalTo(true));
+        verify(response).close();
+    }
+
+    @Test
+    public void testDataAvailableBeforeRun() throws Exception {
+        buffer.consumeContent(new Decoder("data: test\n\n", false), control);
+        when(response.readEntity(InputStream.class)).thenReturn(new SharedInputStream());
+        processor.run(response);
+
+        assertThat(executions.get(), equalTo(1));
+        assertThat(events.size(), equalTo(1));
+        assertThat(events.get(0).readData(), equalTo("test"));
+    }
+
+    @Test
+    public void testCloseWhileIdle() throws Exception {
+        when(response.readEntity(InputStream.class)).thenReturn(new SharedInputStream());
+        processor.run(response);
+        buffer.consumeContent(new Decoder("data: test\n\n", false), control);
+        assertThat(events.size(), equalTo(1));
+
+        assertThat(processor.close(1, TimeUnit.SECONDS), equalTo(true));
+        assertThat(completed.get(), equalTo(1));
+        verify(response).close();
+
+        // the data arriving once the processor has been closed is discarded
+        buffer.consumeContent(new Decoder("data: ignored\n\n", false), control);
+        assertThat(events.size(), equalTo(1));
+        assertThat(completed.get(), equalTo(1));
+    }
+
+    /**
+     * The response stream of the asynchronous HTTP conduit
+     */
+    private final class SharedInputStream extends InputStream implements ReadListenerInputStream {
+        public int read() throws IOException {
+            return buffer.read();
+        }
+        public int read(byte[] b, int off, int len) throws IOException {
+            return buffer.read(b, off, len);
+        }
+        public int available() throws IOException {
+            return buffer.available();
+        }
+        public void close() throws IOException {
+            buffer.close();
+        }
+        public void setReadListener(Runnable listener) {
+            buffer.setReadListener(listener);
+        }
+        public boolean isFinished() {
+            return buffer.isFinished();
+        }
+    }
+
+    private static final class Decoder implements ContentDecoder {
+        private final ByteBuffer data;
+        private final boolean completed;
+
+        Decoder(String data, boolean completed) {
+            this.data = ByteBuffer.wrap(data.getBytes(StandardCharsets.UTF_8));
+            this.completed = completed;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (!data.hasRemaining()) {
+                return completed ? -1 : 0;
+            }
+            int count = Math.min(dst.remaining(), data.remaining());
+            for (int i = 0; i < count; i++) {
+                dst.put(data.get());
+            }
+            return count;
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return completed && !data.hasRemaining();
+        }
+    }
+}
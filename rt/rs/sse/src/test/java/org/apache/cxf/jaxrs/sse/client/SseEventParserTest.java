@@ -0,0 +1,101 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.jaxrs.sse.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.ws.rs.sse.InboundSseEvent;
+
+import org.junit.Test;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class SseEventParserTest {
+    private final List<InboundSseEvent> events = new ArrayList<>();
+    private final SseEventParser parser = new SseEventParser(null, null, new InboundSseEventListener() {
+        @Override
+        public void onNext(InboundSseEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void onError(Throwable ex) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    });
+
+    @Test
+    public void testEventsSplitAcrossChunks() {
+        final byte[] bytes = ("event: event\nid: 1\ndata: test data\nretry: 10000\n: test comment\n\n"
+            + "data: just test data\ndata: in multiple lines\n\n").getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length; i++) {
+            parser.parse(bytes, i, 1);
+        }
+        parser.end();
+
+        assertThat(events.size(), equalTo(2));
+        assertThat(events.get(0).getName(), equalTo("event"));
+        assertThat(events.get(0).getId(), equalTo("1"));
+        assertThat(events.get(0).readData(), equalTo("test data"));
+        assertThat(events.get(0).getReconnectDelay(), equalTo(10000L));
+        assertThat(events.get(0).getComment(), equalTo("test comment"));
+        assertThat(events.get(1).readData(), equalTo("just test data\nin multiple lines"));
+    }
+
+    @Test
+    public void testCarriageReturnLineEndings() {
+        final byte[] bytes = "data: first\r\n\r\ndata: second\r\rdata: third\n\n".getBytes(StandardCharsets.UTF_8);
+        parser.parse(bytes, 0, 14);
+        parser.parse(bytes, 14, bytes.length - 14);
+
+        assertThat(events.size(), equalTo(3));
+        assertThat(events.get(0).readData(), equalTo("first"));
+        assertThat(events.get(1).readData(), equalTo("second"));
+        assertThat(events.get(2).readData(), equalTo("third"));
+    }
+
+    @Test
+    public void testMultiByteCharactersSplitAcrossChunks() {
+        final byte[] bytes = "\uFEFFdata: \u00E9v\u00E9nement \u20AC\n\n".getBytes(StandardCharsets.UTF_8);
+        parser.parse(bytes, 0, 2);
+        parser.parse(bytes, 2, 9);
+        parser.parse(bytes, 11, bytes.length - 11);
+
+        assertThat(events.size(), equalTo(1));
+        assertThat(events.get(0).readData(), equalTo("\u00E9v\u00E9nement \u20AC"));
+    }
+
+    @Test
+    public void testLastEventWithoutEmptyLine() {
+        final byte[] bytes = "data: test".getBytes(StandardCharsets.UTF_8);
+        parser.parse(bytes, 0, bytes.length);
+        assertThat(events.size(), equalTo(0));
+
+        parser.end();
+        assertThat(events.size(), equalTo(1));
+        assertThat(events.get(0).readData(), equalTo("test"));
+    }
+}
@@ -59,6 +59,7 @@ import org.apache.cxf.helpers.IOUtils;
 import org.apache.cxf.io.CacheAndWriteOutputStream;
 import org.apache.cxf.io.CachedOutputStream;
 import org.apache.cxf.io.CopyingOutputStream;
+import org.apache.cxf.io.ReadListenerInputStream;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageUtils;
 import org.apache.cxf.service.model.EndpointInfo;
@@ -687,29 +688,37 @@ public class AsyncHTTPConduit extends URLConnectionHTTPConduit {
         }
 
         protected synchronized InputStream getInputStream() throws IOException {
-            return new InputStream() {
-                public int read() throws IOException {
-                    return inbuf.read();
-                }
-                public int read(byte[] b) throws IOException {
-                    return inbuf.read(b);
-                }
-                public int read(byte[] b, int off, int len) throws IOException {
-                    return inbuf.read(b, off, len);
-                }
-                public int available() throws IOException {
-                    return inbuf.available();
-                }
-                public void close() throws IOException {
-                    inbuf.close();
-                }
-            };
+            return new SharedInputStream();
         }
 
         protected boolean usingProxy() {
             return this.entity.getConfig().getProxy() != null;
         }
 
+        private class SharedInputStream extends InputStream implements ReadListenerInputStream {
+            public int read() throws IOException {
+                return inbuf.read();
+            }
+            public int read(byte[] b) throws IOException {
+                return inbuf.read(b);
+            }
+            public int read(byte[] b, int off, int len) throws IOException {
+                return inbuf.read(b, off, len);
+            }
+            public int available() throws IOException {
+                return inbuf.available();
+            }
+            public void close() throws IOException {
+                inbuf.close();
+            }
+            public void setReadListener(Runnable listener) {
+                inbuf.setReadListener(listener);
+            }
+            public boolean isFinished() {
+                return inbuf.isFinished();
+            }
+        }
+
         protected HttpsURLConnectionInfo getHttpsURLConnectionInfo() throws IOException {
             if ("http".equals(outMessage.get("http.scheme"))) {
                 return null;
@@ -54,6 +54,7 @@ public class SharedInputBuffer extends ExpandableBuffer {
     private volatile boolean endOfStream;
 
     private volatile ByteBuffer waitingBuffer;
+    private volatile Runnable readListener;
 
     //private volatile int waitCnt;
     //private volatile int nowaitCnt;
@@ -83,6 +84,14 @@ public class SharedInputBuffer extends ExpandableBuffer {
     }
 
     public int consumeContent(final ContentDecoder decoder, final IOControl ioc) throws IOException {
+        final int read = doConsumeContent(decoder, ioc);
+        if (read != 0) {
+            notifyReadListener();
+        }
+        return read;
+    }
+
+    private int doConsumeContent(final ContentDecoder decoder, final IOControl ioc) throws IOException {
         if (this.shutdown) {
             //something bad happened, we need to shutdown the connection
             //as we're not going to read the data at all and we
@@ -206,6 +215,7 @@ public class SharedInputBuffer extends ExpandableBuffer {
         } finally {
             this.lock.unlock();
         }
+        notifyReadListener();
     }
 
     public void shutdown() {
@@ -219,6 +229,35 @@ public class SharedInputBuffer extends ExpandableBuffer {
         } finally {
             this.lock.unlock();
         }
+        notifyReadListener();
+    }
+
+    /**
+     * Sets the listener called, from the I/O dispatch thread, every time data has been
+     * transferred to the buffer or the end of the stream has been reached, so that the buffer
+     * can be read without having a worker thread waiting for the data.
+     */
+    public void setReadListener(final Runnable listener) {
+        this.readListener = listener;
+        if (listener != null && (hasData() || this.endOfStream || this.shutdown)) {
+            listener.run();
+        }
+    }
+
+    public boolean isFinished() {
+        this.lock.lock();
+        try {
+            return isEndOfStream();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void notifyReadListener() {
+        final Runnable listener = this.readListener;
+        if (listener != null) {
+            listener.run();
+        }
     }
 
     protected boolean isShutdown() {
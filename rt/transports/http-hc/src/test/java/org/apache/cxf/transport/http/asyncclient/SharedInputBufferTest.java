@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.asyncclient;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.util.HeapByteBufferAllocator;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SharedInputBufferTest {
+
+    @Test
+    public void testReadListener() throws Exception {
+        final SharedInputBuffer buffer = new SharedInputBuffer(64, HeapByteBufferAllocator.INSTANCE);
+        final AtomicInteger notified = new AtomicInteger();
+        buffer.setReadListener(notified::incrementAndGet);
+        assertEquals(0, notified.get());
+
+        buffer.consumeContent(new Decoder("data: test\n\n", false), new Control());
+        assertEquals(1, notified.get());
+        assertEquals(12, buffer.available());
+        assertFalse(buffer.isFinished());
+
+        final byte[] bytes = new byte[64];
+        assertEquals(12, buffer.read(bytes, 0, buffer.available()));
+        assertEquals("data: test\n\n", new String(bytes, 0, 12, StandardCharsets.UTF_8));
+
+        buffer.consumeContent(new Decoder("", true), new Control());
+        assertEquals(2, notified.get());
+        assertTrue(buffer.isFinished());
+    }
+
+    @Test
+    public void testReadListenerSetAfterData() throws Exception {
+        final SharedInputBuffer buffer = new SharedInputBuffer(64, HeapByteBufferAllocator.INSTANCE);
+        buffer.consumeContent(new Decoder("data", false), new Control());
+        final AtomicInteger notified = new AtomicInteger();
+        buffer.setReadListener(notified::incrementAndGet);
+        assertEquals(1, notified.get());
+    }
+
+    private static final class Decoder implements ContentDecoder {
+        private final ByteBuffer data;
+        private final boolean completed;
+
+        Decoder(String data, boolean completed) {
+            this.data = ByteBuffer.wrap(data.getBytes(StandardCharsets.UTF_8));
+            this.completed = completed;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            if (!data.hasRemaining()) {
+                return completed ? -1 : 0;
+            }
+            int count = Math.min(dst.remaining(), data.remaining());
+            for (int i = 0; i < count; i++) {
+                dst.put(data.get());
+            }
+            return count;
+        }
+
+        @Override
+        public boolean isCompleted() {
+            return completed && !data.hasRemaining();
+        }
+    }
+
+    private static final class Control implements IOControl {
+        @Override
+        public void requestInput() {
+        }
+
+        @Override
+        public void suspendInput() {
+        }
+
+        @Override
+        public void requestOutput() {
+        }
+
+        @Override
+        public void suspendOutput() {
+        }
+
+        @Override
+        public void shutdown() throws IOException {
+        }
+    }
+}
@@ -23,16 +23,19 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.io.Writer;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.annotation.PostConstruct;
+import javax.management.JMException;
 import javax.net.ssl.KeyManager;
 import javax.net.ssl.SSLContext;
 import javax.servlet.RequestDispatcher;
@@ -42,6 +45,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.cxf.Bus;
+import org.apache.cxf.common.classloader.ClassLoaderUtils;
 import org.apache.cxf.common.i18n.Message;
 import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.common.util.PropertyUtils;
@@ -53,8 +57,11 @@ import org.apache.cxf.configuration.jsse.TLSServerParameters;
 import org.apache.cxf.configuration.security.ClientAuthentication;
 import org.apache.cxf.helpers.JavaUtils;
 import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.management.InstrumentationManager;
 import org.apache.cxf.transport.HttpUriMapper;
 import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.io.ArrayByteBufferPool;
+import org.eclipse.jetty.io.ByteBufferPool;
 import org.eclipse.jetty.security.SecurityHandler;
 import org.eclipse.jetty.server.AbstractConnector;
 import org.eclipse.jetty.server.ConnectionFactory;
@@ -87,6 +94,13 @@ import org.eclipse.jetty.util.thread.ThreadPool;
 public class JettyHTTPServerEngine implements ServerEngine {
     public static final String DO_NOT_CHECK_URL_PROP = "org.apache.cxf.transports.http_jetty.DontCheckUrl";
 
+    private static final String HTTP2_FACTORY =
+        "org.eclipse.jetty.http2.server.HTTP2ServerConnectionFactory";
+    private static final String HTTP2C_FACTORY =
+        "org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory";
+    private static final String ALPN_FACTORY =
+        "org.eclipse.jetty.alpn.server.ALPNServerConnectionFactory";
+
     private static final Logger LOG = LogUtils.getL7dLogger(JettyHTTPServerEngine.class);
 
 
@@ -120,6 +134,14 @@ public class JettyHTTPServerEngine implements ServerEngine {
     private Container.Listener mBeanContainer;
     private SessionHandler sessionHandler;
     private ThreadPool threadPool;
+    private int acceptors = -1;
+    private int selectors = -1;
+    private ByteBufferPool byteBufferPool;
+    private long bufferPoolMaxHeapMemory = -1;
+    private long bufferPoolMaxDirectMemory = -1;
+    private Boolean http2Enabled = false;
+    private InstrumentationManager instrumentationManager;
+    private JettyHTTPServerEngineMBeanWrapper mbeanWrapper;
 
 
     /**
@@ -485,6 +507,7 @@ public class JettyHTTPServerEngine implements ServerEngine {
                 server = null;
                 throw new Fault(new Message("START_UP_SERVER_FAILED_MSG", LOG, e.getMessage(), port), e);
             }
+            registerStatistics(handler.getBus());
         }
 
         String contextName = HttpUriMapper.getContextName(url.getPath());
@@ -610,6 +633,32 @@ public class JettyHTTPServerEngine implements ServerEngine {
             throw new RuntimeException(r);
         }
     }
+    private void registerStatistics(Bus bus) {
+        instrumentationManager = bus == null ? null : bus.getExtension(InstrumentationManager.class);
+        if (instrumentationManager == null) {
+            return;
+        }
+        try {
+            mbeanWrapper = new JettyHTTPServerEngineMBeanWrapper(this, bus);
+            instrumentationManager.register(mbeanWrapper);
+        } catch (JMException jmex) {
+            mbeanWrapper = null;
+            LOG.log(Level.WARNING, jmex.getMessage(), jmex);
+        }
+    }
+
+    private void unregisterStatistics() {
+        if (instrumentationManager != null && mbeanWrapper != null) {
+            try {
+                instrumentationManager.unregister(mbeanWrapper);
+            } catch (JMException jmex) {
+                LOG.log(Level.WARNING, jmex.getMessage(), jmex);
+            }
+        }
+        instrumentationManager = null;
+        mbeanWrapper = null;
+    }
+
     private void removeServerMBean() {
         try {
             mBeanContainer.beanRemoved(null, server);
@@ -676,16 +725,29 @@ public class JettyHTTPServerEngine implements ServerEngine {
 
             Collection<ConnectionFactory> connectionFactories = new ArrayList<>();
 
-            result = new org.eclipse.jetty.server.ServerConnector(server);
+            // null executor and scheduler make the connector use the server's ones
+            result = new org.eclipse.jetty.server.ServerConnector(server, null, null,
+                                                                  getEffectiveByteBufferPool(),
+                                                                  getAcceptors(), getSelectors());
+
+            List<ConnectionFactory> http2Factories = Collections.emptyList();
+            if (Boolean.TRUE.equals(getHttp2Enabled())) {
+                http2Factories = createHttp2ConnectionFactories(httpConfig, tlsServerParameters != null);
+            }
 
             if (tlsServerParameters != null) {
                 httpConfig.addCustomizer(new org.eclipse.jetty.server.SecureRequestCustomizer());
-                SslConnectionFactory scf = new SslConnectionFactory(sslcf, "HTTP/1.1");
+                String next = http2Factories.isEmpty() ? "HTTP/1.1" : "alpn";
+                SslConnectionFactory scf = new SslConnectionFactory(sslcf, next);
                 connectionFactories.add(scf);
                 String proto = (major > 9 || (major == 9 && minor >= 3)) ? "SSL" : "SSL-HTTP/1.1";
                 result.setDefaultProtocol(proto);
+                connectionFactories.addAll(http2Factories);
+                connectionFactories.add(httpFactory);
+            } else {
+                connectionFactories.add(httpFactory);
+                connectionFactories.addAll(http2Factories);
             }
-            connectionFactories.add(httpFactory);
             result.setConnectionFactories(connectionFactories);
 
             if (getMaxIdleTime() > 0) {
@@ -699,6 +761,48 @@ public class JettyHTTPServerEngine implements ServerEngine {
         }
         return result;
     }
+    /**
+     * Creates the HTTP/2 connection factories, h2 negotiated via ALPN for TLS
+     * connectors and h2c for clear text ones. The jetty-http2-server (and for h2
+     * jetty-alpn-server) modules are optional, so they are looked up reflectively
+     * and the connector stays on HTTP/1.1 if they are not available.
+     */
+    private List<ConnectionFactory> createHttp2ConnectionFactories(HttpConfiguration httpConfig,
+                                                                   boolean secure) {
+        List<ConnectionFactory> factories = new ArrayList<>();
+        try {
+            if (secure) {
+                Class<?> alpnClass = ClassLoaderUtils.loadClass(ALPN_FACTORY, JettyHTTPServerEngine.class);
+                Constructor<?> alpnConstructor = alpnClass.getConstructor(String[].class);
+                ConnectionFactory alpn =
+                    (ConnectionFactory)alpnConstructor.newInstance((Object)new String[] {"h2", "http/1.1"});
+                alpnClass.getMethod("setDefaultProtocol", String.class).invoke(alpn, "http/1.1");
+                factories.add(alpn);
+                factories.add(createHttp2ConnectionFactory(HTTP2_FACTORY, httpConfig));
+            } else {
+                factories.add(createHttp2ConnectionFactory(HTTP2C_FACTORY, httpConfig));
+            }
+        } catch (ReflectiveOperationException | LinkageError ex) {
+            LOG.log(Level.WARNING, "HTTP2_NOT_AVAILABLE", new Object[] {port, ex.toString()});
+            return Collections.emptyList();
+        }
+        return factories;
+    }
+
+    private static ConnectionFactory createHttp2ConnectionFactory(String className, HttpConfiguration httpConfig)
+        throws ReflectiveOperationException {
+        Class<?> cls = ClassLoaderUtils.loadClass(className, JettyHTTPServerEngine.class);
+        return (ConnectionFactory)cls.getConstructor(HttpConfiguration.class).newInstance(httpConfig);
+    }
+
+    private ByteBufferPool getEffectiveByteBufferPool() {
+        if (byteBufferPool == null && (bufferPoolMaxHeapMemory != -1 || bufferPoolMaxDirectMemory != -1)) {
+            byteBufferPool = new ArrayByteBufferPool(-1, -1, -1, -1,
+                                                     bufferPoolMaxHeapMemory, bufferPoolMaxDirectMemory);
+        }
+        return byteBufferPool;
+    }
+
     protected SSLContext createSSLContext(SslContextFactory scf) throws Exception  {
         String proto = tlsServerParameters.getSecureSocketProtocol() == null
             ? "TLS" : tlsServerParameters.getSecureSocketProtocol();
@@ -855,6 +959,9 @@ public class JettyHTTPServerEngine implements ServerEngine {
             if (getThreadingParameters().isSetMaxThreads()) {
                 ((QueuedThreadPool) pl).setMaxThreads(getThreadingParameters().getMaxThreads());
             }
+            if (getThreadingParameters().isSetReservedThreads()) {
+                ((QueuedThreadPool) pl).setReservedThreads(getThreadingParameters().getReservedThreads());
+            }
         }
     }
 
@@ -1034,6 +1141,7 @@ public class JettyHTTPServerEngine implements ServerEngine {
      */
     protected void stop() throws Exception {
         registedPaths.clear();
+        unregisterStatistics();
         if (server != null) {
             try {
                 if (connector != null) {
@@ -1116,6 +1224,72 @@ public class JettyHTTPServerEngine implements ServerEngine {
         return sendServerVersion;
     }
 
+    /**
+     * Sets the number of acceptor threads of the connector created by this
+     * engine, -1 (the default) lets Jetty size it from the number of CPUs.
+     */
+    public void setAcceptors(int acceptors) {
+        this.acceptors = acceptors;
+    }
+
+    public int getAcceptors() {
+        return acceptors;
+    }
+
+    /**
+     * Sets the number of selectors of the connector created by this
+     * engine, -1 (the default) lets Jetty size it from the number of CPUs.
+     */
+    public void setSelectors(int selectors) {
+        this.selectors = selectors;
+    }
+
+    public int getSelectors() {
+        return selectors;
+    }
+
+    /**
+     * Sets the ByteBufferPool used by the connector created by this engine.
+     * If not set, but a buffer pool memory limit is configured, an
+     * ArrayByteBufferPool bounded by those limits is used.
+     */
+    public void setByteBufferPool(ByteBufferPool byteBufferPool) {
+        this.byteBufferPool = byteBufferPool;
+    }
+
+    public ByteBufferPool getByteBufferPool() {
+        return byteBufferPool;
+    }
+
+    public void setBufferPoolMaxHeapMemory(long bufferPoolMaxHeapMemory) {
+        this.bufferPoolMaxHeapMemory = bufferPoolMaxHeapMemory;
+    }
+
+    public long getBufferPoolMaxHeapMemory() {
+        return bufferPoolMaxHeapMemory;
+    }
+
+    public void setBufferPoolMaxDirectMemory(long bufferPoolMaxDirectMemory) {
+        this.bufferPoolMaxDirectMemory = bufferPoolMaxDirectMemory;
+    }
+
+    public long getBufferPoolMaxDirectMemory() {
+        return bufferPoolMaxDirectMemory;
+    }
+
+    /**
+     * Enables HTTP/2 on the connector created by this engine: h2 (negotiated
+     * with ALPN) for https and h2c for http. Requires jetty-http2-server (and
+     * jetty-alpn-server for h2) on the classpath.
+     */
+    public void setHttp2Enabled(Boolean http2Enabled) {
+        this.http2Enabled = http2Enabled;
+    }
+
+    public Boolean getHttp2Enabled() {
+        return http2Enabled;
+    }
+
     public int getSessionTimeout() {
         return sessionTimeout;
     }
@@ -0,0 +1,191 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http_jetty;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.management.ManagedComponent;
+import org.apache.cxf.management.ManagementConstants;
+import org.apache.cxf.management.annotation.ManagedAttribute;
+import org.apache.cxf.management.annotation.ManagedResource;
+import org.eclipse.jetty.io.ArrayByteBufferPool;
+import org.eclipse.jetty.io.ByteBufferPool;
+import org.eclipse.jetty.server.AbstractConnector;
+import org.eclipse.jetty.server.Connector;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+/**
+ * Exposes the connector, thread pool and buffer pool statistics of a
+ * JettyHTTPServerEngine through the bus' InstrumentationManager.
+ */
+@ManagedResource(componentName = "JettyHTTPServerEngine",
+                 description = "The statistics of a Jetty HTTP server engine",
+                 currencyTimeLimit = 15, persistPolicy = "OnUpdate", persistPeriod = 200)
+public class JettyHTTPServerEngineMBeanWrapper implements ManagedComponent {
+    private static final String TYPE_VALUE = "JettyHTTPServerEngine";
+
+    private final JettyHTTPServerEngine engine;
+    private final String objectName;
+
+    public JettyHTTPServerEngineMBeanWrapper(JettyHTTPServerEngine engine, Bus bus) {
+        this.engine = engine;
+        objectName = new StringBuilder(ManagementConstants.DEFAULT_DOMAIN_NAME).append(':')
+            .append(ManagementConstants.BUS_ID_PROP).append('=').append(bus.getId()).append(',')
+            .append(ManagementConstants.TYPE_PROP).append('=').append(TYPE_VALUE).append(',')
+            .append(ManagementConstants.PORT_NAME_PROP).append('=').append(engine.getPort()).append(',')
+            .append(ManagementConstants.INSTANCE_ID_PROP).append('=').append(engine.hashCode())
+            .toString();
+    }
+
+    @ManagedAttribute(description = "The port of the engine")
+    public int getPort() {
+        return engine.getPort();
+    }
+
+    @ManagedAttribute(description = "The host of the engine")
+    public String getHost() {
+        return engine.getHost();
+    }
+
+    @ManagedAttribute(description = "The protocols supported by the connector")
+    public String getProtocols() {
+        AbstractConnector connector = getConnector();
+        return connector == null ? null : String.join(",", connector.getProtocols());
+    }
+
+    @ManagedAttribute(description = "The number of acceptor threads of the connector")
+    public int getAcceptors() {
+        AbstractConnector connector = getConnector();
+        return connector == null ? -1 : connector.getAcceptors();
+    }
+
+    @ManagedAttribute(description = "The number of selectors of the connector")
+    public int getSelectors() {
+        AbstractConnector connector = getConnector();
+        if (connector instanceof ServerConnector) {
+            return ((ServerConnector)connector).getSelectorManager().getSelectorCount();
+        }
+        return -1;
+    }
+
+    @ManagedAttribute(description = "The number of connections currently open on the connector")
+    public int getConnectedEndPoints() {
+        AbstractConnector connector = getConnector();
+        return connector == null ? 0 : connector.getConnectedEndPoints().size();
+    }
+
+    @ManagedAttribute(description = "The idle timeout of the connector's connections")
+    public long getIdleTimeout() {
+        AbstractConnector connector = getConnector();
+        return connector == null ? -1 : connector.getIdleTimeout();
+    }
+
+    @ManagedAttribute(description = "The current number of threads of the thread pool")
+    public int getThreads() {
+        QueuedThreadPool pool = getThreadPool();
+        return pool == null ? -1 : pool.getThreads();
+    }
+
+    @ManagedAttribute(description = "The number of idle threads of the thread pool")
+    public int getIdleThreads() {
+        QueuedThreadPool pool = getThreadPool();
+        return pool == null ? -1 : pool.getIdleThreads();
+    }
+
+    @ManagedAttribute(description = "The number of busy threads of the thread pool")
+    public int getBusyThreads() {
+        QueuedThreadPool pool = getThreadPool();
+        return pool == null ? -1 : pool.getBusyThreads();
+    }
+
+    @ManagedAttribute(description = "The minimum number of threads of the thread pool")
+    public int getMinThreads() {
+        QueuedThreadPool pool = getThreadPool();
+        return pool == null ? -1 : pool.getMinThreads();
+    }
+
+    @ManagedAttribute(description = "The maximum number of threads of the thread pool")
+    public int getMaxThreads() {
+        QueuedThreadPool pool = getThreadPool();
+        return pool == null ? -1 : pool.getMaxThreads();
+    }
+
+    @ManagedAttribute(description = "The number of threads reserved for the EatWhatYouKill strategy")
+    public int getReservedThreads() {
+        QueuedThreadPool pool = getThreadPool();
+        return pool == null ? -1 : pool.getReservedThreads();
+    }
+
+    @ManagedAttribute(description = "The number of jobs queued in the thread pool")
+    public int getQueueSize() {
+        QueuedThreadPool pool = getThreadPool();
+        return pool == null ? -1 : pool.getQueueSize();
+    }
+
+    @ManagedAttribute(description = "The heap memory held by the buffer pool")
+    public long getBufferPoolHeapMemory() {
+        ArrayByteBufferPool pool = getByteBufferPool();
+        return pool == null ? -1 : pool.getHeapMemory();
+    }
+
+    @ManagedAttribute(description = "The direct memory held by the buffer pool")
+    public long getBufferPoolDirectMemory() {
+        ArrayByteBufferPool pool = getByteBufferPool();
+        return pool == null ? -1 : pool.getDirectMemory();
+    }
+
+    @ManagedAttribute(description = "The number of heap buffers held by the buffer pool")
+    public long getBufferPoolHeapBufferCount() {
+        ArrayByteBufferPool pool = getByteBufferPool();
+        return pool == null ? -1 : pool.getHeapByteBufferCount();
+    }
+
+    @ManagedAttribute(description = "The number of direct buffers held by the buffer pool")
+    public long getBufferPoolDirectBufferCount() {
+        ArrayByteBufferPool pool = getByteBufferPool();
+        return pool == null ? -1 : pool.getDirectByteBufferCount();
+    }
+
+    public ObjectName getObjectName() throws JMException {
+        return new ObjectName(objectName);
+    }
+
+    private AbstractConnector getConnector() {
+        Connector connector = engine.getConnector();
+        return connector instanceof AbstractConnector ? (AbstractConnector)connector : null;
+    }
+
+    private QueuedThreadPool getThreadPool() {
+        Server server = engine.getServer();
+        ThreadPool pool = server == null ? null : server.getThreadPool();
+        return pool instanceof QueuedThreadPool ? (QueuedThreadPool)pool : null;
+    }
+
+    private ArrayByteBufferPool getByteBufferPool() {
+        AbstractConnector connector = getConnector();
+        ByteBufferPool pool = connector == null ? null : connector.getByteBufferPool();
+        return pool instanceof ArrayByteBufferPool ? (ArrayByteBufferPool)pool : null;
+    }
+}
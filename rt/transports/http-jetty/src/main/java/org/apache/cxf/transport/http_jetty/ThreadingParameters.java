@@ -26,9 +26,11 @@ public class ThreadingParameters {
 
     private int minThreads;
     private int maxThreads;
+    private int reservedThreads;
     private String threadNamePrefix;
     private boolean minThreadsSet;
     private boolean maxThreadsSet;
+    private boolean reservedThreadsSet;
     private boolean threadNamePrefixSet;
 
     public void setMinThreads(int number) {
@@ -41,6 +43,17 @@ public class ThreadingParameters {
         maxThreads = number;
     }
 
+    /**
+     * Sets the number of threads the pool keeps reserved for the connectors'
+     * EatWhatYouKill execution strategy, -1 uses Jetty's heuristic. With 0
+     * reserved threads the strategy never runs tasks on the producing (selector)
+     * thread and always hands them off to the pool.
+     */
+    public void setReservedThreads(int number) {
+        reservedThreadsSet = true;
+        reservedThreads = number;
+    }
+
     public String getThreadNamePrefix() {
         return threadNamePrefix;
     }
@@ -58,6 +71,10 @@ public class ThreadingParameters {
         return maxThreads;
     }
 
+    public int getReservedThreads() {
+        return reservedThreads;
+    }
+
     public boolean isSetMaxThreads() {
         return maxThreadsSet;
     }
@@ -66,6 +83,10 @@ public class ThreadingParameters {
         return minThreadsSet;
     }
 
+    public boolean isSetReservedThreads() {
+        return reservedThreadsSet;
+    }
+
     public boolean isThreadNamePrefixSet() {
         return threadNamePrefixSet;
     }
@@ -95,6 +95,9 @@ public class JettyHTTPServerEngineFactoryHolder {
                     if (threads.getThreadingParameters().getMinThreads() != null) {
                         rThreads.setMinThreads(threads.getThreadingParameters().getMinThreads());
                     }
+                    if (threads.getThreadingParameters().getReservedThreads() != null) {
+                        rThreads.setReservedThreads(threads.getThreadingParameters().getReservedThreads());
+                    }
                     rThreads.setThreadNamePrefix(threads.getThreadingParameters().getThreadNamePrefix());
                     threadingParametersMap.put(id, rThreads);
                 }
@@ -155,6 +158,7 @@ public class JettyHTTPServerEngineFactoryHolder {
                 if (engine.getMaxIdleTime() != null) {
                     eng.setMaxIdleTime(engine.getMaxIdleTime());
                 }
+                setConnectorParameters(eng, engine);
                 if (engine.getPort() != null) {
                     eng.setPort(engine.getPort());
                 }
@@ -176,6 +180,9 @@ public class JettyHTTPServerEngineFactoryHolder {
                     if (threads.getMinThreads() != null) {
                         rThreads.setMinThreads(threads.getMinThreads());
                     }
+                    if (threads.getReservedThreads() != null) {
+                        rThreads.setReservedThreads(threads.getReservedThreads());
+                    }
 
                     eng.setThreadingParameters(rThreads);
                 }
@@ -206,6 +213,24 @@ public class JettyHTTPServerEngineFactoryHolder {
         }
     }
 
+    private static void setConnectorParameters(JettyHTTPServerEngine eng, JettyHTTPServerEngineConfigType engine) {
+        if (engine.getAcceptors() != null) {
+            eng.setAcceptors(engine.getAcceptors());
+        }
+        if (engine.getSelectors() != null) {
+            eng.setSelectors(engine.getSelectors());
+        }
+        if (engine.getBufferPoolMaxHeapMemory() != null) {
+            eng.setBufferPoolMaxHeapMemory(engine.getBufferPoolMaxHeapMemory());
+        }
+        if (engine.getBufferPoolMaxDirectMemory() != null) {
+            eng.setBufferPoolMaxDirectMemory(engine.getBufferPoolMaxDirectMemory());
+        }
+        if (engine.isHttp2Enabled() != null) {
+            eng.setHttp2Enabled(engine.isHttp2Enabled());
+        }
+    }
+
     public void destroy() {
         // need to release the reference of the jaxb Classes
         factory.postShutdown();
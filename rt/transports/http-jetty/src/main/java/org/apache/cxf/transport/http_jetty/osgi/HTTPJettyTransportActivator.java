@@ -145,6 +145,16 @@ public class HTTPJettyTransportActivator
                 e.setMaxIdleTime(Integer.parseInt((String)properties.get(k)));
             } else if ("sessionTimeout".equals(k)) {
                 e.setSessionTimeout(Integer.parseInt((String)properties.get(k)));
+            } else if ("acceptors".equals(k)) {
+                e.setAcceptors(Integer.parseInt((String)properties.get(k)));
+            } else if ("selectors".equals(k)) {
+                e.setSelectors(Integer.parseInt((String)properties.get(k)));
+            } else if ("bufferPoolMaxHeapMemory".equals(k)) {
+                e.setBufferPoolMaxHeapMemory(Long.parseLong((String)properties.get(k)));
+            } else if ("bufferPoolMaxDirectMemory".equals(k)) {
+                e.setBufferPoolMaxDirectMemory(Long.parseLong((String)properties.get(k)));
+            } else if ("http2Enabled".equals(k)) {
+                e.setHttp2Enabled(Boolean.parseBoolean((String)properties.get(k)));
             }
         }
     }
@@ -167,6 +177,8 @@ public class HTTPJettyTransportActivator
                     p.setMinThreads(Integer.parseInt(v));
                 } else if ("maxThreads".equals(k)) {
                     p.setMaxThreads(Integer.parseInt(v));
+                } else if ("reservedThreads".equals(k)) {
+                    p.setReservedThreads(Integer.parseInt(v));
                 } else if ("threadNamePrefix".equals(k)) {
                     p.setThreadNamePrefix(k);
                 }
@@ -95,6 +95,14 @@ public class JettyHTTPServerEngineBeanDefinitionParser extends AbstractBeanDefin
             bean.addPropertyValue("sendServerVersion", sendServerVersionStr);
         }
 
+        for (String name : new String[] {"acceptors", "selectors", "bufferPoolMaxHeapMemory",
+                                         "bufferPoolMaxDirectMemory", "http2Enabled"}) {
+            String value = element.getAttribute(name);
+            if (value != null && !"".equals(value.trim())) {
+                bean.addPropertyValue(name, value);
+            }
+        }
+
         ValueHolder busValue = ctx.getContainingBeanDefinition()
             .getConstructorArgumentValues().getArgumentValue(0, Bus.class);
         bean.addPropertyValue("bus", busValue.getValue());
@@ -238,6 +246,9 @@ public class JettyHTTPServerEngineBeanDefinitionParser extends AbstractBeanDefin
         if (paramtype.getThreadNamePrefix() != null) {
             params.setThreadNamePrefix(paramtype.getThreadNamePrefix());
         }
+        if (paramtype.getReservedThreads() != null) {
+            params.setReservedThreads(paramtype.getReservedThreads());
+        }
         return params;
     }
 
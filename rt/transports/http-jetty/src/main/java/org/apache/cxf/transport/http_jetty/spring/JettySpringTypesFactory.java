@@ -63,6 +63,9 @@ public final class JettySpringTypesFactory {
         params.setMaxThreads(paramtype.getMaxThreads());
         params.setMinThreads(paramtype.getMinThreads());
         params.setThreadNamePrefix(paramtype.getThreadNamePrefix());
+        if (paramtype.getReservedThreads() != null) {
+            params.setReservedThreads(paramtype.getReservedThreads());
+        }
         return params;
     }
 
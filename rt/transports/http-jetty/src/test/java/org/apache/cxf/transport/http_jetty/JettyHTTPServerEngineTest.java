@@ -42,7 +42,9 @@ import org.apache.cxf.configuration.spring.ConfigurerImpl;
 import org.apache.cxf.helpers.CastUtils;
 import org.apache.cxf.helpers.IOUtils;
 import org.apache.cxf.management.InstrumentationManager;
+import org.apache.cxf.management.ManagedComponent;
 import org.apache.cxf.testutil.common.TestUtil;
+import org.eclipse.jetty.io.ArrayByteBufferPool;
 import org.eclipse.jetty.server.ConnectionFactory;
 import org.eclipse.jetty.server.Connector;
 import org.eclipse.jetty.server.Handler;
@@ -54,6 +56,7 @@ import org.eclipse.jetty.server.handler.ContextHandler;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.eclipse.jetty.util.thread.ThreadPool;
 
+import org.easymock.Capture;
 import org.easymock.EasyMock;
 import org.easymock.IMocksControl;
 import org.junit.Before;
@@ -61,6 +64,7 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -326,6 +330,62 @@ public class JettyHTTPServerEngineTest {
         JettyHTTPServerEngineFactory.destroyForPort(PORT2);
     }
 
+    @Test
+    public void testConnectorTuningAndStatistics() throws Exception {
+        IMocksControl statsControl = EasyMock.createNiceControl();
+        Bus statsBus = statsControl.createMock(Bus.class);
+        InstrumentationManager iManager = statsControl.createMock(InstrumentationManager.class);
+        EasyMock.expect(statsBus.getExtension(InstrumentationManager.class)).andReturn(iManager).anyTimes();
+        EasyMock.expect(statsBus.getId()).andReturn("test-bus").anyTimes();
+        Capture<ManagedComponent> registered = Capture.newInstance();
+        EasyMock.expect(iManager.register(EasyMock.capture(registered))).andReturn(null);
+        iManager.unregister(EasyMock.isA(JettyHTTPServerEngineMBeanWrapper.class));
+        EasyMock.expectLastCall();
+        statsControl.replay();
+
+        JettyHTTPServerEngine engine = new JettyHTTPServerEngine();
+        engine.setPort(PORT4);
+        engine.setAcceptors(1);
+        engine.setSelectors(2);
+        engine.setBufferPoolMaxHeapMemory(1024 * 1024);
+        ThreadingParameters parameters = new ThreadingParameters();
+        parameters.setMaxThreads(20);
+        parameters.setReservedThreads(0);
+        engine.setThreadingParameters(parameters);
+        engine.finalizeConfig();
+
+        URL url = new URL("http://localhost:" + PORT4 + "/hello/test");
+        JettyHTTPTestHandler handler = new JettyHTTPTestHandler("string1", true) {
+            @Override
+            public Bus getBus() {
+                return statsBus;
+            }
+        };
+        engine.addServant(url, handler);
+        try {
+            assertEquals("string1", getResponse(url.toString()));
+
+            ServerConnector connector = (ServerConnector)engine.getConnector();
+            assertEquals(1, connector.getAcceptors());
+            assertEquals(2, connector.getSelectorManager().getSelectorCount());
+            assertTrue(engine.getByteBufferPool() instanceof ArrayByteBufferPool);
+            assertSame(engine.getByteBufferPool(), connector.getByteBufferPool());
+
+            JettyHTTPServerEngineMBeanWrapper stats = (JettyHTTPServerEngineMBeanWrapper)registered.getValue();
+            assertEquals(PORT4, stats.getPort());
+            assertEquals(1, stats.getAcceptors());
+            assertEquals(2, stats.getSelectors());
+            assertEquals(0, stats.getReservedThreads());
+            assertEquals(20, stats.getMaxThreads());
+            assertTrue(stats.getThreads() > 0);
+            assertTrue(stats.getBufferPoolHeapMemory() >= 0);
+            assertEquals("test-bus", stats.getObjectName().getKeyProperty("bus.id"));
+        } finally {
+            engine.stop();
+        }
+        statsControl.verify();
+    }
+
     @Test
     public void testSetHandlers() throws Exception {
         URL url = new URL("http://localhost:" + PORT2 + "/hello/test");
@@ -140,6 +140,13 @@ public class ApplicationContextTest {
         assertEquals(99, engine.getThreadingParameters().getMinThreads());
         assertEquals(777, engine.getThreadingParameters().getMaxThreads());
         assertEquals("AnotherPrefix", engine.getThreadingParameters().getThreadNamePrefix());
+        assertTrue(engine.getThreadingParameters().isSetReservedThreads());
+        assertEquals(0, engine.getThreadingParameters().getReservedThreads());
+        assertEquals(2, engine.getAcceptors());
+        assertEquals(4, engine.getSelectors());
+        assertEquals(1048576L, engine.getBufferPoolMaxHeapMemory());
+        assertEquals(-1L, engine.getBufferPoolMaxDirectMemory());
+        assertTrue(engine.getHttp2Enabled());
 
         assertEquals("session timeout should be 600 secs", 600, engine.getSessionTimeout());
         assertTrue("The engine should support session manager", engine.isSessionSupport());
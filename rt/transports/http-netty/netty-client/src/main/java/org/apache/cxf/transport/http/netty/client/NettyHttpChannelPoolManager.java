@@ -0,0 +1,374 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.netty.client;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
+import org.apache.cxf.management.ManagedComponent;
+import org.apache.cxf.management.ManagementConstants;
+import org.apache.cxf.management.annotation.ManagedAttribute;
+import org.apache.cxf.management.annotation.ManagedResource;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.pool.AbstractChannelPoolHandler;
+import io.netty.channel.pool.ChannelHealthChecker;
+import io.netty.channel.pool.ChannelPool;
+import io.netty.channel.pool.FixedChannelPool;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.AttributeKey;
+
+/**
+ * Keeps a bounded pool of keep-alive connections per target host (and TLS/timeout settings)
+ * for the NettyHttpConduits of a bus. The connections are health checked when acquired and
+ * released, and closed after having been idle in the pool for the configured time. Pools
+ * which have not been used for that time either are closed and removed.
+ */
+@ManagedResource(componentName = "NettyHttpChannelPools",
+                 description = "The Netty HTTP client connection pools",
+                 currencyTimeLimit = 15, persistPolicy = "OnUpdate", persistPeriod = 200)
+public class NettyHttpChannelPoolManager implements ManagedComponent {
+    public static final String MAX_CONNECTIONS_PER_HOST =
+        "org.apache.cxf.transport.http.netty.maxConnectionsPerHost";
+    public static final String CONNECTION_MAX_IDLE =
+        "org.apache.cxf.transport.http.netty.connectionMaxIdle";
+    public static final String ACQUIRE_TIMEOUT =
+        "org.apache.cxf.transport.http.netty.acquireTimeout";
+
+    static final AttributeKey<ChannelPool> CHANNEL_POOL =
+        AttributeKey.valueOf(NettyHttpChannelPoolManager.class, "channelPool");
+
+    private static final Logger LOG = LogUtils.getL7dLogger(NettyHttpChannelPoolManager.class);
+    private static final String TYPE_VALUE = "NettyHttpChannelPools";
+    private static final String IDLE_HANDLER = "idleEviction";
+
+    private final Bootstrap bootstrap;
+    private final String busId;
+    private final EventLoopGroup eventLoopGroup;
+    private final ConcurrentMap<PoolKey, IdleTrackingChannelPool> pools = new ConcurrentHashMap<>();
+    // used for the https connections of conduits without TLS client parameters
+    private final TLSClientParameters defaultClientParameters = new TLSClientParameters();
+    private final AtomicLong createdConnections = new AtomicLong();
+    private final AtomicLong acquiredConnections = new AtomicLong();
+    private final AtomicLong evictedConnections = new AtomicLong();
+
+    private int maxConnectionsPerHost = 100;
+    private int connectionMaxIdle = 60000;
+    private int acquireTimeout = 30000;
+    private ScheduledFuture<?> evictionTask;
+
+    public NettyHttpChannelPoolManager(Bus bus, EventLoopGroup eventLoopGroup) {
+        busId = bus.getId();
+        this.eventLoopGroup = eventLoopGroup;
+        bootstrap = new Bootstrap();
+        bootstrap.group(eventLoopGroup);
+        bootstrap.channel(NioSocketChannel.class);
+        setProperties(bus.getProperties());
+    }
+
+    public final void setProperties(Map<String, Object> props) {
+        if (props == null) {
+            return;
+        }
+        maxConnectionsPerHost = getInt(props.get(MAX_CONNECTIONS_PER_HOST), maxConnectionsPerHost);
+        connectionMaxIdle = getInt(props.get(CONNECTION_MAX_IDLE), connectionMaxIdle);
+        acquireTimeout = getInt(props.get(ACQUIRE_TIMEOUT), acquireTimeout);
+    }
+
+    private static int getInt(Object s, int defaultValue) {
+        if (s instanceof Number) {
+            return ((Number)s).intValue();
+        }
+        if (s instanceof String) {
+            return Integer.parseInt((String)s);
+        }
+        return defaultValue;
+    }
+
+    public ChannelPool getChannelPool(URI uri, TLSClientParameters clientParameters,
+                                      int readTimeout, int maxResponseContentLength) {
+        boolean https = "https".equals(uri.getScheme());
+        if (!https) {
+            clientParameters = null;
+        } else if (clientParameters == null) {
+            clientParameters = defaultClientParameters;
+        }
+        int port = uri.getPort() != -1 ? uri.getPort() : https ? 443 : 80;
+        PoolKey key = new PoolKey(uri.getHost(), port, clientParameters, readTimeout, maxResponseContentLength);
+        // compute rather than get, so that the pool can not be evicted before it has been marked as used
+        IdleTrackingChannelPool pool = pools.compute(key, (k, p) -> {
+            IdleTrackingChannelPool result = p == null ? createPool(k) : p;
+            result.lastUsed = System.currentTimeMillis();
+            return result;
+        });
+        if (connectionMaxIdle > 0) {
+            scheduleEviction();
+        }
+        return pool;
+    }
+
+    private synchronized void scheduleEviction() {
+        if (evictionTask == null) {
+            evictionTask = eventLoopGroup.scheduleWithFixedDelay(this::evictIdlePools,
+                connectionMaxIdle, connectionMaxIdle, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Closes and removes the pools which have no acquired connection and have not been
+     * used for the configured maximum idle time.
+     */
+    void evictIdlePools() {
+        long idleSince = System.currentTimeMillis() - connectionMaxIdle;
+        List<IdleTrackingChannelPool> evicted = new ArrayList<>();
+        for (PoolKey key : pools.keySet()) {
+            pools.computeIfPresent(key, (k, p) -> {
+                if (p.acquiredChannelCount() == 0 && p.lastUsed <= idleSince) {
+                    evicted.add(p);
+                    return null;
+                }
+                return p;
+            });
+        }
+        for (IdleTrackingChannelPool pool : evicted) {
+            // does not block, this may run on the event loop of the pool
+            pool.closeAsync();
+        }
+    }
+
+    private IdleTrackingChannelPool createPool(PoolKey key) {
+        Bootstrap b = bootstrap.clone();
+        // resolved on connect so that address changes are picked up by new connections
+        b.remoteAddress(InetSocketAddress.createUnresolved(key.host, key.port));
+        PoolHandler handler = new PoolHandler(new NettyHttpClientPipelineFactory(key.clientParameters,
+            key.readTimeout, key.maxResponseContentLength));
+        IdleTrackingChannelPool pool;
+        if (acquireTimeout > 0) {
+            pool = new IdleTrackingChannelPool(b, handler, FixedChannelPool.AcquireTimeoutAction.FAIL,
+                acquireTimeout, maxConnectionsPerHost);
+        } else {
+            pool = new IdleTrackingChannelPool(b, handler, null, -1, maxConnectionsPerHost);
+        }
+        handler.pool = pool;
+        return pool;
+    }
+
+    /**
+     * Gives the channel used by the request back to its pool, or closes it if it can not be reused
+     * or is not pooled. The channel is only released once per request.
+     */
+    static void release(Channel channel, NettyHttpClientRequest request, boolean reusable) {
+        if (request != null && !request.markReleased()) {
+            return;
+        }
+        ChannelPool pool = channel.attr(CHANNEL_POOL).get();
+        if (!reusable || pool == null) {
+            channel.close();
+        }
+        if (pool != null) {
+            pool.release(channel);
+        }
+    }
+
+    public void close() {
+        synchronized (this) {
+            if (evictionTask != null) {
+                evictionTask.cancel(false);
+                evictionTask = null;
+            }
+        }
+        for (FixedChannelPool pool : pools.values()) {
+            try {
+                pool.close();
+            } catch (Exception ex) {
+                LOG.log(Level.FINE, "Failed to close the channel pool", ex);
+            }
+        }
+        pools.clear();
+    }
+
+    @ManagedAttribute(description = "The number of connection pools (one per host and TLS settings)")
+    public int getPoolCount() {
+        return pools.size();
+    }
+
+    @ManagedAttribute(description = "The maximum number of connections per host")
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    @ManagedAttribute(description = "The time in milliseconds after which idle connections are closed")
+    public int getConnectionMaxIdle() {
+        return connectionMaxIdle;
+    }
+
+    @ManagedAttribute(description = "The number of connections currently in use")
+    public int getActiveConnections() {
+        int count = 0;
+        for (FixedChannelPool pool : pools.values()) {
+            count += pool.acquiredChannelCount();
+        }
+        return count;
+    }
+
+    @ManagedAttribute(description = "The number of connections which have been opened")
+    public long getCreatedConnections() {
+        return createdConnections.get();
+    }
+
+    @ManagedAttribute(description = "The number of times a connection has been acquired from a pool")
+    public long getAcquiredConnections() {
+        return acquiredConnections.get();
+    }
+
+    @ManagedAttribute(description = "The number of times a pooled connection has been reused")
+    public long getReusedConnections() {
+        return Math.max(0, acquiredConnections.get() - createdConnections.get());
+    }
+
+    @ManagedAttribute(description = "The number of idle connections which have been closed")
+    public long getEvictedConnections() {
+        return evictedConnections.get();
+    }
+
+    @Override
+    public ObjectName getObjectName() throws JMException {
+        return new ObjectName(ManagementConstants.DEFAULT_DOMAIN_NAME + ':'
+            + ManagementConstants.BUS_ID_PROP + '=' + busId + ','
+            + ManagementConstants.TYPE_PROP + '=' + TYPE_VALUE + ','
+            + ManagementConstants.INSTANCE_ID_PROP + '=' + hashCode());
+    }
+
+    private class PoolHandler extends AbstractChannelPoolHandler {
+        private final NettyHttpClientPipelineFactory pipelineFactory;
+        private volatile ChannelPool pool;
+
+        PoolHandler(NettyHttpClientPipelineFactory pipelineFactory) {
+            this.pipelineFactory = pipelineFactory;
+        }
+
+        @Override
+        public void channelCreated(Channel ch) throws Exception {
+            createdConnections.incrementAndGet();
+            ch.attr(CHANNEL_POOL).set(pool);
+            pipelineFactory.initChannel(ch);
+        }
+
+        @Override
+        public void channelAcquired(Channel ch) throws Exception {
+            acquiredConnections.incrementAndGet();
+            if (ch.pipeline().get(IDLE_HANDLER) != null) {
+                ch.pipeline().remove(IDLE_HANDLER);
+            }
+        }
+
+        @Override
+        public void channelReleased(Channel ch) throws Exception {
+            if (ch.isActive() && connectionMaxIdle > 0 && ch.pipeline().get(IDLE_HANDLER) == null) {
+                ch.pipeline().addLast(IDLE_HANDLER, new IdleEvictionHandler(connectionMaxIdle));
+            }
+        }
+    }
+
+    private class IdleEvictionHandler extends IdleStateHandler {
+        IdleEvictionHandler(int maxIdle) {
+            super(0, 0, maxIdle, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        protected void channelIdle(ChannelHandlerContext ctx, IdleStateEvent evt) throws Exception {
+            evictedConnections.incrementAndGet();
+            ctx.close();
+        }
+    }
+
+    private static final class IdleTrackingChannelPool extends FixedChannelPool {
+        private volatile long lastUsed;
+
+        IdleTrackingChannelPool(Bootstrap bootstrap, AbstractChannelPoolHandler handler,
+                                AcquireTimeoutAction action, long acquireTimeoutMillis, int maxConnections) {
+            super(bootstrap, handler, ChannelHealthChecker.ACTIVE, action, acquireTimeoutMillis,
+                maxConnections, Integer.MAX_VALUE, true, true);
+        }
+    }
+
+    /**
+     * The TLS client parameters are compared by the settings they configure (see
+     * TLSClientParameters#equals) so that conduits with equal settings share the connections.
+     * The hash code is computed once as the parameters are mutable.
+     */
+    private static final class PoolKey {
+        final String host;
+        final int port;
+        final TLSClientParameters clientParameters;
+        final int readTimeout;
+        final int maxResponseContentLength;
+        private final int hash;
+
+        PoolKey(String host, int port, TLSClientParameters clientParameters,
+                int readTimeout, int maxResponseContentLength) {
+            this.host = host;
+            this.port = port;
+            this.clientParameters = clientParameters;
+            this.readTimeout = readTimeout;
+            this.maxResponseContentLength = maxResponseContentLength;
+            this.hash = Objects.hash(host, port, clientParameters, readTimeout, maxResponseContentLength);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof PoolKey)) {
+                return false;
+            }
+            PoolKey other = (PoolKey)obj;
+            return hash == other.hash && host.equals(other.host) && port == other.port
+                && Objects.equals(clientParameters, other.clientParameters)
+                && readTimeout == other.readTimeout
+                && maxResponseContentLength == other.maxResponseContentLength;
+        }
+    }
+}
@@ -28,6 +28,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.http.HttpObject;
 import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpUtil;
 import io.netty.handler.codec.http.LastHttpContent;
 import io.netty.handler.timeout.ReadTimeoutException;
 
@@ -35,6 +36,9 @@ public class NettyHttpClientHandler extends ChannelDuplexHandler {
     private final BlockingQueue<NettyHttpClientRequest> sendedQueue =
         new LinkedBlockingDeque<>();
 
+    private NettyHttpClientRequest currentRequest;
+    private boolean keepAlive;
+
     @Override
     public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
         if (msg instanceof HttpObject) {
@@ -43,12 +47,17 @@ public class NettyHttpClientHandler extends ChannelDuplexHandler {
                 HttpResponse response = (HttpResponse)msg;
                 NettyHttpClientRequest request = sendedQueue.poll();
                 request.setResponse(response);
+                currentRequest = request;
+                keepAlive = HttpUtil.isKeepAlive(response);
                 // calling the callback here
                 request.getCxfResponseCallback().responseReceived(response);
             }
             
             if (msg instanceof LastHttpContent) {
-                ctx.close();
+                // the connection goes back to the pool if it is pooled and can be kept alive
+                NettyHttpClientRequest request = currentRequest;
+                currentRequest = null;
+                NettyHttpChannelPoolManager.release(ctx.channel(), request, keepAlive && sendedQueue.isEmpty());
             }
         } else {
             super.channelRead(ctx, msg);
@@ -72,13 +81,34 @@ public class NettyHttpClientHandler extends ChannelDuplexHandler {
     public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
         if (cause instanceof ReadTimeoutException) {
             final NettyHttpClientRequest request = sendedQueue.poll();
-            request.getCxfResponseCallback().error(new IOException(cause));
+            if (request != null) {
+                request.getCxfResponseCallback().error(new IOException(cause));
+                NettyHttpChannelPoolManager.release(ctx.channel(), request, false);
+            } else {
+                ctx.close();
+            }
         } else {
             cause.printStackTrace();
+            failPendingRequests(ctx, cause);
             ctx.close();
         }
     }
 
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        failPendingRequests(ctx, new IOException("Connection closed before the response was received"));
+        super.channelInactive(ctx);
+    }
+
+    private void failPendingRequests(ChannelHandlerContext ctx, Throwable cause) {
+        NettyHttpClientRequest request = sendedQueue.poll();
+        while (request != null) {
+            request.getCxfResponseCallback().error(cause instanceof IOException ? cause : new IOException(cause));
+            NettyHttpChannelPoolManager.release(ctx.channel(), request, false);
+            request = sendedQueue.poll();
+        }
+    }
+
     @Override
     public void channelReadComplete(ChannelHandlerContext ctx) throws Exception {
         ctx.flush();
@@ -20,6 +20,7 @@
 package org.apache.cxf.transport.http.netty.client;
 
 import java.net.URI;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
@@ -38,6 +39,7 @@ public class NettyHttpClientRequest {
     private int connectionTimeout;
     private int receiveTimeout;
     private int maxResponseContentLength;
+    private final AtomicBoolean released = new AtomicBoolean();
 
     public NettyHttpClientRequest(URI requestUri, String method) {
         this.uri = requestUri;
@@ -103,4 +105,11 @@ public class NettyHttpClientRequest {
     public int getMaxResponseContentLength() {
         return maxResponseContentLength;
     }
+
+    /**
+     * Marks the channel used by this request as released, returns false if it has already been released.
+     */
+    public boolean markReleased() {
+        return released.compareAndSet(false, true);
+    }
 }
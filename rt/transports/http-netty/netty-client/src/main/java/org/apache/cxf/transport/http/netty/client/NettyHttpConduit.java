@@ -71,6 +71,8 @@ import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.http.HttpContent;
 import io.netty.handler.codec.http.HttpResponse;
 import io.netty.handler.ssl.SslHandler;
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.Promise;
 
 
 public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLifeCycleListener {
@@ -211,6 +213,8 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
         volatile Channel channel;
         volatile SSLSession session;
         boolean isAsync;
+        boolean connecting;
+        volatile boolean connectionAbandoned;
         ByteBuf outBuffer;
         OutputStream outputStream;
 
@@ -283,6 +287,7 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
                         throw new IOException(exception);
                     }
 
+                    connectionAbandoned = true;
                     throw new SocketTimeoutException("Connection Timeout");
                 }
             }
@@ -314,7 +319,8 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
                     
                     synchronized (entity) {
                         Channel syncChannel = getChannel();
-                        ChannelFuture channelFuture = syncChannel.write(entity);
+                        // flush to wake up the event loop of a pooled channel acquired on another thread
+                        ChannelFuture channelFuture = syncChannel.writeAndFlush(entity);
                         channelFuture.addListener(listener);
                         outputStream.close();
                     }
@@ -341,42 +347,70 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
         }
 
         protected void connect(boolean output) {
-            if ("https".equals(url.getScheme())) {
-                TLSClientParameters clientParameters = findTLSClientParameters();
-                bootstrap.handler(new NettyHttpClientPipelineFactory(clientParameters, entity.getReceiveTimeout(),
-                    entity.getMaxResponseContentLength()));
+            if (connecting) {
+                // already connected (or connecting) for this request
+                return;
+            }
+            connecting = true;
+
+            NettyHttpChannelPoolManager poolManager = bus.getExtension(NettyHttpChannelPoolManager.class);
+            final Future<Channel> connFuture;
+            if (poolManager != null) {
+                TLSClientParameters clientParameters = null;
+                if ("https".equals(url.getScheme())) {
+                    clientParameters = outMessage.get(TLSClientParameters.class);
+                    if (clientParameters == null) {
+                        clientParameters = getTlsClientParameters();
+                    }
+                }
+                connFuture = poolManager.getChannelPool(url, clientParameters, entity.getReceiveTimeout(),
+                    entity.getMaxResponseContentLength()).acquire();
             } else {
-                bootstrap.handler(new NettyHttpClientPipelineFactory(null, entity.getReceiveTimeout(),
-                    entity.getMaxResponseContentLength()));
+                if ("https".equals(url.getScheme())) {
+                    TLSClientParameters clientParameters = findTLSClientParameters();
+                    bootstrap.handler(new NettyHttpClientPipelineFactory(clientParameters,
+                        entity.getReceiveTimeout(), entity.getMaxResponseContentLength()));
+                } else {
+                    bootstrap.handler(new NettyHttpClientPipelineFactory(null, entity.getReceiveTimeout(),
+                        entity.getMaxResponseContentLength()));
+                }
+                ChannelFuture channelFuture =
+                    bootstrap.connect(new InetSocketAddress(url.getHost(), url.getPort() != -1 ? url.getPort()
+                                                                : "http".equals(url.getScheme()) ? 80 : 443));
+                Promise<Channel> promise = channelFuture.channel().eventLoop().newPromise();
+                channelFuture.addListener((ChannelFutureListener) future -> {
+                    if (future.isSuccess()) {
+                        promise.setSuccess(future.channel());
+                    } else {
+                        promise.setFailure(future.cause());
+                    }
+                });
+                connFuture = promise;
             }
 
-            ChannelFuture connFuture =
-                bootstrap.connect(new InetSocketAddress(url.getHost(), url.getPort() != -1 ? url.getPort()
-                                                            : "http".equals(url.getScheme()) ? 80 : 443));
-
             // Setup the call back on the NettyHttpClientRequest
-            ChannelFutureListener listener = new ChannelFutureListener() {
-
-                @Override
-                public void operationComplete(ChannelFuture future) throws Exception {
-                    if (future.isSuccess()) {
-                        setChannel(future.channel());
-                        
-                        SslHandler sslHandler = channel.pipeline().get(SslHandler.class);
-                        
-                        if (sslHandler != null) {
-                            session = sslHandler.engine().getSession();
-                        }
-                    } else {
-                        setException(future.cause());
+            final NettyHttpClientRequest request = entity;
+            connFuture.addListener(future -> {
+                if (future.isSuccess()) {
+                    Channel ch = (Channel)future.getNow();
+                    if (!setChannel(ch)) {
+                        // the request has given up waiting for the connection
+                        NettyHttpChannelPoolManager.release(ch, request, true);
+                        return;
                     }
-                    synchronized (entity) {
-                        //ensure entity is write in main thread
+
+                    SslHandler sslHandler = ch.pipeline().get(SslHandler.class);
+
+                    if (sslHandler != null) {
+                        session = sslHandler.engine().getSession();
                     }
+                } else {
+                    setException(future.cause());
                 }
-            };
-
-            connFuture.addListener(listener);
+                synchronized (entity) {
+                    //ensure entity is write in main thread
+                }
+            });
 
             if (!output) {
                 entity.getRequest().headers().remove("Transfer-Encoding");
@@ -500,8 +534,13 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
         }
 
         @Override
-        protected void handleResponseAsync() throws IOException {
-            isAsync = true;
+        protected synchronized void handleResponseAsync() throws IOException {
+            if (httpResponse != null || exception != null) {
+                // the response came back before we got here, which happens quickly with pooled connections
+                handleResponseOnWorkqueue(false, true);
+            } else {
+                isAsync = true;
+            }
         }
 
         @Override
@@ -563,9 +602,11 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
             isAsync = false;
             exception = null;
             if (channel != null) {
-                channel.close();
+                NettyHttpChannelPoolManager.release(channel, entity, false);
                 channel = null;
             }
+            connecting = false;
+            connectionAbandoned = false;
 
             try {
                 Address address;
@@ -637,9 +678,13 @@ public class NettyHttpConduit extends URLConnectionHTTPConduit implements BusLif
             notifyAll();
         }
 
-        protected synchronized void setChannel(Channel ch) {
+        protected synchronized boolean setChannel(Channel ch) {
+            if (connectionAbandoned) {
+                return false;
+            }
             channel = ch;
             notifyAll();
+            return true;
         }
     }
 
@@ -20,11 +20,17 @@
 package org.apache.cxf.transport.http.netty.client;
 
 import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.buslifecycle.BusLifeCycleListener;
 import org.apache.cxf.buslifecycle.BusLifeCycleManager;
+import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.common.util.SystemPropertyAction;
+import org.apache.cxf.management.InstrumentationManager;
 import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.transport.http.HTTPConduit;
 import org.apache.cxf.transport.http.HTTPConduitFactory;
@@ -40,6 +46,8 @@ public class NettyHttpConduitFactory implements HTTPConduitFactory {
     //CXF specific
     public static final String USE_POLICY = "org.apache.cxf.transport.http.netty.usePolicy";
 
+    private static final Logger LOG = LogUtils.getL7dLogger(NettyHttpConduitFactory.class);
+
     public enum UseAsyncPolicy {
         ALWAYS, ASYNC_ONLY, NEVER;
 
@@ -84,12 +92,19 @@ public class NettyHttpConduitFactory implements HTTPConduitFactory {
         throws IOException {
         // need to check if the EventLoopGroup is created or not
         // if not create a new EventLoopGroup for it
-        EventLoopGroup eventLoopGroup = bus.getExtension(EventLoopGroup.class);
-        if (eventLoopGroup == null) {
-            final EventLoopGroup group = new NioEventLoopGroup();
-            // register a BusLifeCycleListener for it
-            bus.setExtension(group, EventLoopGroup.class);
-            registerBusLifeListener(bus, group);
+        synchronized (this) {
+            EventLoopGroup eventLoopGroup = bus.getExtension(EventLoopGroup.class);
+            if (eventLoopGroup == null) {
+                eventLoopGroup = new NioEventLoopGroup();
+                // register a BusLifeCycleListener for it
+                bus.setExtension(eventLoopGroup, EventLoopGroup.class);
+                registerBusLifeListener(bus, eventLoopGroup);
+            }
+            if (bus.getExtension(NettyHttpChannelPoolManager.class) == null) {
+                NettyHttpChannelPoolManager poolManager = new NettyHttpChannelPoolManager(bus, eventLoopGroup);
+                bus.setExtension(poolManager, NettyHttpChannelPoolManager.class);
+                registerBusLifeListener(bus, poolManager);
+            }
         }
         return new NettyHttpConduit(bus, localInfo, target, this);
     }
@@ -102,6 +117,46 @@ public class NettyHttpConduitFactory implements HTTPConduitFactory {
         return createConduit(null, bus, localInfo, target);
     }
 
+    protected void registerBusLifeListener(Bus bus, final NettyHttpChannelPoolManager poolManager) {
+        final InstrumentationManager instrumentationManager = bus.getExtension(InstrumentationManager.class);
+        if (instrumentationManager != null) {
+            try {
+                instrumentationManager.register(poolManager);
+            } catch (JMException jmex) {
+                LOG.log(Level.WARNING, jmex.getMessage(), jmex);
+            }
+        }
+        BusLifeCycleManager lifeCycleManager = bus.getExtension(BusLifeCycleManager.class);
+        if (null != lifeCycleManager) {
+            lifeCycleManager.registerLifeCycleListener(new BusLifeCycleListener() {
+
+                @Override
+                public void initComplete() {
+                    // do nothing here
+                }
+
+                @Override
+                public void preShutdown() {
+                    // close the pooled connections while the EventLoopGroup is still running
+                    if (instrumentationManager != null && instrumentationManager.getMBeanServer() != null) {
+                        try {
+                            instrumentationManager.unregister(poolManager);
+                        } catch (JMException jmex) {
+                            LOG.log(Level.FINE, jmex.getMessage(), jmex);
+                        }
+                    }
+                    poolManager.close();
+                }
+
+                @Override
+                public void postShutdown() {
+                    // do nothing here
+                }
+
+            });
+        }
+    }
+
     protected void registerBusLifeListener(Bus bus, final EventLoopGroup group) {
         BusLifeCycleManager lifeCycleManager = bus.getExtension(BusLifeCycleManager.class);
         if (null != lifeCycleManager) {
@@ -0,0 +1,97 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.netty.client;
+
+import java.net.URI;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.bus.extension.ExtensionManagerBus;
+import org.apache.cxf.configuration.jsse.TLSClientParameters;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.pool.ChannelPool;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class NettyHttpChannelPoolManagerTest {
+    private static final URI ADDRESS = URI.create("https://localhost:9443/service");
+
+    private EventLoopGroup group;
+    private Bus bus;
+    private NettyHttpChannelPoolManager manager;
+
+    @Before
+    public void setUp() {
+        group = new NioEventLoopGroup(1);
+        bus = new ExtensionManagerBus();
+        bus.setProperty(NettyHttpChannelPoolManager.CONNECTION_MAX_IDLE, "50");
+        manager = new NettyHttpChannelPoolManager(bus, group);
+    }
+
+    @After
+    public void tearDown() {
+        manager.close();
+        bus.shutdown(true);
+        group.shutdownGracefully().syncUninterruptibly();
+    }
+
+    @Test
+    public void testPoolSharedByEqualTLSSettings() {
+        ChannelPool pool = manager.getChannelPool(ADDRESS, createClientParameters(false), 0, 0);
+        assertSame(pool, manager.getChannelPool(ADDRESS, createClientParameters(false), 0, 0));
+        assertEquals(1, manager.getPoolCount());
+
+        assertNotSame(pool, manager.getChannelPool(ADDRESS, createClientParameters(true), 0, 0));
+        assertEquals(2, manager.getPoolCount());
+    }
+
+    @Test
+    public void testIdlePoolsAreEvicted() throws Exception {
+        manager.getChannelPool(ADDRESS, createClientParameters(false), 0, 0);
+        manager.getChannelPool(URI.create("http://localhost:9080/service"), null, 0, 0);
+        assertEquals(2, manager.getPoolCount());
+
+        // the pools are evicted on a schedule once they have been idle for 50ms
+        for (int i = 0; i < 100 && manager.getPoolCount() > 0; i++) {
+            Thread.sleep(20L);
+        }
+        assertEquals(0, manager.getPoolCount());
+    }
+
+    @Test
+    public void testRecentlyUsedPoolIsKept() {
+        ChannelPool pool = manager.getChannelPool(ADDRESS, createClientParameters(false), 0, 0);
+        manager.evictIdlePools();
+        assertSame(pool, manager.getChannelPool(ADDRESS, createClientParameters(false), 0, 0));
+    }
+
+    private static TLSClientParameters createClientParameters(boolean disableCNCheck) {
+        TLSClientParameters clientParameters = new TLSClientParameters();
+        clientParameters.setDisableCNCheck(disableCNCheck);
+        return clientParameters;
+    }
+}
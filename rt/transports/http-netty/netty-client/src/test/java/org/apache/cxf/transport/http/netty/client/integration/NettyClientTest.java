@@ -27,8 +27,11 @@ import javax.xml.ws.Response;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.BusFactory;
+import org.apache.cxf.frontend.ClientProxy;
 import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
 import org.apache.cxf.testutil.common.AbstractBusClientServerTestBase;
+import org.apache.cxf.transport.http.netty.client.NettyHttpChannelPoolManager;
+import org.apache.cxf.transport.http.netty.client.NettyHttpConduit;
 import org.apache.hello_world_soap_http.Greeter;
 import org.apache.hello_world_soap_http.SOAPService;
 import org.apache.hello_world_soap_http.types.GreetMeLaterResponse;
@@ -40,6 +43,7 @@ import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 public class NettyClientTest extends AbstractBusClientServerTestBase {
 
@@ -109,6 +113,30 @@ public class NettyClientTest extends AbstractBusClientServerTestBase {
         assertEquals("Get a wrong response", "Hello test", response);
     }
 
+    @Test
+    public void testKeepAliveConnectionReuse() throws Exception {
+        JaxWsProxyFactoryBean factory = new JaxWsProxyFactoryBean();
+        factory.setServiceClass(Greeter.class);
+        factory.setAddress("netty://http://localhost:" + PORT + "/SoapContext/SoapPort");
+        Greeter greeter = factory.create(Greeter.class);
+        // use the Netty client for the synchronous calls as well
+        ClientProxy.getClient(greeter).getRequestContext().put(NettyHttpConduit.USE_ASYNC, Boolean.TRUE);
+        assertEquals("Hello test", greeter.greetMe("test"));
+
+        NettyHttpChannelPoolManager poolManager =
+            ClientProxy.getClient(greeter).getBus().getExtension(NettyHttpChannelPoolManager.class);
+        assertNotNull(poolManager);
+        long created = poolManager.getCreatedConnections();
+        long reused = poolManager.getReusedConnections();
+        for (int i = 0; i < 5; i++) {
+            assertEquals("Hello test" + i, greeter.greetMe("test" + i));
+        }
+        // the sequential calls on the same host share the pooled keep-alive connection
+        assertEquals(created, poolManager.getCreatedConnections());
+        assertTrue(poolManager.getReusedConnections() >= reused + 5);
+        assertTrue(poolManager.getPoolCount() >= 1);
+    }
+
     @Test
     public void testCallAsync() throws Exception {
         updateAddressPort(g, PORT);
@@ -39,6 +39,7 @@ import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.util.concurrent.DefaultEventExecutorGroup;
@@ -91,6 +92,10 @@ public class NettyHttpServerEngine implements ServerEngine {
 
     private boolean sessionSupport;
 
+    private boolean streaming;
+
+    private Class<? extends ServerChannel> serverChannelClass = NioServerSocketChannel.class;
+
     // TODO need to setup configuration about them
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
@@ -155,7 +160,7 @@ public class NettyHttpServerEngine implements ServerEngine {
 
         final ServerBootstrap bootstrap = new ServerBootstrap();
         bootstrap.group(bossGroup, workerGroup)
-            .channel(NioServerSocketChannel.class)
+            .channel(serverChannelClass)
             .option(ChannelOption.SO_REUSEADDR, true);
 
         // Set up the event pipeline factory.
@@ -164,6 +169,7 @@ public class NettyHttpServerEngine implements ServerEngine {
                  tlsServerParameters, sessionSupport,
                  maxChunkContentSize, handlerMap,
                  this, applicationExecutor);
+        servletPipeline.setStreaming(streaming);
         // Start the servletPipeline's timer
         servletPipeline.start();
         bootstrap.childHandler(servletPipeline);
@@ -286,6 +292,29 @@ public class NettyHttpServerEngine implements ServerEngine {
         this.sessionSupport = session;
     }
 
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Sets if the request and response content is streamed instead of being aggregated in memory.
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    public Class<? extends ServerChannel> getServerChannelClass() {
+        return serverChannelClass;
+    }
+
+    /**
+     * Sets the server channel type, for example the native epoll channel to be used together with
+     * the epoll boss and worker groups on Linux.
+     */
+    public void setServerChannelClass(Class<? extends ServerChannel> serverChannelClass) {
+        this.serverChannelClass = serverChannelClass;
+    }
+
     public int getMaxChunkContentSize() {
         return maxChunkContentSize;
     }
@@ -187,17 +187,17 @@ public class NettyHttpServletHandler extends ChannelInboundHandlerAdapter {
         ctx.close();
     }
 
-    private void sendError(ChannelHandlerContext ctx, HttpResponseStatus status) {
+    protected void sendError(ChannelHandlerContext ctx, HttpResponseStatus status) {
         ByteBuf content = Unpooled.copiedBuffer("Failure: " + status.toString() + "\r\n", CharsetUtil.UTF_8);
         FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1,
                                                                 status,
                                                                 content);
         response.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/plain; charset=UTF-8");
 
-        ctx.write(response).addListener(ChannelFutureListener.CLOSE);
+        ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
     }
 
-    private void interceptOnRequestReceived(ChannelHandlerContext ctx, HttpRequest request) {
+    protected void interceptOnRequestReceived(ChannelHandlerContext ctx, HttpRequest request) {
 
         if (this.interceptors != null) {
             for (NettyInterceptor interceptor : this.interceptors) {
@@ -207,7 +207,7 @@ public class NettyHttpServletHandler extends ChannelInboundHandlerAdapter {
 
     }
 
-    private void interceptOnRequestSuccessed(ChannelHandlerContext ctx,
+    protected void interceptOnRequestSuccessed(ChannelHandlerContext ctx,
                                              HttpResponse response) {
         if (this.interceptors != null) {
             for (NettyInterceptor interceptor : this.interceptors) {
@@ -217,7 +217,7 @@ public class NettyHttpServletHandler extends ChannelInboundHandlerAdapter {
 
     }
 
-    private void interceptOnRequestFailed(ChannelHandlerContext ctx,
+    protected void interceptOnRequestFailed(ChannelHandlerContext ctx,
                                           Throwable e) {
         if (this.interceptors != null) {
             for (NettyInterceptor interceptor : this.interceptors) {
@@ -69,6 +69,8 @@ public class NettyHttpServletPipelineFactory extends ChannelInitializer<Channel>
 
     private final NettyHttpServerEngine nettyHttpServerEngine;
 
+    private boolean streaming;
+
     /**
      * @deprecated use {@link #NettyHttpServletPipelineFactory(TLSServerParameters, boolean, int, Map,
      * NettyHttpServerEngine, EventExecutorGroup)}
@@ -99,6 +101,23 @@ public class NettyHttpServletPipelineFactory extends ChannelInitializer<Channel>
         return handlerMap;
     }
 
+    public EventExecutorGroup getApplicationExecutor() {
+        return applicationExecutor;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    /**
+     * Sets if the request content is streamed to the application instead of being aggregated,
+     * in which case the maxChunkContentSize does not apply and the responses are written as they
+     * are produced.
+     */
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
     public ChannelGroup getAllChannels() {
         return allChannels;
     }
@@ -131,7 +150,15 @@ public class NettyHttpServletPipelineFactory extends ChannelInitializer<Channel>
 
     protected NettyHttpServletHandler getServletHandler() {
 
-        NettyHttpServletHandler handler = new NettyHttpServletHandler(this);
+        return addInterceptors(new NettyHttpServletHandler(this));
+    }
+
+    protected NettyHttpServletHandler getStreamingHandler() {
+
+        return addInterceptors(new NettyHttpStreamingHandler(this));
+    }
+
+    private NettyHttpServletHandler addInterceptors(NettyHttpServletHandler handler) {
         handler.addInterceptor(new ChannelInterceptor());
         if (supportSession) {
             handler.addInterceptor(new HttpSessionInterceptor(getHttpSessionStore()));
@@ -154,7 +181,9 @@ public class NettyHttpServletPipelineFactory extends ChannelInitializer<Channel>
 
         pipeline.addLast("decoder", new HttpRequestDecoder());
         pipeline.addLast("encoder", new HttpResponseEncoder());
-        pipeline.addLast("aggregator", new HttpObjectAggregator(maxChunkContentSize));
+        if (!streaming) {
+            pipeline.addLast("aggregator", new HttpObjectAggregator(maxChunkContentSize));
+        }
         
         // Remove the following line if you don't want automatic content
         // compression.
@@ -208,7 +237,12 @@ public class NettyHttpServletPipelineFactory extends ChannelInitializer<Channel>
     protected void initChannel(Channel ch) throws Exception {
         ChannelPipeline pipeline = getDefaulHttpChannelPipeline(ch);
 
-        pipeline.addLast(applicationExecutor, "handler", this.getServletHandler());
+        if (streaming) {
+            // only the request processing is dispatched to the application executor
+            pipeline.addLast("handler", this.getStreamingHandler());
+        } else {
+            pipeline.addLast(applicationExecutor, "handler", this.getServletHandler());
+        }
     }
 
 }
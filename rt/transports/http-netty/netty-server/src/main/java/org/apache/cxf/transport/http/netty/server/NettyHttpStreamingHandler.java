@@ -0,0 +1,160 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.netty.server;
+
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.i18n.Message;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.transport.http.netty.server.servlet.NettyHttpServletRequest;
+import org.apache.cxf.transport.http.netty.server.servlet.NettyStreamingServletInputStream;
+import org.apache.cxf.transport.http.netty.server.servlet.NettyStreamingServletOutputStream;
+import org.apache.cxf.transport.http.netty.server.servlet.NettyStreamingServletResponse;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.HttpVersion;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.ReferenceCountUtil;
+import io.netty.util.concurrent.EventExecutor;
+
+/**
+ * The handler used by the streaming mode. It runs on the event loop and passes the request content
+ * chunks to the {@link NettyStreamingServletInputStream} of the current request as they arrive, only
+ * the request processing is dispatched to the application executor. All the requests of a connection
+ * are processed by the same executor so that pipelined requests are answered in order.
+ */
+public class NettyHttpStreamingHandler extends NettyHttpServletHandler {
+    private static final Logger LOG =
+            LogUtils.getL7dLogger(NettyHttpStreamingHandler.class);
+
+    private final NettyHttpServletPipelineFactory pipelineFactory;
+
+    private EventExecutor executor;
+
+    // the content stream of the request being received, only accessed by the event loop
+    private NettyStreamingServletInputStream currentInputStream;
+
+    public NettyHttpStreamingHandler(NettyHttpServletPipelineFactory pipelineFactory) {
+        super(pipelineFactory);
+        this.pipelineFactory = pipelineFactory;
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) throws Exception {
+        executor = pipelineFactory.getApplicationExecutor().next();
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof HttpRequest) {
+            HttpRequest request = (HttpRequest) msg;
+            if (HttpUtil.is100ContinueExpected(request)) {
+                ctx.writeAndFlush(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.CONTINUE));
+            }
+            NettyHttpContextHandler nettyHttpContextHandler =
+                pipelineFactory.getNettyHttpHandler(request.uri());
+            if (nettyHttpContextHandler == null) {
+                ReferenceCountUtil.release(msg);
+                throw new RuntimeException(
+                    new Fault(new Message("NO_NETTY_SERVLET_HANDLER_FOUND", LOG, request.uri())));
+            }
+            NettyStreamingServletInputStream in = new NettyStreamingServletInputStream(ctx.channel().config());
+            currentInputStream = in;
+            executor.execute(() -> handleStreamingRequest(ctx, request, nettyHttpContextHandler, in));
+        }
+        if (msg instanceof HttpContent) {
+            HttpContent content = (HttpContent) msg;
+            boolean last = content instanceof LastHttpContent;
+            if (currentInputStream != null) {
+                currentInputStream.offer(content.content(), last);
+            } else {
+                content.release();
+            }
+            if (last) {
+                currentInputStream = null;
+            }
+        }
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        failCurrentRequest(new IOException("Connection closed before the request was completely received"));
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void exceptionCaught(ChannelHandlerContext ctx, Throwable cause) throws Exception {
+        failCurrentRequest(cause);
+        super.exceptionCaught(ctx, cause);
+    }
+
+    private void failCurrentRequest(Throwable cause) {
+        if (currentInputStream != null) {
+            currentInputStream.fail(cause);
+            currentInputStream = null;
+        }
+    }
+
+    protected void handleStreamingRequest(ChannelHandlerContext ctx, HttpRequest request,
+                                          NettyHttpContextHandler nettyHttpContextHandler,
+                                          NettyStreamingServletInputStream in) {
+        HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+        NettyStreamingServletResponse nettyServletResponse =
+            new NettyStreamingServletResponse(ctx, response, HttpUtil.isKeepAlive(request));
+        NettyStreamingServletOutputStream out = nettyServletResponse.getStreamingOutputStream();
+        try {
+            interceptOnRequestReceived(ctx, request);
+            NettyHttpServletRequest nettyServletRequest =
+                new NettyHttpServletRequest(request, nettyHttpContextHandler.getContextPath(), ctx, in);
+            nettyHttpContextHandler.handle(nettyServletRequest.getRequestURI(), nettyServletRequest,
+                                           nettyServletResponse);
+            interceptOnRequestSuccessed(ctx, response);
+            nettyServletResponse.getWriter().flush();
+            out.close();
+        } catch (Throwable ex) {
+            LOG.log(Level.SEVERE, "UNEXPECTED_EXCEPCTION_IN_NETTY_SERVLET_HANDLER", ex);
+            interceptOnRequestFailed(ctx, ex);
+            boolean committed = out.isCommitted();
+            out.discard();
+            if (committed || !ctx.channel().isActive()) {
+                ctx.close();
+            } else {
+                sendError(ctx, HttpResponseStatus.INTERNAL_SERVER_ERROR);
+            }
+        } finally {
+            try {
+                // any unread request content is discarded
+                in.close();
+            } catch (IOException ex) {
+                // ignore
+            }
+        }
+    }
+}
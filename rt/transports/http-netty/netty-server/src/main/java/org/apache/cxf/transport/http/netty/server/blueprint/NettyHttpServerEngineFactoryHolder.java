@@ -126,6 +126,9 @@ public class NettyHttpServerEngineFactoryHolder {
                 if (engine.isSessionSupport() != null) {
                     eng.setSessionSupport(engine.isSessionSupport());
                 }
+                if (engine.isStreaming() != null) {
+                    eng.setStreaming(engine.isStreaming());
+                }
                 if (engine.getThreadingParameters() != null) {
                     ThreadingParametersType threads = engine.getThreadingParameters();
                     ThreadingParameters rThreads = new ThreadingParameters();
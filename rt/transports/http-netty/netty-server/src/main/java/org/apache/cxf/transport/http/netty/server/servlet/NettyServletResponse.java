@@ -42,15 +42,19 @@ public class NettyServletResponse implements HttpServletResponse {
 
     private HttpResponse originalResponse;
 
-    private NettyServletOutputStream outputStream;
+    private ServletOutputStream outputStream;
 
     private PrintWriter writer;
 
     private boolean responseCommited;
 
     public NettyServletResponse(HttpResponse response) {
+        this(response, new NettyServletOutputStream((HttpContent)response));
+    }
+
+    protected NettyServletResponse(HttpResponse response, ServletOutputStream outputStream) {
         this.originalResponse = response;
-        this.outputStream = new NettyServletOutputStream((HttpContent)response);
+        this.outputStream = outputStream;
         this.writer = new PrintWriter(this.outputStream);
     }
 
@@ -158,7 +162,7 @@ public class NettyServletResponse implements HttpServletResponse {
         if (isCommitted()) {
             throw new IllegalStateException("Response already commited!");
         }
-        this.outputStream.resetBuffer();
+        ((NettyServletOutputStream)this.outputStream).resetBuffer();
     }
 
     @Override
@@ -169,7 +173,7 @@ public class NettyServletResponse implements HttpServletResponse {
 
     @Override
     public int getBufferSize() {
-        return this.outputStream.getBufferSize();
+        return ((NettyServletOutputStream)this.outputStream).getBufferSize();
     }
 
     @Override
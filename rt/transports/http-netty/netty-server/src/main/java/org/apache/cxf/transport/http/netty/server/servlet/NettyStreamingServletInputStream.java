@@ -0,0 +1,178 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.netty.server.servlet;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import javax.servlet.ServletInputStream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelConfig;
+
+/**
+ * The request body stream used by the streaming mode, the request content chunks are offered
+ * by the event loop as they arrive and are read by the application thread. Reading from the
+ * channel is suspended while more than the high water mark of content is queued, and resumed
+ * once the application has consumed it below the low water mark.
+ */
+public class NettyStreamingServletInputStream extends ServletInputStream {
+
+    public static final int DEFAULT_HIGH_WATER_MARK = 64 * 1024;
+
+    private final ChannelConfig channelConfig;
+    private final int highWaterMark;
+    private final int lowWaterMark;
+    private final Deque<ByteBuf> buffers = new ArrayDeque<>();
+    private int queuedBytes;
+    private boolean finished;
+    private boolean closed;
+    private boolean suspended;
+    private IOException failure;
+
+    public NettyStreamingServletInputStream(ChannelConfig channelConfig) {
+        this(channelConfig, DEFAULT_HIGH_WATER_MARK);
+    }
+
+    public NettyStreamingServletInputStream(ChannelConfig channelConfig, int highWaterMark) {
+        this.channelConfig = channelConfig;
+        this.highWaterMark = highWaterMark;
+        this.lowWaterMark = highWaterMark / 2;
+    }
+
+    /**
+     * Called by the event loop for every received content chunk, the stream takes over
+     * the ownership of the buffer.
+     */
+    public synchronized void offer(ByteBuf content, boolean last) {
+        if (closed || !content.isReadable()) {
+            content.release();
+        } else {
+            buffers.add(content);
+            queuedBytes += content.readableBytes();
+            if (!last && queuedBytes > highWaterMark && !suspended) {
+                suspended = true;
+                channelConfig.setAutoRead(false);
+            }
+        }
+        if (last) {
+            finished = true;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Called by the event loop if the connection is closed or broken before the request
+     * content has been completely received.
+     */
+    public synchronized void fail(Throwable cause) {
+        if (!finished) {
+            failure = cause instanceof IOException ? (IOException)cause : new IOException(cause);
+            notifyAll();
+        }
+    }
+
+    public synchronized boolean isFinished() {
+        return finished && buffers.isEmpty();
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int n = read(b, 0, 1);
+        return n == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        synchronized (this) {
+            ByteBuf buf = awaitContent();
+            if (buf == null) {
+                return -1;
+            }
+            int total = 0;
+            while (buf != null && total < len) {
+                int n = Math.min(len - total, buf.readableBytes());
+                buf.readBytes(b, off + total, n);
+                total += n;
+                if (!buf.isReadable()) {
+                    buffers.poll().release();
+                    buf = buffers.peek();
+                }
+            }
+            queuedBytes -= total;
+            if (suspended && queuedBytes < lowWaterMark) {
+                suspended = false;
+                channelConfig.setAutoRead(true);
+            }
+            return total;
+        }
+    }
+
+    @Override
+    public synchronized int available() throws IOException {
+        return queuedBytes;
+    }
+
+    private ByteBuf awaitContent() throws IOException {
+        while (buffers.isEmpty()) {
+            if (closed) {
+                throw new IOException("Stream is closed");
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            if (finished) {
+                return null;
+            }
+            try {
+                wait();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+        return buffers.peek();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (ByteBuf buf : buffers) {
+            buf.release();
+        }
+        buffers.clear();
+        queuedBytes = 0;
+        // the unread content is discarded as it arrives
+        if (suspended) {
+            suspended = false;
+            channelConfig.setAutoRead(true);
+        }
+        notifyAll();
+    }
+}
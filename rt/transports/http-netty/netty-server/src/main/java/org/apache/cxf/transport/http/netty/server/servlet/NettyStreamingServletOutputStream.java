@@ -0,0 +1,195 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.netty.server.servlet;
+
+import java.io.IOException;
+
+import javax.servlet.ServletOutputStream;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.DefaultFullHttpResponse;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.FullHttpResponse;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpUtil;
+import io.netty.handler.codec.http.LastHttpContent;
+
+/**
+ * The response body stream used by the streaming mode. The content is written into pooled
+ * buffers of the channel allocator; a response which fits into a single chunk is sent as a
+ * full response with Content-Length, larger responses are sent as they are produced using
+ * the chunked transfer encoding (unless the Content-Length has been set).
+ * The writing thread is blocked while the channel is not writable.
+ */
+public class NettyStreamingServletOutputStream extends ServletOutputStream {
+
+    public static final int DEFAULT_CHUNK_SIZE = 8192;
+
+    private final ChannelHandlerContext ctx;
+    private final HttpResponse response;
+    private final boolean keepAlive;
+    private final int chunkSize;
+    private ByteBuf buffer;
+    private ChannelFuture lastWrite;
+    private boolean committed;
+    private boolean closed;
+
+    public NettyStreamingServletOutputStream(ChannelHandlerContext ctx, HttpResponse response,
+                                             boolean keepAlive) {
+        this(ctx, response, keepAlive, DEFAULT_CHUNK_SIZE);
+    }
+
+    public NettyStreamingServletOutputStream(ChannelHandlerContext ctx, HttpResponse response,
+                                             boolean keepAlive, int chunkSize) {
+        this.ctx = ctx;
+        this.response = response;
+        this.keepAlive = keepAlive;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        getBuffer().writeByte(b);
+        if (buffer.readableBytes() >= chunkSize) {
+            writeChunk();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            ByteBuf buf = getBuffer();
+            int n = Math.min(len, chunkSize - buf.readableBytes());
+            buf.writeBytes(b, off, n);
+            off += n;
+            len -= n;
+            if (buf.readableBytes() >= chunkSize) {
+                writeChunk();
+            }
+        }
+    }
+
+    /**
+     * Sends the buffered content once the response has been committed, before that the content
+     * is kept so that small responses can still be sent with a Content-Length.
+     */
+    @Override
+    public void flush() throws IOException {
+        if (committed && !closed && buffer != null && buffer.isReadable()) {
+            writeChunk();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (!committed) {
+            committed = true;
+            ByteBuf content = buffer == null ? Unpooled.EMPTY_BUFFER : buffer;
+            buffer = null;
+            FullHttpResponse fullResponse = new DefaultFullHttpResponse(response.protocolVersion(),
+                response.status(), content, response.headers(), new DefaultHttpHeaders(false));
+            if (!HttpUtil.isContentLengthSet(fullResponse)) {
+                HttpUtil.setContentLength(fullResponse, content.readableBytes());
+            }
+            HttpUtil.setKeepAlive(fullResponse, keepAlive);
+            lastWrite = ctx.writeAndFlush(fullResponse);
+        } else {
+            if (buffer != null && buffer.isReadable()) {
+                ctx.write(new DefaultHttpContent(buffer));
+            } else if (buffer != null) {
+                buffer.release();
+            }
+            buffer = null;
+            lastWrite = ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
+        }
+        if (!keepAlive) {
+            lastWrite.addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+
+    /**
+     * Drops the buffered content without sending anything, used when the request processing
+     * has failed before the response has been committed.
+     */
+    public void discard() {
+        closed = true;
+        if (buffer != null) {
+            buffer.release();
+            buffer = null;
+        }
+    }
+
+    public void resetBuffer() {
+        if (buffer != null) {
+            buffer.clear();
+        }
+    }
+
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    private ByteBuf getBuffer() throws IOException {
+        if (closed) {
+            throw new IOException("Stream is closed");
+        }
+        if (buffer == null) {
+            buffer = ctx.alloc().buffer(chunkSize);
+        }
+        return buffer;
+    }
+
+    private void writeChunk() throws IOException {
+        if (!committed) {
+            committed = true;
+            if (!HttpUtil.isContentLengthSet(response)) {
+                HttpUtil.setTransferEncodingChunked(response, true);
+            }
+            HttpUtil.setKeepAlive(response, keepAlive);
+            ctx.write(response);
+        }
+        ByteBuf chunk = buffer;
+        buffer = null;
+        lastWrite = ctx.writeAndFlush(new DefaultHttpContent(chunk));
+        if (!ctx.channel().isWritable() && !ctx.executor().inEventLoop()) {
+            lastWrite.awaitUninterruptibly();
+        }
+        if (lastWrite.isDone() && !lastWrite.isSuccess()) {
+            throw new IOException(lastWrite.cause());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.netty.server.servlet;
+
+import java.io.IOException;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.HttpResponse;
+
+public class NettyStreamingServletResponse extends NettyServletResponse {
+
+    private final NettyStreamingServletOutputStream outputStream;
+
+    public NettyStreamingServletResponse(ChannelHandlerContext ctx, HttpResponse response, boolean keepAlive) {
+        this(response, new NettyStreamingServletOutputStream(ctx, response, keepAlive));
+    }
+
+    public NettyStreamingServletResponse(HttpResponse response, NettyStreamingServletOutputStream outputStream) {
+        super(response, outputStream);
+        this.outputStream = outputStream;
+    }
+
+    public NettyStreamingServletOutputStream getStreamingOutputStream() {
+        return outputStream;
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return outputStream.isCommitted();
+    }
+
+    @Override
+    public void resetBuffer() {
+        if (isCommitted()) {
+            throw new IllegalStateException("Response already commited!");
+        }
+        outputStream.resetBuffer();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        // the content is sent when a chunk is full or the response is complete
+        getWriter().flush();
+    }
+
+    @Override
+    public int getBufferSize() {
+        return outputStream.getChunkSize();
+    }
+}
@@ -121,7 +121,8 @@ public class NettyHttpServerEngineBeanDefinitionParser extends AbstractBeanDefin
                                                     NettyHttpServerEngineBeanDefinitionParser.class,
                                                     "createThreadingParametersRef"
                                                     );
-                } else if ("sessionSupport".equals(name) || "reuseAddress".equals(name)) {
+                } else if ("sessionSupport".equals(name) || "reuseAddress".equals(name)
+                    || "streaming".equals(name)) {
                     String text = elem.getTextContent();
                     bean.addPropertyValue(name, text);
                 }
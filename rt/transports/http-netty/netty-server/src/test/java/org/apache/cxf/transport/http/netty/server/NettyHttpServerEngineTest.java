@@ -21,13 +21,19 @@ package org.apache.cxf.transport.http.netty.server;
 
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
 import org.apache.cxf.Bus;
 import org.apache.cxf.configuration.Configurer;
 import org.apache.cxf.configuration.jsse.TLSServerParameters;
@@ -39,6 +45,7 @@ import org.easymock.IMocksControl;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -51,6 +58,8 @@ public class NettyHttpServerEngineTest {
         = Integer.valueOf(TestUtil.getPortNumber(NettyHttpServerEngineTest.class, 2));
     private static final int PORT3
         = Integer.valueOf(TestUtil.getPortNumber(NettyHttpServerEngineTest.class, 3));
+    private static final int PORT4
+        = Integer.valueOf(TestUtil.getPortNumber(NettyHttpServerEngineTest.class, 4));
 
 
     private Bus bus;
@@ -150,6 +159,46 @@ public class NettyHttpServerEngineTest {
         NettyHttpServerEngineFactory.destroyForPort(PORT3);
     }
 
+    @Test
+    public void testStreaming() throws Exception {
+        String urlStr = "http://localhost:" + PORT4 + "/hello/stream";
+        NettyHttpServerEngine engine =
+            factory.createNettyHttpServerEngine(PORT4, "http");
+        engine.setStreaming(true);
+        engine.addServant(new URL(urlStr), new NettyHttpHandler(null, true) {
+            @Override
+            public void handle(String target, HttpServletRequest request, HttpServletResponse response)
+                throws IOException, ServletException {
+                // echo the request content, which is larger than the aggregation limit
+                IOUtils.copy(request.getInputStream(), response.getOutputStream());
+            }
+        });
+
+        byte[] content = new byte[engine.getMaxChunkContentSize() + 100000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte)('a' + i % 26);
+        }
+        for (int i = 0; i < 2; i++) {
+            HttpURLConnection connection = (HttpURLConnection)new URL(urlStr).openConnection();
+            connection.setDoOutput(true);
+            connection.setRequestMethod("POST");
+            connection.setChunkedStreamingMode(4096);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(content);
+            }
+            assertEquals(200, connection.getResponseCode());
+            assertEquals("chunked", connection.getHeaderField("Transfer-Encoding"));
+            try (InputStream in = connection.getInputStream()) {
+                assertArrayEquals(content, IOUtils.readBytesFromStream(in));
+            }
+        }
+
+        String response = getResponse(urlStr);
+        assertEquals("", response);
+
+        NettyHttpServerEngineFactory.destroyForPort(PORT4);
+    }
+
     @Test
     public void testHttps() throws Exception {
         Map<String, TLSServerParameters> tlsParamsMap = new HashMap<>();
@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http.netty.server.integration;
+
+import java.net.URL;
+
+import javax.xml.ws.Endpoint;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.testutil.common.AbstractBusClientServerTestBase;
+import org.apache.cxf.transport.http.netty.server.NettyHttpServerEngineFactory;
+import org.apache.hello_world_soap_http.Greeter;
+import org.apache.hello_world_soap_http.SOAPService;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class NettyStreamingServerTest extends AbstractBusClientServerTestBase {
+    public static final String PORT = allocatePort(NettyStreamingServerTest.class);
+
+    static Endpoint ep;
+
+    static Greeter g;
+
+    @BeforeClass
+    public static void start() throws Exception {
+        Bus b = createStaticBus();
+        BusFactory.setThreadDefaultBus(b);
+        b.getExtension(NettyHttpServerEngineFactory.class)
+            .createNettyHttpServerEngine("localhost", Integer.parseInt(PORT), "http").setStreaming(true);
+        ep = Endpoint.publish("netty://http://localhost:" + PORT + "/SoapContext/SoapPort",
+                new org.apache.hello_world_soap_http.GreeterImpl());
+
+        URL wsdl = NettyStreamingServerTest.class.getResource("/wsdl/hello_world.wsdl");
+        assertNotNull("WSDL is null", wsdl);
+
+        SOAPService service = new SOAPService(wsdl);
+        g = service.getSoapPort();
+        assertNotNull("Port is null", g);
+    }
+
+    @AfterClass
+    public static void stop() throws Exception {
+        if (g != null) {
+            ((java.io.Closeable)g).close();
+        }
+        if (ep != null) {
+            ep.stop();
+        }
+        ep = null;
+        NettyHttpServerEngineFactory.destroyForPort(Integer.parseInt(PORT));
+    }
+
+    @Test
+    public void testInvocation() throws Exception {
+        updateAddressPort(g, PORT);
+        assertEquals("Hello test", g.greetMe("test"));
+    }
+
+    @Test
+    public void testLargeInvocation() throws Exception {
+        updateAddressPort(g, PORT);
+        StringBuilder sb = new StringBuilder(2 * 1024 * 1024);
+        while (sb.length() < 2 * 1024 * 1024) {
+            sb.append("0123456789abcdef");
+        }
+        String request = sb.toString();
+        assertEquals("Hello " + request, g.greetMe(request));
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http_undertow;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.apache.cxf.helpers.LoadingByteArrayOutputStream;
+
+import io.undertow.io.IoCallback;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.Headers;
+
+/**
+ * A response which collects the entity in memory and hands it over to the
+ * exchange's asynchronous {@link io.undertow.io.Sender} once the stream is closed,
+ * so the service thread does not wait for the client to read the response.
+ * Responses which outgrow the buffer, or are written with a {@link WriteListener}
+ * (e.g. by a continuation for a JAX-RS NIO entity), are streamed through the servlet
+ * response as usual.
+ */
+class UndertowBufferedServletResponse extends HttpServletResponseWrapper {
+    private final HttpServerExchange exchange;
+    private final int bufferSize;
+    private BufferedServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    UndertowBufferedServletResponse(HttpServletResponse response, HttpServerExchange exchange, int bufferSize) {
+        super(response);
+        this.exchange = exchange;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new BufferedServletOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (outputStream != null && outputStream.delegate != null) {
+            outputStream.delegate.flush();
+        }
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return super.isCommitted() || (outputStream != null && outputStream.closed);
+    }
+
+    private class BufferedServletOutputStream extends ServletOutputStream {
+        private LoadingByteArrayOutputStream buffer = new LoadingByteArrayOutputStream(1024);
+        private ServletOutputStream delegate;
+        private boolean closed;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (delegate == null && buffer.size() + 1 > bufferSize) {
+                switchToServletStream();
+            }
+            if (delegate != null) {
+                delegate.write(b);
+            } else {
+                buffer.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (delegate == null && buffer.size() + len > bufferSize) {
+                switchToServletStream();
+            }
+            if (delegate != null) {
+                delegate.write(b, off, len);
+            } else {
+                buffer.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (delegate != null) {
+                delegate.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (delegate != null) {
+                delegate.close();
+                return;
+            }
+            if (!exchange.isResponseChannelAvailable()) {
+                // the response has already been written through the servlet response, e.g. by sendError
+                return;
+            }
+            if (!exchange.getResponseHeaders().contains(Headers.CONTENT_LENGTH)
+                && !exchange.getResponseHeaders().contains(Headers.TRANSFER_ENCODING)) {
+                exchange.setResponseContentLength(buffer.size());
+            }
+            ByteBuffer data = ByteBuffer.wrap(buffer.getRawBytes(), 0, buffer.size());
+            buffer = null;
+            exchange.getResponseSender().send(data, IoCallback.END_EXCHANGE);
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate == null || delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            if (delegate == null) {
+                try {
+                    switchToServletStream();
+                } catch (IOException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+            delegate.setWriteListener(writeListener);
+        }
+
+        private void switchToServletStream() throws IOException {
+            delegate = UndertowBufferedServletResponse.super.getOutputStream();
+            if (buffer.size() > 0) {
+                delegate.write(buffer.getRawBytes(), 0, buffer.size());
+            }
+            buffer = null;
+        }
+    }
+}
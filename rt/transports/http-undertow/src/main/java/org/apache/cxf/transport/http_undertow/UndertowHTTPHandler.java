@@ -18,13 +18,20 @@
  */
 
 package org.apache.cxf.transport.http_undertow;
-
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Logger;
 
 import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.cxf.Bus;
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.workqueue.WorkQueueManager;
 
+import io.undertow.io.Receiver;
 import io.undertow.io.Sender;
 import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
@@ -33,12 +40,15 @@ import io.undertow.servlet.handlers.ServletRequestContext;
 import io.undertow.servlet.spec.HttpServletRequestImpl;
 import io.undertow.servlet.spec.HttpServletResponseImpl;
 import io.undertow.servlet.spec.ServletContextImpl;
+import io.undertow.util.AttachmentKey;
 import io.undertow.util.Headers;
 
 
 
 public class UndertowHTTPHandler implements HttpHandler {
 
+    private static final Logger LOG = LogUtils.getL7dLogger(UndertowHTTPHandler.class);
+    private static final AttachmentKey<byte[]> REQUEST_BODY = AttachmentKey.create(byte[].class);
     private static final String SSL_CIPHER_SUITE_ATTRIBUTE = "javax.servlet.request.cipher_suite";
     private static final String SSL_PEER_CERT_CHAIN_ATTRIBUTE = "javax.servlet.request.X509Certificate";
     private static final String METHOD_TRACE = "TRACE";
@@ -48,6 +58,8 @@ public class UndertowHTTPHandler implements HttpHandler {
     private boolean contextMatchExact;
     private String urlName;
     private Bus bus;
+    private boolean nonBlocking;
+    private int maxBufferedEntitySize = UndertowHTTPServerEngine.DEFAULT_MAX_BUFFERED_ENTITY_SIZE;
 
     public UndertowHTTPHandler(UndertowHTTPDestination uhd, boolean cmt) {
         undertowHTTPDestination = uhd;
@@ -85,11 +97,36 @@ public class UndertowHTTPHandler implements HttpHandler {
         return undertowHTTPDestination != null ? undertowHTTPDestination.getBus() : bus;
     }
 
+    /**
+     * Enables reading small request entities and writing small responses without blocking, with
+     * only the service invocation dispatched to the CXF work queue.
+     *
+     * @param enabled whether the non-blocking path is used
+     * @param maxEntitySize the largest request or response entity (in bytes) handled without blocking
+     */
+    public void setNonBlocking(boolean enabled, int maxEntitySize) {
+        nonBlocking = enabled;
+        maxBufferedEntitySize = maxEntitySize;
+    }
+
+    public boolean isNonBlocking() {
+        return nonBlocking;
+    }
+
     @Override
     public void handleRequest(HttpServerExchange undertowExchange) throws Exception {
         try {
-            // perform blocking operation on exchange
             if (undertowExchange.isInIoThread()) {
+                if (isBufferable(undertowExchange)) {
+                    // read the entity with the connection's pooled buffers, then invoke the service
+                    Receiver.FullBytesCallback callback = (exchange, body) -> {
+                        exchange.putAttachment(REQUEST_BODY, body);
+                        exchange.dispatch(getExecutor(exchange), this);
+                    };
+                    undertowExchange.getRequestReceiver().receiveFullBytes(callback);
+                    return;
+                }
+                // perform blocking operation on exchange
                 undertowExchange.dispatch(this);
                 return;
             }
@@ -120,7 +157,13 @@ public class UndertowHTTPHandler implements HttpHandler {
                     // do nothing
                 }
             }
-            undertowHTTPDestination.doService(servletContext, request, response);
+            byte[] body = undertowExchange.removeAttachment(REQUEST_BODY);
+            if (body != null) {
+                doService(new UndertowBufferedServletRequest(request, body),
+                          new UndertowBufferedServletResponse(response, undertowExchange, maxBufferedEntitySize));
+            } else {
+                doService(request, response);
+            }
 
         } catch (Throwable t) {
             t.printStackTrace();
@@ -138,5 +181,44 @@ public class UndertowHTTPHandler implements HttpHandler {
         }
     }
 
+    protected void doService(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        undertowHTTPDestination.doService(servletContext, request, response);
+    }
 
+    /**
+     * Only requests with a known, small entity are read up front; chunked uploads and forms
+     * (which may be read through the request parameters) are handled by blocking reads.
+     */
+    private boolean isBufferable(HttpServerExchange exchange) {
+        if (!nonBlocking || METHOD_TRACE.equals(exchange.getRequestMethod().toString())) {
+            return false;
+        }
+        long length = exchange.getRequestContentLength();
+        if (length < 0 ? !exchange.isRequestComplete() : length > maxBufferedEntitySize) {
+            return false;
+        }
+        String contentType = exchange.getRequestHeaders().getFirst(Headers.CONTENT_TYPE);
+        return contentType == null
+            || !(contentType.startsWith("application/x-www-form-urlencoded")
+                || contentType.startsWith("multipart/form-data"));
+    }
+
+    private Executor getExecutor(HttpServerExchange exchange) {
+        Bus b = getBus();
+        WorkQueueManager manager = b == null ? null : b.getExtension(WorkQueueManager.class);
+        final Executor workQueue = manager == null ? null : manager.getAutomaticWorkQueue();
+        final Executor worker = exchange.getConnection().getWorker();
+        if (workQueue == null) {
+            return worker;
+        }
+        return r -> {
+            try {
+                workQueue.execute(r);
+            } catch (RejectedExecutionException e) {
+                LOG.warning("Executor queue is full, run the service invocation task in the Undertow worker."
+                    + "  Users can specify a larger executor queue to avoid this.");
+                worker.execute(r);
+            }
+        };
+    }
 }
@@ -73,6 +73,10 @@ public class UndertowHTTPServerEngine implements ServerEngine {
     public static final String ENABLE_RECORD_REQUEST_START_TIME_PROP = 
         "org.apache.cxf.transports.http_undertow.EnableRecordRequestStartTime";
 
+    public static final String ENABLE_NON_BLOCKING_PROP = "org.apache.cxf.transports.http_undertow.EnableNonBlocking";
+
+    public static final int DEFAULT_MAX_BUFFERED_ENTITY_SIZE = 65536;
+
     private static final Logger LOG = LogUtils.getL7dLogger(UndertowHTTPServerEngine.class);
 
     /**
@@ -125,6 +129,10 @@ public class UndertowHTTPServerEngine implements ServerEngine {
 
     private List<CXFUndertowHttpHandler> handlers;
 
+    private Boolean nonBlockingEnabled;
+
+    private int maxBufferedEntitySize = DEFAULT_MAX_BUFFERED_ENTITY_SIZE;
+
     public UndertowHTTPServerEngine(String host, int port) {
         this.host = host;
         this.port = port;
@@ -139,6 +147,7 @@ public class UndertowHTTPServerEngine implements ServerEngine {
         if (shouldCheckUrl(handler.getBus())) {
             checkRegistedContext(url);
         }
+        handler.setNonBlocking(shouldEnableNonBlocking(handler.getBus()), maxBufferedEntitySize);
 
         if (server == null) {
             try {
@@ -325,6 +334,20 @@ public class UndertowHTTPServerEngine implements ServerEngine {
         return PropertyUtils.isTrue(prop);
     }
     
+    private boolean shouldEnableNonBlocking(Bus bus) {
+        if (nonBlockingEnabled != null) {
+            return nonBlockingEnabled;
+        }
+        Object prop = null;
+        if (bus != null) {
+            prop = bus.getProperty(ENABLE_NON_BLOCKING_PROP);
+        }
+        if (prop == null) {
+            prop = SystemPropertyAction.getPropertyOrNull(ENABLE_NON_BLOCKING_PROP);
+        }
+        return PropertyUtils.isTrue(prop);
+    }
+
     private boolean shouldEnableRecordRequestStartTime(Bus bus) {
 
         Object prop = null;
@@ -577,4 +600,27 @@ public class UndertowHTTPServerEngine implements ServerEngine {
     public List<CXFUndertowHttpHandler> getHandlers() {
         return handlers != null ? handlers : new ArrayList<>();
     }
+
+    /**
+     * Enables the non-blocking request path: request entities of a known size up to
+     * maxBufferedEntitySize are read by the IO thread, the service is invoked on the CXF work
+     * queue and responses up to that size are written asynchronously. Larger or chunked
+     * entities are still streamed with blocking IO. If not set, the
+     * {@link #ENABLE_NON_BLOCKING_PROP} bus or system property is used.
+     */
+    public void setNonBlockingEnabled(Boolean enabled) {
+        nonBlockingEnabled = enabled;
+    }
+
+    public Boolean getNonBlockingEnabled() {
+        return nonBlockingEnabled;
+    }
+
+    public int getMaxBufferedEntitySize() {
+        return maxBufferedEntitySize;
+    }
+
+    public void setMaxBufferedEntitySize(int size) {
+        maxBufferedEntitySize = size;
+    }
 }
@@ -22,16 +22,25 @@ package org.apache.cxf.transport.http_undertow;
 
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.lang.management.ManagementFactory;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
 import javax.management.ObjectName;
+import javax.servlet.AsyncContext;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.apache.cxf.Bus;
 import org.apache.cxf.configuration.Configurer;
@@ -48,6 +57,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -253,6 +263,137 @@ public class UndertowHTTPServerEngineTest {
 
 
 
+    @Test
+    public void testNonBlockingHandler() throws Exception {
+        String urlStr = "http://localhost:" + PORT3 + "/echo";
+        UndertowHTTPServerEngine engine = factory.createUndertowHTTPServerEngine(PORT3, "http");
+        engine.setNonBlockingEnabled(true);
+        engine.setMaxBufferedEntitySize(1024);
+        EchoHandler handler = new EchoHandler(bus);
+        engine.addServant(new URL(urlStr), handler);
+        assertTrue(handler.isNonBlocking());
+        try {
+            // small request and response entities are buffered
+            assertEquals("hello", post(urlStr, "hello", 1));
+            assertTrue(handler.request instanceof UndertowBufferedServletRequest);
+            assertTrue(handler.response instanceof UndertowBufferedServletResponse);
+            assertFalse(handler.inIoThread);
+
+            // the response outgrows the buffer and is streamed
+            char[] chars = new char[100];
+            Arrays.fill(chars, 'x');
+            String body = new String(chars);
+            assertEquals(String.join("", body, body, body, body, body, body, body, body, body, body, body, body),
+                         post(urlStr, body, 12));
+            assertTrue(handler.request instanceof UndertowBufferedServletRequest);
+
+            // the request is too large to be read up front
+            chars = new char[2000];
+            Arrays.fill(chars, 'y');
+            body = new String(chars);
+            assertEquals(body, post(urlStr, body, 1));
+            assertFalse(handler.request instanceof UndertowBufferedServletRequest);
+        } finally {
+            engine.removeServant(new URL(urlStr));
+            engine.shutdown();
+            UndertowHTTPServerEngineFactory.destroyForPort(PORT3);
+        }
+    }
+
+    @Test
+    public void testNonBlockingWriteListener() throws Exception {
+        String urlStr = "http://localhost:" + PORT3 + "/nio";
+        UndertowHTTPServerEngine engine = factory.createUndertowHTTPServerEngine(PORT3, "http");
+        engine.setNonBlockingEnabled(true);
+        NioEchoHandler handler = new NioEchoHandler(bus);
+        engine.addServant(new URL(urlStr), handler);
+        try {
+            // the response is written asynchronously, as for a JAX-RS NIO entity
+            assertEquals("hello", post(urlStr, "hello", 1));
+            assertTrue(handler.response instanceof UndertowBufferedServletResponse);
+        } finally {
+            engine.removeServant(new URL(urlStr));
+            engine.shutdown();
+            UndertowHTTPServerEngineFactory.destroyForPort(PORT3);
+        }
+    }
+
+    private static String post(String target, String body, int repeat) throws Exception {
+        HttpURLConnection connection = (HttpURLConnection)new URL(target).openConnection();
+        connection.setDoOutput(true);
+        connection.setRequestMethod("POST");
+        connection.setRequestProperty("Content-Type", "text/plain");
+        connection.setRequestProperty("X-Repeat", Integer.toString(repeat));
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals(200, connection.getResponseCode());
+        try (InputStream in = connection.getInputStream()) {
+            return new String(IOUtils.readBytesFromStream(in), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static class EchoHandler extends UndertowHTTPHandler {
+        volatile HttpServletRequest request;
+        volatile HttpServletResponse response;
+        volatile boolean inIoThread;
+
+        EchoHandler(Bus bus) {
+            super(bus);
+        }
+
+        @Override
+        protected void doService(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            request = req;
+            response = resp;
+            inIoThread = Thread.currentThread().getName().contains("I/O");
+            byte[] body = IOUtils.readBytesFromStream(req.getInputStream());
+            resp.setContentType("text/plain");
+            try (OutputStream out = resp.getOutputStream()) {
+                for (int i = Integer.parseInt(req.getHeader("X-Repeat")); i > 0; i--) {
+                    out.write(body);
+                }
+            }
+        }
+    }
+
+    private static class NioEchoHandler extends UndertowHTTPHandler {
+        volatile HttpServletResponse response;
+
+        NioEchoHandler(Bus bus) {
+            super(bus);
+        }
+
+        @Override
+        protected void doService(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+            response = resp;
+            byte[] body = IOUtils.readBytesFromStream(req.getInputStream());
+            resp.setContentType("text/plain");
+            AsyncContext context = req.startAsync();
+            ServletOutputStream out = resp.getOutputStream();
+            out.setWriteListener(new WriteListener() {
+                private boolean written;
+
+                @Override
+                public void onWritePossible() throws IOException {
+                    while (out.isReady()) {
+                        if (written) {
+                            context.complete();
+                            return;
+                        }
+                        out.write(body);
+                        written = true;
+                    }
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    context.complete();
+                }
+            });
+        }
+    }
+
     private String getResponse(String target) throws Exception {
         URL url = new URL(target);
 
@@ -0,0 +1,176 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * An immutable radix tree of the destination paths, used to find the destination
+ * for a RESTful request address without scanning all the registered paths.
+ * A lookup walks the address once and does not allocate.
+ */
+final class DestinationPathTree {
+    static final DestinationPathTree EMPTY = new DestinationPathTree(new Node("", null), null);
+
+    private static final char SLASH = '/';
+
+    private final Node root;
+    // the destination on "/" matches any address
+    private final AbstractHTTPDestination rootDestination;
+
+    private DestinationPathTree(Node root, AbstractHTTPDestination rootDestination) {
+        this.root = root;
+        this.rootDestination = rootDestination;
+    }
+
+    static DestinationPathTree create(Map<String, AbstractHTTPDestination> destinations) {
+        if (destinations.isEmpty()) {
+            return EMPTY;
+        }
+        Node root = new Node("", null);
+        for (Map.Entry<String, AbstractHTTPDestination> entry : destinations.entrySet()) {
+            root.insert(entry.getKey(), 0, entry.getValue());
+        }
+        return new DestinationPathTree(root, destinations.get("/"));
+    }
+
+    /**
+     * Finds the destination with the longest path matching the address, a path matches if it
+     * is "/", is equal to the address or is followed by a '/' in the address. A trailing '/'
+     * of a path is ignored.
+     */
+    AbstractHTTPDestination findLongestMatch(String address) {
+        AbstractHTTPDestination match = rootDestination;
+        int matchLength = match != null ? 1 : -1;
+        final int length = address.length();
+        Node node = root;
+        int pos = 0;
+        while (true) {
+            // the path of this node has been fully matched by the address
+            if (node.value != null) {
+                int pathLength = pos;
+                if (pos > 1 && address.charAt(pos - 1) == SLASH) {
+                    pathLength = pos - 1;
+                }
+                if (pathLength > matchLength
+                    && (pathLength < pos || pos == length || address.charAt(pos) == SLASH)) {
+                    match = node.value;
+                    matchLength = pathLength;
+                }
+            }
+            if (pos == length) {
+                // the path with a trailing '/' matches the address too
+                Node child = node.child(SLASH);
+                if (child != null && child.value != null && child.label.length() == 1 && length > matchLength) {
+                    match = child.value;
+                }
+                return match;
+            }
+            Node child = node.child(address.charAt(pos));
+            if (child == null) {
+                return match;
+            }
+            String label = child.label;
+            int labelLength = label.length();
+            int common = 1;
+            while (common < labelLength && pos + common < length
+                && label.charAt(common) == address.charAt(pos + common)) {
+                common++;
+            }
+            if (common < labelLength) {
+                // the address ends before the path, only a single remaining '/' can still match
+                if (pos + common == length && common == labelLength - 1 && label.charAt(common) == SLASH
+                    && child.value != null && length > matchLength) {
+                    match = child.value;
+                }
+                return match;
+            }
+            pos += labelLength;
+            node = child;
+        }
+    }
+
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        String label;
+        AbstractHTTPDestination value;
+        // the first characters of the children labels, sorted
+        char[] keys = new char[0];
+        Node[] children = NO_CHILDREN;
+
+        Node(String label, AbstractHTTPDestination value) {
+            this.label = label;
+            this.value = value;
+        }
+
+        Node child(char c) {
+            int idx = Arrays.binarySearch(keys, c);
+            return idx >= 0 ? children[idx] : null;
+        }
+
+        // only used while the tree is created, it is never modified once published
+        void insert(String path, int pos, AbstractHTTPDestination destination) {
+            if (pos == path.length()) {
+                if (value == null) {
+                    value = destination;
+                }
+                return;
+            }
+            char c = path.charAt(pos);
+            int idx = Arrays.binarySearch(keys, c);
+            if (idx < 0) {
+                addChild(-idx - 1, new Node(path.substring(pos), destination));
+                return;
+            }
+            Node child = children[idx];
+            String childLabel = child.label;
+            int common = 1;
+            while (common < childLabel.length() && pos + common < path.length()
+                && childLabel.charAt(common) == path.charAt(pos + common)) {
+                common++;
+            }
+            if (common < childLabel.length()) {
+                // split the edge at the end of the common prefix
+                Node split = new Node(childLabel.substring(0, common), null);
+                child.label = childLabel.substring(common);
+                split.keys = new char[] {child.label.charAt(0)};
+                split.children = new Node[] {child};
+                children[idx] = split;
+                child = split;
+            }
+            child.insert(path, pos + common, destination);
+        }
+
+        private void addChild(int idx, Node child) {
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, idx);
+            System.arraycopy(children, 0, newChildren, 0, idx);
+            newKeys[idx] = child.label.charAt(0);
+            newChildren[idx] = child;
+            System.arraycopy(keys, idx, newKeys, idx + 1, keys.length - idx);
+            System.arraycopy(children, idx, newChildren, idx + 1, children.length - idx);
+            keys = newKeys;
+            children = newChildren;
+        }
+    }
+}
@@ -20,10 +20,10 @@ package org.apache.cxf.transport.http;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -38,11 +38,14 @@ import org.apache.cxf.transport.AbstractDestination;
 import org.apache.cxf.transport.servlet.ServletConfigAware;
 
 public class DestinationRegistryImpl implements DestinationRegistry, ServletConfigAware {
-    private static final String SLASH = "/";
     private ConcurrentMap<String, AbstractHTTPDestination> destinations
         = new ConcurrentHashMap<>();
     private Map<String, AbstractHTTPDestination> decodedDestinations =
         new ConcurrentHashMap<>();
+    // rebuilt when the destinations change, so that the lookups do not need to lock
+    private volatile DestinationPathTree pathTree = DestinationPathTree.EMPTY;
+    private volatile DestinationPathTree decodedPathTree = DestinationPathTree.EMPTY;
+    private volatile AbstractDestination[] sortedDestinations;
 
     public DestinationRegistryImpl() {
     }
@@ -61,6 +64,7 @@ public class DestinationRegistryImpl implements DestinationRegistry, ServletConf
         } catch (UnsupportedEncodingException e) {
             throw new RuntimeException("Unsupported Encoding", e);
         }
+        destinationsChanged();
     }
 
     public synchronized void removeDestination(String path) {
@@ -73,6 +77,13 @@ public class DestinationRegistryImpl implements DestinationRegistry, ServletConf
         } catch (UnsupportedEncodingException e) {
             throw new RuntimeException("Unsupported Encoding", e);
         }
+        destinationsChanged();
+    }
+
+    private void destinationsChanged() {
+        pathTree = DestinationPathTree.create(destinations);
+        decodedPathTree = DestinationPathTree.create(decodedDestinations);
+        sortedDestinations = null;
     }
 
     public AbstractHTTPDestination getDestinationForPath(String path) {
@@ -90,32 +101,15 @@ public class DestinationRegistryImpl implements DestinationRegistry, ServletConf
     }
 
     public AbstractHTTPDestination checkRestfulRequest(String address) {
-        AbstractHTTPDestination ret = getRestfulDestination(getDestinationsPaths(), address);
+        AbstractHTTPDestination ret = pathTree.findLongestMatch(address);
         if (ret == null) {
-            ret = getRestfulDestination(decodedDestinations.keySet(), address);
+            ret = decodedPathTree.findLongestMatch(address);
         }
         if (ret != null && ret.getMessageObserver() == null) {
             return null;
         }
         return ret;
     }
-    private AbstractHTTPDestination getRestfulDestination(Set<String> destPaths, String address) {
-        int len = -1;
-        AbstractHTTPDestination ret = null;
-        for (String path : destPaths) {
-            String thePath = path.length() > 1 && path.endsWith(SLASH)
-                ? path.substring(0, path.length() - 1) : path;
-            if ((address.equals(thePath)
-                || SLASH.equals(thePath)
-                || (address.length() > thePath.length()
-                    && address.startsWith(thePath) && address.charAt(thePath.length()) == '/'))
-                && thePath.length() > len) {
-                ret = getDestinationForPath(path);
-                len = path.length();
-            }
-        }
-        return ret;
-    }
 
     public Collection<AbstractHTTPDestination> getDestinations() {
         return Collections.unmodifiableCollection(destinations.values());
@@ -123,27 +117,36 @@ public class DestinationRegistryImpl implements DestinationRegistry, ServletConf
 
 
     public AbstractDestination[] getSortedDestinations() {
-        List<AbstractHTTPDestination> dest2 = new LinkedList<>(
-                getDestinations());
-        Collections.sort(dest2, new Comparator<AbstractHTTPDestination>() {
-            public int compare(AbstractHTTPDestination o1, AbstractHTTPDestination o2) {
-                InterfaceInfo i1 = o1.getEndpointInfo().getInterface();
-                InterfaceInfo i2 = o2.getEndpointInfo().getInterface();
-                if (i1 == null && i2 == null) {
-                    return 0;
-                } else if (i1 == null) {
-                    return -1;
-                } else if (i2 == null) {
-                    return 1;
-                } else {
-                    return i1.getName().getLocalPart()
-                               .compareTo(
-                                   i2.getName().getLocalPart());
-                }
-            }
-        });
+        AbstractDestination[] sorted = sortedDestinations;
+        if (sorted == null) {
+            sorted = sortDestinations();
+        }
+        return sorted.clone();
+    }
 
-        return dest2.toArray(new AbstractDestination[0]);
+    private synchronized AbstractDestination[] sortDestinations() {
+        if (sortedDestinations == null) {
+            List<AbstractHTTPDestination> dest2 = new ArrayList<>(getDestinations());
+            dest2.sort(new Comparator<AbstractHTTPDestination>() {
+                public int compare(AbstractHTTPDestination o1, AbstractHTTPDestination o2) {
+                    InterfaceInfo i1 = o1.getEndpointInfo().getInterface();
+                    InterfaceInfo i2 = o2.getEndpointInfo().getInterface();
+                    if (i1 == null && i2 == null) {
+                        return 0;
+                    } else if (i1 == null) {
+                        return -1;
+                    } else if (i2 == null) {
+                        return 1;
+                    } else {
+                        return i1.getName().getLocalPart()
+                                   .compareTo(
+                                       i2.getName().getLocalPart());
+                    }
+                }
+            });
+            sortedDestinations = dest2.toArray(new AbstractDestination[0]);
+        }
+        return sortedDestinations;
     }
 
     public Set<String> getDestinationsPaths() {
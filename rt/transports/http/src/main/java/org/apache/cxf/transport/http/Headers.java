@@ -83,7 +83,7 @@ public class Headers {
         this.headers = getSetProtocolHeaders(message);
     }
     public Headers() {
-        this.headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        this.headers = new HttpHeaderMap();
         this.message = null;
     }
 
@@ -266,12 +266,9 @@ public class Headers {
         Map<String, List<String>> headers =
             CastUtils.cast((Map<?, ?>)message.get(Message.PROTOCOL_HEADERS));
         if (null == headers) {
-            headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            headers = new HttpHeaderMap();
         } else if (headers instanceof HashMap) {
-            Map<String, List<String>> headers2
-                = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
-            headers2.putAll(headers);
-            headers = headers2;
+            headers = new HttpHeaderMap(headers);
         }
         message.put(Message.PROTOCOL_HEADERS, headers);
         return headers;
@@ -521,6 +518,9 @@ public class Headers {
                         response.addHeader(header, headerObjectToString(headerObject));
                     }
                 }
+            } else if (headerList.size() == 1) {
+                Object headerObject = headerList.get(0);
+                response.setHeader(header, headerObject != null ? headerObjectToString(headerObject) : "");
             } else {
                 StringBuilder sb = new StringBuilder();
                 for (int i = 0; i < headerList.size(); i++) {
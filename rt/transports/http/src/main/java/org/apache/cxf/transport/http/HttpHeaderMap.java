@@ -0,0 +1,358 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.apache.cxf.helpers.HttpHeaderHelper;
+
+/**
+ * A case-insensitive map of the HTTP headers, used for the Message.PROTOCOL_HEADERS.
+ * The header names are hashed with their ASCII case folded, so lookups neither compare
+ * the names lexically nor allocate. Like the TreeMap with String.CASE_INSENSITIVE_ORDER it
+ * replaces, it keeps the spelling of the first name put for a header and iterates the
+ * headers in the case-insensitive order of their names.
+ */
+public class HttpHeaderMap extends AbstractMap<String, List<String>> {
+    private static final String[] COMMON_NAMES = {
+        HttpHeaderHelper.ACCEPT_ENCODING, HttpHeaderHelper.CONTENT_TYPE, HttpHeaderHelper.CONTENT_ID,
+        HttpHeaderHelper.CONTENT_ENCODING, HttpHeaderHelper.CONTENT_LENGTH,
+        HttpHeaderHelper.CONTENT_TRANSFER_ENCODING, HttpHeaderHelper.COOKIE, HttpHeaderHelper.TRANSFER_ENCODING,
+        HttpHeaderHelper.CONNECTION, HttpHeaderHelper.AUTHORIZATION, "Accept", "SOAPAction", "Host",
+        "User-Agent", "Set-Cookie", "Location", "Cache-Control", "Accept-Language", "Content-Language"
+    };
+    private static final int[] COMMON_HASHES = new int[COMMON_NAMES.length];
+    private static final Comparator<String> NAME_ORDER =
+        Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER);
+    private static final int INITIAL_CAPACITY = 8;
+
+    static {
+        for (int i = 0; i < COMMON_NAMES.length; i++) {
+            COMMON_HASHES[i] = computeHash(COMMON_NAMES[i]);
+        }
+    }
+
+    private HeaderEntry[] entries = new HeaderEntry[INITIAL_CAPACITY];
+    // positions of the entries + 1 by hash, using linear probing, 0 marks a free slot
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+    // the entries are kept in the NAME_ORDER of their keys, so iterating never reorders them
+    private int size;
+    private int modCount;
+    private Set<Map.Entry<String, List<String>>> entrySet;
+
+    public HttpHeaderMap() {
+    }
+
+    public HttpHeaderMap(Map<String, List<String>> headers) {
+        putAll(headers);
+    }
+
+    static int hash(String name) {
+        if (name == null) {
+            return 0;
+        }
+        // the names used in the code are usually the interned constants
+        for (int i = 0; i < COMMON_NAMES.length; i++) {
+            if (COMMON_NAMES[i] == name) {
+                return COMMON_HASHES[i];
+            }
+        }
+        return computeHash(name);
+    }
+
+    private static int computeHash(String name) {
+        int h = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            } else if (c >= 0x80) {
+                c = Character.toLowerCase(Character.toUpperCase(c));
+            }
+            h = 31 * h + c;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the first value of the header, or null.
+     */
+    public String getFirst(String name) {
+        int idx = find(name, hash(name));
+        if (idx < 0) {
+            return null;
+        }
+        List<String> values = entries[idx].value;
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return (key == null || key instanceof String) && find((String)key, hash((String)key)) >= 0;
+    }
+
+    @Override
+    public List<String> get(Object key) {
+        if (key != null && !(key instanceof String)) {
+            return null;
+        }
+        int idx = find((String)key, hash((String)key));
+        return idx < 0 ? null : entries[idx].value;
+    }
+
+    @Override
+    public List<String> put(String key, List<String> value) {
+        int h = hash(key);
+        int idx = find(key, h);
+        if (idx >= 0) {
+            return entries[idx].setValue(value);
+        }
+        addEntry(new HeaderEntry(key, h, value));
+        return null;
+    }
+
+    @Override
+    public List<String> remove(Object key) {
+        if (key != null && !(key instanceof String)) {
+            return null;
+        }
+        int idx = find((String)key, hash((String)key));
+        if (idx < 0) {
+            return null;
+        }
+        List<String> old = entries[idx].value;
+        removeEntry(idx);
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(entries, 0, size, null);
+            Arrays.fill(table, 0);
+            size = 0;
+            modCount++;
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<String, List<String>>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private int find(String name, int h) {
+        int mask = table.length - 1;
+        for (int slot = h & mask;; slot = (slot + 1) & mask) {
+            int pos = table[slot];
+            if (pos == 0) {
+                return -1;
+            }
+            HeaderEntry e = entries[pos - 1];
+            if (e.hash == h && (name == null ? e.key == null : name.equalsIgnoreCase(e.key))) {
+                return pos - 1;
+            }
+        }
+    }
+
+    private void addEntry(HeaderEntry entry) {
+        if (size == entries.length) {
+            entries = Arrays.copyOf(entries, size * 2);
+            table = new int[entries.length * 2];
+            rebuildTable();
+        }
+        int idx = insertionPoint(entry.key);
+        if (idx == size) {
+            // headers usually arrive in order, appending leaves the other positions as they are
+            entries[size++] = entry;
+            insertIntoTable(entry.hash, size);
+        } else {
+            System.arraycopy(entries, idx, entries, idx + 1, size - idx);
+            entries[idx] = entry;
+            size++;
+            rebuildTable();
+        }
+        modCount++;
+    }
+
+    private int insertionPoint(String key) {
+        if (size == 0 || NAME_ORDER.compare(entries[size - 1].key, key) < 0) {
+            return size;
+        }
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (NAME_ORDER.compare(entries[mid].key, key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private void removeEntry(int idx) {
+        System.arraycopy(entries, idx + 1, entries, idx, size - idx - 1);
+        entries[--size] = null;
+        rebuildTable();
+        modCount++;
+    }
+
+    private void rebuildTable() {
+        Arrays.fill(table, 0);
+        for (int i = 0; i < size; i++) {
+            insertIntoTable(entries[i].hash, i + 1);
+        }
+    }
+
+    private void insertIntoTable(int h, int pos) {
+        int mask = table.length - 1;
+        int slot = h & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = pos;
+    }
+
+    private final class HeaderEntry implements Map.Entry<String, List<String>> {
+        final String key;
+        final int hash;
+        List<String> value;
+
+        HeaderEntry(String key, int hash, List<String> value) {
+            this.key = key;
+            this.hash = hash;
+            this.value = value;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public List<String> getValue() {
+            return value;
+        }
+
+        @Override
+        public List<String> setValue(List<String> newValue) {
+            List<String> old = value;
+            value = newValue;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>)o;
+            return (key == null ? e.getKey() == null : key.equals(e.getKey()))
+                && (value == null ? e.getValue() == null : value.equals(e.getValue()));
+        }
+
+        @Override
+        public int hashCode() {
+            return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, List<String>>> {
+        @Override
+        public Iterator<Map.Entry<String, List<String>>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            HttpHeaderMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, List<String>>> {
+        private int next;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Map.Entry<String, List<String>> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return entries[last];
+        }
+
+        @Override
+        public void remove() {
+            if (last < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeEntry(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+}
@@ -35,6 +35,7 @@ import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -125,6 +126,84 @@ public class DestinationRegistryImplTest {
 
     }
 
+    @Test
+    public void testCheckRestfulRequestLongestMatch() throws Exception {
+        // the lookups must give the same result as scanning all the paths, whatever the number of endpoints
+        for (int count : new int[] {1, 100, 1000}) {
+            DestinationRegistry reg = new DestinationRegistryImpl();
+            for (int i = 0; i < count; i++) {
+                addDestination(reg, "/service" + i);
+                if (i % 3 == 0) {
+                    addDestination(reg, "/service" + i + "/nested/");
+                }
+                if (i % 10 == 0) {
+                    addDestination(reg, "/api/v" + (i % 7) + "/res" + i);
+                }
+            }
+
+            String[] addresses = {"/", "/service", "/service0", "/service0/", "/service0/nested",
+                "/service0/nested/", "/service0/nested/x", "/service0/nestedx", "/service1x",
+                "/service" + (count - 1) + "/a/b", "/service" + count, "/api", "/api/v0/res0",
+                "/api/v0/res0/1", "/api/v1/res10", "/api/v3/res10", "http://localhost/service0", ""};
+            for (String address : addresses) {
+                assertSame(address, findLongestMatch(reg, address), reg.checkRestfulRequest(address));
+            }
+            for (int i = 0; i < count; i++) {
+                String address = "/service" + i + "/nested/path";
+                assertSame(address, findLongestMatch(reg, address), reg.checkRestfulRequest(address));
+            }
+        }
+    }
+
+    @Test
+    public void testCheckRestfulRequestRootAndRemove() throws Exception {
+        AbstractHTTPDestination root = addDestination(registry, "/");
+        AbstractHTTPDestination soap = addDestination(registry, "/soap");
+
+        assertSame(root, registry.checkRestfulRequest("/other"));
+        assertSame(root, registry.checkRestfulRequest("other"));
+        assertSame(soap, registry.checkRestfulRequest("/soap/1"));
+        assertEquals(2, registry.getSortedDestinations().length);
+
+        registry.removeDestination("/soap");
+        assertSame(root, registry.checkRestfulRequest("/soap/1"));
+        assertEquals(1, registry.getSortedDestinations().length);
+        registry.removeDestination("/");
+        assertNull(registry.checkRestfulRequest("/soap/1"));
+        assertEquals(0, registry.getSortedDestinations().length);
+    }
+
+    private AbstractHTTPDestination addDestination(DestinationRegistry reg, String path) {
+        AbstractHTTPDestination destination = EasyMock.createNiceMock(AbstractHTTPDestination.class);
+        EndpointInfo endpoint = new EndpointInfo();
+        endpoint.setAddress(path);
+        endpoint.setName(QNAME);
+        EasyMock.expect(destination.getEndpointInfo()).andReturn(endpoint).anyTimes();
+        EasyMock.expect(destination.getMessageObserver()).andReturn(observer).anyTimes();
+        EasyMock.replay(destination);
+        reg.addDestination(destination);
+        return destination;
+    }
+
+    // the straightforward scan of all the registered paths
+    private static AbstractHTTPDestination findLongestMatch(DestinationRegistry reg, String address) {
+        int len = -1;
+        AbstractHTTPDestination ret = null;
+        for (String path : reg.getDestinationsPaths()) {
+            String thePath = path.length() > 1 && path.endsWith("/")
+                ? path.substring(0, path.length() - 1) : path;
+            if ((address.equals(thePath)
+                || "/".equals(thePath)
+                || (address.length() > thePath.length()
+                    && address.startsWith(thePath) && address.charAt(thePath.length()) == '/'))
+                && thePath.length() > len) {
+                ret = reg.getDestinationForPath(path);
+                len = thePath.length();
+            }
+        }
+        return ret;
+    }
+
     private void setUpDestinations() {
         for (int i = 0; i < REGISTERED_PATHS.length; i++) {
             AbstractHTTPDestination destination = control.createMock(AbstractHTTPDestination.class);
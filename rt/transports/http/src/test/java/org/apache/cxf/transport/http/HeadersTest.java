@@ -167,6 +167,34 @@ public class HeadersTest {
 
         Headers.logProtocolHeaders(logger, Level.INFO, headerMap, false);
     }
+    @Test
+    public void requestHeadersCopiedTest() throws Exception {
+        IMocksControl control = EasyMock.createControl();
+        HttpServletRequest req = control.createMock(HttpServletRequest.class);
+        EasyMock.expect(req.getHeaderNames())
+            .andReturn(Collections.enumeration(Arrays.asList("Accept", "X-Other", "content-type")));
+        EasyMock.expect(req.getHeaders("Accept"))
+            .andReturn(Collections.enumeration(Arrays.asList("text/xml", "application/json")));
+        EasyMock.expect(req.getHeaders("X-Other"))
+            .andReturn(Collections.enumeration(Arrays.asList("value")));
+        EasyMock.expect(req.getHeaders("content-type"))
+            .andReturn(Collections.enumeration(Arrays.asList("text/xml")));
+        control.replay();
+
+        Message message = new MessageImpl();
+        Headers headers = new Headers(message);
+        headers.copyFromRequest(req);
+        // all the values are copied, the request may be recycled once the message is dispatched
+        control.verify();
+
+        Map<String, List<String>> protocolHeaders = headers.headerMap();
+        assertTrue(protocolHeaders instanceof HttpHeaderMap);
+        assertEquals(3, protocolHeaders.size());
+        assertEquals(Arrays.asList("value"), protocolHeaders.get("x-other"));
+        assertEquals(Arrays.asList("text/xml, application/json", "application/json"),
+                     protocolHeaders.get("ACCEPT"));
+        assertEquals("text/xml", ((HttpHeaderMap)protocolHeaders).getFirst(Message.CONTENT_TYPE));
+    }
 
     @Test
     public void nullContentTypeTest() {
@@ -0,0 +1,118 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.http;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HttpHeaderMapTest {
+
+    @Test
+    public void testCaseInsensitiveLookup() {
+        Map<String, List<String>> headers = new HttpHeaderMap();
+        headers.put("Content-Type", Collections.singletonList("text/xml"));
+        headers.put("x-custom-\u00e9", Collections.singletonList("1"));
+
+        assertEquals("text/xml", headers.get("content-type").get(0));
+        assertEquals("text/xml", headers.get("CONTENT-TYPE").get(0));
+        assertEquals("1", headers.get("X-CUSTOM-\u00c9").get(0));
+        assertTrue(headers.containsKey("Content-type"));
+        assertFalse(headers.containsKey("Content-Length"));
+        assertNull(headers.get(Integer.valueOf(1)));
+
+        // the spelling of the first name is kept
+        headers.put("CONTENT-TYPE", Collections.singletonList("application/json"));
+        assertEquals(2, headers.size());
+        assertTrue(headers.keySet().contains("Content-Type"));
+        assertEquals("application/json", headers.get("Content-Type").get(0));
+
+        assertEquals("application/json", headers.remove("content-TYPE").get(0));
+        assertEquals(1, headers.size());
+        assertNull(headers.get("Content-Type"));
+    }
+
+    @Test
+    public void testSameContentAsTreeMap() {
+        Map<String, List<String>> headers = new HttpHeaderMap();
+        Map<String, List<String>> expected = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < 100; i++) {
+            String name = (i % 2 == 0 ? "X-Header-" : "x-header-") + (i * 7919 % 50);
+            List<String> value = Collections.singletonList(Integer.toString(i));
+            assertEquals(expected.put(name, value), headers.put(name, value));
+        }
+        for (int i = 0; i < 50; i += 3) {
+            assertEquals(expected.remove("X-HEADER-" + i), headers.remove("x-HEADER-" + i));
+        }
+        assertEquals(expected, headers);
+        // iterated in the same order as the TreeMap
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(headers.keySet()));
+        assertEquals(expected.toString(), headers.toString());
+
+        for (Iterator<String> it = headers.keySet().iterator(); it.hasNext();) {
+            if (it.next().endsWith("1")) {
+                it.remove();
+            }
+        }
+        expected.keySet().removeIf(k -> k.endsWith("1"));
+        assertEquals(expected, headers);
+        for (String name : expected.keySet()) {
+            assertEquals(expected.get(name), headers.get(name.toUpperCase()));
+        }
+
+        headers.clear();
+        assertTrue(headers.isEmpty());
+        assertNull(headers.get("X-Header-0"));
+    }
+
+    @Test
+    public void testOrderedOnInsert() {
+        Map<String, List<String>> headers = new HttpHeaderMap();
+        String[] names = {"Via", "accept", "Host", "Content-Length", "x-b", "X-A", "Age"};
+        for (String name : names) {
+            headers.put(name, Collections.singletonList(name));
+        }
+        for (String name : names) {
+            assertEquals(name, headers.get(name.toLowerCase()).get(0));
+        }
+
+        // iterating reads the map only, so interleaved iterators see the same order
+        List<String> expected = new ArrayList<>(names.length);
+        Collections.addAll(expected, "accept", "Age", "Content-Length", "Host", "Via", "X-A", "x-b");
+        Iterator<String> it1 = headers.keySet().iterator();
+        Iterator<String> it2 = headers.keySet().iterator();
+        for (String name : expected) {
+            assertEquals(name, it1.next());
+            assertEquals(name, it2.next());
+        }
+        assertFalse(it1.hasNext());
+        assertFalse(it2.hasNext());
+    }
+}
@@ -22,8 +22,6 @@ package org.apache.cxf.transport.local;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
 import java.util.concurrent.Executor;
 import java.util.logging.Logger;
 
@@ -101,9 +99,9 @@ public class LocalDestination extends AbstractDestination {
                 final MessageImpl m = new MessageImpl();
                 localDestinationFactory.copy(message, m);
                 if (!empty) {
-                    final PipedInputStream stream = new PipedInputStream();
-                    wrappedStream = new PipedOutputStream(stream);
-                    m.setContent(InputStream.class, stream);
+                    final LocalPipe pipe = new LocalPipe();
+                    wrappedStream = pipe.getOutputStream();
+                    m.setContent(InputStream.class, pipe.getInputStream());
                 }
 
                 final Runnable receiver = new Runnable() {
@@ -118,16 +116,7 @@ public class LocalDestination extends AbstractDestination {
                     ? message.getExchange().get(Executor.class) : null;
                 // Need to avoid to get the SynchronousExecutor
                 if (ex == null || SynchronousExecutor.isA(ex)) {
-                    if (exchange == null) {
-                        ex = localDestinationFactory.getExecutor(bus);
-                    } else {
-                        ex = localDestinationFactory.getExecutor(exchange.getBus());
-                    }
-                    if (ex != null) {
-                        ex.execute(receiver);
-                    } else {
-                        new Thread(receiver).start();
-                    }
+                    localDestinationFactory.dispatch(receiver, exchange == null ? bus : exchange.getBus());
                 } else {
                     ex.execute(receiver);
                 }
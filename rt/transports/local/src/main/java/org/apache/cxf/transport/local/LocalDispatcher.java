@@ -0,0 +1,92 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.local;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands the local transport's receiver tasks to an executor, running up to
+ * <code>batchSize</code> queued tasks one after the other in a single executor task. Tasks are
+ * queued on a lock-free multi-producer queue; a new executor task is only submitted when
+ * there is no drainer waiting to pick up the next queued task. As a dispatched message may
+ * block (reading a body which is still being written, or invoking another local service),
+ * a drainer always makes sure the tasks queued behind the one it is about to run have a
+ * drainer of their own, so batching never delays a task behind a blocked one.
+ */
+final class LocalDispatcher {
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingDrainers = new AtomicInteger();
+    private final Executor executor;
+    private final int batchSize;
+
+    LocalDispatcher(Executor executor, int batchSize) {
+        this.executor = executor;
+        this.batchSize = batchSize;
+    }
+
+    Executor getExecutor() {
+        return executor;
+    }
+
+    void dispatch(Runnable task) {
+        tasks.offer(task);
+        if (pendingDrainers.get() == 0 && pendingDrainers.compareAndSet(0, 1)) {
+            submitDrainer();
+        }
+    }
+
+    private void submitDrainer() {
+        try {
+            executor.execute(this::drain);
+        } catch (RuntimeException ex) {
+            pendingDrainers.decrementAndGet();
+            throw ex;
+        }
+    }
+
+    private void drain() {
+        int count = 0;
+        while (true) {
+            Runnable task = tasks.poll();
+            pendingDrainers.decrementAndGet();
+            if (task == null) {
+                if (!tasks.isEmpty() && pendingDrainers.compareAndSet(0, 1)) {
+                    continue;
+                }
+                return;
+            }
+            if (!tasks.isEmpty() && pendingDrainers.compareAndSet(0, 1)) {
+                submitDrainer();
+            }
+            task.run();
+            if (++count >= batchSize || !pendingDrainers.compareAndSet(0, 1)) {
+                // another drainer is already waiting to pick up the next task
+                if (!tasks.isEmpty() && pendingDrainers.compareAndSet(0, 1)) {
+                    submitDrainer();
+                }
+                return;
+            }
+        }
+    }
+}
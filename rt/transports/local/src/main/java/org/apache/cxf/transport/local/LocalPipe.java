@@ -0,0 +1,272 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.local;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A single producer/single consumer pipe used to hand message bodies from the sending to the
+ * receiving side of the local transport. The writer fills pooled byte segments and publishes
+ * them on a lock-free queue when they are full, flushed or the stream is closed; the reader
+ * consumes them in order and returns them to the pool. Threads only park when the pipe is
+ * empty (reader) or has {@link #MAX_SEGMENTS_IN_FLIGHT} unread segments (writer), unlike
+ * {@link java.io.PipedInputStream} which synchronizes on every byte array and polls
+ * with one second waits.
+ */
+final class LocalPipe {
+
+    static final int SEGMENT_SIZE = 8192;
+    static final int MAX_SEGMENTS_IN_FLIGHT = 32;
+
+    private static final int MAX_POOLED_SEGMENTS = 256;
+    private static final long PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final Queue<byte[]> SEGMENT_POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOLED_SEGMENTS = new AtomicInteger();
+
+    private final Queue<Segment> segments = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final PipeInputStream inputStream = new PipeInputStream();
+    private final PipeOutputStream outputStream = new PipeOutputStream();
+    private volatile Thread readSide;
+    private volatile Thread writeSide;
+    private volatile Thread parkedReader;
+    private volatile Thread parkedWriter;
+    private volatile boolean writerClosed;
+    private volatile boolean readerClosed;
+
+    InputStream getInputStream() {
+        return inputStream;
+    }
+
+    OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    private static byte[] acquireSegment() {
+        byte[] data = SEGMENT_POOL.poll();
+        if (data == null) {
+            return new byte[SEGMENT_SIZE];
+        }
+        POOLED_SEGMENTS.decrementAndGet();
+        return data;
+    }
+
+    private static void releaseSegment(byte[] data) {
+        if (POOLED_SEGMENTS.incrementAndGet() > MAX_POOLED_SEGMENTS) {
+            POOLED_SEGMENTS.decrementAndGet();
+        } else {
+            SEGMENT_POOL.offer(data);
+        }
+    }
+
+    private static void park(Object blocker) throws InterruptedIOException {
+        LockSupport.parkNanos(blocker, PARK_NANOS);
+        if (Thread.interrupted()) {
+            throw new InterruptedIOException();
+        }
+    }
+
+    private static final class Segment {
+        final byte[] data;
+        final int length;
+
+        Segment(byte[] data, int length) {
+            this.data = data;
+            this.length = length;
+        }
+    }
+
+    private final class PipeOutputStream extends OutputStream {
+        private byte[] current;
+        private int count;
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte)b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (writerClosed || readerClosed) {
+                throw new IOException("Pipe closed");
+            }
+            writeSide = Thread.currentThread();
+            int offset = off;
+            int remaining = len;
+            while (remaining > 0) {
+                if (current == null) {
+                    current = acquireSegment();
+                }
+                int n = Math.min(remaining, current.length - count);
+                System.arraycopy(b, offset, current, count, n);
+                count += n;
+                offset += n;
+                remaining -= n;
+                if (count == current.length) {
+                    publish();
+                }
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            publish();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writerClosed) {
+                return;
+            }
+            try {
+                if (!readerClosed) {
+                    publish();
+                }
+            } finally {
+                writerClosed = true;
+                if (current != null) {
+                    releaseSegment(current);
+                    current = null;
+                }
+                LockSupport.unpark(parkedReader);
+            }
+        }
+
+        private void publish() throws IOException {
+            if (count == 0) {
+                return;
+            }
+            while (inFlight.get() >= MAX_SEGMENTS_IN_FLIGHT) {
+                checkReader();
+                parkedWriter = Thread.currentThread();
+                if (inFlight.get() >= MAX_SEGMENTS_IN_FLIGHT && !readerClosed) {
+                    park(LocalPipe.this);
+                }
+                parkedWriter = null;
+            }
+            checkReader();
+            inFlight.incrementAndGet();
+            segments.offer(new Segment(current, count));
+            current = null;
+            count = 0;
+            LockSupport.unpark(parkedReader);
+        }
+
+        private void checkReader() throws IOException {
+            if (readerClosed) {
+                throw new IOException("Pipe closed");
+            }
+            Thread reader = readSide;
+            if (reader != null && !reader.isAlive()) {
+                throw new IOException("Read end dead");
+            }
+        }
+    }
+
+    private final class PipeInputStream extends InputStream {
+        private Segment current;
+        private int pos;
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (readerClosed) {
+                throw new IOException("Pipe closed");
+            }
+            if (len == 0) {
+                return 0;
+            }
+            readSide = Thread.currentThread();
+            if (current == null && !nextSegment()) {
+                return -1;
+            }
+            int n = Math.min(len, current.length - pos);
+            System.arraycopy(current.data, pos, b, off, n);
+            pos += n;
+            if (pos == current.length) {
+                releaseCurrent();
+            }
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return current == null ? 0 : current.length - pos;
+        }
+
+        @Override
+        public void close() throws IOException {
+            readerClosed = true;
+            if (current != null) {
+                releaseCurrent();
+            }
+            for (Segment s = segments.poll(); s != null; s = segments.poll()) {
+                inFlight.decrementAndGet();
+                releaseSegment(s.data);
+            }
+            LockSupport.unpark(parkedWriter);
+        }
+
+        private boolean nextSegment() throws IOException {
+            while (true) {
+                current = segments.poll();
+                if (current != null) {
+                    pos = 0;
+                    return true;
+                }
+                if (writerClosed) {
+                    // the writer publishes before it closes
+                    current = segments.poll();
+                    pos = 0;
+                    return current != null;
+                }
+                Thread writer = writeSide;
+                if (writer != null && !writer.isAlive()) {
+                    throw new IOException("Write end dead");
+                }
+                parkedReader = Thread.currentThread();
+                if (segments.isEmpty() && !writerClosed) {
+                    park(LocalPipe.this);
+                }
+                parkedReader = null;
+            }
+        }
+
+        private void releaseCurrent() {
+            releaseSegment(current.data);
+            current = null;
+            inFlight.decrementAndGet();
+            LockSupport.unpark(parkedWriter);
+        }
+    }
+}
@@ -69,6 +69,8 @@ public class LocalTransportFactory extends AbstractTransportFactory
     private Set<String> messageIncludeProperties = new HashSet<>();
     private Set<String> uriPrefixes = new HashSet<>(URI_PREFIXES);
     private volatile Executor executor;
+    private volatile LocalDispatcher dispatcher;
+    private int dispatchBatchSize = 1;
 
     public LocalTransportFactory() {
         super(DEFAULT_NAMESPACES);
@@ -141,6 +143,37 @@ public class LocalTransportFactory extends AbstractTransportFactory
         this.executor = executor;
     }
 
+    public int getDispatchBatchSize() {
+        return dispatchBatchSize;
+    }
+
+    /**
+     * Sets the number of queued messages that may be processed one after the other
+     * in a single task of the executor. Defaults to 1, submitting a task per message.
+     */
+    public void setDispatchBatchSize(int dispatchBatchSize) {
+        this.dispatchBatchSize = dispatchBatchSize;
+    }
+
+    /**
+     * Runs the receiving side of a local exchange on the executor for the given bus.
+     */
+    void dispatch(Runnable receiver, Bus bus) {
+        Executor ex = getExecutor(bus);
+        if (ex == null) {
+            new Thread(receiver).start();
+        } else if (dispatchBatchSize > 1) {
+            LocalDispatcher d = dispatcher;
+            if (d == null || d.getExecutor() != ex) {
+                d = new LocalDispatcher(ex, dispatchBatchSize);
+                dispatcher = d;
+            }
+            d.dispatch(receiver);
+        } else {
+            ex.execute(receiver);
+        }
+    }
+
     public Conduit getConduit(EndpointInfo ei, Bus bus) throws IOException {
         return new LocalConduit(this, getDestination(ei, bus));
     }
@@ -0,0 +1,83 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.local;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LocalDispatcherTest {
+
+    @Test
+    public void testBlockedTaskDoesNotDelayQueuedTasks() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            LocalDispatcher dispatcher = new LocalDispatcher(executor, 16);
+            final CountDownLatch released = new CountDownLatch(1);
+            final CountDownLatch done = new CountDownLatch(2);
+            dispatcher.dispatch(() -> {
+                try {
+                    // like a service calling another local service, waits for the next task
+                    if (released.await(10, TimeUnit.SECONDS)) {
+                        done.countDown();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            dispatcher.dispatch(() -> {
+                released.countDown();
+                done.countDown();
+            });
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testAllTasksRun() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        final AtomicInteger submitted = new AtomicInteger();
+        try {
+            LocalDispatcher dispatcher = new LocalDispatcher(r -> {
+                submitted.incrementAndGet();
+                executor.execute(r);
+            }, 16);
+            int tasks = 10000;
+            final CountDownLatch done = new CountDownLatch(tasks);
+            for (int i = 0; i < tasks; i++) {
+                dispatcher.dispatch(done::countDown);
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+            assertTrue(submitted.get() <= tasks);
+            assertEquals(0, done.getCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
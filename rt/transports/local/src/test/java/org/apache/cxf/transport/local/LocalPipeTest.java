@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.local;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cxf.helpers.IOUtils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LocalPipeTest {
+
+    @Test
+    public void testTransferBetweenThreads() throws Exception {
+        // more than fits in the segments allowed in flight, so the writer has to wait
+        final byte[] data = new byte[LocalPipe.SEGMENT_SIZE * LocalPipe.MAX_SEGMENTS_IN_FLIGHT * 3 + 17];
+        new Random(7).nextBytes(data);
+        LocalPipe pipe = new LocalPipe();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final OutputStream out = pipe.getOutputStream();
+            Future<?> writer = executor.submit(() -> {
+                int off = 0;
+                int chunk = 1;
+                while (off < data.length) {
+                    int len = Math.min(chunk, data.length - off);
+                    out.write(data, off, len);
+                    off += len;
+                    chunk = chunk * 3 % 20011 + 1;
+                    if (chunk % 5 == 0) {
+                        out.flush();
+                    }
+                }
+                out.close();
+                return null;
+            });
+            ByteArrayOutputStream result = new ByteArrayOutputStream();
+            try (InputStream in = pipe.getInputStream()) {
+                IOUtils.copy(in, result, 1000);
+            }
+            writer.get(10, TimeUnit.SECONDS);
+            assertArrayEquals(data, result.toByteArray());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testEmptyBody() throws Exception {
+        LocalPipe pipe = new LocalPipe();
+        pipe.getOutputStream().close();
+        assertEquals(-1, pipe.getInputStream().read());
+    }
+
+    @Test
+    public void testReaderWaitsForFlush() throws Exception {
+        final LocalPipe pipe = new LocalPipe();
+        final CountDownLatch read = new CountDownLatch(1);
+        Thread reader = new Thread(() -> {
+            try {
+                if (pipe.getInputStream().read() == 'a') {
+                    read.countDown();
+                }
+            } catch (IOException e) {
+                // the test fails on the latch
+            }
+        });
+        reader.start();
+        pipe.getOutputStream().write('a');
+        assertEquals(1, read.getCount());
+        pipe.getOutputStream().flush();
+        assertTrue(read.await(10, TimeUnit.SECONDS));
+        reader.join();
+    }
+
+    @Test
+    public void testWriteAfterReaderClosed() throws Exception {
+        LocalPipe pipe = new LocalPipe();
+        pipe.getOutputStream().write(new byte[100]);
+        pipe.getInputStream().close();
+        try {
+            pipe.getOutputStream().write(new byte[100]);
+            fail("Expected IOException");
+        } catch (IOException e) {
+            assertEquals("Pipe closed", e.getMessage());
+        }
+    }
+}
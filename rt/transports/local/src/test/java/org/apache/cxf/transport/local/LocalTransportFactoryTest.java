@@ -53,10 +53,23 @@ public class LocalTransportFactoryTest {
         testInvocation(true);
     }
 
+    @Test
+    public void testLocalTransportWithBatchedDispatch() throws Exception {
+        LocalTransportFactory factory = new LocalTransportFactory();
+        factory.setDispatchBatchSize(8);
+        // large enough to need several pipe segments
+        testInvocation(factory, false, 20000);
+        testInvocation(factory, false, 20000);
+    }
+
     private void testInvocation(boolean isDirectDispatch) throws Exception {
+        testInvocation(new LocalTransportFactory(), isDirectDispatch, 1000);
+    }
+
+    private void testInvocation(LocalTransportFactory factory, boolean isDirectDispatch, int count)
+        throws Exception {
         // Need to create a DefaultBus
         Bus bus = BusFactory.getDefaultBus();
-        LocalTransportFactory factory = new LocalTransportFactory();
 
         EndpointInfo ei = new EndpointInfo(null, "http://schemas.xmlsoap.org/soap/http");
         ei.setAddress("http://localhost/test");
@@ -82,7 +95,7 @@ public class LocalTransportFactoryTest {
         OutputStream out = m.getContent(OutputStream.class);
 
         StringBuilder builder = new StringBuilder();
-        for (int x = 0; x < 1000; x++) {
+        for (int x = 0; x < count; x++) {
             builder.append("hello");
         }
         out.write(builder.toString().getBytes());
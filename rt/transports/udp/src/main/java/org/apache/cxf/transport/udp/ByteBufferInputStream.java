@@ -0,0 +1,94 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.udp;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Reads a received datagram straight out of the (pooled) buffer it was received into. The
+ * buffer is handed back through the release callback once the stream is closed, or once
+ * it has been read to the end and the receiving side is done with the message.
+ */
+class ByteBufferInputStream extends InputStream {
+    private ByteBuffer buffer;
+    private final Consumer<ByteBuffer> release;
+
+    ByteBufferInputStream(ByteBuffer buffer, Consumer<ByteBuffer> release) {
+        this.buffer = buffer;
+        this.release = release;
+    }
+
+    @Override
+    public int read() {
+        if (buffer == null || !buffer.hasRemaining()) {
+            return -1;
+        }
+        return buffer.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (buffer == null || !buffer.hasRemaining()) {
+            return -1;
+        }
+        int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    @Override
+    public long skip(long n) {
+        if (buffer == null || n <= 0) {
+            return 0;
+        }
+        int skipped = (int)Math.min(n, buffer.remaining());
+        buffer.position(buffer.position() + skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return buffer == null ? 0 : buffer.remaining();
+    }
+
+    @Override
+    public void close() {
+        releaseBuffer();
+    }
+
+    void releaseIfConsumed() {
+        if (buffer != null && !buffer.hasRemaining()) {
+            releaseBuffer();
+        }
+    }
+
+    private void releaseBuffer() {
+        ByteBuffer b = buffer;
+        if (b != null) {
+            buffer = null;
+            release.accept(b);
+        }
+    }
+}
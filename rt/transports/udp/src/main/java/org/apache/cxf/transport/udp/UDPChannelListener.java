@@ -0,0 +1,303 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.udp;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.logging.LogUtils;
+
+/**
+ * Receives datagrams on a non-blocking {@link DatagramChannel} from a selector thread. Up to
+ * <code>batchSize</code> datagrams are received per wake up into pooled direct buffers and
+ * handed to the executor as a single task; if the executor rejects the batch the datagrams
+ * are dropped and counted. Outgoing datagrams are queued and written by the selector thread,
+ * so replies produced by many worker threads go out in batches without contending on the
+ * channel. A datagram which cannot be sent or received is counted as failed and skipped, the
+ * listener only stops once it is stopped or its selector or channel has been closed.
+ */
+final class UDPChannelListener implements Runnable {
+
+    /**
+     * Processes one received datagram. The stream reads directly from the receive buffer.
+     */
+    interface DatagramHandler {
+        void handle(ByteBufferInputStream in, SocketAddress from);
+    }
+
+    private static final Logger LOG = LogUtils.getL7dLogger(UDPChannelListener.class);
+
+    private final DatagramChannel channel;
+    private final Executor executor;
+    private final DatagramHandler handler;
+    private final int batchSize;
+    private final int bufferSize;
+    private final int maxPooledBuffers;
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pooledBuffers = new AtomicInteger();
+    private final Queue<Outbound> sendQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong overflow = new AtomicLong();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final Selector selector;
+    private final SelectionKey key;
+    private volatile boolean running;
+    private Thread thread;
+
+    UDPChannelListener(DatagramChannel channel, Executor executor, DatagramHandler handler,
+                       int batchSize, int bufferSize) throws IOException {
+        this.channel = channel;
+        this.executor = executor;
+        this.handler = handler;
+        this.batchSize = batchSize;
+        this.bufferSize = bufferSize;
+        this.maxPooledBuffers = batchSize * 4 + 64;
+        channel.configureBlocking(false);
+        selector = Selector.open();
+        key = channel.register(selector, SelectionKey.OP_READ);
+    }
+
+    void start() {
+        running = true;
+        thread = new Thread(this, "udp-listener-" + channel.socket().getLocalPort());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        selector.wakeup();
+        try {
+            if (thread != null && thread != Thread.currentThread()) {
+                thread.join(5000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            //ignore
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            //ignore
+        }
+        for (Outbound o = sendQueue.poll(); o != null; o = sendQueue.poll()) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Queues a datagram to be sent by the selector thread.
+     */
+    void send(ByteBuffer data, SocketAddress target) {
+        if (!running) {
+            dropped.incrementAndGet();
+            return;
+        }
+        sendQueue.offer(new Outbound(data, target));
+        selector.wakeup();
+    }
+
+    public void run() {
+        try {
+            while (running && selector.isOpen() && channel.isOpen()) {
+                selector.select();
+                selector.selectedKeys().clear();
+                if (!running) {
+                    break;
+                }
+                flushSends();
+                receive();
+            }
+        } catch (ClosedSelectorException | ClosedChannelException | CancelledKeyException ex) {
+            //stopped
+        } catch (IOException ex) {
+            if (running) {
+                LOG.log(Level.WARNING, "UDP listener on " + channel.socket().getLocalSocketAddress()
+                    + " failed", ex);
+            }
+        }
+    }
+
+    private void flushSends() throws ClosedChannelException {
+        for (Outbound o = sendQueue.peek(); o != null; o = sendQueue.peek()) {
+            try {
+                if (channel.send(o.data, o.target) == 0) {
+                    // the socket buffer is full, continue once the channel is writable again
+                    key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+                    return;
+                }
+                sent.incrementAndGet();
+            } catch (ClosedChannelException ex) {
+                throw ex;
+            } catch (IOException | IllegalArgumentException ex) {
+                // e.g. the target is not reachable or not resolved, the other datagrams may be sent
+                failed.incrementAndGet();
+                LOG.log(Level.FINE, "Could not send datagram to " + o.target, ex);
+            }
+            sendQueue.poll();
+        }
+        key.interestOps(SelectionKey.OP_READ);
+    }
+
+    private void receive() throws ClosedChannelException {
+        List<Received> batch = null;
+        for (int i = 0; i < batchSize; i++) {
+            ByteBuffer buffer = acquireBuffer();
+            SocketAddress from;
+            try {
+                from = channel.receive(buffer);
+            } catch (ClosedChannelException ex) {
+                releaseBuffer(buffer);
+                throw ex;
+            } catch (IOException ex) {
+                failed.incrementAndGet();
+                releaseBuffer(buffer);
+                LOG.log(Level.FINE, "Could not receive datagram", ex);
+                continue;
+            }
+            if (from == null) {
+                releaseBuffer(buffer);
+                break;
+            }
+            received.incrementAndGet();
+            if (!buffer.hasRemaining()) {
+                // filled the whole buffer, the datagram was most likely truncated
+                overflow.incrementAndGet();
+                releaseBuffer(buffer);
+                continue;
+            }
+            buffer.flip();
+            if (batch == null) {
+                batch = new ArrayList<>(batchSize);
+            }
+            batch.add(new Received(buffer, from));
+        }
+        if (batch != null) {
+            dispatch(batch);
+        }
+    }
+
+    private void dispatch(final List<Received> batch) {
+        try {
+            executor.execute(() -> {
+                for (Received r : batch) {
+                    ByteBufferInputStream in = new ByteBufferInputStream(r.data, this::releaseBuffer);
+                    try {
+                        handler.handle(in, r.from);
+                    } catch (RuntimeException ex) {
+                        LOG.log(Level.WARNING, "Could not process datagram from " + r.from, ex);
+                    } finally {
+                        in.releaseIfConsumed();
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            dropped.addAndGet(batch.size());
+            for (Received r : batch) {
+                releaseBuffer(r.data);
+            }
+        }
+    }
+
+    private ByteBuffer acquireBuffer() {
+        ByteBuffer buffer = buffers.poll();
+        if (buffer == null) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        pooledBuffers.decrementAndGet();
+        return buffer;
+    }
+
+    private void releaseBuffer(ByteBuffer buffer) {
+        if (pooledBuffers.incrementAndGet() > maxPooledBuffers) {
+            pooledBuffers.decrementAndGet();
+            return;
+        }
+        buffer.clear();
+        buffers.offer(buffer);
+    }
+
+    long getReceivedDatagrams() {
+        return received.get();
+    }
+
+    long getDroppedDatagrams() {
+        return dropped.get();
+    }
+
+    long getOverflowDatagrams() {
+        return overflow.get();
+    }
+
+    long getSentDatagrams() {
+        return sent.get();
+    }
+
+    long getFailedDatagrams() {
+        return failed.get();
+    }
+
+    int getPooledBuffers() {
+        return pooledBuffers.get();
+    }
+
+    private static final class Received {
+        final ByteBuffer data;
+        final SocketAddress from;
+
+        Received(ByteBuffer data, SocketAddress from) {
+            this.data = data;
+            this.from = from;
+        }
+    }
+
+    private static final class Outbound {
+        final ByteBuffer data;
+        final SocketAddress target;
+
+        Outbound(ByteBuffer data, SocketAddress target) {
+            this.data = data;
+            this.target = target;
+        }
+    }
+}
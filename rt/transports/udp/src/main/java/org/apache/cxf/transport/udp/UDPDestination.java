@@ -19,18 +19,23 @@
 
 package org.apache.cxf.transport.udp;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.net.DatagramPacket;
+import java.net.Inet6Address;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.InterfaceAddress;
-import java.net.MulticastSocket;
 import java.net.NetworkInterface;
+import java.net.ProtocolFamily;
+import java.net.SocketAddress;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
@@ -64,6 +69,16 @@ import org.apache.mina.transport.socket.nio.NioDatagramAcceptor;
  */
 public class UDPDestination extends AbstractDestination {
     public static final String NETWORK_INTERFACE = UDPDestination.class.getName() + ".NETWORK_INTERFACE";
+    /**
+     * For multicast, the maximum number of datagrams received in one go and processed by a
+     * single work queue task.  Defaults to 16.
+     */
+    public static final String RECEIVE_BATCH_SIZE = UDPDestination.class.getName() + ".RECEIVE_BATCH_SIZE";
+    /**
+     * For multicast, the size of the (pooled) receive buffers.  Larger datagrams are dropped
+     * and counted as overflows.  Defaults to 64k.
+     */
+    public static final String RECEIVE_BUFFER_SIZE = UDPDestination.class.getName() + ".RECEIVE_BUFFER_SIZE";
 
     private static final Logger LOG = LogUtils.getL7dLogger(UDPDestination.class);
     private static final AttributeKey KEY_IN = new AttributeKey(StreamIoHandler.class, "in");
@@ -71,49 +86,65 @@ public class UDPDestination extends AbstractDestination {
 
     NioDatagramAcceptor acceptor;
     AutomaticWorkQueue queue;
-    volatile MulticastSocket mcast;
+    volatile UDPChannelListener mcast;
 
     public UDPDestination(Bus b, EndpointReferenceType ref, EndpointInfo ei) {
         super(b, ref, ei);
     }
 
-    class MCastListener implements Runnable {
-        public void run() {
-            while (true) {
-                if (mcast == null) {
-                    return;
-                }
-                try {
-                    byte[] bytes = new byte[64 * 1024];
-                    final DatagramPacket p = new DatagramPacket(bytes, bytes.length);
-                    mcast.receive(p);
-
-                    LoadingByteArrayOutputStream out = new LoadingByteArrayOutputStream() {
-                        public void close() throws IOException {
-                            super.close();
-                            final DatagramPacket p2 = new DatagramPacket(getRawBytes(),
-                                                                         0,
-                                                                         this.size(),
-                                                                         p.getSocketAddress());
-                            mcast.send(p2);
-                        }
-                    };
-
-                    final MessageImpl m = new MessageImpl();
-                    final Exchange exchange = new ExchangeImpl();
-                    exchange.setDestination(UDPDestination.this);
-                    m.setDestination(UDPDestination.this);
-                    exchange.setInMessage(m);
-                    m.setContent(InputStream.class, new ByteArrayInputStream(bytes, 0, p.getLength()));
-                    m.put(OutputStream.class, out);
-                    queue.execute(() -> getMessageObserver().onMessage(m));
-                } catch (IOException ex) {
-                    ex.printStackTrace();
+    class MCastHandler implements UDPChannelListener.DatagramHandler {
+        public void handle(ByteBufferInputStream in, final SocketAddress from) {
+            final UDPChannelListener listener = mcast;
+            LoadingByteArrayOutputStream out = new LoadingByteArrayOutputStream() {
+                public void close() throws IOException {
+                    super.close();
+                    listener.send(ByteBuffer.wrap(getRawBytes(), 0, size()), from);
                 }
-            }
+            };
+
+            final MessageImpl m = new MessageImpl();
+            final Exchange exchange = new ExchangeImpl();
+            exchange.setDestination(UDPDestination.this);
+            m.setDestination(UDPDestination.this);
+            exchange.setInMessage(m);
+            m.setContent(InputStream.class, in);
+            m.put(OutputStream.class, out);
+            getMessageObserver().onMessage(m);
         }
     }
 
+    /**
+     * The number of multicast datagrams received.
+     */
+    public long getReceivedDatagrams() {
+        UDPChannelListener l = mcast;
+        return l == null ? 0 : l.getReceivedDatagrams();
+    }
+
+    /**
+     * The number of multicast datagrams dropped because the work queue was full.
+     */
+    public long getDroppedDatagrams() {
+        UDPChannelListener l = mcast;
+        return l == null ? 0 : l.getDroppedDatagrams();
+    }
+
+    /**
+     * The number of multicast datagrams dropped because they did not fit the receive buffer.
+     */
+    public long getOverflowDatagrams() {
+        UDPChannelListener l = mcast;
+        return l == null ? 0 : l.getOverflowDatagrams();
+    }
+
+    /**
+     * The number of multicast datagrams which could not be sent or received.
+     */
+    public long getFailedDatagrams() {
+        UDPChannelListener l = mcast;
+        return l == null ? 0 : l.getFailedDatagrams();
+    }
+
 
     /** {@inheritDoc}*/
     @Override
@@ -158,18 +189,28 @@ public class UDPDestination extends AbstractDestination {
                 isa = new InetSocketAddress(uri.getHost(), uri.getPort());
             }
             if (isa.getAddress().isMulticastAddress()) {
-                //ouch...
-                MulticastSocket socket = new MulticastSocket(null);
-                socket.setReuseAddress(true);
-                socket.setReceiveBufferSize(64 * 1024);
-                socket.setSendBufferSize(64 * 1024);
-                socket.setTimeToLive(1);
-                socket.setLoopbackMode(false);
-                socket.bind(new InetSocketAddress(isa.getPort()));
-                socket.setNetworkInterface(findNetworkInterface());
-                socket.joinGroup(isa.getAddress());
-                mcast = socket;
-                queue.execute(new MCastListener());
+                NetworkInterface ni = findNetworkInterface(isa.getAddress());
+                if (ni == null) {
+                    throw new SocketException("No multicast capable network interface found");
+                }
+                DatagramChannel channel = DatagramChannel.open(getProtocolFamily(isa.getAddress()));
+                try {
+                    channel.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+                    channel.setOption(StandardSocketOptions.SO_RCVBUF, 1024 * 1024);
+                    channel.setOption(StandardSocketOptions.SO_SNDBUF, 64 * 1024);
+                    channel.setOption(StandardSocketOptions.IP_MULTICAST_TTL, 1);
+                    channel.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+                    channel.setOption(StandardSocketOptions.IP_MULTICAST_IF, ni);
+                    channel.bind(new InetSocketAddress(isa.getPort()));
+                    channel.join(isa.getAddress(), ni);
+                    UDPChannelListener listener = new UDPChannelListener(channel, queue, new MCastHandler(),
+                        getIntProperty(RECEIVE_BATCH_SIZE, 16), getIntProperty(RECEIVE_BUFFER_SIZE, 64 * 1024));
+                    mcast = listener;
+                    listener.start();
+                } catch (IOException | RuntimeException ex) {
+                    channel.close();
+                    throw ex;
+                }
             } else {
 
                 acceptor = new NioDatagramAcceptor();
@@ -188,7 +229,22 @@ public class UDPDestination extends AbstractDestination {
             throw new RuntimeException(ex);
         }
     }
-    private NetworkInterface findNetworkInterface() throws SocketException {
+    private int getIntProperty(String name, int def) {
+        Object o = this.getEndpointInfo().getProperty(name);
+        if (o instanceof Number) {
+            return ((Number)o).intValue();
+        } else if (o instanceof String) {
+            return Integer.parseInt((String)o);
+        }
+        return def;
+    }
+
+    static ProtocolFamily getProtocolFamily(InetAddress address) {
+        // an IPv6 group (such as the WS-Discovery FF02::C) can only be joined by an INET6 channel
+        return address instanceof Inet6Address ? StandardProtocolFamily.INET6 : StandardProtocolFamily.INET;
+    }
+
+    private NetworkInterface findNetworkInterface(InetAddress group) throws SocketException {
         String name = (String)this.getEndpointInfo().getProperty(UDPDestination.NETWORK_INTERFACE);
         NetworkInterface ret = null;
         if (!StringUtils.isEmpty(name)) {
@@ -202,7 +258,8 @@ public class UDPDestination extends AbstractDestination {
                     NetworkInterface ni = ifcs.nextElement();
                     if (ni.supportsMulticast() && ni.isUp()) {
                         for (InterfaceAddress ia : ni.getInterfaceAddresses()) {
-                            if (ia.getAddress() instanceof java.net.Inet4Address && !ia.getAddress().isLoopbackAddress()
+                            if (getProtocolFamily(ia.getAddress()) == getProtocolFamily(group)
+                                    && !ia.getAddress().isLoopbackAddress()
                                     && !ni.getDisplayName().startsWith("vnic")) {
                                 possibles.add(ni);
                             }
@@ -222,7 +279,7 @@ public class UDPDestination extends AbstractDestination {
         }
         acceptor = null;
         if (mcast != null) {
-            mcast.close();
+            mcast.stop();
             mcast = null;
         }
     }
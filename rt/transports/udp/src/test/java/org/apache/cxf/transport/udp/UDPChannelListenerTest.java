@@ -0,0 +1,145 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.transport.udp;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.cxf.helpers.IOUtils;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class UDPChannelListenerTest {
+
+    @Test
+    public void testReceiveAndReply() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        DatagramChannel channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        final UDPChannelListener[] holder = new UDPChannelListener[1];
+        UDPChannelListener listener = new UDPChannelListener(channel, executor, (in, from) -> {
+            try {
+                String s = IOUtils.toString(in);
+                holder[0].send(ByteBuffer.wrap(("echo " + s).getBytes(StandardCharsets.UTF_8)), from);
+            } catch (java.io.IOException e) {
+                throw new RuntimeException(e);
+            }
+        }, 8, 1024);
+        holder[0] = listener;
+        listener.start();
+        try (DatagramSocket socket = new DatagramSocket()) {
+            socket.setSoTimeout(10000);
+            int count = 100;
+            for (int i = 0; i < count; i++) {
+                byte[] b = Integer.toString(i).getBytes(StandardCharsets.UTF_8);
+                socket.send(new DatagramPacket(b, b.length, channel.getLocalAddress()));
+            }
+            Set<String> replies = new HashSet<>();
+            byte[] buf = new byte[1024];
+            while (replies.size() < count) {
+                DatagramPacket p = new DatagramPacket(buf, buf.length);
+                socket.receive(p);
+                replies.add(new String(buf, 0, p.getLength(), StandardCharsets.UTF_8));
+            }
+            for (int i = 0; i < count; i++) {
+                assertTrue(replies.contains("echo " + i));
+            }
+            assertEquals(count, listener.getReceivedDatagrams());
+            assertEquals(count, listener.getSentDatagrams());
+            assertEquals(0, listener.getDroppedDatagrams());
+            // the receive buffers are reused
+            assertTrue(listener.getPooledBuffers() > 0);
+        } finally {
+            listener.stop();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testDropAndOverflowCounters() throws Exception {
+        DatagramChannel channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        // a work queue which is always full
+        UDPChannelListener listener = new UDPChannelListener(channel, r -> {
+            throw new RejectedExecutionException();
+        }, (in, from) -> { }, 8, 16);
+        listener.start();
+        try (DatagramSocket socket = new DatagramSocket()) {
+            byte[] small = new byte[8];
+            byte[] large = new byte[100];
+            socket.send(new DatagramPacket(large, large.length, channel.getLocalAddress()));
+            socket.send(new DatagramPacket(small, small.length, channel.getLocalAddress()));
+            long end = System.currentTimeMillis() + 10000;
+            while ((listener.getReceivedDatagrams() < 2 || listener.getDroppedDatagrams() < 1)
+                && System.currentTimeMillis() < end) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, listener.getReceivedDatagrams());
+            assertEquals(1, listener.getOverflowDatagrams());
+            assertEquals(1, listener.getDroppedDatagrams());
+        } finally {
+            listener.stop();
+        }
+    }
+
+    @Test
+    public void testSendFailureIsSkipped() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        DatagramChannel channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        final UDPChannelListener[] holder = new UDPChannelListener[1];
+        UDPChannelListener listener = new UDPChannelListener(channel, executor, (in, from) -> {
+            // the broadcast is refused without SO_BROADCAST, the unresolved address cannot be sent to
+            holder[0].send(ByteBuffer.wrap(new byte[] {1}), new InetSocketAddress("255.255.255.255", 9));
+            holder[0].send(ByteBuffer.wrap(new byte[] {2}), InetSocketAddress.createUnresolved("unknown.invalid", 9));
+            holder[0].send(ByteBuffer.wrap(new byte[] {3}), from);
+        }, 8, 1024);
+        holder[0] = listener;
+        listener.start();
+        try (DatagramSocket socket = new DatagramSocket()) {
+            socket.setSoTimeout(10000);
+            for (int i = 0; i < 2; i++) {
+                socket.send(new DatagramPacket(new byte[1], 1, channel.getLocalAddress()));
+                DatagramPacket p = new DatagramPacket(new byte[16], 16);
+                // the listener keeps going after the failed sends
+                socket.receive(p);
+                assertEquals(3, p.getData()[0]);
+            }
+            assertEquals(2, listener.getSentDatagrams());
+            assertTrue(listener.getFailedDatagrams() >= 2);
+        } finally {
+            listener.stop();
+            executor.shutdownNow();
+        }
+    }
+}
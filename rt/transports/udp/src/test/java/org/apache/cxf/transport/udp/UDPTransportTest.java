@@ -19,12 +19,19 @@
 
 package org.apache.cxf.transport.udp;
 
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.InterfaceAddress;
 import java.net.NetworkInterface;
+import java.net.StandardProtocolFamily;
+import java.util.Collections;
 import java.util.Enumeration;
 
 import javax.xml.ws.soap.SOAPFaultException;
 
+import org.apache.cxf.endpoint.Client;
 import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.frontend.ClientProxy;
 import org.apache.cxf.helpers.JavaUtils;
 import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
 import org.apache.cxf.jaxws.JaxWsServerFactoryBean;
@@ -44,6 +51,8 @@ import static org.junit.Assert.fail;
  */
 public class UDPTransportTest {
     private static final String PORT = TestUtil.getPortNumber(UDPTransportTest.class);
+    private static final String MCAST_PORT = TestUtil.getPortNumber("UDPTransportTest.mcast");
+    private static final String MCAST6_PORT = TestUtil.getPortNumber("UDPTransportTest.mcast6");
     private static Server server;
 
     static class GreeterImpl implements Greeter {
@@ -125,6 +134,96 @@ public class UDPTransportTest {
         ((java.io.Closeable)g).close();
     }
 
+    @Test
+    public void testMulticastUDP() throws Exception {
+        if (!hasMulticastInterface()) {
+            System.out.println("Skipping multicast test");
+            return;
+        }
+        String address = "udp://239.255.255.250:" + MCAST_PORT;
+        JaxWsServerFactoryBean factory = new JaxWsServerFactoryBean();
+        factory.setAddress(address);
+        factory.setServiceClass(Greeter.class);
+        factory.setServiceBean(new GreeterImpl());
+        Server mcastServer = factory.create();
+        try {
+            JaxWsProxyFactoryBean fact = new JaxWsProxyFactoryBean();
+            fact.setAddress(address);
+            Greeter g = fact.create(Greeter.class);
+            for (int x = 0; x < 3; x++) {
+                assertEquals("Hello World" + x, g.greetMe("World" + x));
+            }
+            ((java.io.Closeable)g).close();
+
+            UDPDestination destination = (UDPDestination)mcastServer.getDestination();
+            assertEquals(3, destination.getReceivedDatagrams());
+            assertEquals(0, destination.getDroppedDatagrams());
+        } finally {
+            mcastServer.destroy();
+        }
+    }
+
+    @Test
+    public void testProtocolFamily() throws Exception {
+        assertEquals(StandardProtocolFamily.INET,
+                     UDPDestination.getProtocolFamily(InetAddress.getByName("239.255.255.250")));
+        assertEquals(StandardProtocolFamily.INET6,
+                     UDPDestination.getProtocolFamily(InetAddress.getByName("FF02::C")));
+    }
+
+    @Test
+    public void testMulticastUDPv6() throws Exception {
+        NetworkInterface ni = findIPv6MulticastInterface();
+        if (ni == null) {
+            System.out.println("Skipping IPv6 multicast test");
+            return;
+        }
+        String address = "udp://[FF02::C]:" + MCAST6_PORT;
+        JaxWsServerFactoryBean factory = new JaxWsServerFactoryBean();
+        factory.setAddress(address);
+        factory.setServiceClass(Greeter.class);
+        factory.setServiceBean(new GreeterImpl());
+        factory.setProperties(Collections.singletonMap(UDPDestination.NETWORK_INTERFACE, ni.getName()));
+        Server mcastServer = factory.create();
+        try {
+            JaxWsProxyFactoryBean fact = new JaxWsProxyFactoryBean();
+            fact.setAddress(address);
+            Greeter g = fact.create(Greeter.class);
+            Client client = ClientProxy.getClient(g);
+            client.getRequestContext().put(UDPConduit.NETWORK_INTERFACE, ni);
+            assertEquals("Hello World", g.greetMe("World"));
+            ((java.io.Closeable)g).close();
+        } finally {
+            mcastServer.destroy();
+        }
+    }
+
+    private static NetworkInterface findIPv6MulticastInterface() throws Exception {
+        Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
+        while (interfaces != null && interfaces.hasMoreElements()) {
+            NetworkInterface ni = interfaces.nextElement();
+            if (ni.isUp() && ni.supportsMulticast() && !ni.isLoopback()) {
+                for (InterfaceAddress ia : ni.getInterfaceAddresses()) {
+                    if (ia.getAddress() instanceof Inet6Address) {
+                        return ni;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean hasMulticastInterface() throws Exception {
+        Enumeration<NetworkInterface> interfaces = NetworkInterface.getNetworkInterfaces();
+        while (interfaces != null && interfaces.hasMoreElements()) {
+            NetworkInterface ni = interfaces.nextElement();
+            if (ni.isUp() && ni.supportsMulticast() && !ni.isLoopback()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Test
     public void testLargeRequest() throws Exception {
         JaxWsProxyFactoryBean fact = new JaxWsProxyFactoryBean();
@@ -26,6 +26,14 @@ public final class WebSocketConstants {
     public static final String DEFAULT_REQUEST_ID_KEY = "requestId";
     public static final String DEFAULT_RESPONSE_ID_KEY = "responseId";
 
+    /**
+     * The maximum number of frames that may be queued for sending on a single websocket
+     * before a writer has to wait for some of them to be written out. A value of 0 or less
+     * disables this limit. It can be set as an endpoint or a bus property.
+     */
+    public static final String MAX_PENDING_WRITES = "org.apache.cxf.transport.websocket.maxPendingWrites";
+    public static final int DEFAULT_MAX_PENDING_WRITES = 64;
+
     private WebSocketConstants() {
     }
 
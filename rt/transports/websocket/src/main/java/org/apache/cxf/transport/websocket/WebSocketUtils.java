@@ -27,6 +27,9 @@ import java.util.Map.Entry;
 import java.util.TreeMap;
 import java.util.regex.Pattern;
 
+import org.apache.cxf.Bus;
+import org.apache.cxf.service.model.EndpointInfo;
+
 /**
  *
  */
@@ -228,6 +231,27 @@ public final class WebSocketUtils {
         return CR_OR_LF.matcher(value).find();
     }
 
+    /**
+     * Returns the maximum number of frames that may be pending to be sent on a websocket,
+     * as configured with {@link WebSocketConstants#MAX_PENDING_WRITES} on the endpoint or the bus.
+     *
+     * @param bus the bus
+     * @param ei the endpoint info
+     * @return the maximum number of pending writes, 0 or less if unlimited
+     */
+    public static int getMaxPendingWrites(Bus bus, EndpointInfo ei) {
+        Object value = ei == null ? null : ei.getProperty(WebSocketConstants.MAX_PENDING_WRITES);
+        if (value == null && bus != null) {
+            value = bus.getProperty(WebSocketConstants.MAX_PENDING_WRITES);
+        }
+        if (value instanceof Number) {
+            return ((Number)value).intValue();
+        } else if (value != null) {
+            return Integer.parseInt(value.toString().trim());
+        }
+        return WebSocketConstants.DEFAULT_MAX_PENDING_WRITES;
+    }
+
     private static class ByteArrayBuilder {
         private ByteArrayOutputStream baos;
         ByteArrayBuilder() {
@@ -19,17 +19,31 @@
 
 package org.apache.cxf.transport.websocket.ahc;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.SocketTimeoutException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -37,6 +51,7 @@ import org.apache.cxf.Bus;
 import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.common.util.StringUtils;
 import org.apache.cxf.configuration.security.AuthorizationPolicy;
+import org.apache.cxf.helpers.LoadingByteArrayOutputStream;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.transport.http.Address;
@@ -57,23 +72,36 @@ import org.asynchttpclient.ws.WebSocket;
 import org.asynchttpclient.ws.WebSocketListener;
 import org.asynchttpclient.ws.WebSocketUpgradeHandler;
 
+import io.netty.util.concurrent.Future;
+import io.netty.util.concurrent.GenericFutureListener;
+
 /**
- *
+ * A conduit sending the requests over a single websocket connection. Each request is written as
+ * one binary frame carrying a request id, so that any number of requests can be in flight on the
+ * socket at the same time and their responses are correlated as they arrive, in any order.
+ * Frames are written asynchronously; the number of frames waiting to be written is bounded by
+ * {@link WebSocketConstants#MAX_PENDING_WRITES}.
  */
 public class AhcWebSocketConduit extends URLConnectionHTTPConduit {
     private static final Logger LOG = LogUtils.getL7dLogger(AhcWebSocketConduit.class);
 
     private AsyncHttpClient ahcclient;
-    private WebSocket websocket;
+    private volatile WebSocket websocket;
+    private ScheduledThreadPoolExecutor timeoutScheduler;
 
     //REVISIT make these keys configurable
     private String requestIdKey = WebSocketConstants.DEFAULT_REQUEST_ID_KEY;
     private String responseIdKey = WebSocketConstants.DEFAULT_RESPONSE_ID_KEY;
 
-    private Map<String, RequestResponse> uncorrelatedRequests = new ConcurrentHashMap<>();
+    private final Map<String, RequestResponse> uncorrelatedRequests = new ConcurrentHashMap<>();
+    private final String requestIdPrefix = UUID.randomUUID().toString() + '-';
+    private final AtomicLong requestIdCounter = new AtomicLong();
+    private final Semaphore pendingWrites;
 
     public AhcWebSocketConduit(Bus b, EndpointInfo ei, EndpointReferenceType t) throws IOException {
         super(b, ei, t);
+        int maxPendingWrites = WebSocketUtils.getMaxPendingWrites(b, ei);
+        pendingWrites = maxPendingWrites > 0 ? new Semaphore(maxPendingWrites) : null;
     }
 
     @Override
@@ -125,6 +153,142 @@ public class AhcWebSocketConduit extends URLConnectionHTTPConduit {
         return ahcclient;
     }
 
+    private synchronized WebSocket getWebSocket(Message message, URI url) throws IOException {
+        WebSocket ws = websocket;
+        if (ws != null && ws.isOpen()) {
+            LOG.log(Level.FINE, "already connected");
+            return ws;
+        }
+        LOG.log(Level.FINE, "connecting");
+        try {
+            ws = getAsyncHttpClient(message)
+                .prepareGet(url.toASCIIString())
+                .execute(
+                    new WebSocketUpgradeHandler.Builder()
+                    .addWebSocketListener(new AhcWebSocketListener()).build()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while connecting to " + url);
+        } catch (ExecutionException e) {
+            LOG.log(Level.SEVERE, "unable to connect", e.getCause());
+            throw new IOException("Unable to connect to " + url, e.getCause());
+        }
+        LOG.log(Level.FINE, "connected");
+        websocket = ws;
+        return ws;
+    }
+
+    private synchronized ScheduledExecutorService getTimeoutScheduler() {
+        if (timeoutScheduler == null) {
+            ThreadFactory factory = r -> {
+                Thread t = new Thread(r, "ahc-websocket-timeout");
+                t.setDaemon(true);
+                return t;
+            };
+            timeoutScheduler = new ScheduledThreadPoolExecutor(1, factory);
+            timeoutScheduler.setRemoveOnCancelPolicy(true);
+        }
+        return timeoutScheduler;
+    }
+
+    /**
+     * Writes a frame without waiting for it to be sent. When the maximum number of pending
+     * writes is reached, the caller waits for a previous frame to be written out, for at most
+     * the receive timeout of the request.
+     */
+    void sendFrame(RequestResponse rr, WebSocket ws, byte[] frame) throws IOException {
+        if (pendingWrites != null) {
+            long timeout = rr.getRequest().getReceiveTimeout();
+            try {
+                if (timeout <= 0) {
+                    pendingWrites.acquire();
+                } else if (!pendingWrites.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                    uncorrelatedRequests.remove(rr.getRequest().getId());
+                    throw new SocketTimeoutException("Write timed out while invoking " + rr.getRequest().getUri());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                uncorrelatedRequests.remove(rr.getRequest().getId());
+                throw new InterruptedIOException("Interrupted while invoking " + rr.getRequest().getUri());
+            }
+        }
+        GenericFutureListener<Future<Void>> listener = f -> {
+            if (pendingWrites != null) {
+                pendingWrites.release();
+            }
+            if (!f.isSuccess()) {
+                LOG.log(Level.FINE, "unable to send the request", f.cause());
+                failRequest(rr, new IOException("Unable to send the request to " + rr.getRequest().getUri(),
+                                                f.cause()));
+            }
+        };
+        try {
+            ws.sendBinaryFrame(frame).addListener(listener);
+        } catch (RuntimeException e) {
+            if (pendingWrites != null) {
+                pendingWrites.release();
+            }
+            uncorrelatedRequests.remove(rr.getRequest().getId());
+            throw new IOException("Unable to send the request to " + rr.getRequest().getUri(), e);
+        }
+    }
+
+    void completeRequest(Response resp) {
+        RequestResponse rr = resp.getId() == null ? null : uncorrelatedRequests.remove(resp.getId());
+        if (rr != null) {
+            rr.getResponse().complete(resp);
+        } else if (LOG.isLoggable(Level.FINE)) {
+            LOG.log(Level.FINE, "no pending request for the response {0}", resp.getId());
+        }
+    }
+
+    void failRequest(RequestResponse rr, Throwable t) {
+        uncorrelatedRequests.remove(rr.getRequest().getId(), rr);
+        rr.getResponse().completeExceptionally(t);
+    }
+
+    int getPendingRequestCount() {
+        return uncorrelatedRequests.size();
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        WebSocket ws;
+        AsyncHttpClient client;
+        ScheduledThreadPoolExecutor scheduler;
+        synchronized (this) {
+            ws = websocket;
+            client = ahcclient;
+            scheduler = timeoutScheduler;
+            websocket = null;
+            ahcclient = null;
+            timeoutScheduler = null;
+        }
+        if (ws != null && ws.isOpen()) {
+            ws.sendCloseFrame();
+        }
+        if (client != null) {
+            try {
+                client.close();
+            } catch (IOException e) {
+                LOG.log(Level.FINE, "unable to close the client", e);
+            }
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        failPendingRequests(new IOException("The conduit has been closed"));
+    }
+
+    private void failPendingRequests(IOException ex) {
+        for (Iterator<RequestResponse> it = uncorrelatedRequests.values().iterator(); it.hasNext();) {
+            RequestResponse rr = it.next();
+            it.remove();
+            rr.getResponse().completeExceptionally(ex);
+        }
+    }
+
     @Override
     protected OutputStream createOutputStream(Message message, boolean needToCacheRequest,
                                               boolean isChunking, int chunkThreshold) throws IOException {
@@ -137,6 +301,7 @@ public class AhcWebSocketConduit extends URLConnectionHTTPConduit {
 
     public class AhcWebSocketWrappedOutputStream extends WrappedOutputStream {
         private AhcWebSocketConduitRequest entity;
+        private RequestResponse requestResponse;
         private volatile Response response;
 
         protected AhcWebSocketWrappedOutputStream(Message message, boolean possibleRetransmit,
@@ -157,46 +322,53 @@ public class AhcWebSocketConduit extends URLConnectionHTTPConduit {
                 // jaxws
                 entity.setPath(url.getPath());
             }
-            entity.setId(UUID.randomUUID().toString());
-            uncorrelatedRequests.put(entity.getId(), new RequestResponse(entity));
+            entity.setId(requestIdPrefix + requestIdCounter.incrementAndGet());
+            requestResponse = new RequestResponse(entity);
+            uncorrelatedRequests.put(entity.getId(), requestResponse);
         }
 
         @Override
         protected void setupWrappedStream() throws IOException {
-            connect();
+            final WebSocket ws = connect();
 
+            // the whole request is sent as a single binary frame when the stream is closed
             wrappedStream = new OutputStream() {
+                private final LoadingByteArrayOutputStream buffer = new LoadingByteArrayOutputStream();
+                private boolean closed;
 
                 @Override
                 public void write(byte[] b, int off, int len) throws IOException {
-                    //REVISIT support multiple writes and flush() to write the entire block data?
-                    // or provides the fragment mode?
-                    Map<String, String> headers = new HashMap<>();
-                    headers.put("Content-Type", entity.getContentType());
-                    headers.put(requestIdKey, entity.getId());
-                    websocket.sendBinaryFrame(WebSocketUtils.buildRequest(
-                        entity.getMethod(), entity.getPath(),
-                        headers,
-                        b, off, len));
+                    buffer.write(b, off, len);
                 }
 
                 @Override
                 public void write(int b) throws IOException {
-                    //REVISIT support this single byte write and use flush() to write the block data?
+                    buffer.write(b);
                 }
 
                 @Override
                 public void close() throws IOException {
+                    if (closed) {
+                        return;
+                    }
+                    closed = true;
+                    Map<String, String> headers = new HashMap<>();
+                    headers.put("Content-Type", entity.getContentType());
+                    headers.put(requestIdKey, entity.getId());
+                    sendFrame(requestResponse, ws, WebSocketUtils.buildRequest(
+                        entity.getMethod(), entity.getPath(),
+                        headers,
+                        buffer.getRawBytes(), 0, buffer.size()));
                 }
             };
         }
 
         @Override
         protected void handleNoOutput() throws IOException {
-            connect();
+            WebSocket ws = connect();
             Map<String, String> headers = new HashMap<>();
             headers.put(requestIdKey, entity.getId());
-            websocket.sendBinaryFrame(WebSocketUtils.buildRequest(
+            sendFrame(requestResponse, ws, WebSocketUtils.buildRequest(
                 entity.getMethod(), entity.getPath(),
                 headers,
                 null, 0, 0));
@@ -244,7 +416,31 @@ public class AhcWebSocketConduit extends URLConnectionHTTPConduit {
 
         @Override
         protected void handleResponseAsync() throws IOException {
-            handleResponseOnWorkqueue(true, false);
+            CompletableFuture<Response> future = requestResponse.getResponse();
+            if (future.isDone()) {
+                handleResponseOnWorkqueue(true, false);
+                return;
+            }
+            // no thread is blocked waiting for the response, it is processed once it has arrived
+            long timeout = entity.getReceiveTimeout();
+            final ScheduledFuture<?> timeoutTask;
+            if (timeout > 0) {
+                Runnable onTimeout = () -> failRequest(requestResponse,
+                    new SocketTimeoutException("Read timed out while invoking " + entity.getUri()));
+                timeoutTask = getTimeoutScheduler().schedule(onTimeout, timeout, TimeUnit.MILLISECONDS);
+            } else {
+                timeoutTask = null;
+            }
+            future.whenComplete((r, t) -> {
+                if (timeoutTask != null) {
+                    timeoutTask.cancel(false);
+                }
+                try {
+                    handleResponseOnWorkqueue(false, true);
+                } catch (IOException e) {
+                    LOG.log(Level.WARNING, "Failed to process the response", e);
+                }
+            });
         }
 
         @Override
@@ -259,16 +455,12 @@ public class AhcWebSocketConduit extends URLConnectionHTTPConduit {
 
         @Override
         protected InputStream getInputStream() throws IOException {
-            Response r = getResponse();
-            //REVISIT
-            return new java.io.ByteArrayInputStream(r.getTextEntity().getBytes());
+            return getResponse().getEntityStream();
         }
 
         @Override
         protected InputStream getPartialResponse() throws IOException {
-            Response r = getResponse();
-            //REVISIT
-            return new java.io.ByteArrayInputStream(r.getTextEntity().getBytes());
+            return getResponse().getEntityStream();
         }
 
         @Override
@@ -297,42 +489,34 @@ public class AhcWebSocketConduit extends URLConnectionHTTPConduit {
         // other methods follow
         //
 
-        protected void connect() {
-            LOG.log(Level.FINE, "connecting");
-            if (websocket == null) {
-                try {
-                    websocket = getAsyncHttpClient(outMessage)
-                        .prepareGet(url.toASCIIString())
-                        .execute(
-                            new WebSocketUpgradeHandler.Builder()
-                            .addWebSocketListener(new AhcWebSocketListener()).build()).get();
-                    LOG.log(Level.FINE, "connected");
-                } catch (Exception e) {
-                    LOG.log(Level.SEVERE, "unable to connect", e);
-                }
-            } else {
-                LOG.log(Level.FINE, "already connected");
+        protected WebSocket connect() throws IOException {
+            try {
+                return getWebSocket(outMessage, url);
+            } catch (IOException e) {
+                uncorrelatedRequests.remove(entity.getId());
+                throw e;
             }
         }
 
         Response getResponse() throws IOException {
             if (response == null) {
-                String rid = entity.getId();
-                RequestResponse rr = uncorrelatedRequests.get(rid);
-                synchronized (rr) {
-                    try {
-                        long timetowait = entity.getReceiveTimeout();
-                        response = rr.getResponse();
-                        if (response == null) {
-                            rr.wait(timetowait);
-                            response = rr.getResponse();
-                        }
-                    } catch (InterruptedException e) {
-                        // ignore
-                    }
-                }
-                if (response == null) {
+                long timetowait = entity.getReceiveTimeout();
+                try {
+                    response = timetowait > 0
+                        ? requestResponse.getResponse().get(timetowait, TimeUnit.MILLISECONDS)
+                        : requestResponse.getResponse().get();
+                } catch (TimeoutException e) {
+                    uncorrelatedRequests.remove(entity.getId());
                     throw new SocketTimeoutException("Read timed out while invoking " + entity.getUri());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    uncorrelatedRequests.remove(entity.getId());
+                    throw new InterruptedIOException("Interrupted while invoking " + entity.getUri());
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof IOException) {
+                        throw (IOException)e.getCause();
+                    }
+                    throw new IOException(e.getCause());
                 }
             }
             return response;
@@ -351,6 +535,10 @@ public class AhcWebSocketConduit extends URLConnectionHTTPConduit {
             if (LOG.isLoggable(Level.FINE)) {
                 LOG.log(Level.FINE, "onCose({0})", ws);
             }
+            // the responses of the requests sent on this socket will never arrive
+            if (ws == websocket || websocket == null) {
+                failPendingRequests(new IOException("WebSocket closed: " + code + " " + reason));
+            }
         }
 
         public void onError(Throwable t) {
@@ -362,14 +550,7 @@ public class AhcWebSocketConduit extends URLConnectionHTTPConduit {
             if (LOG.isLoggable(Level.FINE)) {
                 LOG.log(Level.FINE, "onMessage({0})", payload);
             }
-            Response resp = new Response(responseIdKey, payload);
-            RequestResponse rr = uncorrelatedRequests.get(resp.getId());
-            if (rr != null) {
-                synchronized (rr) {
-                    rr.setResponse(resp);
-                    rr.notifyAll();
-                }
-            }
+            completeRequest(new Response(responseIdKey, payload));
         }
 
         @Override
@@ -377,14 +558,7 @@ public class AhcWebSocketConduit extends URLConnectionHTTPConduit {
             if (LOG.isLoggable(Level.FINE)) {
                 LOG.log(Level.FINE, "onMessage({0})", payload);
             }
-            Response resp = new Response(responseIdKey, payload);
-            RequestResponse rr = uncorrelatedRequests.get(resp.getId());
-            if (rr != null) {
-                synchronized (rr) {
-                    rr.setResponse(resp);
-                    rr.notifyAll();
-                }
-            }
+            completeRequest(new Response(responseIdKey, payload));
         }
 
     }
@@ -397,7 +571,6 @@ public class AhcWebSocketConduit extends URLConnectionHTTPConduit {
         private int statusCode;
         private String contentType;
         private String id;
-        private Object entity;
 
         Response(String idKey, Object data) {
             this.data = data;
@@ -418,12 +591,6 @@ public class AhcWebSocketConduit extends URLConnectionHTTPConduit {
                     id = v;
                 }
             }
-            if (data instanceof String) {
-                entity = ((String)data).substring(pos);
-            } else if (data instanceof byte[]) {
-                entity = new byte[((byte[])data).length - pos];
-                System.arraycopy(data, pos, entity, 0, ((byte[])entity).length);
-            }
         }
 
         private static boolean isStatusCode(String line) {
@@ -444,11 +611,29 @@ public class AhcWebSocketConduit extends URLConnectionHTTPConduit {
         }
 
         public Object getEntity() {
-            return entity;
+            if (data instanceof String) {
+                return ((String)data).substring(pos);
+            } else if (data instanceof byte[]) {
+                byte[] entity = new byte[((byte[])data).length - pos];
+                System.arraycopy(data, pos, entity, 0, entity.length);
+                return entity;
+            }
+            return null;
         }
 
         public String getTextEntity() {
-            return gettext(entity);
+            return gettext(getEntity());
+        }
+
+        /**
+         * Returns the entity as a stream, without copying the payload of a binary frame.
+         */
+        public InputStream getEntityStream() {
+            if (data instanceof byte[]) {
+                return new ByteArrayInputStream((byte[])data, pos, ((byte[])data).length - pos);
+            }
+            String text = getTextEntity();
+            return new ByteArrayInputStream(text == null ? new byte[0] : text.getBytes(StandardCharsets.UTF_8));
         }
 
         private String readLine() {
@@ -491,19 +676,16 @@ public class AhcWebSocketConduit extends URLConnectionHTTPConduit {
     }
 
     static class RequestResponse {
-        private AhcWebSocketConduitRequest request;
-        private Response response;
+        private final AhcWebSocketConduitRequest request;
+        private final CompletableFuture<Response> response = new CompletableFuture<>();
         RequestResponse(AhcWebSocketConduitRequest request) {
             this.request = request;
         }
         public AhcWebSocketConduitRequest getRequest() {
             return request;
         }
-        public Response getResponse() {
+        public CompletableFuture<Response> getResponse() {
             return response;
         }
-        public void setResponse(Response response) {
-            this.response = response;
-        }
     }
 }
@@ -21,15 +21,16 @@ package org.apache.cxf.transport.websocket.jetty9;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URL;
 import java.nio.ByteBuffer;
 import java.security.Principal;
 import java.util.Enumeration;
 import java.util.Locale;
-import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -59,6 +60,7 @@ import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.handler.ContextHandler;
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.WebSocketAdapter;
+import org.eclipse.jetty.websocket.api.WriteCallback;
 import org.eclipse.jetty.websocket.server.WebSocketHandler;
 import org.eclipse.jetty.websocket.servlet.ServletUpgradeRequest;
 import org.eclipse.jetty.websocket.servlet.ServletUpgradeResponse;
@@ -77,6 +79,7 @@ public class Jetty9WebSocketDestination extends JettyHTTPDestination implements
     private static final String RESPONSE_ID_KEY = WebSocketConstants.DEFAULT_RESPONSE_ID_KEY;
 
     private final Executor executor;
+    private final int maxPendingWrites;
 
     private WebSocketHandler webSockethandler;
     private WebSocketServletFactory webSocketFactory;
@@ -87,6 +90,7 @@ public class Jetty9WebSocketDestination extends JettyHTTPDestination implements
               serverEngineFactory == null ? null : new URL(getNonWSAddress(ei)),
               serverEngineFactory);
         executor = bus.getExtension(WorkQueueManager.class).getAutomaticWorkQueue();
+        maxPendingWrites = WebSocketUtils.getMaxPendingWrites(bus, ei);
     }
 
     @Override
@@ -169,7 +173,8 @@ public class Jetty9WebSocketDestination extends JettyHTTPDestination implements
         super.shutdown();
     }
 
-    private void invoke(final byte[] data, final int offset, final int length, final Session session) {
+    private void invoke(final byte[] data, final int offset, final int length, final Session session,
+                        final Semaphore pendingWrites) {
         // invoke the service asynchronously as the jetty websocket's onMessage is synchronously blocked
         // make sure the byte array passed to this method is immutable, as the websocket framework
         // may corrupt the byte array after this method is returned (i.e., before the data is returned in
@@ -180,7 +185,7 @@ public class Jetty9WebSocketDestination extends JettyHTTPDestination implements
                 HttpServletRequest request = null;
                 HttpServletResponse response = null;
                 try {
-                    WebSocketServletHolder holder = new Jetty9WebSocketHolder(session);
+                    WebSocketServletHolder holder = new Jetty9WebSocketHolder(session, pendingWrites);
                     response = createServletResponse(holder);
                     request = createServletRequest(data, offset, length, holder, session);
                     String reqid = request.getHeader(REQUEST_ID_KEY);
@@ -240,13 +245,15 @@ public class Jetty9WebSocketDestination extends JettyHTTPDestination implements
         public Object createWebSocket(ServletUpgradeRequest req, ServletUpgradeResponse resp) {
             return new WebSocketAdapter() {
                 Session session;
+                // bounds the responses queued for sending on this connection
+                final Semaphore pendingWrites = maxPendingWrites > 0 ? new Semaphore(maxPendingWrites) : null;
                 @Override
                 public void onWebSocketConnect(Session session) {
                     this.session = session;
                 }
                 @Override
                 public void onWebSocketBinary(byte[] payload, int offset, int len) {
-                    invoke(payload, offset, len, session);
+                    invoke(payload, offset, len, session, pendingWrites);
                 }
                 @Override
                 public void onWebSocketText(String message) {
@@ -266,8 +273,10 @@ public class Jetty9WebSocketDestination extends JettyHTTPDestination implements
 
     class Jetty9WebSocketHolder implements WebSocketServletHolder {
         final Session session;
-        Jetty9WebSocketHolder(Session s) {
+        final Semaphore pendingWrites;
+        Jetty9WebSocketHolder(Session s, Semaphore pw) {
             session = s;
+            pendingWrites = pw;
         }
         public String getAuthType() {
             return null;
@@ -341,13 +350,43 @@ public class Jetty9WebSocketDestination extends JettyHTTPDestination implements
         public Object getAttribute(String name) {
             return ((ServletUpgradeRequest)session.getUpgradeRequest()).getHttpServletRequest().getAttribute(name);
         }
+        /**
+         * Queues the data to be sent without waiting for it to be written out. The data must not be
+         * modified afterwards. Once the maximum number of pending writes of the connection is reached,
+         * the caller waits until one of them is completed.
+         */
         @Override
         public void write(byte[] data, int offset, int length) throws IOException {
+            if (pendingWrites != null) {
+                try {
+                    pendingWrites.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while writing to the websocket");
+                }
+            }
             try {
-                session.getRemote().sendBytesByFuture(ByteBuffer.wrap(data,  offset, length)).get();
-            } catch (InterruptedException | ExecutionException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
+                session.getRemote().sendBytes(ByteBuffer.wrap(data, offset, length), new WriteCallback() {
+                    @Override
+                    public void writeSuccess() {
+                        release();
+                    }
+
+                    @Override
+                    public void writeFailed(Throwable x) {
+                        release();
+                        LOG.log(Level.WARNING, "Failed to write to the websocket", x);
+                    }
+                });
+            } catch (RuntimeException e) {
+                release();
+                throw new IOException("Failed to write to the websocket", e);
+            }
+        }
+
+        private void release() {
+            if (pendingWrites != null) {
+                pendingWrites.release();
             }
         }
     }
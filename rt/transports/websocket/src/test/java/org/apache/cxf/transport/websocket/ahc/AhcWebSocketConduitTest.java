@@ -19,13 +19,27 @@
 
 package org.apache.cxf.transport.websocket.ahc;
 
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.cxf.bus.extension.ExtensionManagerBus;
+import org.apache.cxf.helpers.IOUtils;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.transport.websocket.WebSocketConstants;
 
 import org.junit.Test;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  *
@@ -72,4 +86,95 @@ public class AhcWebSocketConduitTest {
         assertTrue(resp.getEntity() instanceof byte[]);
         assertEquals("Nada!", resp.getTextEntity());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testResponseEntityStream() throws Exception {
+        byte[] entity = new byte[] {0, (byte)0xff, '\r', '\n', (byte)0x80};
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        bout.write("200\r\nresponseId: 1\r\nContent-Type: application/octet-stream\r\n\r\n"
+            .getBytes(StandardCharsets.UTF_8));
+        bout.write(entity);
+
+        // binary payloads are passed on as they are
+        AhcWebSocketConduit.Response resp =
+            new AhcWebSocketConduit.Response(WebSocketConstants.DEFAULT_RESPONSE_ID_KEY, bout.toByteArray());
+        try (InputStream in = resp.getEntityStream()) {
+            assertArrayEquals(entity, IOUtils.readBytesFromStream(in));
+        }
+
+        resp = new AhcWebSocketConduit.Response(WebSocketConstants.DEFAULT_RESPONSE_ID_KEY,
+                                                "responseId: 1\r\n\r\nGr\u00fc\u00dfe");
+        try (InputStream in = resp.getEntityStream()) {
+            assertEquals("Gr\u00fc\u00dfe", new String(IOUtils.readBytesFromStream(in), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testConcurrentRequestCorrelation() throws Exception {
+        EndpointInfo ei = new EndpointInfo();
+        ei.setAddress("ws://localhost:9001/websocket/nada");
+        AhcWebSocketConduit conduit = new AhcWebSocketConduit(new ExtensionManagerBus(), ei, null);
+        conduit.finalizeConfig();
+        try {
+            int count = 10;
+            Message[] messages = new Message[count];
+            for (int i = 0; i < count; i++) {
+                messages[i] = createMessage();
+                conduit.prepare(messages[i]);
+            }
+            assertEquals(count, conduit.getPendingRequestCount());
+
+            // the responses arrive in the reverse order of the requests
+            AhcWebSocketConduit.AhcWebSocketListener listener = conduit.new AhcWebSocketListener();
+            for (int i = count - 1; i >= 0; i--) {
+                String id = messages[i].get(AhcWebSocketConduitRequest.class).getId();
+                listener.onBinaryFrame(("200\r\nresponseId: " + id + "\r\n\r\nreply" + i)
+                    .getBytes(StandardCharsets.UTF_8), true, 0);
+            }
+            assertEquals(0, conduit.getPendingRequestCount());
+
+            for (int i = 0; i < count; i++) {
+                AhcWebSocketConduit.AhcWebSocketWrappedOutputStream out =
+                    (AhcWebSocketConduit.AhcWebSocketWrappedOutputStream)messages[i].getContent(OutputStream.class);
+                assertEquals(200, out.getResponse().getStatusCode());
+                assertEquals("reply" + i, out.getResponse().getTextEntity());
+            }
+        } finally {
+            conduit.close();
+        }
+    }
+
+    @Test
+    public void testResponseTimeout() throws Exception {
+        EndpointInfo ei = new EndpointInfo();
+        ei.setAddress("ws://localhost:9001/websocket/nada");
+        AhcWebSocketConduit conduit = new AhcWebSocketConduit(new ExtensionManagerBus(), ei, null);
+        conduit.finalizeConfig();
+        conduit.getClient().setReceiveTimeout(100);
+        try {
+            Message message = createMessage();
+            conduit.prepare(message);
+            assertEquals(1, conduit.getPendingRequestCount());
+
+            AhcWebSocketConduit.AhcWebSocketWrappedOutputStream out =
+                (AhcWebSocketConduit.AhcWebSocketWrappedOutputStream)message.getContent(OutputStream.class);
+            try {
+                out.getResponse();
+                fail("SocketTimeoutException expected");
+            } catch (SocketTimeoutException e) {
+                // expected
+            }
+            // the timed out request is not kept around
+            assertEquals(0, conduit.getPendingRequestCount());
+        } finally {
+            conduit.close();
+        }
+    }
+
+    private static Message createMessage() {
+        Message message = new MessageImpl();
+        message.setExchange(new ExchangeImpl());
+        message.getExchange().setOutMessage(message);
+        return message;
+    }
+}
@@ -19,6 +19,8 @@
 
 package org.apache.cxf.ws.policy;
 
+import java.util.List;
+
 import org.apache.cxf.interceptor.Fault;
 import org.apache.cxf.message.Exchange;
 import org.apache.cxf.message.Message;
@@ -27,6 +29,7 @@ import org.apache.cxf.service.model.BindingFaultInfo;
 import org.apache.cxf.service.model.BindingOperationInfo;
 import org.apache.cxf.transport.Conduit;
 import org.apache.cxf.transport.Destination;
+import org.apache.neethi.Assertion;
 
 /**
  *
@@ -86,6 +89,20 @@ public abstract class AbstractPolicyInterceptor extends AbstractPhaseInterceptor
         return bfi;
     }
 
+    /**
+     * Checks if one of the alternatives of the effective policy is supported, using the
+     * precompiled policy if there is one.
+     */
+    protected List<List<Assertion>> checkEffectivePolicy(AssertionInfoMap aim, EffectivePolicy effectivePolicy) {
+        if (effectivePolicy instanceof EffectivePolicyImpl) {
+            CompiledAssertionSet compiled = ((EffectivePolicyImpl)effectivePolicy).getCompiledPolicy();
+            if (compiled != null) {
+                return aim.checkCompiledEffectivePolicy(compiled);
+            }
+        }
+        return aim.checkEffectivePolicy(effectivePolicy.getPolicy());
+    }
+
     protected abstract void handle(Message message) throws PolicyException;
 
 }
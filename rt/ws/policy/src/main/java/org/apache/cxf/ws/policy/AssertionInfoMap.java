@@ -56,6 +56,23 @@ public class AssertionInfoMap extends HashMap<QName, Collection<AssertionInfo>>
         }
     }
 
+    /**
+     * Create the map from a precompiled set of assertions, which avoids flattening the nested policies
+     * for each message.
+     */
+    public AssertionInfoMap(CompiledAssertionSet compiled) {
+        super(Math.max(6, (int)(compiled.getNames().length / 0.75f) + 1));
+        QName[] names = compiled.getNames();
+        Assertion[][] assertions = compiled.getAssertions();
+        for (int i = 0; i < names.length; i++) {
+            Collection<AssertionInfo> ail = new ArrayList<>(assertions[i].length);
+            for (Assertion a : assertions[i]) {
+                ail.add(new AssertionInfo(a));
+            }
+            put(names[i], ail);
+        }
+    }
+
     private void putAssertionInfo(Assertion a) {
         if (a instanceof PolicyContainingAssertion) {
             Policy p = ((PolicyContainingAssertion)a).getPolicy();
@@ -90,6 +107,12 @@ public class AssertionInfoMap extends HashMap<QName, Collection<AssertionInfo>>
 
     public boolean supportsAlternative(PolicyComponent assertion,
                                        List<QName> errors) {
+        return supportsAlternative(assertion, errors, null);
+    }
+
+    private boolean supportsAlternative(PolicyComponent assertion,
+                                        List<QName> errors,
+                                        CompiledAssertionSet compiled) {
         boolean pass = true;
         if (assertion instanceof PolicyAssertion) {
             PolicyAssertion a = (PolicyAssertion)assertion;
@@ -118,11 +141,20 @@ public class AssertionInfoMap extends HashMap<QName, Collection<AssertionInfo>>
         if (assertion instanceof PolicyContainingAssertion) {
             Policy p = ((PolicyContainingAssertion)assertion).getPolicy();
             if (p != null) {
-                Iterator<List<Assertion>> alternatives = p.getAlternatives();
-                while (alternatives.hasNext()) {
-                    List<Assertion> pc = alternatives.next();
-                    for (Assertion p2 : pc) {
-                        pass &= supportsAlternative(p2, errors);
+                List<List<Assertion>> nested = compiled == null ? null : compiled.getNestedAlternatives(p);
+                if (nested != null) {
+                    for (List<Assertion> pc : nested) {
+                        for (Assertion p2 : pc) {
+                            pass &= supportsAlternative(p2, errors, compiled);
+                        }
+                    }
+                } else {
+                    Iterator<List<Assertion>> alternatives = p.getAlternatives();
+                    while (alternatives.hasNext()) {
+                        List<Assertion> pc = alternatives.next();
+                        for (Assertion p2 : pc) {
+                            pass &= supportsAlternative(p2, errors, compiled);
+                        }
                     }
                 }
             }
@@ -151,7 +183,34 @@ public class AssertionInfoMap extends HashMap<QName, Collection<AssertionInfo>>
         if (!validated.isEmpty()) {
             return validated;
         }
+        throw createPolicyException(errors);
+    }
+
+    /**
+     * Check the effective policy, using the alternatives precomputed when it was compiled.
+     */
+    public List<List<Assertion>> checkCompiledEffectivePolicy(CompiledAssertionSet policy) {
+        if (policy.getAlternatives() == null) {
+            throw new IllegalArgumentException("Not compiled from a policy");
+        }
+        List<List<Assertion>> validated = new ArrayList<>(4);
+        List<QName> errors = new ArrayList<>();
+        for (List<Assertion> pc : policy.getAlternatives()) {
+            boolean pass = true;
+            for (Assertion a : pc) {
+                pass &= supportsAlternative(a, errors, policy);
+            }
+            if (pass) {
+                validated.add(pc);
+            }
+        }
+        if (!validated.isEmpty()) {
+            return validated;
+        }
+        throw createPolicyException(errors);
+    }
 
+    private PolicyException createPolicyException(List<QName> errors) {
         Set<String> msgs = new LinkedHashSet<>();
 
         for (QName name : errors) {
@@ -176,7 +235,7 @@ public class AssertionInfoMap extends HashMap<QName, Collection<AssertionInfo>>
             error.append('\n').append(msg);
         }
 
-        throw new PolicyException(new Message("NO_ALTERNATIVE_EXC", BUNDLE, error.toString()));
+        return new PolicyException(new Message("NO_ALTERNATIVE_EXC", BUNDLE, error.toString()));
     }
 
 
@@ -77,6 +77,7 @@ public class ClientPolicyInFaultInterceptor extends AbstractPolicyInterceptor {
 
         List<Interceptor<? extends Message>> faultInterceptors = new ArrayList<>();
         Collection<Assertion> assertions = new ArrayList<>();
+        CompiledAssertionSet compiled = null;
 
         // 1. Check overridden policy
         Policy p = (Policy)msg.getContextualProperty(PolicyConstants.POLICY_OVERRIDE);
@@ -98,7 +99,11 @@ public class ClientPolicyInFaultInterceptor extends AbstractPolicyInterceptor {
             LOG.fine("ep: " + ep);
             if (ep != null) {
                 faultInterceptors.addAll(ep.getFaultInterceptors(msg));
-                assertions.addAll(ep.getFaultVocabulary(msg));
+                Collection<Assertion> vocabulary = ep.getFaultVocabulary(msg);
+                assertions.addAll(vocabulary);
+                if (ep instanceof EndpointPolicyImpl) {
+                    compiled = ((EndpointPolicyImpl)ep).getCompiledFaultVocabulary(vocabulary);
+                }
             }
         }
 
@@ -111,7 +116,8 @@ public class ClientPolicyInFaultInterceptor extends AbstractPolicyInterceptor {
 
         // insert assertions of endpoint's fault vocabulary into message
         if (!assertions.isEmpty()) {
-            msg.put(AssertionInfoMap.class, new AssertionInfoMap(assertions));
+            msg.put(AssertionInfoMap.class,
+                    compiled != null ? compiled.createAssertionInfoMap() : new AssertionInfoMap(assertions));
         }
     }
 }
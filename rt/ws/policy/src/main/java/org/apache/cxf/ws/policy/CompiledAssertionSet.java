@@ -0,0 +1,213 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.ws.policy;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+
+import org.apache.neethi.Assertion;
+import org.apache.neethi.Policy;
+import org.apache.neethi.PolicyComponent;
+import org.apache.neethi.PolicyContainingAssertion;
+import org.apache.neethi.PolicyOperator;
+
+/**
+ * An immutable, precompiled form of a set of assertions (or of a policy), from which the
+ * AssertionInfoMap of a message can be created without flattening the nested policies again.
+ * If compiled from a policy, the (normalized) alternatives of the policy and of all its nested
+ * policies are computed once as well, so verifying a message against the policy does not
+ * normalize them again.
+ * <p>
+ * Instances are cached by EffectivePolicyImpl and EndpointPolicyImpl, i.e. per endpoint,
+ * operation, message direction and fault.
+ */
+public final class CompiledAssertionSet {
+
+    private final Object source;
+    private final Policy policy;
+    private final QName[] names;
+    private final Assertion[][] assertions;
+    private final int size;
+    private final List<List<Assertion>> alternatives;
+    private final Map<Policy, List<List<Assertion>>> nestedAlternatives;
+
+    public CompiledAssertionSet(Policy p) {
+        source = p;
+        policy = p;
+        Collection<Assertion> flat = new ArrayList<>();
+        getAssertions(p, flat);
+        Map<QName, List<Assertion>> map = compile(flat);
+        names = map.keySet().toArray(new QName[0]);
+        assertions = toArray(map);
+        size = countAssertions(assertions);
+
+        nestedAlternatives = new IdentityHashMap<>();
+        alternatives = getAlternatives(p, nestedAlternatives);
+    }
+
+    public CompiledAssertionSet(Collection<? extends Assertion> assertionCollection) {
+        source = assertionCollection;
+        policy = null;
+        Map<QName, List<Assertion>> map = compile(assertionCollection);
+        names = map.keySet().toArray(new QName[0]);
+        assertions = toArray(map);
+        size = countAssertions(assertions);
+        alternatives = null;
+        nestedAlternatives = Collections.emptyMap();
+    }
+
+    /**
+     * Create a new AssertionInfoMap, holding a (not asserted) AssertionInfo for each of the assertions.
+     */
+    public AssertionInfoMap createAssertionInfoMap() {
+        return new AssertionInfoMap(this);
+    }
+
+    /**
+     * The policy this set was compiled from, or null if it was compiled from a collection of assertions.
+     */
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * The alternatives of the policy this set was compiled from, or null if it was compiled from
+     * a collection of assertions.
+     */
+    public List<List<Assertion>> getAlternatives() {
+        return alternatives;
+    }
+
+    /**
+     * The number of (flattened) assertions.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return names.length == 0;
+    }
+
+    boolean isCompiledFrom(Object o) {
+        return source == o;
+    }
+
+    QName[] getNames() {
+        return names;
+    }
+
+    Assertion[][] getAssertions() {
+        return assertions;
+    }
+
+    /**
+     * The precomputed alternatives of a policy nested in the compiled policy, or null if unknown.
+     */
+    List<List<Assertion>> getNestedAlternatives(Policy nested) {
+        return nestedAlternatives.get(nested);
+    }
+
+    private static Map<QName, List<Assertion>> compile(Collection<? extends Assertion> assertionCollection) {
+        Map<QName, List<Assertion>> map = new LinkedHashMap<>();
+        for (Assertion a : assertionCollection) {
+            addAssertion(map, a);
+        }
+        return map;
+    }
+
+    // Mirrors the way AssertionInfoMap flattens the nested policies
+    private static void addAssertion(Map<QName, List<Assertion>> map, Assertion a) {
+        if (a instanceof PolicyContainingAssertion) {
+            Policy p = ((PolicyContainingAssertion)a).getPolicy();
+            if (p != null) {
+                List<Assertion> pcs = new ArrayList<>();
+                getAssertions(p, pcs);
+                for (Assertion na : pcs) {
+                    addAssertion(map, na);
+                }
+            }
+        }
+        List<Assertion> al = map.computeIfAbsent(a.getName(), n -> new ArrayList<>(2));
+        for (Assertion a2 : al) {
+            if (a2 == a) {
+                return;
+            }
+        }
+        al.add(a);
+    }
+
+    private static Assertion[][] toArray(Map<QName, List<Assertion>> map) {
+        Assertion[][] result = new Assertion[map.size()][];
+        int i = 0;
+        for (List<Assertion> al : map.values()) {
+            result[i++] = al.toArray(new Assertion[0]);
+        }
+        return result;
+    }
+
+    private static int countAssertions(Assertion[][] assertions) {
+        int count = 0;
+        for (Assertion[] al : assertions) {
+            count += al.length;
+        }
+        return count;
+    }
+
+    private static List<List<Assertion>> getAlternatives(Policy p, Map<Policy, List<List<Assertion>>> nested) {
+        List<List<Assertion>> result = new ArrayList<>();
+        for (Iterator<List<Assertion>> it = p.getAlternatives(); it.hasNext();) {
+            List<Assertion> alternative = it.next();
+            for (Assertion a : alternative) {
+                addNestedAlternatives(a, nested);
+            }
+            result.add(Collections.unmodifiableList(new ArrayList<>(alternative)));
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    private static void addNestedAlternatives(Assertion a, Map<Policy, List<List<Assertion>>> nested) {
+        if (a instanceof PolicyContainingAssertion) {
+            Policy p = ((PolicyContainingAssertion)a).getPolicy();
+            if (p != null && !nested.containsKey(p)) {
+                nested.put(p, getAlternatives(p, nested));
+            }
+        }
+    }
+
+    private static void getAssertions(PolicyOperator p, Collection<Assertion> result) {
+        List<PolicyComponent> pcs = p.getPolicyComponents();
+        for (PolicyComponent pc : pcs) {
+            if (pc instanceof Assertion) {
+                result.add((Assertion)pc);
+            } else {
+                getAssertions((PolicyOperator)pc, result);
+            }
+        }
+    }
+}
@@ -56,6 +56,8 @@ public class EffectivePolicyImpl implements EffectivePolicy {
     protected Policy policy;
     protected Collection<Assertion> chosenAlternative;
     protected List<Interceptor<? extends org.apache.cxf.message.Message>> interceptors;
+    private volatile CompiledAssertionSet compiledPolicy;
+    private volatile CompiledAssertionSet compiledChosenAlternative;
 
     public EffectivePolicyImpl() {
     }
@@ -72,6 +74,38 @@ public class EffectivePolicyImpl implements EffectivePolicy {
         return chosenAlternative;
     }
 
+    /**
+     * The precompiled effective policy, used to verify the messages.
+     */
+    public final CompiledAssertionSet getCompiledPolicy() {
+        Policy p = policy;
+        if (p == null) {
+            return null;
+        }
+        CompiledAssertionSet compiled = compiledPolicy;
+        if (compiled == null || !compiled.isCompiledFrom(p)) {
+            compiled = new CompiledAssertionSet(p);
+            compiledPolicy = compiled;
+        }
+        return compiled;
+    }
+
+    /**
+     * The precompiled chosen alternative, from which the AssertionInfoMap of the messages is created.
+     */
+    public final CompiledAssertionSet getCompiledChosenAlternative() {
+        Collection<Assertion> alternative = chosenAlternative;
+        if (alternative == null) {
+            return null;
+        }
+        CompiledAssertionSet compiled = compiledChosenAlternative;
+        if (compiled == null || !compiled.isCompiledFrom(alternative)) {
+            compiled = new CompiledAssertionSet(alternative);
+            compiledChosenAlternative = compiled;
+        }
+        return compiled;
+    }
+
     public void initialise(EndpointPolicy epi, PolicyEngine engine, boolean inbound, Message m) {
         initialise(epi, engine, inbound, false, m);
     }
@@ -55,6 +55,8 @@ public class EndpointPolicyImpl implements EndpointPolicy {
     private Collection<Assertion> faultVocabulary;
     private volatile List<Interceptor<? extends Message>> interceptors;
     private List<Interceptor<? extends Message>> faultInterceptors;
+    private volatile CompiledAssertionSet compiledVocabulary;
+    private volatile CompiledAssertionSet compiledFaultVocabulary;
 
     private EndpointInfo ei;
     private PolicyEngineImpl engine;
@@ -122,6 +124,38 @@ public class EndpointPolicyImpl implements EndpointPolicy {
         return faultVocabulary;
     }
 
+    /**
+     * The precompiled vocabulary, from which the AssertionInfoMap of the messages is created.
+     * @param v the vocabulary, as returned by getVocabulary
+     */
+    final CompiledAssertionSet getCompiledVocabulary(Collection<Assertion> v) {
+        if (v == null) {
+            return null;
+        }
+        CompiledAssertionSet compiled = compiledVocabulary;
+        if (compiled == null || !compiled.isCompiledFrom(v)) {
+            compiled = new CompiledAssertionSet(v);
+            compiledVocabulary = compiled;
+        }
+        return compiled;
+    }
+
+    /**
+     * The precompiled fault vocabulary, from which the AssertionInfoMap of the fault messages is created.
+     * @param v the fault vocabulary, as returned by getFaultVocabulary
+     */
+    final CompiledAssertionSet getCompiledFaultVocabulary(Collection<Assertion> v) {
+        if (v == null) {
+            return null;
+        }
+        CompiledAssertionSet compiled = compiledFaultVocabulary;
+        if (compiled == null || !compiled.isCompiledFrom(v)) {
+            compiled = new CompiledAssertionSet(v);
+            compiledFaultVocabulary = compiled;
+        }
+        return compiled;
+    }
+
     public List<Interceptor<? extends Message>> getInterceptors(Message m) {
         if (interceptors == null) {
             initializeInterceptors(m);
@@ -69,6 +69,7 @@ public class PolicyInInterceptor extends AbstractPolicyInterceptor {
 
         List<Interceptor<? extends Message>> interceptors = new ArrayList<>();
         Collection<Assertion> assertions = new ArrayList<>();
+        CompiledAssertionSet compiled = null;
 
         // 1. Check overridden policy
         Policy p = (Policy)msg.getContextualProperty(PolicyConstants.POLICY_OVERRIDE);
@@ -90,7 +91,7 @@ public class PolicyInInterceptor extends AbstractPolicyInterceptor {
                 EndpointPolicy ep = pe.getClientEndpointPolicy(ei, conduit, msg);
                 if (ep != null) {
                     interceptors.addAll(ep.getInterceptors(msg));
-                    assertions.addAll(ep.getVocabulary(msg));
+                    compiled = addVocabulary(ep, assertions, msg);
                 }
             } else {
                 // We do not know the underlying message type yet - so we pre-emptively add interceptors
@@ -100,7 +101,11 @@ public class PolicyInInterceptor extends AbstractPolicyInterceptor {
                 if (ep != null) {
                     interceptors.addAll(ep.getInterceptors());
                     // insert assertions of endpoint's vocabulary into message
-                    if (ep.getPolicy() != null) {
+                    if (ep instanceof EffectivePolicyImpl && ep.getPolicy() != null) {
+                        msg.put(AssertionInfoMap.class,
+                                ((EffectivePolicyImpl)ep).getCompiledPolicy().createAssertionInfoMap());
+                        msg.getInterceptorChain().add(PolicyVerificationInInterceptor.INSTANCE);
+                    } else if (ep.getPolicy() != null) {
                         msg.put(AssertionInfoMap.class, new AssertionInfoMap(ep.getPolicy()));
                         msg.getInterceptorChain().add(PolicyVerificationInInterceptor.INSTANCE);
                     }
@@ -116,7 +121,7 @@ public class PolicyInInterceptor extends AbstractPolicyInterceptor {
             EndpointPolicy ep = pe.getServerEndpointPolicy(ei, destination, msg);
             if (ep != null) {
                 interceptors.addAll(ep.getInterceptors(msg));
-                assertions.addAll(ep.getVocabulary(msg));
+                compiled = addVocabulary(ep, assertions, msg);
             }
         }
 
@@ -127,9 +132,18 @@ public class PolicyInInterceptor extends AbstractPolicyInterceptor {
 
         // Insert assertions of endpoint's vocabulary into message
         if (!assertions.isEmpty()) {
-            msg.put(AssertionInfoMap.class, new AssertionInfoMap(assertions));
+            msg.put(AssertionInfoMap.class,
+                    compiled != null ? compiled.createAssertionInfoMap() : new AssertionInfoMap(assertions));
             msg.getInterceptorChain().add(PolicyVerificationInInterceptor.INSTANCE);
         }
 
     }
+
+    private static CompiledAssertionSet addVocabulary(EndpointPolicy ep, Collection<Assertion> assertions,
+                                                      Message msg) {
+        Collection<Assertion> vocabulary = ep.getVocabulary(msg);
+        assertions.addAll(vocabulary);
+        return ep instanceof EndpointPolicyImpl
+            ? ((EndpointPolicyImpl)ep).getCompiledVocabulary(vocabulary) : null;
+    }
 }
@@ -77,6 +77,7 @@ public class PolicyOutInterceptor extends AbstractPolicyInterceptor {
         }
 
         Collection<Assertion> assertions = new ArrayList<>();
+        CompiledAssertionSet compiled = null;
 
         // 1. Check overridden policy
         Policy p = (Policy)msg.getContextualProperty(PolicyConstants.POLICY_OVERRIDE);
@@ -103,6 +104,9 @@ public class PolicyOutInterceptor extends AbstractPolicyInterceptor {
                 );
                 addInterceptors(effectivePolicy.getInterceptors(), msg);
                 assertions.addAll(effectivePolicy.getChosenAlternative());
+                if (effectivePolicy instanceof EffectivePolicyImpl) {
+                    compiled = ((EffectivePolicyImpl)effectivePolicy).getCompiledChosenAlternative();
+                }
             }
         } else {
             // 3. Process server policy
@@ -118,6 +122,9 @@ public class PolicyOutInterceptor extends AbstractPolicyInterceptor {
                 );
                 addInterceptors(effectivePolicy.getInterceptors(), msg);
                 assertions.addAll(effectivePolicy.getChosenAlternative());
+                if (effectivePolicy instanceof EffectivePolicyImpl) {
+                    compiled = ((EffectivePolicyImpl)effectivePolicy).getCompiledChosenAlternative();
+                }
             }
         }
 
@@ -133,7 +140,8 @@ public class PolicyOutInterceptor extends AbstractPolicyInterceptor {
                 }
                 LOG.finest(buf.toString());
             }
-            msg.put(AssertionInfoMap.class, new AssertionInfoMap(assertions));
+            msg.put(AssertionInfoMap.class,
+                    compiled != null ? compiled.createAssertionInfoMap() : new AssertionInfoMap(assertions));
             msg.getInterceptorChain().add(PolicyVerificationOutInterceptor.INSTANCE);
         }
     }
@@ -99,7 +99,7 @@ public class PolicyVerificationInFaultInterceptor extends AbstractPolicyIntercep
 
         EffectivePolicy effectivePolicy = pe.getEffectiveClientFaultPolicy(ei, boi, bfi, message);
         if (effectivePolicy != null) {
-            aim.checkEffectivePolicy(effectivePolicy.getPolicy());
+            checkEffectivePolicy(aim, effectivePolicy);
             LOG.fine("Verified policies for inbound message.");
         }
     }
@@ -86,6 +86,7 @@ public class ServerPolicyOutFaultInterceptor extends AbstractPolicyInterceptor {
 
         List<Interceptor<? extends Message>> faultInterceptors = new ArrayList<>();
         Collection<Assertion> assertions = new ArrayList<>();
+        CompiledAssertionSet compiled = null;
 
         // 1. Check overridden policy
         Policy p = (Policy)msg.getContextualProperty(PolicyConstants.POLICY_OVERRIDE);
@@ -112,6 +113,9 @@ public class ServerPolicyOutFaultInterceptor extends AbstractPolicyInterceptor {
             if (effectivePolicy != null) {
                 faultInterceptors.addAll(effectivePolicy.getInterceptors());
                 assertions.addAll(effectivePolicy.getChosenAlternative());
+                if (effectivePolicy instanceof EffectivePolicyImpl) {
+                    compiled = ((EffectivePolicyImpl)effectivePolicy).getCompiledChosenAlternative();
+                }
             }
         }
 
@@ -123,7 +127,8 @@ public class ServerPolicyOutFaultInterceptor extends AbstractPolicyInterceptor {
 
         // insert assertions of the chosen alternative into the message
         if (!assertions.isEmpty()) {
-            msg.put(AssertionInfoMap.class, new AssertionInfoMap(assertions));
+            msg.put(AssertionInfoMap.class,
+                    compiled != null ? compiled.createAssertionInfoMap() : new AssertionInfoMap(assertions));
         }
     }
 }
@@ -221,4 +221,59 @@ public class AssertionInfoMapTest {
                    ais[0].getAssertion(), c);
 
     }
+
+    @Test
+    public void testCompiledAssertionSet() {
+        Policy nested = new Policy();
+        Assertion nb = new PrimitiveAssertion(new QName("http://x.y.z", "b"));
+        nested.addAssertion(nb);
+
+        QName aqn = new QName("http://x.y.z", "a");
+        QName bqn = new QName("http://x.y.z", "b");
+        QName cqn = new QName("http://x.y.z", "c");
+        Assertion a = new PrimitiveAssertion(aqn);
+        Assertion b = new PrimitiveAssertion(bqn);
+        Assertion c = new PolicyContainingPrimitiveAssertion(cqn, false, false, nested);
+        All alt1 = new All();
+        alt1.addAssertion(a);
+        alt1.addAssertion(b);
+        All alt2 = new All();
+        alt2.addAssertion(c);
+        ExactlyOne ea = new ExactlyOne();
+        ea.addPolicyComponent(alt1);
+        ea.addPolicyComponent(alt2);
+        Policy p = new Policy();
+        p.addPolicyComponent(ea);
+
+        CompiledAssertionSet compiled = new CompiledAssertionSet(p);
+        assertEquals(4, compiled.size());
+        assertEquals(2, compiled.getAlternatives().size());
+
+        AssertionInfoMap expected = new AssertionInfoMap(p);
+        AssertionInfoMap aim = compiled.createAssertionInfoMap();
+        assertEquals(expected.keySet(), aim.keySet());
+        for (QName name : expected.keySet()) {
+            List<Assertion> expectedAssertions = new ArrayList<>();
+            expected.getAssertionInfo(name).forEach(ai -> expectedAssertions.add(ai.getAssertion()));
+            List<Assertion> assertions = new ArrayList<>();
+            aim.getAssertionInfo(name).forEach(ai -> assertions.add(ai.getAssertion()));
+            assertEquals(expectedAssertions, assertions);
+        }
+
+        try {
+            aim.checkCompiledEffectivePolicy(compiled);
+            fail("Expected PolicyException not thrown.");
+        } catch (PolicyException ex) {
+            // expected
+        }
+
+        aim.getAssertionInfo(cqn).forEach(ai -> ai.setAsserted(true));
+        aim.getAssertionInfo(bqn).forEach(ai -> ai.setAsserted(true));
+        List<List<Assertion>> validated = aim.checkCompiledEffectivePolicy(compiled);
+        assertEquals(1, validated.size());
+        assertSame(c, validated.get(0).get(0));
+
+        // each message gets its own assertion state
+        assertFalse(compiled.createAssertionInfoMap().getAssertionInfo(cqn).iterator().next().isAsserted());
+    }
 }
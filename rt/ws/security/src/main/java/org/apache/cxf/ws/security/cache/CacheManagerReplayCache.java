@@ -0,0 +1,73 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.ws.security.cache;
+
+import java.time.Instant;
+
+import org.apache.cxf.cache.Cache;
+import org.apache.cxf.cache.CacheConfiguration;
+import org.apache.cxf.cache.CacheManager;
+import org.apache.wss4j.common.cache.MemoryReplayCache;
+import org.apache.wss4j.common.cache.ReplayCache;
+
+/**
+ * A ReplayCache which stores the identifiers in a cache obtained from the Bus {@link CacheManager}.
+ * The default TTL is 60 minutes and the max TTL is 12 hours. The cache is not bounded, as an
+ * identifier evicted before its TTL expires would allow the message to be replayed.
+ */
+public class CacheManagerReplayCache implements ReplayCache {
+
+    private final CacheManager cacheManager;
+    private final String key;
+    private final Cache<String, Boolean> cache;
+
+    public CacheManagerReplayCache(String key, CacheManager cacheManager) {
+        this.key = key;
+        this.cacheManager = cacheManager;
+        this.cache = cacheManager.getCache(key,
+            new CacheConfiguration(MemoryReplayCache.DEFAULT_TTL * 1000L, 0L));
+    }
+
+    public void add(String identifier) {
+        add(identifier, null);
+    }
+
+    public void add(String identifier, Instant expiry) {
+        if (identifier == null || identifier.isEmpty()) {
+            return;
+        }
+        long ttl = MemoryReplayCache.DEFAULT_TTL;
+        if (expiry != null) {
+            long timeToLive = expiry.getEpochSecond() - Instant.now().getEpochSecond();
+            if (timeToLive > 0 && timeToLive <= MemoryReplayCache.MAX_TTL) {
+                ttl = timeToLive;
+            }
+        }
+        cache.putIfAbsent(identifier, Boolean.TRUE, ttl * 1000L);
+    }
+
+    public boolean contains(String identifier) {
+        return identifier != null && cache.containsKey(identifier);
+    }
+
+    public void close() {
+        cacheManager.removeCache(key);
+    }
+}
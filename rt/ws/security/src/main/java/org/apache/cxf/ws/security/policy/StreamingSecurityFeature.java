@@ -0,0 +1,88 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.ws.security.policy;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.common.injection.NoJSR250Annotations;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.feature.AbstractPortableFeature;
+import org.apache.cxf.feature.DelegatingFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.ws.security.policy.interceptors.StreamingSecuritySelectorInterceptor;
+
+/**
+ * Selects the streaming (StAX) WS-Security implementation for each message whose effective
+ * security policy it fully supports, falling back to the DOM implementation otherwise. Endpoints
+ * that explicitly configure "ws-security.enable.streaming" are left alone.
+ *
+ * Additional assertions (by local name) that should always force the DOM implementation can
+ * be configured via {@link #setDomAssertions(Collection)}.
+ */
+@NoJSR250Annotations
+public class StreamingSecurityFeature extends DelegatingFeature<StreamingSecurityFeature.Portable> {
+    public StreamingSecurityFeature() {
+        super(new Portable());
+    }
+
+    public void setDomAssertions(Collection<String> domAssertions) {
+        delegate.setDomAssertions(domAssertions);
+    }
+
+    public Set<String> getDomAssertions() {
+        return delegate.getDomAssertions();
+    }
+
+    /**
+     * Returns the WS-Security implementation last selected for the given endpoint,
+     * either "streaming" or "dom", or null if no secured message has been processed yet.
+     */
+    public static String getSelectedPath(Endpoint endpoint) {
+        return StreamingSecuritySelectorInterceptor.getSelectedPath(endpoint);
+    }
+
+    public static class Portable implements AbstractPortableFeature {
+        private final Set<String> domAssertions =
+            new HashSet<>(StreamingSecuritySelectorInterceptor.DEFAULT_UNSUPPORTED_ASSERTIONS);
+
+        @Override
+        public void doInitializeProvider(InterceptorProvider provider, Bus bus) {
+            StreamingSecuritySelectorInterceptor in =
+                StreamingSecuritySelectorInterceptor.createInInterceptor(domAssertions);
+            StreamingSecuritySelectorInterceptor out =
+                StreamingSecuritySelectorInterceptor.createOutInterceptor(domAssertions);
+            provider.getInInterceptors().add(in);
+            provider.getInFaultInterceptors().add(in);
+            provider.getOutInterceptors().add(out);
+            provider.getOutFaultInterceptors().add(out);
+        }
+
+        public void setDomAssertions(Collection<String> assertions) {
+            domAssertions.addAll(assertions);
+        }
+
+        public Set<String> getDomAssertions() {
+            return domAssertions;
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.ws.security.policy.interceptors;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+import javax.xml.namespace.QName;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.ws.policy.AssertionInfo;
+import org.apache.cxf.ws.policy.AssertionInfoMap;
+import org.apache.cxf.ws.security.SecurityConstants;
+import org.apache.wss4j.policy.SPConstants;
+import org.apache.wss4j.policy.model.RequiredElements;
+import org.apache.wss4j.policy.model.XPath;
+
+/**
+ * Chooses between the DOM and the streaming (StAX) WS-Security implementation for a message,
+ * based on the security policy assertions in effect. The streaming implementation is selected
+ * unless the effective policy contains an assertion that it cannot enforce, in which case the
+ * DOM implementation is used instead. An explicitly configured
+ * {@link SecurityConstants#ENABLE_STREAMING_SECURITY} value always takes precedence.
+ *
+ * The path that was last selected for an endpoint is recorded on its {@link EndpointInfo}
+ * under {@link #SELECTED_SECURITY_PATH}.
+ */
+public class StreamingSecuritySelectorInterceptor extends AbstractPhaseInterceptor<Message> {
+
+    /**
+     * EndpointInfo (and Message) property holding the selected path, either
+     * {@link #STREAMING_PATH} or {@link #DOM_PATH}.
+     */
+    public static final String SELECTED_SECURITY_PATH = "ws-security.streaming.selected.path";
+    public static final String STREAMING_PATH = "streaming";
+    public static final String DOM_PATH = "dom";
+
+    /**
+     * The (local names of the) assertions that are not supported by the streaming implementation.
+     */
+    public static final Set<String> DEFAULT_UNSUPPORTED_ASSERTIONS =
+        Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            SPConstants.SECURE_CONVERSATION_TOKEN,
+            SPConstants.SECURITY_CONTEXT_TOKEN,
+            SPConstants.SPNEGO_CONTEXT_TOKEN,
+            SPConstants.KEY_VALUE_TOKEN,
+            SPConstants.REL_TOKEN,
+            SPConstants.ENCRYPT_BEFORE_SIGNING)));
+
+    private static final Logger LOG = LogUtils.getL7dLogger(StreamingSecuritySelectorInterceptor.class);
+
+    /**
+     * The streaming implementation only evaluates simple absolute XPath expressions,
+     * such as "/soap:Envelope/soap:Header/wsa:To".
+     */
+    private static final Pattern SIMPLE_XPATH = Pattern.compile("(/([\\w.\\-]+:)?[\\w.\\-]+)+");
+
+    private static final Set<String> XPATH_ASSERTIONS =
+        new HashSet<>(Arrays.asList(
+            SPConstants.SIGNED_ELEMENTS,
+            SPConstants.ENCRYPTED_ELEMENTS,
+            SPConstants.CONTENT_ENCRYPTED_ELEMENTS,
+            SPConstants.REQUIRED_ELEMENTS));
+
+    private final Set<String> unsupportedAssertions;
+
+    public StreamingSecuritySelectorInterceptor(String phase) {
+        this(phase, DEFAULT_UNSUPPORTED_ASSERTIONS);
+    }
+
+    public StreamingSecuritySelectorInterceptor(String phase, Collection<String> unsupportedAssertions) {
+        super(phase);
+        this.unsupportedAssertions = new HashSet<>(unsupportedAssertions);
+    }
+
+    /**
+     * Creates the interceptor for inbound chains, running once the PolicyInInterceptor
+     * has set up the AssertionInfoMap and before either WS-Security implementation.
+     */
+    public static StreamingSecuritySelectorInterceptor createInInterceptor(Collection<String> unsupported) {
+        return new StreamingSecuritySelectorInterceptor(Phase.PRE_STREAM, unsupported);
+    }
+
+    /**
+     * Creates the interceptor for outbound chains, running once the PolicyOutInterceptor
+     * has set up the AssertionInfoMap and before either WS-Security implementation.
+     */
+    public static StreamingSecuritySelectorInterceptor createOutInterceptor(Collection<String> unsupported) {
+        return new StreamingSecuritySelectorInterceptor(Phase.PRE_LOGICAL, unsupported);
+    }
+
+    public void handleMessage(Message message) throws Fault {
+        AssertionInfoMap aim = message.get(AssertionInfoMap.class);
+        if (aim == null || aim.isEmpty()
+            || message.getContextualProperty(SecurityConstants.ENABLE_STREAMING_SECURITY) != null) {
+            return;
+        }
+
+        boolean streaming = isStreamingSupported(aim);
+        String path = streaming ? STREAMING_PATH : DOM_PATH;
+        message.put(SecurityConstants.ENABLE_STREAMING_SECURITY, streaming);
+        message.put(SELECTED_SECURITY_PATH, path);
+        recordSelection(message, path);
+    }
+
+    /**
+     * Returns true if every assertion in the given map can be enforced by the streaming implementation.
+     */
+    public boolean isStreamingSupported(AssertionInfoMap aim) {
+        for (QName name : aim.keySet()) {
+            String localName = name.getLocalPart();
+            if (unsupportedAssertions.contains(localName)) {
+                LOG.fine(() -> "Assertion " + name + " is not supported by streaming WS-Security");
+                return false;
+            }
+            if (XPATH_ASSERTIONS.contains(localName) && !hasOnlySimpleXPaths(aim.get(name))) {
+                LOG.fine(() -> "Assertion " + name + " contains XPath expressions that are not "
+                    + "supported by streaming WS-Security");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the security path last selected for the given endpoint, or null if no message
+     * has been processed by this interceptor yet.
+     */
+    public static String getSelectedPath(Endpoint endpoint) {
+        if (endpoint == null || endpoint.getEndpointInfo() == null) {
+            return null;
+        }
+        return endpoint.getEndpointInfo().getProperty(SELECTED_SECURITY_PATH, String.class);
+    }
+
+    private static boolean hasOnlySimpleXPaths(Collection<AssertionInfo> ais) {
+        for (AssertionInfo ai : ais) {
+            if (ai.getAssertion() instanceof RequiredElements) {
+                for (XPath xpath : ((RequiredElements)ai.getAssertion()).getXPaths()) {
+                    if (xpath.getXPath() == null
+                        || !SIMPLE_XPATH.matcher(xpath.getXPath().trim()).matches()) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void recordSelection(Message message, String path) {
+        Exchange exchange = message.getExchange();
+        Endpoint endpoint = exchange != null ? exchange.getEndpoint() : null;
+        if (endpoint == null || endpoint.getEndpointInfo() == null) {
+            return;
+        }
+        EndpointInfo ei = endpoint.getEndpointInfo();
+        Object previous = ei.getProperty(SELECTED_SECURITY_PATH);
+        if (!path.equals(previous)) {
+            ei.setProperty(SELECTED_SECURITY_PATH, path);
+            Level level = previous == null ? Level.INFO : Level.FINE;
+            if (LOG.isLoggable(level)) {
+                LOG.log(level, "Using " + path + " WS-Security processing for endpoint " + ei.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.ws.security.tokenstore;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.cxf.cache.Cache;
+import org.apache.cxf.cache.CacheConfiguration;
+import org.apache.cxf.cache.CacheManager;
+import org.apache.cxf.common.util.StringUtils;
+
+/**
+ * A TokenStore which stores the tokens in a cache obtained from the Bus {@link CacheManager}. A token
+ * is cached until it expires, subject to the same default (5 minutes) and max (1 hour) TTL as the
+ * MemoryTokenStore.
+ */
+public class CacheManagerTokenStore implements TokenStore {
+
+    private final Cache<String, SecurityToken> cache;
+    private long ttl = MemoryTokenStore.DEFAULT_TTL;
+
+    public CacheManagerTokenStore(String key, CacheManager cacheManager) {
+        cache = cacheManager.getCache(key,
+            new CacheConfiguration(ttl * 1000L, CacheConfiguration.DEFAULT_MAX_ENTRIES));
+    }
+
+    public void add(SecurityToken token) {
+        if (token != null && !StringUtils.isEmpty(token.getId())) {
+            cache.put(token.getId(), token, getTTL(token));
+        }
+    }
+
+    public void add(String identifier, SecurityToken token) {
+        if (token != null && !StringUtils.isEmpty(identifier)) {
+            cache.put(identifier, token, getTTL(token));
+        }
+    }
+
+    /**
+     * Set a new (default) TTL value in seconds
+     * @param newTtl a new (default) TTL value in seconds
+     */
+    public void setTTL(long newTtl) {
+        ttl = newTtl;
+    }
+
+    public void remove(String identifier) {
+        if (!StringUtils.isEmpty(identifier)) {
+            cache.remove(identifier);
+        }
+    }
+
+    public Collection<String> getTokenIdentifiers() {
+        List<String> identifiers = new ArrayList<>();
+        cache.forEach((identifier, token) -> identifiers.add(identifier));
+        return identifiers;
+    }
+
+    public SecurityToken getToken(String identifier) {
+        return identifier == null ? null : cache.get(identifier);
+    }
+
+    private long getTTL(SecurityToken token) {
+        long timeToLive = ttl;
+        if (token.getExpires() != null) {
+            long expiry = token.getExpires().getEpochSecond() - Instant.now().getEpochSecond();
+            if (expiry > 0 && expiry < MemoryTokenStore.MAX_TTL) {
+                timeToLive = expiry;
+            } else if (expiry >= MemoryTokenStore.MAX_TTL) {
+                timeToLive = MemoryTokenStore.MAX_TTL;
+            }
+        }
+        return timeToLive * 1000L;
+    }
+}
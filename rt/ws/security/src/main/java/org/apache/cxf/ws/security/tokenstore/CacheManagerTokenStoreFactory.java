@@ -0,0 +1,40 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.ws.security.tokenstore;
+
+import org.apache.cxf.cache.CacheManager;
+import org.apache.cxf.message.Message;
+
+/**
+ * A factory to return a CacheManagerTokenStore instance, backed by the CacheManager of the Bus. A
+ * MemoryTokenStore is returned if no CacheManager is registered with the Bus.
+ */
+public class CacheManagerTokenStoreFactory extends TokenStoreFactory {
+
+    @Override
+    public TokenStore newTokenStore(String key, Message message) throws TokenStoreException {
+        CacheManager cacheManager = message.getExchange().getBus().getExtension(CacheManager.class);
+        if (cacheManager == null) {
+            return new MemoryTokenStore();
+        }
+        return new CacheManagerTokenStore(key, cacheManager);
+    }
+
+}
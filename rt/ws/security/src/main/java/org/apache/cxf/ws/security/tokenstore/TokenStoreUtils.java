@@ -18,6 +18,7 @@
  */
 package org.apache.cxf.ws.security.tokenstore;
 
+import org.apache.cxf.cache.CacheManager;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.ws.security.SecurityConstants;
@@ -40,7 +41,13 @@ public final class TokenStoreUtils {
                 tokenStore = (TokenStore)info.getProperty(SecurityConstants.TOKEN_STORE_CACHE_INSTANCE);
             }
             if (tokenStore == null) {
-                TokenStoreFactory tokenStoreFactory = TokenStoreFactory.newInstance();
+                TokenStoreFactory tokenStoreFactory;
+                if (message.getExchange().getBus() != null
+                    && message.getExchange().getBus().getExtension(CacheManager.class) != null) {
+                    tokenStoreFactory = new CacheManagerTokenStoreFactory();
+                } else {
+                    tokenStoreFactory = TokenStoreFactory.newInstance();
+                }
                 StringBuilder cacheKey = new StringBuilder(SecurityConstants.TOKEN_STORE_CACHE_INSTANCE);
                 String cacheIdentifier =
                     (String)message.getContextualProperty(SecurityConstants.CACHE_IDENTIFIER);
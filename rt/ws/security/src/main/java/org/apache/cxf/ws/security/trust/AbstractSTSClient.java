@@ -198,6 +198,7 @@ public abstract class AbstractSTSClient implements Configurable, InterceptorProv
     protected X509Certificate useKeyCertificate;
 
     protected Map<String, Object> ctx = new HashMap<>();
+    protected STSTokenManager tokenManager;
 
     protected List<Interceptor<? extends Message>> in = new ModCountCopyOnWriteArrayList<>();
     protected List<Interceptor<? extends Message>> out = new ModCountCopyOnWriteArrayList<>();
@@ -333,6 +334,19 @@ public abstract class AbstractSTSClient implements Configurable, InterceptorProv
         this.allowRenewing = allowRenewing;
     }
 
+    public STSTokenManager getTokenManager() {
+        return tokenManager;
+    }
+
+    /**
+     * Set the STSTokenManager used to obtain the tokens for the IssuedToken policies, which renews
+     * the tokens in the background before they expire. The default is null (tokens are obtained and
+     * renewed synchronously when a message is sent).
+     */
+    public void setTokenManager(STSTokenManager tokenManager) {
+        this.tokenManager = tokenManager;
+    }
+
     public boolean isAllowRenewingAfterExpiry() {
         return allowRenewingAfterExpiry;
     }
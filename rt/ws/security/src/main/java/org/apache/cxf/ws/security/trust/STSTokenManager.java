@@ -0,0 +1,214 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.ws.security.trust;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.workqueue.AutomaticWorkQueueImpl;
+import org.apache.cxf.ws.security.tokenstore.SecurityToken;
+
+/**
+ * Manages the tokens obtained from a STS, so that the outbound messages do not have to wait on the
+ * STS once a token was obtained:
+ * <ul>
+ * <li>A token is renewed (i.e. a new token is requested) in the background once a configurable
+ * part of its lifetime has elapsed, while the current token is still handed out.</li>
+ * <li>Concurrent requests for a token with the same key (e.g. AppliesTo address and claims) are
+ * coalesced into a single request to the STS.</li>
+ * </ul>
+ * Expired tokens are evicted whenever a token is requested from the STS. Register an instance with an
+ * STSClient (see AbstractSTSClient#setTokenManager) to use it for the IssuedToken policies. Tokens
+ * requested on behalf of (or acting as) another principal are not managed.
+ */
+public class STSTokenManager {
+    private static final Logger LOG = LogUtils.getL7dLogger(STSTokenManager.class);
+    private static final int DEFAULT_QUEUE_SIZE = 256;
+    private static final int DEFAULT_MAX_THREADS = 4;
+
+    private final Map<Object, SecurityToken> tokens = new ConcurrentHashMap<>();
+    private final Map<Object, CompletableFuture<SecurityToken>> pending = new ConcurrentHashMap<>();
+    private Executor executor;
+    private AutomaticWorkQueueImpl defaultExecutor;
+    private double renewalThreshold = 0.75d;
+    private long imminentExpiry = 10L;
+
+    public STSTokenManager() {
+    }
+
+    public STSTokenManager(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Get a token for the given key. If a valid token is cached, the returned stage is already
+     * completed, and a renewal is started in the background if the token is due for it. Otherwise the
+     * stage completes once the token was obtained from the given source.
+     */
+    public CompletionStage<SecurityToken> getToken(Object key, Callable<SecurityToken> tokenSource) {
+        SecurityToken token = tokens.get(key);
+        if (isValid(token)) {
+            if (isDueForRenewal(token)) {
+                refreshToken(key, tokenSource);
+            }
+            return CompletableFuture.completedFuture(token);
+        }
+        return refreshToken(key, tokenSource);
+    }
+
+    /**
+     * Get the cached token for the given key if it is valid and not yet due for renewal, i.e. if
+     * {@link #getToken(Object, Callable)} would return it without calling the token source.
+     */
+    public SecurityToken getValidToken(Object key) {
+        SecurityToken token = tokens.get(key);
+        return isValid(token) && !isDueForRenewal(token) ? token : null;
+    }
+
+    /**
+     * Obtain a new token for the given key from the given source, unless a request for it is
+     * already in progress, in which case the stage of that request is returned.
+     */
+    public CompletionStage<SecurityToken> refreshToken(Object key, Callable<SecurityToken> tokenSource) {
+        CompletableFuture<SecurityToken> future = new CompletableFuture<>();
+        CompletableFuture<SecurityToken> existing = pending.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
+        }
+        purgeExpiredTokens();
+        try {
+            getExecutor().execute(() -> requestToken(key, tokenSource, future));
+        } catch (RejectedExecutionException ex) {
+            requestToken(key, tokenSource, future);
+        }
+        return future;
+    }
+
+    public SecurityToken getCachedToken(Object key) {
+        return tokens.get(key);
+    }
+
+    public void removeToken(Object key) {
+        tokens.remove(key);
+    }
+
+    public void clear() {
+        tokens.clear();
+    }
+
+    /**
+     * Clear the cached tokens and shut down the default Executor, if it was created.
+     */
+    public synchronized void close() {
+        clear();
+        if (defaultExecutor != null) {
+            defaultExecutor.shutdown(false);
+            defaultExecutor = null;
+        }
+    }
+
+    public synchronized Executor getExecutor() {
+        if (executor != null) {
+            return executor;
+        }
+        if (defaultExecutor == null) {
+            // The STS calls block, so they get their own small, bounded pool
+            defaultExecutor = new AutomaticWorkQueueImpl(DEFAULT_QUEUE_SIZE, 0, DEFAULT_MAX_THREADS, 1,
+                                                         60000L, "sts-token-manager");
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Set the Executor used to request the tokens, e.g. a WorkQueue of the Bus. The default is
+     * a dedicated, bounded work queue of up to 4 threads.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public double getRenewalThreshold() {
+        return renewalThreshold;
+    }
+
+    /**
+     * Set the part (between 0 and 1) of the lifetime of a token after which it is renewed in the
+     * background. The default is 0.75.
+     */
+    public void setRenewalThreshold(double renewalThreshold) {
+        this.renewalThreshold = renewalThreshold;
+    }
+
+    public long getImminentExpiry() {
+        return imminentExpiry;
+    }
+
+    /**
+     * Set the time in seconds within which a token is considered to be expired, see
+     * SecurityConstants#STS_TOKEN_IMMINENT_EXPIRY_VALUE. The default is 10 seconds.
+     */
+    public void setImminentExpiry(long imminentExpiry) {
+        this.imminentExpiry = imminentExpiry;
+    }
+
+    private boolean isValid(SecurityToken token) {
+        return token != null && !token.isExpired() && !token.isAboutToExpire(imminentExpiry);
+    }
+
+    private void purgeExpiredTokens() {
+        tokens.values().removeIf(SecurityToken::isExpired);
+    }
+
+    protected boolean isDueForRenewal(SecurityToken token) {
+        Instant created = token.getCreated();
+        Instant expires = token.getExpires();
+        if (created == null || expires == null) {
+            return false;
+        }
+        long lifetime = Duration.between(created, expires).toMillis();
+        return !Instant.now().isBefore(created.plusMillis((long)(lifetime * renewalThreshold)));
+    }
+
+    private void requestToken(Object key, Callable<SecurityToken> tokenSource,
+                              CompletableFuture<SecurityToken> future) {
+        try {
+            SecurityToken token = tokenSource.call();
+            if (token != null) {
+                tokens.put(key, token);
+            }
+            pending.remove(key, future);
+            future.complete(token);
+        } catch (Throwable t) {
+            LOG.log(Level.FINE, "Error requesting a token from the STS", t);
+            pending.remove(key, future);
+            future.completeExceptionally(t);
+        }
+    }
+}
@@ -19,16 +19,27 @@
 
 package org.apache.cxf.ws.security.trust;
 
+import java.util.Collections;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.w3c.dom.Element;
 
+import org.apache.cxf.Bus;
 import org.apache.cxf.common.logging.LogUtils;
+import org.apache.cxf.endpoint.Endpoint;
 import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
 import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
 import org.apache.cxf.rt.security.utils.SecurityUtils;
+import org.apache.cxf.service.Service;
+import org.apache.cxf.staxutils.StaxUtils;
 import org.apache.cxf.ws.addressing.AddressingProperties;
 import org.apache.cxf.ws.security.SecurityConstants;
 import org.apache.cxf.ws.security.tokenstore.SecurityToken;
@@ -43,6 +54,11 @@ public final class STSTokenRetriever {
     private static final Logger LOG = LogUtils.getL7dLogger(STSTokenRetriever.class);
     private static final String ASSOCIATED_TOKEN =
         STSTokenRetriever.class.getName() + "-" + "Associated_Token";
+    private static final String[] ADDRESSING_PROPERTIES = {
+        "javax.xml.ws.addressing.context.outbound", "javax.xml.ws.addressing.context"
+    };
+    private static final Map<Element, String> SERIALIZED_ELEMENTS =
+        Collections.synchronizedMap(new WeakHashMap<>());
 
     private STSTokenRetriever() {
     }
@@ -66,6 +82,10 @@ public final class STSTokenRetriever {
         }
         
         STSClient client = STSUtils.getClientWithIssuer(message, "sts", params.getIssuer());
+        STSTokenManager tokenManager = client.getTokenManager();
+        if (tokenManager != null && !isDelegationRequest(message, client)) {
+            return getManagedToken(message, client, tokenManager, appliesTo, params, tokenCacher);
+        }
         synchronized (client) {
             try {
                 client.setMessage(message);
@@ -130,6 +150,117 @@ public final class STSTokenRetriever {
         }
     }
     
+    private static boolean isDelegationRequest(Message message, STSClient client) {
+        return client.actAs != null || client.onBehalfOf != null
+            || SecurityUtils.getSecurityPropertyValue(SecurityConstants.STS_TOKEN_ACT_AS, message) != null
+            || SecurityUtils.getSecurityPropertyValue(SecurityConstants.STS_TOKEN_ON_BEHALF_OF, message) != null;
+    }
+
+    private static SecurityToken getManagedToken(Message message, STSClient client, STSTokenManager tokenManager,
+                                                 String appliesTo, TokenRequestParams params,
+                                                 STSTokenCacher tokenCacher) {
+        String key = getTokenKey(client.isEnableAppliesTo() ? appliesTo : ASSOCIATED_TOKEN, params);
+        SecurityToken secToken = tokenManager.getValidToken(key);
+        if (secToken != null) {
+            storeManagedToken(message, secToken, tokenCacher);
+            return secToken;
+        }
+
+        // The token may be requested (or renewed) on another thread after this message is gone
+        final Message snapshot = createMessageSnapshot(message);
+        CompletionStage<SecurityToken> stage = tokenManager.getToken(key, () -> {
+            synchronized (client) {
+                try {
+                    client.setMessage(snapshot);
+                    return getTokenFromSTS(snapshot, client, appliesTo, params);
+                } finally {
+                    client.setTrust((Trust10)null);
+                    client.setTrust((Trust13)null);
+                    client.setTemplate(null);
+                    client.setAddressingNamespace(null);
+                }
+            }
+        });
+
+        try {
+            // Only blocks if there is no valid token yet
+            secToken = stage.toCompletableFuture().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new Fault(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException)e.getCause();
+            }
+            throw new Fault(e.getCause());
+        }
+        storeManagedToken(message, secToken, tokenCacher);
+        return secToken;
+    }
+
+    private static void storeManagedToken(Message message, SecurityToken secToken, STSTokenCacher tokenCacher) {
+        if (secToken != null) {
+            try {
+                tokenCacher.storeToken(message, secToken, isCachedTokenFromEndpoint(message, null, null));
+            } catch (TokenStoreException e) {
+                throw new Fault(e);
+            }
+        }
+    }
+
+    /**
+     * Get the key of a managed token. The claims and template are compared by their serialized form,
+     * as equal policies may well be parsed into different elements.
+     */
+    static String getTokenKey(String appliesTo, TokenRequestParams params) {
+        return appliesTo + '|' + toCanonicalString(params.getClaims())
+            + '|' + toCanonicalString(params.getTokenTemplate());
+    }
+
+    private static String toCanonicalString(Element element) {
+        if (element == null) {
+            return "";
+        }
+        // The elements normally come from a cached policy, so only serialize them once
+        return SERIALIZED_ELEMENTS.computeIfAbsent(element, StaxUtils::toString);
+    }
+
+    /**
+     * Copy what is needed to request a token from the current message, so that the request
+     * does not depend on a message which may be recycled or modified by another thread.
+     */
+    static Message createMessageSnapshot(Message message) {
+        Message snapshot = new MessageImpl();
+        Exchange exchange = new ExchangeImpl();
+        Exchange original = message.getExchange();
+        if (original != null) {
+            exchange.put(Bus.class, original.getBus());
+            exchange.put(Endpoint.class, original.getEndpoint());
+            exchange.put(Service.class, original.getService());
+        }
+        snapshot.setExchange(exchange);
+        exchange.setOutMessage(snapshot);
+
+        for (String s : SecurityConstants.ALL_PROPERTIES) {
+            copyContextualProperty(message, snapshot, s);
+            copyContextualProperty(message, snapshot, s + ".it");
+        }
+        for (String s : ADDRESSING_PROPERTIES) {
+            Object v = message.get(s);
+            if (v != null) {
+                snapshot.put(s, v);
+            }
+        }
+        return snapshot;
+    }
+
+    private static void copyContextualProperty(Message message, Message snapshot, String key) {
+        Object v = message.getContextualProperty(key);
+        if (v != null) {
+            snapshot.put(key, v);
+        }
+    }
+
     private static boolean isCachedTokenFromEndpoint(Message message, Element onBehalfOfToken, Element actAsToken) {
         if (onBehalfOfToken != null || actAsToken != null) {
             return false;
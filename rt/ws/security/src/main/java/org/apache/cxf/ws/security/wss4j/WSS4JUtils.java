@@ -38,6 +38,7 @@ import org.apache.cxf.Bus;
 import org.apache.cxf.binding.soap.SoapFault;
 import org.apache.cxf.binding.soap.SoapMessage;
 import org.apache.cxf.binding.soap.SoapVersion;
+import org.apache.cxf.cache.CacheManager;
 import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.common.util.PropertyUtils;
 import org.apache.cxf.endpoint.Endpoint;
@@ -47,6 +48,7 @@ import org.apache.cxf.rt.security.utils.SecurityUtils;
 import org.apache.cxf.service.model.EndpointInfo;
 import org.apache.cxf.ws.security.SecurityConstants;
 import org.apache.cxf.ws.security.cache.CXFEHCacheReplayCache;
+import org.apache.cxf.ws.security.cache.CacheManagerReplayCache;
 import org.apache.cxf.ws.security.tokenstore.SecurityToken;
 import org.apache.cxf.ws.security.tokenstore.TokenStoreException;
 import org.apache.cxf.ws.security.tokenstore.TokenStoreUtils;
@@ -137,8 +139,11 @@ public final class WSS4JUtils {
                             cacheKey += "-" + hashcode;
                         }
                     }
-                    if (WSS4JCacheUtil.isEhCacheInstalled()) {
-                        Bus bus = message.getExchange().getBus();
+                    Bus bus = message.getExchange().getBus();
+                    CacheManager cacheManager = bus == null ? null : bus.getExtension(CacheManager.class);
+                    if (cacheManager != null) {
+                        replayCache = new CacheManagerReplayCache(cacheKey, cacheManager);
+                    } else if (WSS4JCacheUtil.isEhCacheInstalled()) {
                         Path diskstoreParent = null;
                         try {
                             diskstoreParent = Files.createTempDirectory("cxf");
@@ -0,0 +1,46 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.ws.security.cache;
+
+import org.apache.cxf.bus.managers.CacheManagerImpl;
+import org.apache.cxf.cache.CacheConfiguration;
+import org.apache.wss4j.common.cache.ReplayCache;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CacheManagerReplayCacheTest {
+
+    @Test
+    public void testIdentifiersAreNotEvictedBeforeExpiry() throws Exception {
+        try (ReplayCache replayCache = new CacheManagerReplayCache("replay", new CacheManagerImpl())) {
+            int count = (int)CacheConfiguration.DEFAULT_MAX_ENTRIES * 2;
+            for (int i = 0; i < count; i++) {
+                replayCache.add("id-" + i);
+            }
+            for (int i = 0; i < count; i++) {
+                assertTrue(replayCache.contains("id-" + i));
+            }
+            assertFalse(replayCache.contains("id-" + count));
+        }
+    }
+}
@@ -21,6 +21,9 @@ package org.apache.cxf.ws.security.tokenstore;
 import java.util.Arrays;
 import java.util.Collection;
 
+import org.apache.cxf.Bus;
+import org.apache.cxf.bus.extension.ExtensionManagerBus;
+import org.apache.cxf.bus.managers.CacheManagerImpl;
 import org.apache.cxf.message.ExchangeImpl;
 import org.apache.cxf.message.Message;
 import org.apache.cxf.message.MessageImpl;
@@ -51,9 +54,17 @@ public class TokenStoreTest {
                 ClassLoaderUtils.getResource("cxf-ehcache.xml", TokenStoreTest.class)
         );
         message.setExchange(new ExchangeImpl());
+
+        Message cacheManagerMessage = new MessageImpl();
+        cacheManagerMessage.setExchange(new ExchangeImpl());
+        Bus bus = new ExtensionManagerBus();
+        new CacheManagerImpl(bus);
+        cacheManagerMessage.getExchange().put(Bus.class, bus);
         return Arrays.asList(
                 new MemoryTokenStoreFactory().newTokenStore(SecurityConstants.TOKEN_STORE_CACHE_INSTANCE, message),
-                new EHCacheTokenStoreFactory().newTokenStore(SecurityConstants.TOKEN_STORE_CACHE_INSTANCE, message)
+                new EHCacheTokenStoreFactory().newTokenStore(SecurityConstants.TOKEN_STORE_CACHE_INSTANCE, message),
+                new CacheManagerTokenStoreFactory().newTokenStore(SecurityConstants.TOKEN_STORE_CACHE_INSTANCE,
+                                                                  cacheManagerMessage)
         );
     }
 
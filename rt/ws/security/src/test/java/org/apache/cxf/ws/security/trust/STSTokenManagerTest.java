@@ -0,0 +1,187 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.ws.security.trust;
+
+import java.io.StringReader;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.w3c.dom.Element;
+
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.staxutils.StaxUtils;
+import org.apache.cxf.ws.security.SecurityConstants;
+import org.apache.cxf.ws.security.tokenstore.SecurityToken;
+import org.apache.cxf.ws.security.trust.STSTokenRetriever.TokenRequestParams;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class STSTokenManagerTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentRequestsAreCoalesced() throws Exception {
+        STSTokenManager manager = new STSTokenManager(executor);
+        AtomicInteger count = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+
+        CompletableFuture<SecurityToken> first = manager.getToken("key", () -> {
+            count.incrementAndGet();
+            latch.await();
+            return createToken("token", 0L, 300L);
+        }).toCompletableFuture();
+        CompletableFuture<SecurityToken> second = manager.getToken("key", () -> {
+            count.incrementAndGet();
+            return createToken("other", 0L, 300L);
+        }).toCompletableFuture();
+        latch.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, count.get());
+
+        // The cached token is returned without calling the source
+        assertEquals("token", manager.getToken("key", () -> {
+            count.incrementAndGet();
+            return null;
+        }).toCompletableFuture().get().getId());
+        assertEquals(1, count.get());
+    }
+
+    @Test
+    public void testProactiveRenewal() throws Exception {
+        STSTokenManager manager = new STSTokenManager(executor);
+        SecurityToken old = createToken("old", -250L, 50L);
+        manager.getToken("key", () -> old).toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+        CountDownLatch renewed = new CountDownLatch(1);
+        // The token is due for renewal, but still valid, so it is returned straight away
+        SecurityToken token = manager.getToken("key", () -> {
+            renewed.countDown();
+            return createToken("new", 0L, 300L);
+        }).toCompletableFuture().getNow(null);
+        assertSame(old, token);
+
+        assertTrue(renewed.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 50 && manager.getCachedToken("key") == old; i++) {
+            Thread.sleep(20L);
+        }
+        assertEquals("new", manager.getCachedToken("key").getId());
+    }
+
+    @Test
+    public void testExpiredTokenIsReplaced() throws Exception {
+        STSTokenManager manager = new STSTokenManager(executor);
+        manager.getToken("key", () -> createToken("old", -300L, 5L)).toCompletableFuture().get();
+
+        // The token is about to expire, so the new one is waited for
+        SecurityToken token = manager.getToken("key", () -> createToken("new", 0L, 300L))
+            .toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertEquals("new", token.getId());
+    }
+
+    @Test
+    public void testExpiredTokensArePurged() throws Exception {
+        STSTokenManager manager = new STSTokenManager(executor);
+        manager.getToken("expired", () -> createToken("expired", -300L, -1L)).toCompletableFuture().get();
+        manager.getToken("valid", () -> createToken("valid", 0L, 300L)).toCompletableFuture().get();
+        assertNull(manager.getCachedToken("expired"));
+        assertNotNull(manager.getValidToken("valid"));
+    }
+
+    @Test
+    public void testDefaultExecutor() throws Exception {
+        STSTokenManager manager = new STSTokenManager();
+        Executor defaultExecutor = manager.getExecutor();
+        assertNotSame(ForkJoinPool.commonPool(), defaultExecutor);
+        assertSame(defaultExecutor, manager.getExecutor());
+        assertEquals("token", manager.getToken("key", () -> createToken("token", 0L, 300L))
+            .toCompletableFuture().get(5, TimeUnit.SECONDS).getId());
+
+        manager.close();
+        assertNull(manager.getCachedToken("key"));
+        assertNotSame(defaultExecutor, manager.getExecutor());
+        manager.close();
+    }
+
+    @Test
+    public void testTokenKeyComparesElementContent() throws Exception {
+        TokenRequestParams params = new TokenRequestParams();
+        params.setClaims(parse("<Claims xmlns=\"urn:test\"><Claim>role</Claim></Claims>"));
+        TokenRequestParams equalParams = new TokenRequestParams();
+        equalParams.setClaims(parse("<Claims xmlns=\"urn:test\"><Claim>role</Claim></Claims>"));
+        TokenRequestParams otherParams = new TokenRequestParams();
+        otherParams.setClaims(parse("<Claims xmlns=\"urn:test\"><Claim>email</Claim></Claims>"));
+
+        String key = STSTokenRetriever.getTokenKey("https://localhost/service", params);
+        assertEquals(key, STSTokenRetriever.getTokenKey("https://localhost/service", equalParams));
+        assertNotEquals(key, STSTokenRetriever.getTokenKey("https://localhost/service", otherParams));
+        assertNotEquals(key, STSTokenRetriever.getTokenKey("https://localhost/other", params));
+    }
+
+    @Test
+    public void testMessageSnapshot() throws Exception {
+        Message message = new MessageImpl();
+        Exchange exchange = new ExchangeImpl();
+        exchange.put(SecurityConstants.USERNAME, "alice");
+        message.setExchange(exchange);
+        message.put(SecurityConstants.PASSWORD + ".it", "secret");
+        message.put(Message.PROTOCOL_HEADERS, "headers");
+
+        Message snapshot = STSTokenRetriever.createMessageSnapshot(message);
+        assertNotSame(message, snapshot);
+        assertNotSame(exchange, snapshot.getExchange());
+        assertEquals("alice", snapshot.getContextualProperty(SecurityConstants.USERNAME));
+        assertEquals("secret", snapshot.getContextualProperty(SecurityConstants.PASSWORD + ".it"));
+        assertNull(snapshot.get(Message.PROTOCOL_HEADERS));
+    }
+
+    private static Element parse(String xml) throws Exception {
+        return StaxUtils.read(new StringReader(xml)).getDocumentElement();
+    }
+
+    private static SecurityToken createToken(String id, long created, long expires) {
+        Instant now = Instant.now();
+        return new SecurityToken(id, now.plusSeconds(created), now.plusSeconds(expires));
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.ws.security.wss4j;
+
+import java.util.Collections;
+
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.ws.policy.AssertionInfoMap;
+import org.apache.cxf.ws.security.SecurityConstants;
+import org.apache.cxf.ws.security.policy.interceptors.StreamingSecuritySelectorInterceptor;
+import org.apache.neethi.Policy;
+import org.apache.wss4j.policy.SPConstants;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingSecuritySelectorTest extends AbstractPolicySecurityTest {
+
+    @Test
+    public void testStreamingSelectedForSupportedPolicy() throws Exception {
+        Message message = createMessage("encrypted_parts_policy_body.xml");
+        new StreamingSecuritySelectorInterceptor(Phase.PRE_STREAM).handleMessage(message);
+
+        assertTrue((Boolean)message.get(SecurityConstants.ENABLE_STREAMING_SECURITY));
+        assertEquals(StreamingSecuritySelectorInterceptor.STREAMING_PATH,
+                     message.get(StreamingSecuritySelectorInterceptor.SELECTED_SECURITY_PATH));
+    }
+
+    @Test
+    public void testDomSelectedForComplexXPath() throws Exception {
+        Message message = createMessage("signed_elements_policy.xml");
+        new StreamingSecuritySelectorInterceptor(Phase.PRE_STREAM).handleMessage(message);
+
+        assertFalse((Boolean)message.get(SecurityConstants.ENABLE_STREAMING_SECURITY));
+        assertEquals(StreamingSecuritySelectorInterceptor.DOM_PATH,
+                     message.get(StreamingSecuritySelectorInterceptor.SELECTED_SECURITY_PATH));
+    }
+
+    @Test
+    public void testConfiguredDomAssertion() throws Exception {
+        Message message = createMessage("encrypted_parts_policy_body.xml");
+        StreamingSecuritySelectorInterceptor selector =
+            new StreamingSecuritySelectorInterceptor(Phase.PRE_STREAM,
+                Collections.singleton(SPConstants.ENCRYPTED_PARTS));
+
+        assertFalse(selector.isStreamingSupported(message.get(AssertionInfoMap.class)));
+    }
+
+    @Test
+    public void testExplicitConfigurationIsRespected() throws Exception {
+        Message message = createMessage("encrypted_parts_policy_body.xml");
+        message.put(SecurityConstants.ENABLE_STREAMING_SECURITY, Boolean.FALSE);
+        new StreamingSecuritySelectorInterceptor(Phase.PRE_STREAM).handleMessage(message);
+
+        assertFalse((Boolean)message.get(SecurityConstants.ENABLE_STREAMING_SECURITY));
+        assertNull(message.get(StreamingSecuritySelectorInterceptor.SELECTED_SECURITY_PATH));
+    }
+
+    @Test
+    public void testNoPolicy() throws Exception {
+        Message message = new MessageImpl();
+        message.setExchange(new ExchangeImpl());
+        new StreamingSecuritySelectorInterceptor(Phase.PRE_STREAM).handleMessage(message);
+
+        assertFalse(message.containsKey(SecurityConstants.ENABLE_STREAMING_SECURITY));
+    }
+
+    private Message createMessage(String policyName) throws Exception {
+        Policy policy = policyBuilder.getPolicy(this.getResourceAsStream(policyName));
+        Message message = new MessageImpl();
+        message.setExchange(new ExchangeImpl());
+        message.put(AssertionInfoMap.class, new AssertionInfoMap(policy));
+        return message;
+    }
+}
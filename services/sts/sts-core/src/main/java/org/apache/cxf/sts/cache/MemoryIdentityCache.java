@@ -19,6 +19,8 @@
 
 package org.apache.cxf.sts.cache;
 
+import java.io.Closeable;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
@@ -28,6 +30,11 @@ import javax.management.JMException;
 import javax.management.ObjectName;
 
 import org.apache.cxf.Bus;
+import org.apache.cxf.buslifecycle.BusLifeCycleListener;
+import org.apache.cxf.buslifecycle.BusLifeCycleManager;
+import org.apache.cxf.cache.Cache;
+import org.apache.cxf.cache.CacheConfiguration;
+import org.apache.cxf.cache.CacheManager;
 import org.apache.cxf.common.logging.LogUtils;
 import org.apache.cxf.management.InstrumentationManager;
 import org.apache.cxf.management.ManagementConstants;
@@ -37,16 +44,23 @@ import org.apache.cxf.sts.IdentityMapper;
 
 /**
  * A simple in-memory HashMap based cache to cache identities in different realms where
- * the relationship is of type FederateIdentity.
+ * the relationship is of type FederateIdentity. If a CacheManager is registered with the Bus,
+ * the identities are stored in the cache of that name obtained from it instead, which is removed
+ * when this cache is closed or the Bus is shut down.
  */
 @ManagedResource()
-public class MemoryIdentityCache extends AbstractIdentityCache {
+public class MemoryIdentityCache extends AbstractIdentityCache implements Closeable, BusLifeCycleListener {
+
+    public static final String DEFAULT_CACHE_NAME = "org.apache.cxf.sts.cache.MemoryIdentityCache";
 
     private static final Logger LOG = LogUtils.getL7dLogger(MemoryIdentityCache.class);
 
     private final Map<String, Map<String, String>> cache = new ConcurrentHashMap<>();
 
     private long maxCacheItems = 10000L;
+    private String cacheName = DEFAULT_CACHE_NAME;
+    private CacheManager cacheManager;
+    private volatile Cache<String, Map<String, String>> managedCache;
 
     protected MemoryIdentityCache() {
         super(null, null);
@@ -59,6 +73,11 @@ public class MemoryIdentityCache extends AbstractIdentityCache {
     public MemoryIdentityCache(Bus bus, IdentityMapper identityMapper) {
         super(bus, identityMapper);
         if (bus != null) {
+            cacheManager = bus.getExtension(CacheManager.class);
+            BusLifeCycleManager lifeCycleManager = bus.getExtension(BusLifeCycleManager.class);
+            if (cacheManager != null && lifeCycleManager != null) {
+                lifeCycleManager.registerLifeCycleListener(this);
+            }
             InstrumentationManager im = bus.getExtension(InstrumentationManager.class);
             if (im != null) {
                 try {
@@ -78,8 +97,25 @@ public class MemoryIdentityCache extends AbstractIdentityCache {
         this.maxCacheItems = maxCacheItems;
     }
 
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    /**
+     * Set the name of the cache obtained from the Bus CacheManager. Identity caches configured
+     * with the same name share their entries.
+     */
+    public void setCacheName(String cacheName) {
+        this.cacheName = cacheName;
+    }
+
     @Override
     public void add(String user, String realm, Map<String, String> identities) {
+        Cache<String, Map<String, String>> c = getManagedCache();
+        if (c != null) {
+            c.put(user + '@' + realm, identities);
+            return;
+        }
         if (cache.size() >= maxCacheItems) {
             cache.clear();
         }
@@ -89,19 +125,76 @@ public class MemoryIdentityCache extends AbstractIdentityCache {
     @ManagedOperation()
     @Override
     public Map<String, String> get(String user, String realm) {
+        Cache<String, Map<String, String>> c = getManagedCache();
+        if (c != null) {
+            return c.get(user + '@' + realm);
+        }
         return cache.get(user + '@' + realm);
     }
 
     @Override
     public void remove(String user, String realm) {
+        Cache<String, Map<String, String>> c = getManagedCache();
+        if (c != null) {
+            c.remove(user + '@' + realm);
+            return;
+        }
         cache.remove(user + '@' + realm);
     }
 
     @ManagedOperation()
     public String getContent() {
+        Cache<String, Map<String, String>> c = getManagedCache();
+        if (c != null) {
+            Map<String, Map<String, String>> content = new HashMap<>();
+            c.forEach(content::put);
+            return content.toString();
+        }
         return this.cache.toString();
     }
 
+    private Cache<String, Map<String, String>> getManagedCache() {
+        if (cacheManager == null) {
+            return null;
+        }
+        Cache<String, Map<String, String>> c = managedCache;
+        if (c == null) {
+            synchronized (this) {
+                c = managedCache;
+                if (c == null) {
+                    // Identities are kept until they are evicted (no time to live), as with the default cache
+                    c = cacheManager.getCache(cacheName, new CacheConfiguration(0L, maxCacheItems));
+                    managedCache = c;
+                }
+            }
+        }
+        return c;
+    }
+
+    public synchronized void close() {
+        if (managedCache != null) {
+            cacheManager.removeCache(cacheName);
+            managedCache = null;
+        }
+        if (cacheManager != null && getBus() != null) {
+            BusLifeCycleManager lifeCycleManager = getBus().getExtension(BusLifeCycleManager.class);
+            if (lifeCycleManager != null) {
+                lifeCycleManager.unregisterLifeCycleListener(this);
+            }
+        }
+    }
+
+    public void initComplete() {
+    }
+
+    public void preShutdown() {
+        close();
+    }
+
+    public void postShutdown() {
+        close();
+    }
+
     public ObjectName getObjectName() throws JMException {
         StringBuilder buffer = new StringBuilder(128);
         buffer.append(ManagementConstants.DEFAULT_DOMAIN_NAME).append(':');
@@ -0,0 +1,178 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.sts.claims;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.cxf.rt.security.claims.Claim;
+import org.apache.cxf.rt.security.claims.ClaimCollection;
+
+/**
+ * A simple, bounded time-to-live cache of the claim values retrieved by the ClaimsHandlers.
+ * Entries are cached per realm, principal, roles, AppliesTo address and set of requested claims,
+ * so that repeated token requests for the same user do not hit the (e.g. LDAP) backends each time.
+ * When the cache is full the least recently used entry is evicted.
+ *
+ * Only ClaimsHandlers whose result depends on nothing but these values should be used with a
+ * ClaimsCache - handlers which also look at the message context or the additional properties of
+ * the ClaimsParameters would otherwise be served the claims retrieved for another request.
+ */
+public class ClaimsCache {
+
+    private final Map<Key, Entry> entries;
+    private final long timeToLive;
+    private final int maxEntries;
+
+    /**
+     * @param timeToLive the time (in milliseconds) a retrieved set of claims is kept
+     * @param maxEntries the maximum number of cached sets of claims
+     */
+    public ClaimsCache(long timeToLive, int maxEntries) {
+        this.timeToLive = timeToLive;
+        this.maxEntries = maxEntries;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > ClaimsCache.this.maxEntries;
+            }
+        });
+    }
+
+    public ProcessedClaimCollection get(ClaimCollection claims, ClaimsParameters parameters) {
+        Key key = createKey(claims, parameters);
+        if (key == null) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expires < System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return copy(entry.claims);
+    }
+
+    public void put(ClaimCollection claims, ClaimsParameters parameters, ProcessedClaimCollection values) {
+        Key key = createKey(claims, parameters);
+        if (key == null || values == null) {
+            return;
+        }
+        entries.put(key, new Entry(copy(values), System.currentTimeMillis() + timeToLive));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static Key createKey(ClaimCollection claims, ClaimsParameters parameters) {
+        if (parameters.getPrincipal() == null || parameters.getPrincipal().getName() == null) {
+            return null;
+        }
+        return new Key(parameters.getRealm(), parameters.getPrincipal().getName(), parameters.getRoles(),
+                       parameters.getAppliesToAddress(), claims);
+    }
+
+    private static ProcessedClaimCollection copy(ProcessedClaimCollection claims) {
+        ProcessedClaimCollection copy = new ProcessedClaimCollection();
+        for (ProcessedClaim claim : claims) {
+            copy.add(new ProcessedClaim(claim));
+        }
+        return copy;
+    }
+
+    private static final class Entry {
+        final ProcessedClaimCollection claims;
+        final long expires;
+
+        Entry(ProcessedClaimCollection claims, long expires) {
+            this.claims = claims;
+            this.expires = expires;
+        }
+    }
+
+    private static final class Key {
+        final String realm;
+        final String principal;
+        final Set<String> roles;
+        final String appliesTo;
+        final String dialect;
+        final List<Claim> claims;
+        final int hashCode;
+
+        Key(String realm, String principal, Set<Principal> roles, String appliesTo, ClaimCollection claims) {
+            this.realm = realm;
+            this.principal = principal;
+            this.roles = new TreeSet<>();
+            if (roles != null) {
+                for (Principal role : roles) {
+                    if (role.getName() != null) {
+                        this.roles.add(role.getName());
+                    }
+                }
+            }
+            this.appliesTo = appliesTo;
+            this.dialect = claims.getDialect() == null ? null : claims.getDialect().toString();
+            this.claims = new ArrayList<>(claims.size());
+            for (Claim claim : claims) {
+                this.claims.add(claim.clone());
+            }
+            this.hashCode = Objects.hash(realm, principal, this.roles, appliesTo, dialect, this.claims);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key)obj;
+            return hashCode == other.hashCode
+                && Objects.equals(realm, other.realm)
+                && principal.equals(other.principal)
+                && roles.equals(other.roles)
+                && Objects.equals(appliesTo, other.appliesTo)
+                && Objects.equals(dialect, other.dialect)
+                && claims.equals(other.claims);
+        }
+    }
+}
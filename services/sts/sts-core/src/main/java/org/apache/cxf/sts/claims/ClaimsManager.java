@@ -25,6 +25,9 @@ import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -54,6 +57,8 @@ public class ClaimsManager {
     private List<String> supportedClaimTypes = new ArrayList<>();
     private boolean stopProcessingOnException = true;
     private IdentityMapper identityMapper;
+    private Executor executor;
+    private ClaimsCache claimsCache;
 
 
     public IdentityMapper getIdentityMapper() {
@@ -64,6 +69,32 @@ public class ClaimsManager {
         this.identityMapper = identityMapper;
     }
 
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Set an Executor used to call the configured ClaimsHandlers concurrently. By default
+     * (no Executor) the ClaimsHandlers are called one after another on the calling thread.
+     * Each ClaimsHandler receives its own copy of the ClaimsParameters when called concurrently.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public ClaimsCache getClaimsCache() {
+        return claimsCache;
+    }
+
+    /**
+     * Set a cache for the claim values retrieved by the ClaimsHandlers. The retrieved values are
+     * cached per realm, principal, AppliesTo address and requested claims. Claims that are mapped
+     * from a federated realm are never cached. No caching is done by default.
+     */
+    public void setClaimsCache(ClaimsCache claimsCache) {
+        this.claimsCache = claimsCache;
+    }
+
     public boolean isStopProcessingOnException() {
         return stopProcessingOnException;
     }
@@ -146,8 +177,17 @@ public class ClaimsManager {
         if (relationship == null || relationship.getType().equals(Relationship.FED_TYPE_IDENTITY)) {
             // Federate identity. Identity already mapped.
             // Call all configured claims handlers to retrieve the required claims
-            ProcessedClaimCollection returnCollection = handleClaims(claims, parameters);
-            validateClaimValues(claims, returnCollection);
+            ProcessedClaimCollection returnCollection = null;
+            if (claimsCache != null) {
+                returnCollection = claimsCache.get(claims, parameters);
+            }
+            if (returnCollection == null) {
+                returnCollection = handleClaims(claims, parameters);
+                validateClaimValues(claims, returnCollection);
+                if (claimsCache != null) {
+                    claimsCache.put(claims, parameters, returnCollection);
+                }
+            }
             return returnCollection;
 
         }
@@ -183,8 +223,10 @@ public class ClaimsManager {
         if (claimHandlers == null) {
             return returnCollection;
         }
+        if (executor != null && claimHandlers.size() > 1) {
+            return handleClaimsConcurrently(claims, parameters);
+        }
 
-        Principal originalPrincipal = parameters.getPrincipal();
         for (ClaimsHandler handler : claimHandlers) {
 
             ClaimCollection supportedClaims =
@@ -193,31 +235,86 @@ public class ClaimsManager {
                 continue;
             }
 
-            if (isCurrentRealmSupported(handler, parameters)) {
-                ProcessedClaimCollection claimCollection = null;
-                try {
-                    claimCollection = handler.retrieveClaimValues(supportedClaims, parameters);
-                } catch (RuntimeException ex) {
-                    LOG.log(Level.INFO, "Failed retrieving claims from ClaimsHandler "
-                            + handler.getClass().getName(), ex);
-                    if (this.isStopProcessingOnException()) {
-                        throw ex;
-                    }
-                } finally {
-                    // set original principal again, otherwise wrong principal passed to next claim handler in the list
-                    // if no mapping required or wrong source principal used for next identity mapping
-                    parameters.setPrincipal(originalPrincipal);
-                }
+            ProcessedClaimCollection claimCollection = callHandler(handler, supportedClaims, parameters);
+            if (claimCollection != null && !claimCollection.isEmpty()) {
+                returnCollection.addAll(claimCollection);
+            }
+        }
 
-                if (claimCollection != null && !claimCollection.isEmpty()) {
-                    returnCollection.addAll(claimCollection);
-                }
+        return returnCollection;
+    }
+
+    private ProcessedClaimCollection handleClaimsConcurrently(ClaimCollection claims,
+                                                              ClaimsParameters parameters) {
+        List<CompletableFuture<ProcessedClaimCollection>> futures = new ArrayList<>(claimHandlers.size());
+        for (ClaimsHandler handler : claimHandlers) {
+            ClaimCollection supportedClaims =
+                filterHandlerClaims(claims, handler.getSupportedClaimTypes());
+            if (supportedClaims.isEmpty()) {
+                continue;
             }
+            ClaimsParameters handlerParameters = copyParameters(parameters);
+            futures.add(CompletableFuture.supplyAsync(
+                () -> callHandler(handler, supportedClaims, handlerParameters), executor));
         }
 
+        // Collect the results in the order of the configured handlers
+        ProcessedClaimCollection returnCollection = new ProcessedClaimCollection();
+        for (CompletableFuture<ProcessedClaimCollection> future : futures) {
+            ProcessedClaimCollection claimCollection = null;
+            try {
+                claimCollection = future.join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException)ex.getCause();
+                }
+                throw ex;
+            }
+            if (claimCollection != null && !claimCollection.isEmpty()) {
+                returnCollection.addAll(claimCollection);
+            }
+        }
         return returnCollection;
     }
 
+    private ProcessedClaimCollection callHandler(ClaimsHandler handler, ClaimCollection supportedClaims,
+                                                 ClaimsParameters parameters) {
+        Principal originalPrincipal = parameters.getPrincipal();
+        if (!isCurrentRealmSupported(handler, parameters)) {
+            return null;
+        }
+        try {
+            return handler.retrieveClaimValues(supportedClaims, parameters);
+        } catch (RuntimeException ex) {
+            LOG.log(Level.INFO, "Failed retrieving claims from ClaimsHandler "
+                    + handler.getClass().getName(), ex);
+            if (this.isStopProcessingOnException()) {
+                throw ex;
+            }
+        } finally {
+            // set original principal again, otherwise wrong principal passed to next claim handler in the list
+            // if no mapping required or wrong source principal used for next identity mapping
+            parameters.setPrincipal(originalPrincipal);
+        }
+        return null;
+    }
+
+    private static ClaimsParameters copyParameters(ClaimsParameters parameters) {
+        ClaimsParameters copy = new ClaimsParameters();
+        copy.setStsProperties(parameters.getStsProperties());
+        copy.setEncryptionProperties(parameters.getEncryptionProperties());
+        copy.setPrincipal(parameters.getPrincipal());
+        copy.setRoles(parameters.getRoles());
+        copy.setMessageContext(parameters.getMessageContext());
+        copy.setKeyRequirements(parameters.getKeyRequirements());
+        copy.setTokenRequirements(parameters.getTokenRequirements());
+        copy.setAppliesToAddress(parameters.getAppliesToAddress());
+        copy.setAdditionalProperties(parameters.getAdditionalProperties());
+        copy.setTokenStore(parameters.getTokenStore());
+        copy.setRealm(parameters.getRealm());
+        return copy;
+    }
+
     private boolean isCurrentRealmSupported(ClaimsHandler handler, ClaimsParameters parameters) {
         if (!(handler instanceof RealmSupport)) {
             return true;
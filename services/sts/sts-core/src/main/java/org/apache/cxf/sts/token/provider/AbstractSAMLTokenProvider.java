@@ -19,7 +19,10 @@
 
 package org.apache.cxf.sts.token.provider;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -41,6 +44,25 @@ public abstract class AbstractSAMLTokenProvider {
 
     private static final Logger LOG = LogUtils.getL7dLogger(AbstractSAMLTokenProvider.class);
 
+    private final Map<List<Object>, SigningCredentials> signingCredentials = new ConcurrentHashMap<>();
+    private boolean cacheSigningCredentials = true;
+
+    public boolean isCacheSigningCredentials() {
+        return cacheSigningCredentials;
+    }
+
+    /**
+     * Whether to cache the signing alias and password (and the private key) resolved for
+     * a given signature Crypto, CallbackHandler and alias, rather than resolving them again
+     * for each token that is signed. The default is true.
+     */
+    public void setCacheSigningCredentials(boolean cacheSigningCredentials) {
+        this.cacheSigningCredentials = cacheSigningCredentials;
+        if (!cacheSigningCredentials) {
+            signingCredentials.clear();
+        }
+    }
+
     protected void signToken(
         SamlAssertionWrapper assertion,
         RealmProperties samlRealm,
@@ -100,6 +122,29 @@ public abstract class AbstractSAMLTokenProvider {
             }
         }
 
+        SigningCredentials credentials = null;
+        if (cacheSigningCredentials) {
+            List<Object> key = Arrays.asList(signatureCrypto, callbackHandler, alias);
+            credentials = signingCredentials.get(key);
+            if (credentials == null) {
+                credentials = resolveSigningCredentials(signatureCrypto, callbackHandler, alias);
+                signingCredentials.put(key, credentials);
+            }
+        } else {
+            credentials = resolveSigningCredentials(signatureCrypto, callbackHandler, alias);
+        }
+
+        LOG.fine("Signing SAML Token");
+        boolean useKeyValue = signatureProperties.isUseKeyValue();
+        assertion.signAssertion(
+            credentials.alias, credentials.password, credentials.crypto, useKeyValue,
+            c14nAlgorithm, signatureAlgorithm, signatureProperties.getDigestAlgorithm()
+        );
+    }
+
+    private SigningCredentials resolveSigningCredentials(
+        Crypto signatureCrypto, CallbackHandler callbackHandler, String alias
+    ) throws Exception {
         // If alias not defined, get the default of the SignatureCrypto
         if ((alias == null || "".equals(alias)) && (signatureCrypto != null)) {
             alias = signatureCrypto.getDefaultX509Identifier();
@@ -115,13 +160,23 @@ public abstract class AbstractSAMLTokenProvider {
             callbackHandler.handle(cb);
             password = cb[0].getPassword();
         }
+        Crypto crypto = signatureCrypto;
+        if (cacheSigningCredentials && signatureCrypto != null) {
+            crypto = new SigningKeyCachingCrypto(signatureCrypto);
+        }
+        return new SigningCredentials(crypto, alias, password);
+    }
 
-        LOG.fine("Signing SAML Token");
-        boolean useKeyValue = signatureProperties.isUseKeyValue();
-        assertion.signAssertion(
-            alias, password, signatureCrypto, useKeyValue, c14nAlgorithm, signatureAlgorithm,
-            signatureProperties.getDigestAlgorithm()
-        );
+    private static final class SigningCredentials {
+        final Crypto crypto;
+        final String alias;
+        final String password;
+
+        SigningCredentials(Crypto crypto, String alias, String password) {
+            this.crypto = crypto;
+            this.alias = alias;
+            this.password = password;
+        }
     }
 
 
@@ -0,0 +1,191 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.sts.token.provider;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import javax.security.auth.callback.CallbackHandler;
+
+import org.apache.wss4j.common.crypto.Crypto;
+import org.apache.wss4j.common.crypto.CryptoType;
+import org.apache.wss4j.common.ext.WSSecurityException;
+
+/**
+ * A Crypto wrapper used when signing tokens, which caches the private keys and certificate
+ * chains looked up by alias, so that they are only loaded (and decrypted) from the keystore once.
+ * Private keys are cached per alias and (digested) password, so a lookup with a different
+ * password is always checked against the keystore. All other operations are delegated to the
+ * wrapped Crypto.
+ */
+class SigningKeyCachingCrypto implements Crypto {
+
+    private final Crypto delegate;
+    private final Map<String, PrivateKey> privateKeys = new ConcurrentHashMap<>();
+    private final Map<String, X509Certificate[]> certificates = new ConcurrentHashMap<>();
+
+    SigningKeyCachingCrypto(Crypto delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public PrivateKey getPrivateKey(String identifier, String password) throws WSSecurityException {
+        if (identifier == null) {
+            return delegate.getPrivateKey(identifier, password);
+        }
+        String cacheKey = identifier + ':' + digest(password);
+        PrivateKey key = privateKeys.get(cacheKey);
+        if (key == null) {
+            key = delegate.getPrivateKey(identifier, password);
+            if (key != null) {
+                privateKeys.put(cacheKey, key);
+            }
+        }
+        return key;
+    }
+
+    private static String digest(String password) {
+        if (password == null) {
+            return "";
+        }
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(md.digest(password.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Override
+    public X509Certificate[] getX509Certificates(CryptoType cryptoType) throws WSSecurityException {
+        if (cryptoType == null || cryptoType.getType() != CryptoType.TYPE.ALIAS
+            || cryptoType.getAlias() == null) {
+            return delegate.getX509Certificates(cryptoType);
+        }
+        X509Certificate[] certs = certificates.get(cryptoType.getAlias());
+        if (certs == null) {
+            certs = delegate.getX509Certificates(cryptoType);
+            if (certs != null) {
+                certificates.put(cryptoType.getAlias(), certs);
+            }
+        }
+        return certs == null ? null : certs.clone();
+    }
+
+    @Override
+    public String getCryptoProvider() {
+        return delegate.getCryptoProvider();
+    }
+
+    @Override
+    public void setCryptoProvider(String provider) {
+        delegate.setCryptoProvider(provider);
+    }
+
+    @Override
+    public String getTrustProvider() {
+        return delegate.getTrustProvider();
+    }
+
+    @Override
+    public void setTrustProvider(String provider) {
+        delegate.setTrustProvider(provider);
+    }
+
+    @Override
+    public String getDefaultX509Identifier() throws WSSecurityException {
+        return delegate.getDefaultX509Identifier();
+    }
+
+    @Override
+    public void setDefaultX509Identifier(String identifier) {
+        delegate.setDefaultX509Identifier(identifier);
+    }
+
+    @Override
+    public void setCertificateFactory(CertificateFactory certFactory) {
+        delegate.setCertificateFactory(certFactory);
+    }
+
+    @Override
+    public CertificateFactory getCertificateFactory() throws WSSecurityException {
+        return delegate.getCertificateFactory();
+    }
+
+    @Override
+    public X509Certificate loadCertificate(InputStream in) throws WSSecurityException {
+        return delegate.loadCertificate(in);
+    }
+
+    @Override
+    public byte[] getSKIBytesFromCert(X509Certificate cert) throws WSSecurityException {
+        return delegate.getSKIBytesFromCert(cert);
+    }
+
+    @Override
+    public byte[] getBytesFromCertificates(X509Certificate[] certs) throws WSSecurityException {
+        return delegate.getBytesFromCertificates(certs);
+    }
+
+    @Override
+    public X509Certificate[] getCertificatesFromBytes(byte[] data) throws WSSecurityException {
+        return delegate.getCertificatesFromBytes(data);
+    }
+
+    @Override
+    public String getX509Identifier(X509Certificate cert) throws WSSecurityException {
+        return delegate.getX509Identifier(cert);
+    }
+
+    @Override
+    public PrivateKey getPrivateKey(X509Certificate certificate, CallbackHandler callbackHandler)
+        throws WSSecurityException {
+        return delegate.getPrivateKey(certificate, callbackHandler);
+    }
+
+    @Override
+    public PrivateKey getPrivateKey(PublicKey publicKey, CallbackHandler callbackHandler)
+        throws WSSecurityException {
+        return delegate.getPrivateKey(publicKey, callbackHandler);
+    }
+
+    @Override
+    public void verifyTrust(X509Certificate[] certs, boolean enableRevocation,
+                            Collection<Pattern> subjectCertConstraints,
+                            Collection<Pattern> issuerCertConstraints) throws WSSecurityException {
+        delegate.verifyTrust(certs, enableRevocation, subjectCertConstraints, issuerCertConstraints);
+    }
+
+    @Override
+    public void verifyTrust(PublicKey publicKey) throws WSSecurityException {
+        delegate.verifyTrust(publicKey);
+    }
+}
@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.sts.cache;
+
+import java.util.Collections;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.bus.extension.ExtensionManagerBus;
+import org.apache.cxf.bus.managers.CacheManagerImpl;
+import org.apache.cxf.cache.CacheManager;
+import org.apache.cxf.sts.IdentityMapper;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class CacheManagerIdentityCacheTest extends MemoryIdentityCacheTest {
+
+    @Override
+    protected AbstractIdentityCache getIdentityCache(IdentityMapper mapper) {
+        Bus bus = new ExtensionManagerBus();
+        new CacheManagerImpl(bus);
+        return new MemoryIdentityCache(bus, mapper);
+    }
+
+    @Test
+    public void testNamedCacheSharedAndRemovedOnClose() throws Exception {
+        Bus bus = new ExtensionManagerBus();
+        CacheManager cacheManager = new CacheManagerImpl(bus);
+        MemoryIdentityCache cache1 = new MemoryIdentityCache(bus, new CacheIdentityMapper());
+        MemoryIdentityCache cache2 = new MemoryIdentityCache(bus, new CacheIdentityMapper());
+
+        cache1.add("alice", "REALM_A", Collections.singletonMap("REALM_A", "alice"));
+        assertNotNull(cache2.get("alice", "REALM_A"));
+        assertEquals(1L, cacheManager.getCache(MemoryIdentityCache.DEFAULT_CACHE_NAME, null).size());
+
+        cache1.close();
+        assertEquals(0L, cacheManager.getCache(MemoryIdentityCache.DEFAULT_CACHE_NAME, null).size());
+        bus.shutdown(true);
+    }
+
+}
@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.cxf.sts.claims;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.cxf.rt.security.claims.Claim;
+import org.apache.cxf.rt.security.claims.ClaimCollection;
+import org.apache.cxf.sts.common.RealmSupportClaimsHandler;
+import org.apache.cxf.sts.operation.CustomIdentityMapper;
+import org.apache.wss4j.common.principal.CustomTokenPrincipal;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class ClaimsManagerTest {
+
+    @Test
+    public void testConcurrentClaimsHandlers() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            ClaimsManager claimsManager = new ClaimsManager();
+            claimsManager.setIdentityMapper(new CustomIdentityMapper());
+            claimsManager.setExecutor(executor);
+            claimsManager.setClaimHandlers(Arrays.asList(
+                createHandler("A", "Claim-A"),
+                createHandler("B", "Claim-B"),
+                createHandler("B", "Claim-C")));
+
+            ClaimsParameters parameters = new ClaimsParameters();
+            parameters.setRealm("A");
+            parameters.setPrincipal(new CustomTokenPrincipal("alice"));
+            ProcessedClaimCollection claims =
+                claimsManager.retrieveClaimValues(createClaimCollection(), parameters);
+
+            assertEquals(3, claims.size());
+            // Results are returned in the order of the configured handlers
+            assertEquals("Claim-A", claims.get(0).getClaimType());
+            assertEquals("Claim-B", claims.get(1).getClaimType());
+            assertEquals("Claim-C", claims.get(2).getClaimType());
+            // The identity mapping done for realm B must not leak into the caller's parameters
+            assertEquals("alice", parameters.getPrincipal().getName());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testClaimsCache() throws Exception {
+        AtomicInteger count = new AtomicInteger();
+        ClaimsHandler handler = new ClaimsHandler() {
+            public List<String> getSupportedClaimTypes() {
+                return Arrays.asList("Claim-A", "Claim-B", "Claim-C");
+            }
+
+            public ProcessedClaimCollection retrieveClaimValues(ClaimCollection claims,
+                                                                ClaimsParameters parameters) {
+                count.incrementAndGet();
+                ProcessedClaimCollection claimCollection = new ProcessedClaimCollection();
+                for (Claim requestClaim : claims) {
+                    ProcessedClaim claim = new ProcessedClaim();
+                    claim.setClaimType(requestClaim.getClaimType());
+                    claim.addValue(parameters.getPrincipal().getName());
+                    claimCollection.add(claim);
+                }
+                return claimCollection;
+            }
+        };
+
+        ClaimsManager claimsManager = new ClaimsManager();
+        claimsManager.setClaimHandlers(Collections.singletonList(handler));
+        claimsManager.setClaimsCache(new ClaimsCache(60000L, 100));
+
+        ProcessedClaimCollection claims =
+            claimsManager.retrieveClaimValues(createClaimCollection(), createParameters("alice"));
+        assertEquals(3, claims.size());
+        claims.clear();
+
+        claims = claimsManager.retrieveClaimValues(createClaimCollection(), createParameters("alice"));
+        assertEquals(3, claims.size());
+        assertEquals(1, count.get());
+
+        claims = claimsManager.retrieveClaimValues(createClaimCollection(), createParameters("bob"));
+        assertEquals("bob", claims.get(0).getValues().get(0));
+        assertEquals(2, count.get());
+    }
+
+    @Test
+    public void testClaimsCacheEviction() throws Exception {
+        ClaimsCache cache = new ClaimsCache(60000L, 2);
+        ProcessedClaimCollection values = new ProcessedClaimCollection();
+        cache.put(createClaimCollection(), createParameters("alice"), values);
+        cache.put(createClaimCollection(), createParameters("bob"), values);
+        // touch alice so that bob is the least recently used entry
+        assertNotNull(cache.get(createClaimCollection(), createParameters("alice")));
+        cache.put(createClaimCollection(), createParameters("carol"), values);
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(createClaimCollection(), createParameters("alice")));
+        assertNull(cache.get(createClaimCollection(), createParameters("bob")));
+        assertNotNull(cache.get(createClaimCollection(), createParameters("carol")));
+    }
+
+    @Test
+    public void testClaimsCacheKeyedOnRoles() throws Exception {
+        ClaimsCache cache = new ClaimsCache(60000L, 10);
+        ClaimsParameters admin = createParameters("alice");
+        admin.setRoles(Collections.singleton(new CustomTokenPrincipal("admin")));
+        cache.put(createClaimCollection(), admin, new ProcessedClaimCollection());
+
+        assertNull(cache.get(createClaimCollection(), createParameters("alice")));
+        ClaimsParameters sameRoles = createParameters("alice");
+        sameRoles.setRoles(Collections.singleton(new CustomTokenPrincipal("admin")));
+        assertNotNull(cache.get(createClaimCollection(), sameRoles));
+    }
+
+    private static ClaimsParameters createParameters(String user) {
+        ClaimsParameters parameters = new ClaimsParameters();
+        parameters.setRealm("A");
+        parameters.setPrincipal(new CustomTokenPrincipal(user));
+        return parameters;
+    }
+
+    private static RealmSupportClaimsHandler createHandler(String realm, String claimType) {
+        RealmSupportClaimsHandler handler = new RealmSupportClaimsHandler();
+        handler.setRealm(realm);
+        handler.setSupportedClaimTypes(Collections.singletonList(claimType));
+        return handler;
+    }
+
+    private static ClaimCollection createClaimCollection() {
+        ClaimCollection requestedClaims = new ClaimCollection();
+        for (String claimType : Arrays.asList("Claim-A", "Claim-B", "Claim-C")) {
+            Claim requestClaim = new Claim();
+            requestClaim.setClaimType(URI.create(claimType));
+            requestedClaims.add(requestClaim);
+        }
+        return requestedClaims;
+    }
+}
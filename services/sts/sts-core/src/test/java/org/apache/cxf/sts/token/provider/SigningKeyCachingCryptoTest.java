@@ -0,0 +1,68 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.cxf.sts.token.provider;
+
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.wss4j.common.crypto.Crypto;
+import org.apache.wss4j.common.crypto.Merlin;
+import org.apache.wss4j.common.ext.WSSecurityException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class SigningKeyCachingCryptoTest {
+
+    @Test
+    public void testPrivateKeyCachedPerPassword() throws Exception {
+        PrivateKey privateKey = KeyPairGenerator.getInstance("RSA").generateKeyPair().getPrivate();
+        AtomicInteger lookups = new AtomicInteger();
+        Crypto delegate = new Merlin() {
+            @Override
+            public PrivateKey getPrivateKey(String identifier, String password) throws WSSecurityException {
+                lookups.incrementAndGet();
+                if (!"stskpass".equals(password)) {
+                    throw new WSSecurityException(WSSecurityException.ErrorCode.FAILED_SIGNATURE);
+                }
+                return privateKey;
+            }
+        };
+        Crypto crypto = new SigningKeyCachingCrypto(delegate);
+
+        PrivateKey key = crypto.getPrivateKey("mystskey", "stskpass");
+        assertNotNull(key);
+        assertSame(key, crypto.getPrivateKey("mystskey", "stskpass"));
+        assertEquals(1, lookups.get());
+
+        try {
+            crypto.getPrivateKey("mystskey", "wrongpass");
+            fail("A cached key must not be returned for a wrong password");
+        } catch (WSSecurityException ex) {
+            // expected
+        }
+        assertEquals(2, lookups.get());
+    }
+}